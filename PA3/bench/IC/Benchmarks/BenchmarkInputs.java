@@ -0,0 +1,109 @@
+package IC.Benchmarks;
+
+import IC.AST.ICClass;
+import IC.AST.Program;
+import IC.Generator.ProgramGenerator;
+import IC.LibrarySnapshot;
+import IC.Parser.LibParser;
+import IC.Parser.Lexer;
+import IC.Parser.Parser;
+import IC.Semantic.SymbolTableBuilder;
+import IC.Symbols.NameTable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * loads the programs the benchmarks run on, and runs the phases before the one
+ * being measured
+ */
+final class BenchmarkInputs {
+    /**
+     * the sample programs, relative to the working directory (the project directory)
+     */
+    static final String TEST_DIR = "test";
+    static final String LIBRARY_FILE = TEST_DIR + "/libic.sig";
+    static final String PROGRAM_NAME = "benchmark.ic";
+    /**
+     * prefix of generated programs, followed by ProgramGenerator parameters
+     * separated by commas, e.g. "generated:classes=1000,depth=10"
+     */
+    static final String GENERATED_PREFIX = "generated:";
+    /**
+     * programs per measured call of a benchmark that consumes its input, e.g. by
+     * annotating the AST: a fresh batch is built before every call, and the call
+     * runs the phase on all of it, so it takes long enough that the overhead of a
+     * Level.Invocation setup doesn't distort its time.
+     * The largest generated programs take about 90MB each, see BATCH_HEAP.
+     */
+    static final int BATCH_SIZE = 16;
+    /**
+     * JVM args of the forks of batched benchmarks
+     */
+    static final String BATCH_HEAP = "-Xmx3g";
+
+    private BenchmarkInputs() {
+    }
+
+    /**
+     * @param name file name of a program under test/, or GENERATED_PREFIX and the
+     *             parameters of a generated program
+     * @return the program source
+     */
+    static byte[] loadProgram(String name) throws IOException {
+        if (name.startsWith(GENERATED_PREFIX)) {
+            String parameters = name.substring(GENERATED_PREFIX.length());
+            return ProgramGenerator.fromParameters(parameters.split(",")).generate().getBytes(StandardCharsets.US_ASCII);
+        }
+        return Files.readAllBytes(Paths.get(TEST_DIR, name));
+    }
+
+    static LibrarySnapshot loadLibrary() throws Exception {
+        Lexer lexer = Lexer.fromFile(LIBRARY_FILE);
+        return LibrarySnapshot.create((ICClass) new LibParser(lexer).parse().value);
+    }
+
+    static Lexer newLexer(byte[] source) {
+        return new Lexer(ByteBuffer.wrap(source));
+    }
+
+    static Program parse(byte[] source) throws Exception {
+        return (Program) new Parser(newLexer(source)).parse().value;
+    }
+
+    /**
+     * @param names a new table for the names of the program, as CompilationSession
+     *              creates for every compilation
+     * @return the program with the Library class, ready for a SymbolTableBuilder
+     * from newSymbolTableBuilder with the same names
+     */
+    static Program parseWithLibrary(byte[] source, LibrarySnapshot library, NameTable names) throws Exception {
+        ICClass libraryClass = library.createLibraryClass(names);
+        Lexer lexer = newLexer(source);
+        lexer.setNameTable(names);
+        Program program = (Program) new Parser(lexer).parse().value;
+        program.getClasses().add(0, libraryClass);
+        return program;
+    }
+
+    static SymbolTableBuilder newSymbolTableBuilder(LibrarySnapshot library, NameTable names) {
+        return new SymbolTableBuilder(PROGRAM_NAME, library.createTypeTableSeed(names));
+    }
+
+    /**
+     * @return the program with the Library class and its symbol tables built
+     */
+    static Program buildSymbolTables(byte[] source, LibrarySnapshot library) throws Exception {
+        NameTable names = new NameTable();
+        Program program = parseWithLibrary(source, library, names);
+        SymbolTableBuilder builder = newSymbolTableBuilder(library, names);
+        builder.visit(program);
+        if (!builder.getErrors().isEmpty()) {
+            throw new IllegalStateException("Benchmark input has semantic errors: " + builder.getErrors().get(0));
+        }
+        return program;
+    }
+}
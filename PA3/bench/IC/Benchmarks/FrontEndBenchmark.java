@@ -0,0 +1,48 @@
+package IC.Benchmarks;
+
+import IC.AST.Program;
+import IC.Parser.Lexer;
+import IC.Parser.Token;
+import IC.Parser.sym;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lexer.next_token and Parser.parse throughput, on a source that is already in
+ * memory
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrontEndBenchmark {
+    @Param({"Quicksort.ic", "example1.ic", "example2.ic",
+        "generated:classes=100", "generated:classes=1000", "generated:classes=100,depth=50,method-size=200"})
+    public String program;
+
+    private byte[] source;
+
+    @Setup
+    public void setup() throws Exception {
+        source = BenchmarkInputs.loadProgram(program);
+    }
+
+    @Benchmark
+    public void lex(Blackhole blackhole) throws Exception {
+        Lexer lexer = BenchmarkInputs.newLexer(source);
+        Token token;
+        do {
+            token = lexer.next_token();
+            blackhole.consume(token);
+        } while (token.sym != sym.EOF);
+    }
+
+    @Benchmark
+    public Program parse() throws Exception {
+        return BenchmarkInputs.parse(source);
+    }
+}
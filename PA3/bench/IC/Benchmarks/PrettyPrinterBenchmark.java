@@ -0,0 +1,39 @@
+package IC.Benchmarks;
+
+import IC.AST.PrettyPrinter;
+import IC.AST.Program;
+import IC.LibrarySnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PrettyPrinter throughput, on a program with its symbol tables built.
+ * Only example2.ic: PrettyPrinter doesn't set the scope of call arguments yet, so
+ * it fails on the other samples and on generated programs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrettyPrinterBenchmark {
+    @Param({"example2.ic"})
+    public String program;
+
+    private Program ast;
+
+    @Setup
+    public void setup() throws Exception {
+        LibrarySnapshot library = BenchmarkInputs.loadLibrary();
+        ast = BenchmarkInputs.buildSymbolTables(BenchmarkInputs.loadProgram(program), library);
+    }
+
+    @Benchmark
+    public Object prettyPrint() {
+        PrettyPrinter printer = new PrettyPrinter(program);
+        printer.isEnabledASTLibraryPrinting(false);
+        return ast.accept(printer);
+    }
+}
@@ -0,0 +1,96 @@
+package IC.Benchmarks;
+
+import IC.AST.Program;
+import IC.LibrarySnapshot;
+import IC.Semantic.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of every semantic check, alone, and of the single pass SemanticChecker,
+ * in programs. Some checks annotate or change the AST (TypeChecker grows the
+ * dimension of NewArray types), so every call gets a batch of freshly parsed
+ * programs with their symbol tables (see BATCH_SIZE), and checks all of them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkInputs.BATCH_HEAP)
+public class SemanticCheckBenchmark {
+    @Param({"Quicksort.ic", "example1.ic", "example2.ic",
+        "generated:classes=100", "generated:classes=1000", "generated:classes=100,depth=50,method-size=200"})
+    public String program;
+
+    private byte[] source;
+    private LibrarySnapshot library;
+    private final Program[] asts = new Program[BenchmarkInputs.BATCH_SIZE];
+
+    @Setup(Level.Trial)
+    public void load() throws Exception {
+        source = BenchmarkInputs.loadProgram(program);
+        library = BenchmarkInputs.loadLibrary();
+    }
+
+    @Setup(Level.Invocation)
+    public void buildSymbolTables() throws Exception {
+        for (int i = 0; i < asts.length; i++) {
+            // The previous batch can be collected before the next one is built.
+            asts[i] = null;
+        }
+        for (int i = 0; i < asts.length; i++) {
+            asts[i] = BenchmarkInputs.buildSymbolTables(source, library);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.BATCH_SIZE)
+    public void scopeChecker(Blackhole blackhole) {
+        for (Program ast : asts) {
+            ScopeChecker checker = new ScopeChecker();
+            checker.visit(ast);
+            blackhole.consume(checker.getErrors());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.BATCH_SIZE)
+    public void typeChecker(Blackhole blackhole) {
+        for (Program ast : asts) {
+            TypeChecker checker = new TypeChecker();
+            checker.visit(ast, new TypeCheckingContext());
+            blackhole.consume(checker.getErrors());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.BATCH_SIZE)
+    public void mainFunctionValidator(Blackhole blackhole) {
+        for (Program ast : asts) {
+            blackhole.consume(new MainFunctionValidator().visit(ast));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.BATCH_SIZE)
+    public void breakContinueValidator(Blackhole blackhole) {
+        for (Program ast : asts) {
+            BreakContinueValidator validator = new BreakContinueValidator();
+            validator.visit(ast);
+            blackhole.consume(validator.getErrors());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.BATCH_SIZE)
+    public void semanticChecker(Blackhole blackhole) {
+        for (Program ast : asts) {
+            SemanticChecker checker = new SemanticChecker();
+            checker.visit(ast, new TypeCheckingContext());
+            blackhole.consume(checker.getErrors());
+        }
+    }
+}
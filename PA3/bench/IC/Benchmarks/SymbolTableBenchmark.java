@@ -0,0 +1,57 @@
+package IC.Benchmarks;
+
+import IC.AST.Program;
+import IC.LibrarySnapshot;
+import IC.Symbols.NameTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SymbolTableBuilder.visit throughput, in programs. The builder annotates the AST,
+ * so every call gets a batch of freshly parsed programs (see BATCH_SIZE), and
+ * builds the symbol tables of all of them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkInputs.BATCH_HEAP)
+public class SymbolTableBenchmark {
+    @Param({"Quicksort.ic", "example1.ic", "example2.ic",
+        "generated:classes=100", "generated:classes=1000", "generated:classes=100,depth=50,method-size=200"})
+    public String program;
+
+    private byte[] source;
+    private LibrarySnapshot library;
+    private final NameTable[] names = new NameTable[BenchmarkInputs.BATCH_SIZE];
+    private final Program[] asts = new Program[BenchmarkInputs.BATCH_SIZE];
+
+    @Setup(Level.Trial)
+    public void load() throws Exception {
+        source = BenchmarkInputs.loadProgram(program);
+        library = BenchmarkInputs.loadLibrary();
+    }
+
+    @Setup(Level.Invocation)
+    public void parse() throws Exception {
+        for (int i = 0; i < asts.length; i++) {
+            // The previous batch can be collected before the next one is parsed.
+            asts[i] = null;
+        }
+        for (int i = 0; i < asts.length; i++) {
+            names[i] = new NameTable();
+            asts[i] = BenchmarkInputs.parseWithLibrary(source, library, names[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkInputs.BATCH_SIZE)
+    public void buildSymbolTables(Blackhole blackhole) {
+        for (int i = 0; i < asts.length; i++) {
+            blackhole.consume(BenchmarkInputs.newSymbolTableBuilder(library, names[i]).visit(asts[i]));
+        }
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * The runtime of IC programs compiled to x86-64 assembly (IC.X86): the methods
+ * of the Library class (libic.sig), allocation, the runtime errors, and main.
+ * Link it with the assembly of a program:
+ *
+ *     java IC.Compiler prog.ic -Llibic.sig -O -asm=prog.s
+ *     gcc -O2 prog.s runtime/libic.c -o prog
+ *
+ * Ints and booleans are 32 bit ints, booleans 1 or 0. A string is a pointer to
+ * its length followed by its chars, an array a pointer to its length followed
+ * by its elements, 4 bytes each for ints and booleans and 8 for references, and
+ * an object a pointer to its dispatch table followed by a slot of 8 bytes per
+ * field. Memory is never freed.
+ */
+#include <limits.h>
+#include <pthread.h>
+#include <signal.h>
+#include <stdint.h>
+#include <stdio.h>
+#include <stdlib.h>
+#include <string.h>
+#include <sys/time.h>
+#include <unistd.h>
+
+typedef struct {
+    int64_t length;
+    char chars[];
+} ic_string;
+
+typedef struct {
+    int64_t length;
+    int32_t elements[];
+} ic_int_array;
+
+typedef struct {
+    int64_t length;
+    void *elements[];
+} ic_reference_array;
+
+/* The main method of the program, which the assembly defines. */
+extern void ic_main(ic_reference_array *args);
+
+#define STACK_SIZE (1L << 30)
+#define CHUNK_SIZE (1L << 20)
+#define OUTPUT_BUFFER_SIZE (1 << 16)
+
+static char *chunk = NULL;
+static size_t chunk_left = 0;
+static struct timeval start_time;
+static char output_buffer[OUTPUT_BUFFER_SIZE];
+
+static void fail(const char *message) __attribute__((noreturn));
+
+static void fail(const char *message) {
+    fflush(stdout);
+    fprintf(stderr, "%s\n", message);
+    exit(1);
+}
+
+void ic_error_null(void) {
+    fail("Runtime Error: Null pointer dereference!");
+}
+
+void ic_error_index(void) {
+    fail("Runtime Error: Array index out of bounds!");
+}
+
+void ic_error_size(void) {
+    fail("Runtime Error: Array allocation with negative array size!");
+}
+
+void ic_error_zero(void) {
+    fail("Runtime Error: Division by zero!");
+}
+
+/* Returns size bytes of zeroed memory, aligned to 8 bytes, from a chunk. */
+static void *allocate(size_t size) {
+    size = (size + 7) & ~(size_t) 7;
+    if (size > CHUNK_SIZE / 4) {
+        void *block = calloc(1, size);
+        if (block == NULL) {
+            fail("Runtime Error: Out of memory!");
+        }
+        return block;
+    }
+    if (size > chunk_left) {
+        chunk = calloc(1, CHUNK_SIZE);
+        if (chunk == NULL) {
+            fail("Runtime Error: Out of memory!");
+        }
+        chunk_left = CHUNK_SIZE;
+    }
+    void *block = chunk;
+    chunk += size;
+    chunk_left -= size;
+    return block;
+}
+
+void *ic_alloc_object(int64_t size, void *dispatch_table) {
+    void **object = allocate(size);
+    object[0] = dispatch_table;
+    return object;
+}
+
+/* The length was checked to be at least 0. */
+void *ic_alloc_array(int32_t length, int32_t element_size) {
+    int64_t *array = allocate(sizeof(int64_t) + (size_t) length * element_size);
+    array[0] = length;
+    return array;
+}
+
+static ic_string *new_string(const char *chars, size_t length) {
+    ic_string *s = allocate(sizeof(ic_string) + length);
+    s->length = length;
+    memcpy(s->chars, chars, length);
+    return s;
+}
+
+static ic_string null_string = {4, "null"};
+
+/* Concatenates as Java does, with "null" for a null string. */
+ic_string *ic_concat(ic_string *first, ic_string *second) {
+    if (first == NULL) {
+        first = &null_string;
+    }
+    if (second == NULL) {
+        second = &null_string;
+    }
+    ic_string *s = allocate(sizeof(ic_string) + first->length + second->length);
+    s->length = first->length + second->length;
+    memcpy(s->chars, first->chars, first->length);
+    memcpy(s->chars + first->length, second->chars, second->length);
+    return s;
+}
+
+void ic_print(ic_string *s) {
+    if (s == NULL) {
+        fputs("null", stdout);
+    } else {
+        fwrite(s->chars, 1, s->length, stdout);
+    }
+}
+
+void ic_println(ic_string *s) {
+    ic_print(s);
+    putchar('\n');
+}
+
+void ic_printi(int32_t i) {
+    printf("%d", i);
+}
+
+void ic_printb(int32_t b) {
+    fputs(b ? "true" : "false", stdout);
+}
+
+/* Reads an integer like scanf("%d"), or returns 0 if the input doesn't start with one. */
+int32_t ic_readi(void) {
+    int c;
+    do {
+        c = getchar();
+    } while (c != EOF && (c == ' ' || (c >= '\t' && c <= '\r')));
+    int negative = 0;
+    if (c == '-' || c == '+') {
+        negative = c == '-';
+        c = getchar();
+    }
+    uint32_t value = 0;
+    while (c >= '0' && c <= '9') {
+        value = value * 10 + (uint32_t) (c - '0');
+        c = getchar();
+    }
+    if (c != EOF) {
+        ungetc(c, stdin);
+    }
+    return (int32_t) (negative ? -value : value);
+}
+
+/* Returns the rest of the line without its end, or null at the end of the input. */
+ic_string *ic_readln(void) {
+    int c = getchar();
+    if (c == EOF) {
+        return NULL;
+    }
+    size_t capacity = 64;
+    size_t length = 0;
+    char *line = malloc(capacity);
+    while (c != EOF && c != '\n') {
+        if (length == capacity) {
+            capacity *= 2;
+            line = realloc(line, capacity);
+        }
+        line[length++] = (char) c;
+        c = getchar();
+    }
+    if (length > 0 && line[length - 1] == '\r') {
+        length--;
+    }
+    ic_string *s = new_string(line, length);
+    free(line);
+    return s;
+}
+
+int32_t ic_eof(void) {
+    int c = getchar();
+    if (c == EOF) {
+        return 1;
+    }
+    ungetc(c, stdin);
+    return 0;
+}
+
+/* Returns the int s is, with an optional sign and nothing else, or n. */
+int32_t ic_stoi(ic_string *s, int32_t n) {
+    if (s == NULL || s->length == 0) {
+        return n;
+    }
+    int64_t i = 0;
+    int negative = s->chars[0] == '-';
+    if (negative || s->chars[0] == '+') {
+        i = 1;
+        if (s->length == 1) {
+            return n;
+        }
+    }
+    int64_t value = 0;
+    for (; i < s->length; i++) {
+        char c = s->chars[i];
+        if (c < '0' || c > '9') {
+            return n;
+        }
+        value = value * 10 + (c - '0');
+        if (value > (int64_t) INT_MAX + 1) {
+            return n;
+        }
+    }
+    if (negative) {
+        value = -value;
+    }
+    return value < INT_MIN || value > INT_MAX ? n : (int32_t) value;
+}
+
+ic_string *ic_itos(int32_t i) {
+    char chars[16];
+    int length = snprintf(chars, sizeof chars, "%d", i);
+    return new_string(chars, length);
+}
+
+ic_int_array *ic_stoa(ic_string *s) {
+    if (s == NULL) {
+        ic_error_null();
+    }
+    ic_int_array *a = ic_alloc_array((int32_t) s->length, sizeof(int32_t));
+    for (int64_t i = 0; i < s->length; i++) {
+        a->elements[i] = (unsigned char) s->chars[i];
+    }
+    return a;
+}
+
+ic_string *ic_atos(ic_int_array *a) {
+    if (a == NULL) {
+        ic_error_null();
+    }
+    ic_string *s = allocate(sizeof(ic_string) + a->length);
+    s->length = a->length;
+    for (int64_t i = 0; i < a->length; i++) {
+        s->chars[i] = (char) a->elements[i];
+    }
+    return s;
+}
+
+/* Returns rand() % n. */
+int32_t ic_random(int32_t n) {
+    if (n == 0) {
+        ic_error_zero();
+    }
+    return (int32_t) (random() % n);
+}
+
+int32_t ic_time(void) {
+    struct timeval now;
+    gettimeofday(&now, NULL);
+    return (int32_t) ((now.tv_sec - start_time.tv_sec) * 1000 + (now.tv_usec - start_time.tv_usec) / 1000);
+}
+
+int32_t ic_exit(int32_t i) {
+    fflush(stdout);
+    exit(i);
+}
+
+/* Reports a segmentation fault, which only a stack overflow causes, as the checks catch the rest. */
+static void on_overflow(int signal) {
+    (void) signal;
+    static const char message[] = "Runtime Error: Stack overflow!\n";
+    fflush(stdout);
+    ssize_t written = write(STDERR_FILENO, message, sizeof message - 1);
+    (void) written;
+    _exit(1);
+}
+
+static void *run_main(void *args) {
+    stack_t signal_stack;
+    signal_stack.ss_sp = malloc(SIGSTKSZ);
+    signal_stack.ss_size = SIGSTKSZ;
+    signal_stack.ss_flags = 0;
+    sigaltstack(&signal_stack, NULL);
+    struct sigaction action;
+    memset(&action, 0, sizeof action);
+    action.sa_handler = on_overflow;
+    action.sa_flags = SA_ONSTACK;
+    sigaction(SIGSEGV, &action, NULL);
+
+    ic_main(args);
+    return NULL;
+}
+
+/* Runs the main method of the program on a thread with a stack large enough for deep recursion. */
+int main(int argc, char **argv) {
+    gettimeofday(&start_time, NULL);
+    srandom((unsigned) start_time.tv_usec);
+    setvbuf(stdout, output_buffer, _IOFBF, sizeof output_buffer);
+
+    ic_reference_array *args = ic_alloc_array(argc - 1, sizeof(void *));
+    for (int i = 1; i < argc; i++) {
+        args->elements[i - 1] = new_string(argv[i], strlen(argv[i]));
+    }
+
+    pthread_attr_t attributes;
+    pthread_attr_init(&attributes);
+    pthread_attr_setstacksize(&attributes, STACK_SIZE);
+    pthread_t thread;
+    if (pthread_create(&thread, &attributes, run_main, args) != 0) {
+        run_main(args);
+    } else {
+        pthread_join(thread, NULL);
+    }
+    fflush(stdout);
+    return 0;
+}
@@ -37,7 +37,15 @@ public class ArrayLocation extends Location {
 		return array;
 	}
 
+    public void setArray(Expression array) {
+        this.array = array;
+    }
+
 	public Expression getIndex() {
 		return index;
 	}
+
+    public void setIndex(Expression index) {
+        this.index = index;
+    }
 }
\ No newline at end of file
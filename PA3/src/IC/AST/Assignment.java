@@ -41,4 +41,8 @@ public class Assignment extends Statement {
 		return assignment;
 	}
 
+    public void setAssignment(Expression assignment) {
+        this.assignment = assignment;
+    }
+
 }
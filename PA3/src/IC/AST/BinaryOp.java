@@ -40,8 +40,16 @@ public abstract class BinaryOp extends Expression {
 		return operand1;
 	}
 
+    public void setFirstOperand(Expression operand1) {
+        this.operand1 = operand1;
+    }
+
 	public Expression getSecondOperand() {
 		return operand2;
 	}
 
+    public void setSecondOperand(Expression operand2) {
+        this.operand2 = operand2;
+    }
+
 }
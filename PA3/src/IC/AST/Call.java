@@ -1,5 +1,8 @@
 package IC.AST;
 
+import IC.Symbols.Name;
+import IC.Symbols.SymbolReference;
+
 import java.util.List;
 
 /**
@@ -11,8 +14,12 @@ public abstract class Call extends Expression {
 
 	private String name;
 
+	private int nameId;
+
 	private List<Expression> arguments;
 
+    private SymbolReference symbolReference;
+
 	/**
 	 * Constructs a new method call node. Used by subclasses.
 	 * 
@@ -23,9 +30,10 @@ public abstract class Call extends Expression {
 	 * @param arguments
 	 *            List of all method arguments.
 	 */
-	protected Call(int line, String name, List<Expression> arguments) {
+	protected Call(int line, Name name, List<Expression> arguments) {
 		super(line);
-		this.name = name;
+		this.name = name.getText();
+		this.nameId = name.getId();
 		this.arguments = arguments;
 	}
 
@@ -33,8 +41,26 @@ public abstract class Call extends Expression {
 		return name;
 	}
 
+    /**
+     * @return the id of the name in the NameTable
+     */
+    public int getNameId() {
+        return nameId;
+    }
+
 	public List<Expression> getArguments() {
 		return arguments;
 	}
 
+    /**
+     * @return the symbol of the called method, set by SemanticChecker; null before
+     */
+    public SymbolReference getSymbolReference() {
+        return symbolReference;
+    }
+
+    public void setSymbolReference(SymbolReference symbolReference) {
+        this.symbolReference = symbolReference;
+    }
+
 }
@@ -1,5 +1,7 @@
 package IC.AST;
 
+import IC.Symbols.Name;
+
 /**
  * Class field AST node.
  * 
@@ -11,6 +13,8 @@ public class Field extends ASTNode {
 
 	private String name;
 
+	private int nameId;
+
 	public Object accept(Visitor visitor) {
 		return visitor.visit(this);
 	}
@@ -28,10 +32,11 @@ public class Field extends ASTNode {
 	 * @param name
 	 *            Name of field.
 	 */
-	public Field(Type type, String name) {
+	public Field(Type type, Name name) {
 		super(type.getLine());
 		this.type = type;
-		this.name = name;
+		this.name = name.getText();
+		this.nameId = name.getId();
 	}
 
 	public Type getType() {
@@ -42,4 +47,11 @@ public class Field extends ASTNode {
 		return name;
 	}
 
+    /**
+     * @return the id of the name in the NameTable
+     */
+    public int getNameId() {
+        return nameId;
+    }
+
 }
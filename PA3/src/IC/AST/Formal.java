@@ -1,5 +1,8 @@
 package IC.AST;
 
+import IC.Symbols.Name;
+import IC.Symbols.Symbol;
+
 /**
  * Method parameter AST node.
  * 
@@ -11,6 +14,10 @@ public class Formal extends ASTNode {
 
 	private String name;
 
+	private int nameId;
+
+    private Symbol symbol;
+
 	public Object accept(Visitor visitor) {
 		return visitor.visit(this);
 	}
@@ -29,10 +36,11 @@ public class Formal extends ASTNode {
 	 * @param name
 	 *            Name of parameter.
 	 */
-	public Formal(Type type, String name) {
+	public Formal(Type type, Name name) {
 		super(type.getLine());
 		this.type = type;
-		this.name = name;
+		this.name = name.getText();
+		this.nameId = name.getId();
 	}
 
 	public Type getType() {
@@ -43,4 +51,21 @@ public class Formal extends ASTNode {
 		return name;
 	}
 
+    /**
+     * @return the id of the name in the NameTable
+     */
+    public int getNameId() {
+        return nameId;
+    }
+
+    /**
+     * @return the declared symbol, set by SymbolTableBuilder
+     */
+    public Symbol getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(Symbol symbol) {
+        this.symbol = symbol;
+    }
 }
@@ -1,6 +1,8 @@
 package IC.AST;
 
 import IC.Symbols.ClassSymbolTable;
+import IC.Symbols.Name;
+import IC.Symbols.NameTable;
 
 import java.util.List;
 
@@ -13,8 +15,12 @@ public class ICClass extends ASTNode {
 
 	private String name;
 
+	private int nameId;
+
 	private String superClassName = null;
 
+	private int superClassNameId = NameTable.NO_ID;
+
 	private List<Field> fields;
 
 	private List<Method> methods;
@@ -35,10 +41,11 @@ public class ICClass extends ASTNode {
 	 * @param methods
 	 *            List of all methods in the class.
 	 */
-	public ICClass(int line, String name, List<Field> fields,
+	public ICClass(int line, Name name, List<Field> fields,
 			List<Method> methods) {
 		super(line);
-		this.name = name;
+		this.name = name.getText();
+		this.nameId = name.getId();
 		this.fields = fields;
 		this.methods = methods;
 	}
@@ -57,16 +64,24 @@ public class ICClass extends ASTNode {
 	 * @param methods
 	 *            List of all methods in the class.
 	 */
-	public ICClass(int line, String name, String superClassName,
+	public ICClass(int line, Name name, Name superClassName,
 			List<Field> fields, List<Method> methods) {
 		this(line, name, fields, methods);
-		this.superClassName = superClassName;
+		this.superClassName = superClassName.getText();
+		this.superClassNameId = superClassName.getId();
 	}
 
 	public String getName() {
 		return name;
 	}
 
+    /**
+     * @return the id of the name in the NameTable
+     */
+    public int getNameId() {
+        return nameId;
+    }
+
 	public boolean hasSuperClass() {
 		return (superClassName != null);
 	}
@@ -75,6 +90,14 @@ public class ICClass extends ASTNode {
 		return superClassName;
 	}
 
+    /**
+     * @return the id of the superclass name in the NameTable, or NameTable.NO_ID
+     * if the class has no superclass
+     */
+    public int getSuperClassNameId() {
+        return superClassNameId;
+    }
+
 	public List<Field> getFields() {
 		return fields;
 	}
@@ -55,6 +55,10 @@ public class If extends Statement {
 		return condition;
 	}
 
+    public void setCondition(Expression condition) {
+        this.condition = condition;
+    }
+
 	public Statement getOperation() {
 		return operation;
 	}
@@ -33,4 +33,8 @@ public class Length extends Expression {
 		return array;
 	}
 
+    public void setArray(Expression array) {
+        this.array = array;
+    }
+
 }
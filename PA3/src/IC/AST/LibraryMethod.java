@@ -1,5 +1,7 @@
 package IC.AST;
 
+import IC.Symbols.Name;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -29,7 +31,7 @@ public class LibraryMethod extends Method {
 	 * @param formals
 	 *            List of method parameters.
 	 */
-	public LibraryMethod(Type type, String name, List<Formal> formals) {
+	public LibraryMethod(Type type, Name name, List<Formal> formals) {
 		super(type, name, formals, new ArrayList<>());
 	}
 }
\ No newline at end of file
@@ -1,5 +1,8 @@
 package IC.AST;
 
+import IC.Symbols.Name;
+import IC.Symbols.Symbol;
+
 /**
  * Local variable declaration statement AST node.
  * 
@@ -11,6 +14,10 @@ public class LocalVariable extends Statement {
 
 	private String name;
 
+	private int nameId;
+
+    private Symbol symbol;
+
 	private Expression initValue = null;
 
 	public Object accept(Visitor visitor) {
@@ -30,10 +37,11 @@ public class LocalVariable extends Statement {
 	 * @param name
 	 *            Name of local variable.
 	 */
-	public LocalVariable(Type type, String name) {
+	public LocalVariable(Type type, Name name) {
 		super(type.getLine());
 		this.type = type;
-		this.name = name;
+		this.name = name.getText();
+		this.nameId = name.getId();
 	}
 
 	/**
@@ -47,7 +55,7 @@ public class LocalVariable extends Statement {
 	 * @param initValue
 	 *            Initial value of local variable.
 	 */
-	public LocalVariable(Type type, String name, Expression initValue) {
+	public LocalVariable(Type type, Name name, Expression initValue) {
 		this(type, name);
 		this.initValue = initValue;
 	}
@@ -60,6 +68,13 @@ public class LocalVariable extends Statement {
 		return name;
 	}
 
+    /**
+     * @return the id of the name in the NameTable
+     */
+    public int getNameId() {
+        return nameId;
+    }
+
 	public boolean hasInitValue() {
 		return (initValue != null);
 	}
@@ -68,4 +83,18 @@ public class LocalVariable extends Statement {
 		return initValue;
 	}
 
+    public void setInitValue(Expression initValue) {
+        this.initValue = initValue;
+    }
+
+    /**
+     * @return the declared symbol, set by SymbolTableBuilder
+     */
+    public Symbol getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(Symbol symbol) {
+        this.symbol = symbol;
+    }
 }
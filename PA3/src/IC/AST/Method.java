@@ -2,6 +2,7 @@ package IC.AST;
 
 import IC.Parser.StringUtils;
 import IC.Symbols.MethodSymbolTable;
+import IC.Symbols.Name;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,6 +18,8 @@ public abstract class Method extends ASTNode {
 
 	protected String name;
 
+	protected int nameId;
+
 	protected List<Formal> formals;
 
 	protected List<Statement> statements;
@@ -33,11 +36,12 @@ public abstract class Method extends ASTNode {
 	 * @param statements
 	 *            List of method's statements.
 	 */
-	protected Method(Type type, String name, List<Formal> formals,
+	protected Method(Type type, Name name, List<Formal> formals,
 			List<Statement> statements) {
 		super(type.getLine());
 		this.type = type;
-		this.name = name;
+		this.name = name.getText();
+		this.nameId = name.getId();
 		this.formals = formals;
 		this.statements = statements;
 	}
@@ -50,6 +54,13 @@ public abstract class Method extends ASTNode {
 		return name;
 	}
 
+    /**
+     * @return the id of the name in the NameTable
+     */
+    public int getNameId() {
+        return nameId;
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
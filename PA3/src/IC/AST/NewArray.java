@@ -11,6 +11,8 @@ public class NewArray extends New {
 
 	private Expression size;
 
+	private final int elementDimension;
+
 	public Object accept(Visitor visitor) {
 		return visitor.visit(this);
 	}
@@ -31,6 +33,7 @@ public class NewArray extends New {
 		super(type.getLine());
 		this.type = type;
 		this.size = size;
+		this.elementDimension = type.getDimension();
 	}
 
 	public Type getType() {
@@ -41,4 +44,16 @@ public class NewArray extends New {
 		return size;
 	}
 
+    public void setSize(Expression size) {
+        this.size = size;
+    }
+
+    /**
+     * @return the dimension of the elements as parsed, e.g. 1 for new int[][n].
+     * Type checking increments the dimension of getType, on every check.
+     */
+    public int getElementDimension() {
+        return elementDimension;
+    }
+
 }
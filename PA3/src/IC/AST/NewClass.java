@@ -1,5 +1,7 @@
 package IC.AST;
 
+import IC.Symbols.Name;
+
 /**
  * Class instance creation AST node.
  * 
@@ -9,6 +11,8 @@ public class NewClass extends New {
 
 	private String name;
 
+	private int nameId;
+
 	public Object accept(Visitor visitor) {
 		return visitor.visit(this);
 	}
@@ -25,13 +29,21 @@ public class NewClass extends New {
 	 * @param name
 	 *            Name of class.
 	 */
-	public NewClass(int line, String name) {
+	public NewClass(int line, Name name) {
 		super(line);
-		this.name = name;
+		this.name = name.getText();
+		this.nameId = name.getId();
 	}
 
 	public String getName() {
 		return name;
 	}
 
+    /**
+     * @return the id of the name in the NameTable
+     */
+    public int getNameId() {
+        return nameId;
+    }
+
 }
@@ -0,0 +1,250 @@
+package IC.AST;
+
+import java.util.List;
+
+/**
+ * counts the nodes of an AST
+ */
+public class NodeCounter implements Visitor {
+    private int count = 0;
+
+    /**
+     * @return the number of nodes in the tree of the node
+     */
+    public static int count(ASTNode node) {
+        NodeCounter counter = new NodeCounter();
+        node.accept(counter);
+        return counter.count;
+    }
+
+    private Object visitAll(List<? extends ASTNode> nodes) {
+        for (ASTNode node : nodes) {
+            node.accept(this);
+        }
+        return null;
+    }
+
+    private Object visitMethod(Method method) {
+        count++;
+        method.getType().accept(this);
+        visitAll(method.getFormals());
+        return visitAll(method.getStatements());
+    }
+
+    private Object visitCall(Call call) {
+        count++;
+        return visitAll(call.getArguments());
+    }
+
+    @Override
+    public Object visit(Program program) {
+        count++;
+        return visitAll(program.getClasses());
+    }
+
+    @Override
+    public Object visit(ICClass icClass) {
+        count++;
+        visitAll(icClass.getFields());
+        return visitAll(icClass.getMethods());
+    }
+
+    @Override
+    public Object visit(Field field) {
+        count++;
+        return field.getType().accept(this);
+    }
+
+    @Override
+    public Object visit(VirtualMethod method) {
+        return visitMethod(method);
+    }
+
+    @Override
+    public Object visit(StaticMethod method) {
+        return visitMethod(method);
+    }
+
+    @Override
+    public Object visit(LibraryMethod method) {
+        return visitMethod(method);
+    }
+
+    @Override
+    public Object visit(Formal formal) {
+        count++;
+        return formal.getType().accept(this);
+    }
+
+    @Override
+    public Object visit(PrimitiveType type) {
+        count++;
+        return null;
+    }
+
+    @Override
+    public Object visit(UserType type) {
+        count++;
+        return null;
+    }
+
+    @Override
+    public Object visit(Assignment assignment) {
+        count++;
+        assignment.getVariable().accept(this);
+        return assignment.getAssignment().accept(this);
+    }
+
+    @Override
+    public Object visit(CallStatement callStatement) {
+        count++;
+        return callStatement.getCall().accept(this);
+    }
+
+    @Override
+    public Object visit(Return returnStatement) {
+        count++;
+        if (returnStatement.hasValue()) {
+            returnStatement.getValue().accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Object visit(If ifStatement) {
+        count++;
+        ifStatement.getCondition().accept(this);
+        ifStatement.getOperation().accept(this);
+        if (ifStatement.hasElse()) {
+            ifStatement.getElseOperation().accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Object visit(While whileStatement) {
+        count++;
+        whileStatement.getCondition().accept(this);
+        return whileStatement.getOperation().accept(this);
+    }
+
+    @Override
+    public Object visit(Break breakStatement) {
+        count++;
+        return null;
+    }
+
+    @Override
+    public Object visit(Continue continueStatement) {
+        count++;
+        return null;
+    }
+
+    @Override
+    public Object visit(StatementsBlock statementsBlock) {
+        count++;
+        return visitAll(statementsBlock.getStatements());
+    }
+
+    @Override
+    public Object visit(LocalVariable localVariable) {
+        count++;
+        localVariable.getType().accept(this);
+        if (localVariable.hasInitValue()) {
+            localVariable.getInitValue().accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Object visit(VariableLocation location) {
+        count++;
+        if (location.isExternal()) {
+            location.getLocation().accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Object visit(ArrayLocation location) {
+        count++;
+        location.getArray().accept(this);
+        return location.getIndex().accept(this);
+    }
+
+    @Override
+    public Object visit(StaticCall call) {
+        return visitCall(call);
+    }
+
+    @Override
+    public Object visit(VirtualCall call) {
+        if (call.isExternal()) {
+            call.getLocation().accept(this);
+        }
+        return visitCall(call);
+    }
+
+    @Override
+    public Object visit(This thisExpression) {
+        count++;
+        return null;
+    }
+
+    @Override
+    public Object visit(NewClass newClass) {
+        count++;
+        return null;
+    }
+
+    @Override
+    public Object visit(NewArray newArray) {
+        count++;
+        newArray.getType().accept(this);
+        return newArray.getSize().accept(this);
+    }
+
+    @Override
+    public Object visit(Length length) {
+        count++;
+        return length.getArray().accept(this);
+    }
+
+    @Override
+    public Object visit(MathBinaryOp binaryOp) {
+        count++;
+        binaryOp.getFirstOperand().accept(this);
+        return binaryOp.getSecondOperand().accept(this);
+    }
+
+    @Override
+    public Object visit(LogicalBinaryOp binaryOp) {
+        count++;
+        binaryOp.getFirstOperand().accept(this);
+        return binaryOp.getSecondOperand().accept(this);
+    }
+
+    @Override
+    public Object visit(MathUnaryOp unaryOp) {
+        count++;
+        return unaryOp.getOperand().accept(this);
+    }
+
+    @Override
+    public Object visit(LogicalUnaryOp unaryOp) {
+        count++;
+        return unaryOp.getOperand().accept(this);
+    }
+
+    @Override
+    public Object visit(Literal literal) {
+        count++;
+        return null;
+    }
+
+    @Override
+    public Object visit(ExpressionBlock expressionBlock) {
+        count++;
+        return expressionBlock.getExpression().accept(this);
+    }
+}
@@ -2,7 +2,7 @@ package IC.AST;
 
 import IC.SymbolTypes.ArraySymbolType;
 import IC.SymbolTypes.SymbolType;
-import IC.Symbols.SymbolTableException;
+import IC.Symbols.Symbol;
 
 /**
  * Pretty printing visitor - travels along the AST and prints info about each
@@ -344,55 +344,48 @@ public class PrettyPrinter implements Visitor {
 
     public Object visit(VariableLocation location) {
         StringBuffer output = new StringBuffer();
-        try {
-            indentAndGetLine(output, location);
-            int symbolTypeId = location.getParent().lookup(location.getName()).getTypeId();
-            SymbolType symbolType = location.getParent().getTypeTable().getSymbolById(symbolTypeId);
-            output.append("Reference to variable: ").append(location.getName());
-
-            if (location.isExternal()) {
-                output.append(", in external scope");
-            }
-            output.append(TYPE_PRE_STRING).append(symbolType.toString());
-            output.append(SYMBOL_TABLE_PRE_STRING).append(location.getParent().getName());
-
-//        int symbolTypeId = getCurrentScope().lookup(symbolName).getTypeId();
-//        symbolType = getTypeTable().getSymbolById(symbolTypeId);
-
-
-            if (location.isExternal()) {
-                addToDepth(1);
-                location.getLocation().setParent(location.getParent());
-                output.append(location.getLocation().accept(this));
-                addToDepth(-1);
-            }
+        indentAndGetLine(output, location);
+        Symbol symbol = location.getParent().find(location.getNameId());
+        if (symbol == null) {
+            //should not happen
+            return output.toString();
+        }
+        SymbolType symbolType = location.getParent().getTypeTable().getSymbolById(symbol.getTypeId());
+        output.append("Reference to variable: ").append(location.getName());
 
-        } catch (SymbolTableException e) {
+        if (location.isExternal()) {
+            output.append(", in external scope");
+        }
+        output.append(TYPE_PRE_STRING).append(symbolType.toString());
+        output.append(SYMBOL_TABLE_PRE_STRING).append(location.getParent().getName());
 
-            //should not happen
-            e.printStackTrace();
+        if (location.isExternal()) {
+            addToDepth(1);
+            location.getLocation().setParent(location.getParent());
+            output.append(location.getLocation().accept(this));
+            addToDepth(-1);
         }
         return output.toString();
     }
 
     public Object visit(ArrayLocation location) {
         StringBuffer output = new StringBuffer();
-        try {
-            indentAndGetLine(output, location);
-            output.append("Reference to array");
-            int symbolTypeId = location.getParent().lookup(((VariableLocation) location.getArray()).getName()).getTypeId();
-            SymbolType symbolType = location.getParent().getTypeTable().getSymbolById(symbolTypeId);
-            output.append(TYPE_PRE_STRING).append(((ArraySymbolType) symbolType).getBaseType());
-            output.append(SYMBOL_TABLE_PRE_STRING).append(location.getParent().getName());
-            addToDepth(2);
-            location.getArray().setParent(location.getParent());
-            output.append(location.getArray().accept(this));
-            location.getIndex().setParent(location.getParent());
-            output.append(location.getIndex().accept(this));
-            addToDepth(-2);
-        } catch (SymbolTableException ste) {
+        indentAndGetLine(output, location);
+        output.append("Reference to array");
+        Symbol symbol = location.getParent().find(((VariableLocation) location.getArray()).getNameId());
+        if (symbol == null) {
             //its ok
+            return output.toString();
         }
+        SymbolType symbolType = location.getParent().getTypeTable().getSymbolById(symbol.getTypeId());
+        output.append(TYPE_PRE_STRING).append(((ArraySymbolType) symbolType).getBaseType());
+        output.append(SYMBOL_TABLE_PRE_STRING).append(location.getParent().getName());
+        addToDepth(2);
+        location.getArray().setParent(location.getParent());
+        output.append(location.getArray().accept(this));
+        location.getIndex().setParent(location.getParent());
+        output.append(location.getIndex().accept(this));
+        addToDepth(-2);
         return output.toString();
     }
 
@@ -49,4 +49,8 @@ public class Return extends Statement {
 		return value;
 	}
 
+    public void setValue(Expression value) {
+        this.value = value;
+    }
+
 }
@@ -1,5 +1,7 @@
 package IC.AST;
 
+import IC.Symbols.Name;
+
 import java.util.List;
 
 /**
@@ -11,6 +13,8 @@ public class StaticCall extends Call {
 
 	private String className;
 
+	private int classNameId;
+
     @Override
     public <D, U> U accept(semanticCheckVisitor<D, U> v, D context) {
         return v.visit(this, context);
@@ -32,14 +36,22 @@ public class StaticCall extends Call {
 	 * @param arguments
 	 *            List of all method arguments.
 	 */
-	public StaticCall(int line, String className, String name,
+	public StaticCall(int line, Name className, Name name,
 			List<Expression> arguments) {
 		super(line, name, arguments);
-		this.className = className;
+		this.className = className.getText();
+		this.classNameId = className.getId();
 	}
 
 	public String getClassName() {
 		return className;
 	}
 
+    /**
+     * @return the id of the class name in the NameTable
+     */
+    public int getClassNameId() {
+        return classNameId;
+    }
+
 }
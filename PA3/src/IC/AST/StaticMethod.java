@@ -1,5 +1,7 @@
 package IC.AST;
 
+import IC.Symbols.Name;
+
 import java.util.List;
 
 /**
@@ -31,7 +33,7 @@ public class StaticMethod extends Method {
 	 * @param statements
 	 *            List of method's statements.
 	 */
-	public StaticMethod(Type type, String name, List<Formal> formals,
+	public StaticMethod(Type type, Name name, List<Formal> formals,
 			List<Statement> statements) {
 		super(type, name, formals, statements);
 	}
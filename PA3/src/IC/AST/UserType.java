@@ -1,5 +1,7 @@
 package IC.AST;
 
+import IC.Symbols.Name;
+
 /**
  * User-defined data type AST node.
  * 
@@ -9,6 +11,8 @@ public class UserType extends Type {
 
 	private String name;
 
+	private int nameId;
+
     @Override
     public <D, U> U accept(semanticCheckVisitor<D, U> v, D context) {
         return v.visit(this, context);
@@ -26,13 +30,21 @@ public class UserType extends Type {
 	 * @param name
 	 *            Name of data type.
 	 */
-	public UserType(int line, String name) {
+	public UserType(int line, Name name) {
 		super(line);
-		this.name = name;
+		this.name = name.getText();
+		this.nameId = name.getId();
 	}
 
 	public String getName() {
 		return name;
 	}
 
+    /**
+     * @return the id of the name in the NameTable
+     */
+    public int getNameId() {
+        return nameId;
+    }
+
 }
@@ -1,5 +1,8 @@
 package IC.AST;
 
+import IC.Symbols.Name;
+import IC.Symbols.SymbolReference;
+
 /**
  * Variable reference AST node.
  * 
@@ -11,6 +14,10 @@ public class VariableLocation extends Location {
 
 	private String name;
 
+	private int nameId;
+
+    private SymbolReference symbolReference;
+
 	public Object accept(Visitor visitor) {
 		return visitor.visit(this);
 	}
@@ -27,9 +34,10 @@ public class VariableLocation extends Location {
 	 * @param name
 	 *            Name of variable.
 	 */
-	public VariableLocation(int line, String name) {
+	public VariableLocation(int line, Name name) {
 		super(line);
-		this.name = name;
+		this.name = name.getText();
+		this.nameId = name.getId();
 	}
 
 	/**
@@ -42,7 +50,7 @@ public class VariableLocation extends Location {
 	 * @param name
 	 *            Name of variable.
 	 */
-	public VariableLocation(int line, Expression location, String name) {
+	public VariableLocation(int line, Expression location, Name name) {
 		this(line, name);
 		this.location = location;
 	}
@@ -59,4 +67,22 @@ public class VariableLocation extends Location {
 		return name;
 	}
 
+    /**
+     * @return the id of the name in the NameTable
+     */
+    public int getNameId() {
+        return nameId;
+    }
+
+    /**
+     * @return the symbol this name refers to, set by SemanticChecker; null before
+     */
+    public SymbolReference getSymbolReference() {
+        return symbolReference;
+    }
+
+    public void setSymbolReference(SymbolReference symbolReference) {
+        this.symbolReference = symbolReference;
+    }
+
 }
@@ -1,5 +1,7 @@
 package IC.AST;
 
+import IC.Symbols.Name;
+
 import java.util.List;
 
 /**
@@ -29,7 +31,7 @@ public class VirtualCall extends Call {
 	 * @param arguments
 	 *            List of all method arguments.
 	 */
-	public VirtualCall(int line, String name, List<Expression> arguments) {
+	public VirtualCall(int line, Name name, List<Expression> arguments) {
 		super(line, name, arguments);
 	}
 
@@ -45,7 +47,7 @@ public class VirtualCall extends Call {
 	 * @param arguments
 	 *            List of all method arguments.
 	 */
-	public VirtualCall(int line, Expression location, String name,
+	public VirtualCall(int line, Expression location, Name name,
 			List<Expression> arguments) {
 		this(line, name, arguments);
 		this.location = location;
@@ -1,5 +1,7 @@
 package IC.AST;
 
+import IC.Symbols.Name;
+
 import java.util.List;
 
 /**
@@ -30,7 +32,7 @@ public class VirtualMethod extends Method {
 	 * @param statements
 	 *            List of method's statements.
 	 */
-	public VirtualMethod(Type type, String name, List<Formal> formals,
+	public VirtualMethod(Type type, Name name, List<Formal> formals,
 			List<Statement> statements) {
 		super(type, name, formals, statements);
 	}
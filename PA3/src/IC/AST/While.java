@@ -38,6 +38,10 @@ public class While extends Statement {
 		return condition;
 	}
 
+    public void setCondition(Expression condition) {
+        this.condition = condition;
+    }
+
 	public Statement getOperation() {
 		return operation;
 	}
@@ -0,0 +1,126 @@
+package IC;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compiles many IC files in one JVM. Files are lexed, parsed and checked
+ * concurrently on a fork-join pool with a worker per core, and all of them share
+ * one parsed library.
+ *
+ * Every compilation prints into its own buffers, which are written out in the
+ * order the files were given (directories are expanded in path order), so the
+ * output doesn't depend on how the compilations were scheduled.
+ */
+public class BatchCompiler {
+    private static final String IC_FILE_SUFFIX = ".ic";
+
+    private final Options options;
+    private final CompilationSession session;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public BatchCompiler(Options options, LibrarySnapshot library) {
+        this(options, library, System.out, System.err);
+    }
+
+    public BatchCompiler(Options options, LibrarySnapshot library, PrintStream out, PrintStream err) {
+        this.options = options;
+        this.session = new CompilationSession(library, options.isSeparateChecks(), options.isTimings());
+        this.out = out;
+        this.err = err;
+    }
+
+    public void run() {
+        List<String> icFiles;
+        try {
+            icFiles = collectICFiles();
+        } catch (IOException e) {
+            e.printStackTrace(err);
+            return;
+        }
+        if (icFiles.isEmpty()) {
+            out.println("No IC files found in: " + String.join(", ", options.getICFiles()));
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            List<ForkJoinTask<CompilationOutput>> compilations = new ArrayList<>();
+            for (String icFile : icFiles) {
+                compilations.add(pool.submit(() -> compileFile(icFile)));
+            }
+            // Joining in submission order keeps the output deterministic, while files
+            // that are already done can be printed before the rest finish.
+            for (ForkJoinTask<CompilationOutput> compilation : compilations) {
+                compilation.join().writeTo(out, err);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private CompilationOutput compileFile(String icFile) {
+        CompilationOutput output = new CompilationOutput();
+        new Compiler(options, icFile, output.getOut(), output.getErr()).compile(session);
+        return output;
+    }
+
+    /**
+     * @return the files given, with directories replaced by the IC files under them
+     */
+    private List<String> collectICFiles() throws IOException {
+        List<String> icFiles = new ArrayList<>();
+        for (String path : options.getICFiles()) {
+            File file = new File(path);
+            if (!file.isDirectory()) {
+                icFiles.add(path);
+                continue;
+            }
+            try (Stream<Path> tree = Files.walk(Paths.get(path))) {
+                icFiles.addAll(tree
+                    .filter(p -> Files.isRegularFile(p) && p.toString().endsWith(IC_FILE_SUFFIX))
+                    .sorted()
+                    .map(Path::toString)
+                    .collect(Collectors.toList()));
+            }
+        }
+        return icFiles;
+    }
+
+    /**
+     * everything a single compilation printed
+     */
+    private static class CompilationOutput {
+        private final ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream errBytes = new ByteArrayOutputStream();
+        private final PrintStream out = new PrintStream(outBytes, true);
+        private final PrintStream err = new PrintStream(errBytes, true);
+
+        PrintStream getOut() {
+            return out;
+        }
+
+        PrintStream getErr() {
+            return err;
+        }
+
+        void writeTo(PrintStream out, PrintStream err) {
+            this.out.flush();
+            this.err.flush();
+            // PrintStream.write never throws, unlike writeTo(OutputStream).
+            out.write(outBytes.toByteArray(), 0, outBytes.size());
+            err.write(errBytes.toByteArray(), 0, errBytes.size());
+            out.flush();
+            err.flush();
+        }
+    }
+}
@@ -0,0 +1,527 @@
+package IC.CFG;
+
+import IC.LIR.Instruction;
+import IC.LIR.LIRMethod;
+import IC.LIR.Label;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The basic blocks of the LIR of a method, with their edges, dominator tree and
+ * loop nesting. Blocks are numbered in instruction order, block 0 is the entry,
+ * and everything about them is kept in int arrays indexed by block number, so a
+ * graph takes a few arrays no matter how many blocks a method has.
+ * Everything is computed without recursion, so long methods don't overflow the stack.
+ *
+ * The graph describes the instructions at the time it was built; a pass that
+ * changes jumps or labels has to build a new one.
+ */
+public class ControlFlowGraph {
+    /**
+     * no block, e.g. the immediate dominator of the entry
+     */
+    public static final int NONE = -1;
+
+    private static final int[] NO_BLOCKS = new int[0];
+
+    private final LIRMethod method;
+    private final int blockCount;
+    // Block b is instructions [blockStarts[b], blockStarts[b + 1]).
+    private final int[] blockStarts;
+    private final int[][] successors;
+    private final int[][] predecessors;
+
+    // Only reachable blocks have a reverse postorder number.
+    private int[] reversePostorder;
+    private int[] reversePostorderNumbers;
+
+    private int[] immediateDominators;
+    private int[][] dominatorTreeChildren;
+    // Preorder and postorder numbers in the dominator tree, for constant time dominates.
+    private int[] dominatorPreorder;
+    private int[] dominatorPostorder;
+    // Computed when first asked for.
+    private int[][] dominanceFrontiers;
+
+    private int[] loopHeaders;
+    private int[] loopParents;
+    private int[] loopDepths;
+    private int loopCount;
+
+    private ControlFlowGraph(LIRMethod method, int[] blockStarts, int[][] successors) {
+        this.method = method;
+        this.blockCount = successors.length;
+        this.blockStarts = blockStarts;
+        this.successors = successors;
+        this.predecessors = invert(successors);
+    }
+
+    /**
+     * builds the graph of the current instructions of a method
+     */
+    public static ControlFlowGraph build(LIRMethod method) {
+        List<Instruction> instructions = method.getInstructions();
+        int size = instructions.size();
+
+        // A block starts at the first instruction, at every label and after every jump.
+        int[] starts = new int[size + 1];
+        int blockCount = 0;
+        Map<Label, Integer> labelBlocks = new IdentityHashMap<>();
+        for (int i = 0; i < size; i++) {
+            Instruction instruction = instructions.get(i);
+            boolean leader = i == 0 || instruction instanceof Label || instructions.get(i - 1).isTerminator();
+            // Consecutive labels share a block.
+            if (leader && !(i > 0 && instruction instanceof Label && instructions.get(i - 1) instanceof Label)) {
+                starts[blockCount++] = i;
+            }
+            if (instruction instanceof Label) {
+                labelBlocks.put((Label) instruction, blockCount - 1);
+            }
+        }
+        starts[blockCount] = size;
+        int[] blockStarts = Arrays.copyOf(starts, blockCount + 1);
+
+        int[][] successors = new int[blockCount][];
+        for (int block = 0; block < blockCount; block++) {
+            Instruction last = instructions.get(blockStarts[block + 1] - 1);
+            if (!last.isTerminator()) {
+                successors[block] = block + 1 < blockCount ? new int[]{block + 1} : NO_BLOCKS;
+                continue;
+            }
+            List<Label> targets = last.getTargets();
+            int[] blockSuccessors = new int[targets.size()];
+            int count = 0;
+            for (Label target : targets) {
+                Integer successor = labelBlocks.get(target);
+                if (successor == null) {
+                    throw new IllegalStateException("Jump to a label that isn't in " + method.getReference() + ": " + target.getName());
+                }
+                if (indexOf(blockSuccessors, count, successor) < 0) {
+                    blockSuccessors[count++] = successor;
+                }
+            }
+            successors[block] = count == blockSuccessors.length ? blockSuccessors : Arrays.copyOf(blockSuccessors, count);
+        }
+
+        ControlFlowGraph graph = new ControlFlowGraph(method, blockStarts, successors);
+        graph.computeReversePostorder();
+        graph.computeDominators();
+        graph.computeLoops();
+        return graph;
+    }
+
+    private static int indexOf(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int[][] invert(int[][] edges) {
+        int[] counts = new int[edges.length];
+        for (int[] targets : edges) {
+            for (int target : targets) {
+                counts[target]++;
+            }
+        }
+        int[][] inverted = new int[edges.length][];
+        for (int block = 0; block < edges.length; block++) {
+            inverted[block] = counts[block] == 0 ? NO_BLOCKS : new int[counts[block]];
+            counts[block] = 0;
+        }
+        for (int block = 0; block < edges.length; block++) {
+            for (int target : edges[block]) {
+                inverted[target][counts[target]++] = block;
+            }
+        }
+        return inverted;
+    }
+
+    private void computeReversePostorder() {
+        int[] postorder = new int[blockCount];
+        int count = 0;
+        boolean[] visited = new boolean[blockCount];
+        int[] stack = new int[blockCount];
+        int[] nextSuccessor = new int[blockCount];
+        int depth = 0;
+        if (blockCount > 0) {
+            stack[depth++] = 0;
+            visited[0] = true;
+        }
+        while (depth > 0) {
+            int block = stack[depth - 1];
+            if (nextSuccessor[block] < successors[block].length) {
+                int successor = successors[block][nextSuccessor[block]++];
+                if (!visited[successor]) {
+                    visited[successor] = true;
+                    stack[depth++] = successor;
+                }
+            } else {
+                postorder[count++] = block;
+                depth--;
+            }
+        }
+
+        reversePostorder = new int[count];
+        reversePostorderNumbers = new int[blockCount];
+        Arrays.fill(reversePostorderNumbers, NONE);
+        for (int i = 0; i < count; i++) {
+            reversePostorder[i] = postorder[count - 1 - i];
+            reversePostorderNumbers[reversePostorder[i]] = i;
+        }
+    }
+
+    /**
+     * Cooper, Harvey and Kennedy's iterative algorithm, "A Simple, Fast Dominance Algorithm"
+     */
+    private void computeDominators() {
+        immediateDominators = new int[blockCount];
+        Arrays.fill(immediateDominators, NONE);
+        if (blockCount == 0) {
+            dominatorTreeChildren = new int[0][];
+            dominatorPreorder = NO_BLOCKS;
+            dominatorPostorder = NO_BLOCKS;
+            return;
+        }
+        immediateDominators[0] = 0;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 1; i < reversePostorder.length; i++) {
+                int block = reversePostorder[i];
+                int dominator = NONE;
+                for (int predecessor : predecessors[block]) {
+                    if (immediateDominators[predecessor] == NONE) {
+                        continue;
+                    }
+                    dominator = dominator == NONE ? predecessor : intersect(predecessor, dominator);
+                }
+                if (immediateDominators[block] != dominator) {
+                    immediateDominators[block] = dominator;
+                    changed = true;
+                }
+            }
+        }
+        immediateDominators[0] = NONE;
+
+        int[][] tree = new int[blockCount][];
+        for (int block = 0; block < blockCount; block++) {
+            tree[block] = immediateDominators[block] == NONE ? NO_BLOCKS : new int[]{immediateDominators[block]};
+        }
+        dominatorTreeChildren = invert(tree);
+
+        dominatorPreorder = new int[blockCount];
+        dominatorPostorder = new int[blockCount];
+        Arrays.fill(dominatorPreorder, NONE);
+        Arrays.fill(dominatorPostorder, NONE);
+        int[] stack = new int[blockCount];
+        int[] nextChild = new int[blockCount];
+        int depth = 0;
+        int preorder = 0;
+        int postorder = 0;
+        stack[depth++] = 0;
+        dominatorPreorder[0] = preorder++;
+        while (depth > 0) {
+            int block = stack[depth - 1];
+            if (nextChild[block] < dominatorTreeChildren[block].length) {
+                int child = dominatorTreeChildren[block][nextChild[block]++];
+                dominatorPreorder[child] = preorder++;
+                stack[depth++] = child;
+            } else {
+                dominatorPostorder[block] = postorder++;
+                depth--;
+            }
+        }
+    }
+
+    private int intersect(int first, int second) {
+        while (first != second) {
+            while (reversePostorderNumbers[first] > reversePostorderNumbers[second]) {
+                first = immediateDominators[first];
+            }
+            while (reversePostorderNumbers[second] > reversePostorderNumbers[first]) {
+                second = immediateDominators[second];
+            }
+        }
+        return first;
+    }
+
+    /**
+     * finds the natural loops: a back edge goes to a block that dominates its
+     * source, and the loop is every block that reaches the source without passing
+     * through the header. The loops of IC programs are structured, so every cycle
+     * has such a header.
+     */
+    private void computeLoops() {
+        loopHeaders = new int[blockCount];
+        loopParents = new int[blockCount];
+        loopDepths = new int[blockCount];
+        Arrays.fill(loopHeaders, NONE);
+        Arrays.fill(loopParents, NONE);
+
+        int[] inLoop = new int[blockCount];
+        Arrays.fill(inLoop, NONE);
+        int[] worklist = new int[blockCount];
+        // An outer header dominates, so comes before, the headers of its inner loops,
+        // which then overwrite its blocks with themselves.
+        for (int header : reversePostorder) {
+            boolean isHeader = false;
+            int count = 0;
+            inLoop[header] = header;
+            for (int predecessor : predecessors[header]) {
+                if (dominates(header, predecessor)) {
+                    isHeader = true;
+                    if (inLoop[predecessor] != header) {
+                        inLoop[predecessor] = header;
+                        worklist[count++] = predecessor;
+                    }
+                }
+            }
+            if (!isHeader) {
+                continue;
+            }
+            loopCount++;
+            loopParents[header] = loopHeaders[header];
+            setInLoop(header, header);
+            while (count > 0) {
+                int block = worklist[--count];
+                setInLoop(block, header);
+                for (int predecessor : predecessors[block]) {
+                    if (inLoop[predecessor] != header && isReachable(predecessor)) {
+                        inLoop[predecessor] = header;
+                        worklist[count++] = predecessor;
+                    }
+                }
+            }
+        }
+    }
+
+    private void setInLoop(int block, int header) {
+        loopHeaders[block] = header;
+        loopDepths[block]++;
+    }
+
+    public LIRMethod getMethod() {
+        return method;
+    }
+
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * @return the index of the first instruction of the block in the method
+     */
+    public int getBlockStart(int block) {
+        return blockStarts[block];
+    }
+
+    /**
+     * @return the index after the last instruction of the block in the method
+     */
+    public int getBlockEnd(int block) {
+        return blockStarts[block + 1];
+    }
+
+    public List<Instruction> getInstructions(int block) {
+        return method.getInstructions().subList(blockStarts[block], blockStarts[block + 1]);
+    }
+
+    /**
+     * @return the block of an instruction, by its index in the method
+     */
+    public int getBlockOf(int instruction) {
+        int block = Arrays.binarySearch(blockStarts, instruction);
+        if (block < 0) {
+            return -block - 2;
+        }
+        // Only the end sentinel may equal the start of the block after it.
+        return block == blockCount ? blockCount - 1 : block;
+    }
+
+    /**
+     * @return the blocks the block may continue to; don't modify
+     */
+    public int[] getSuccessors(int block) {
+        return successors[block];
+    }
+
+    /**
+     * @return the blocks that may continue to the block; don't modify
+     */
+    public int[] getPredecessors(int block) {
+        return predecessors[block];
+    }
+
+    /**
+     * @return whether the method may end in the block (it returns)
+     */
+    public boolean isExit(int block) {
+        return successors[block].length == 0;
+    }
+
+    /**
+     * @return the reachable blocks, each before its successors except along back
+     * edges; don't modify
+     */
+    public int[] getReversePostorder() {
+        return reversePostorder;
+    }
+
+    /**
+     * @return the position of the block in getReversePostorder, or NONE if it is unreachable
+     */
+    public int getReversePostorderNumber(int block) {
+        return reversePostorderNumbers[block];
+    }
+
+    public boolean isReachable(int block) {
+        return reversePostorderNumbers[block] != NONE;
+    }
+
+    /**
+     * @return the closest block other than itself that every path to the block
+     * passes through, or NONE for the entry and unreachable blocks
+     */
+    public int getImmediateDominator(int block) {
+        return immediateDominators[block];
+    }
+
+    /**
+     * @return the blocks the block immediately dominates; don't modify
+     */
+    public int[] getDominatorTreeChildren(int block) {
+        return dominatorTreeChildren[block];
+    }
+
+    /**
+     * @return whether every path to the second block passes through the first;
+     * a block dominates itself
+     */
+    public boolean dominates(int dominator, int block) {
+        if (!isReachable(dominator) || !isReachable(block)) {
+            return false;
+        }
+        return dominatorPreorder[dominator] <= dominatorPreorder[block]
+            && dominatorPostorder[dominator] >= dominatorPostorder[block];
+    }
+
+    /**
+     * @return the blocks where the dominance of the block ends: those it doesn't
+     * strictly dominate, but that have a predecessor it dominates; don't modify
+     */
+    public int[] getDominanceFrontier(int block) {
+        if (dominanceFrontiers == null) {
+            computeDominanceFrontiers();
+        }
+        return dominanceFrontiers[block];
+    }
+
+    /**
+     * walks up the dominator tree from the predecessors of every join, as in
+     * "A Simple, Fast Dominance Algorithm"
+     */
+    private void computeDominanceFrontiers() {
+        int[][] frontiers = new int[blockCount][];
+        int[] sizes = new int[blockCount];
+        for (int block : reversePostorder) {
+            if (predecessors[block].length < 2) {
+                continue;
+            }
+            for (int predecessor : predecessors[block]) {
+                if (!isReachable(predecessor)) {
+                    continue;
+                }
+                for (int runner = predecessor; runner != immediateDominators[block] && runner != NONE; runner = immediateDominators[runner]) {
+                    // The walks of a block are done one after the other, so it can
+                    // only have been added last.
+                    if (sizes[runner] > 0 && frontiers[runner][sizes[runner] - 1] == block) {
+                        break;
+                    }
+                    if (frontiers[runner] == null) {
+                        frontiers[runner] = new int[2];
+                    } else if (sizes[runner] == frontiers[runner].length) {
+                        frontiers[runner] = Arrays.copyOf(frontiers[runner], sizes[runner] * 2);
+                    }
+                    frontiers[runner][sizes[runner]++] = block;
+                }
+            }
+        }
+        for (int block = 0; block < blockCount; block++) {
+            frontiers[block] = sizes[block] == 0 ? NO_BLOCKS : Arrays.copyOf(frontiers[block], sizes[block]);
+        }
+        dominanceFrontiers = frontiers;
+    }
+
+    public int getLoopCount() {
+        return loopCount;
+    }
+
+    /**
+     * @return the header of the innermost loop the block is in, the block itself
+     * for a header, or NONE
+     */
+    public int getLoopHeader(int block) {
+        return loopHeaders[block];
+    }
+
+    public boolean isLoopHeader(int block) {
+        return loopHeaders[block] == block;
+    }
+
+    /**
+     * @return the header of the loop that encloses the loop of a header, or NONE
+     */
+    public int getLoopParent(int header) {
+        return loopParents[header];
+    }
+
+    /**
+     * @return the number of loops the block is in
+     */
+    public int getLoopDepth(int block) {
+        return loopDepths[block];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(method.getReference()).append(": ").append(blockCount).append(" blocks, ")
+            .append(loopCount).append(" loops\n");
+        for (int block = 0; block < blockCount; block++) {
+            builder.append("  B").append(block);
+            if (!isReachable(block)) {
+                builder.append(" unreachable");
+            }
+            appendBlocks(builder.append(" preds"), predecessors[block]);
+            appendBlocks(builder.append(" succs"), successors[block]);
+            if (immediateDominators[block] != NONE) {
+                builder.append(" idom B").append(immediateDominators[block]);
+            }
+            if (loopHeaders[block] != NONE) {
+                builder.append(" loop B").append(loopHeaders[block]).append(" depth ").append(loopDepths[block]);
+            }
+            builder.append('\n');
+            for (Instruction instruction : getInstructions(block)) {
+                builder.append(instruction instanceof Label ? "  " : "    ").append(instruction).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+
+    private static void appendBlocks(StringBuilder builder, int[] blocks) {
+        builder.append(" [");
+        for (int i = 0; i < blocks.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append('B').append(blocks[i]);
+        }
+        builder.append(']');
+    }
+}
@@ -0,0 +1,109 @@
+package IC;
+
+import IC.AST.Program;
+import IC.Semantic.SemanticError;
+import IC.Symbols.GlobalSymbolTable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * what a CompilationSession produced for a single IC file
+ */
+public class CompilationResult {
+    private final String fileName;
+    private final CharSequence source;
+    private final Program program;
+    private final GlobalSymbolTable globalSymbolTable;
+    private final Exception parseError;
+    private final List<SemanticError> semanticErrors;
+    private final PhaseTimings timings;
+
+    CompilationResult(String fileName, CharSequence source, Program program, GlobalSymbolTable globalSymbolTable,
+                      Exception parseError, List<SemanticError> semanticErrors, PhaseTimings timings) {
+        this.fileName = fileName;
+        this.source = source;
+        this.program = program;
+        this.globalSymbolTable = globalSymbolTable;
+        this.parseError = parseError;
+        this.semanticErrors = Collections.unmodifiableList(semanticErrors);
+        this.timings = timings;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getSource() {
+        return source.toString();
+    }
+
+    /**
+     * @return the AST (including the Library class, if there is one), or null if parsing failed
+     */
+    public Program getProgram() {
+        return program;
+    }
+
+    /**
+     * @return the symbol table, or null if parsing failed
+     */
+    public GlobalSymbolTable getGlobalSymbolTable() {
+        return globalSymbolTable;
+    }
+
+    /**
+     * @return the SyntaxError or LexicalError that stopped parsing, or null
+     */
+    public Exception getParseError() {
+        return parseError;
+    }
+
+    /**
+     * @return the errors of the first semantic check that failed, empty if all passed
+     */
+    public List<SemanticError> getSemanticErrors() {
+        return semanticErrors;
+    }
+
+    /**
+     * @return the measurements of the phases that ran, empty unless the session records timings
+     */
+    public PhaseTimings getTimings() {
+        return timings;
+    }
+
+    public boolean isParsed() {
+        return program != null;
+    }
+
+    public boolean isSuccessful() {
+        return isParsed() && semanticErrors.isEmpty();
+    }
+
+    /**
+     * @param line 1 based line number
+     * @return the source line, or null if there is no such line
+     */
+    public String getSourceLine(int line) {
+        // Lines end with \n, \r or \r\n, like in BufferedReader.readLine.
+        int currentLine = 1;
+        int start = 0;
+        int length = source.length();
+        for (int i = 0; i < length; i++) {
+            char c = source.charAt(i);
+            if (c != '\n' && c != '\r') {
+                continue;
+            }
+            if (currentLine == line) {
+                return source.subSequence(start, i).toString();
+            }
+            if (c == '\r' && i + 1 < length && source.charAt(i + 1) == '\n') {
+                i++;
+            }
+            start = i + 1;
+            currentLine++;
+        }
+        return currentLine == line && start < length ? source.subSequence(start, length).toString() : null;
+    }
+}
@@ -0,0 +1,425 @@
+package IC;
+
+import IC.AST.ICClass;
+import IC.AST.NodeCounter;
+import IC.AST.Program;
+import IC.Interpreter.BytecodeProgram;
+import IC.Interpreter.BytecodeTranslator;
+import IC.JVM.JVMProgram;
+import IC.JVM.JVMTranslator;
+import IC.X86.AssemblyProgram;
+import IC.X86.X86Translator;
+import IC.LIR.LIRClass;
+import IC.LIR.LIRMethod;
+import IC.LIR.LIRProgram;
+import IC.LIR.LIRTranslator;
+import IC.Optimization.ClassHierarchyAnalysis;
+import IC.Optimization.ConstantFolder;
+import IC.Optimization.DeadCodeElimination;
+import IC.Parser.Lexer;
+import IC.Parser.LexicalError;
+import IC.Parser.Parser;
+import IC.Parser.RecordedLexer;
+import IC.Parser.SyntaxError;
+import IC.SSA.GlobalValueNumbering;
+import IC.SSA.SSAForm;
+import IC.Semantic.*;
+import IC.SymbolTypes.ClassLayout;
+import IC.Symbols.GlobalSymbolTable;
+import IC.Symbols.NameTable;
+import IC.Symbols.SymbolTable;
+
+import java.io.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Parses and checks IC programs without printing anything and without any global
+ * state. A session only holds the (immutable) library, so a single session can
+ * compile many programs at once, from as many threads as needed.
+ */
+public class CompilationSession {
+    private final LibrarySnapshot library;
+    private final boolean separateChecks;
+    private final boolean recordTimings;
+
+    /**
+     * @param library the library every program is compiled with, or null if there is none
+     */
+    public CompilationSession(LibrarySnapshot library) {
+        this(library, false);
+    }
+
+    /**
+     * @param library the library every program is compiled with, or null if there is none
+     * @param separateChecks run every semantic check as its own pass over the AST,
+     *                       instead of all of them in a single SemanticChecker pass
+     */
+    public CompilationSession(LibrarySnapshot library, boolean separateChecks) {
+        this(library, separateChecks, false);
+    }
+
+    /**
+     * @param library the library every program is compiled with, or null if there is none
+     * @param separateChecks run every semantic check as its own pass over the AST,
+     *                       instead of all of them in a single SemanticChecker pass
+     * @param recordTimings measure every phase, see CompilationResult.getTimings
+     */
+    public CompilationSession(LibrarySnapshot library, boolean separateChecks, boolean recordTimings) {
+        this.library = library;
+        this.separateChecks = separateChecks;
+        this.recordTimings = recordTimings;
+    }
+
+    public LibrarySnapshot getLibrary() {
+        return library;
+    }
+
+    /**
+     * compiles an IC file, which is memory mapped and scanned in place
+     *
+     * @param icFileName path of the file
+     * @return the result
+     * @throws IOException if the file can't be read
+     */
+    public CompilationResult compile(String icFileName) throws IOException {
+        Lexer lexer = Lexer.fromFile(icFileName);
+        return compile(icFileName, lexer.getSource(), lexer);
+    }
+
+    /**
+     * compiles IC source text
+     *
+     * @param icFileName the name the program is known by (names the global symbol table)
+     * @param source the IC program
+     * @return the result
+     */
+    public CompilationResult compile(String icFileName, String source) {
+        return compile(icFileName, source, new Lexer(new StringReader(source)));
+    }
+
+    private CompilationResult compile(String icFileName, CharSequence source, Lexer lexer) {
+        PhaseTimings timings = new PhaseTimings(icFileName, recordTimings);
+        // The names of the program live as long as its AST. The library's names are
+        // interned first, so they have the same ids in every compilation.
+        NameTable names = new NameTable();
+        ICClass libraryClass = library == null ? null : library.createLibraryClass(names);
+        lexer.setNameTable(names);
+        if (timings.isEnabled()) {
+            // The parser pulls tokens as it goes, so scanning is only measured on its
+            // own when all the tokens are scanned before parsing.
+            timings.begin("lex");
+            try {
+                RecordedLexer recorded = RecordedLexer.record(lexer);
+                timings.count("tokens", recorded.getTokenCount());
+                lexer = recorded;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                timings.end();
+            }
+        }
+
+        Program program;
+        int parseErrors = 0;
+        timings.begin("parse");
+        try {
+            program = (Program) new Parser(lexer).parse().value;
+        } catch (SyntaxError | LexicalError e) {
+            parseErrors = 1;
+            return new CompilationResult(icFileName, source, null, null, e, Collections.<SemanticError>emptyList(), timings);
+        } catch (Exception e) {
+            // parse() is declared to throw Exception, but the Parser only reports the two above.
+            throw new IllegalStateException(e);
+        } finally {
+            timings.end(parseErrors);
+        }
+
+        SymbolTableBuilder symTabBuilder;
+        if (library != null) {
+            program.getClasses().add(0, libraryClass);
+            // The library is the first class, so the type table starts with its types.
+            symTabBuilder = new SymbolTableBuilder(new File(icFileName).getName(), library.createTypeTableSeed(names));
+        } else {
+            symTabBuilder = new SymbolTableBuilder(new File(icFileName).getName());
+        }
+        GlobalSymbolTable symbolTable;
+        timings.begin("symbol tables", program);
+        try {
+            symbolTable = symTabBuilder.visit(program);
+        } finally {
+            timings.end(symTabBuilder.getErrors().size());
+        }
+        List<SemanticError> errors = semanticChecks(program, symTabBuilder.getErrors(), timings);
+        if (timings.isEnabled()) {
+            countSizes(timings, program, symbolTable);
+            timings.count("names", names.size());
+        }
+        return new CompilationResult(icFileName, source, program, symbolTable, null, errors, timings);
+    }
+
+    /**
+     * folds and propagates the constants of a program that compiled successfully
+     * (-O), as the "constant folding" phase of its timings; the AST is changed in
+     * place, so it has to happen before lowering
+     *
+     * @param result a successful result of this session
+     */
+    public void foldConstants(CompilationResult result) {
+        if (!result.isSuccessful()) {
+            throw new IllegalArgumentException("Can't optimize a program with errors: " + result.getFileName());
+        }
+        PhaseTimings timings = result.getTimings();
+        ConstantFolder folder = new ConstantFolder();
+        timings.begin("constant folding", result.getProgram());
+        try {
+            folder.visit(result.getProgram());
+        } finally {
+            timings.end();
+        }
+        timings.count("constants folded", folder.getFoldedCount());
+        timings.count("constants propagated", folder.getPropagatedCount());
+    }
+
+    /**
+     * lays out the classes of a program that compiled successfully (the "layout"
+     * phase of its timings), and translates it to LIR (the "lir" phase)
+     *
+     * @param result a successful result of this session
+     * @return the LIR of the program
+     */
+    public LIRProgram lower(CompilationResult result) {
+        if (!result.isSuccessful()) {
+            throw new IllegalArgumentException("Can't translate a program with errors: " + result.getFileName());
+        }
+        PhaseTimings timings = result.getTimings();
+        timings.begin("layout");
+        try {
+            ClassLayout.compute(result.getGlobalSymbolTable());
+        } finally {
+            timings.end();
+        }
+        timings.begin("lir", result.getProgram());
+        try {
+            return new LIRTranslator(result.getProgram()).translate();
+        } finally {
+            timings.end();
+        }
+    }
+
+    /**
+     * optimizes the LIR of a program in place (-O): the virtual calls with a single
+     * implementation are made direct, and every method is converted to SSA form,
+     * value numbered, and converted back, and its dead code is removed
+     *
+     * @param result the result the LIR was lowered from, whose timings get the phases
+     */
+    public void optimize(CompilationResult result, LIRProgram lir) {
+        PhaseTimings timings = result.getTimings();
+        ClassHierarchyAnalysis hierarchy = new ClassHierarchyAnalysis(result.getGlobalSymbolTable());
+        timings.begin("devirtualization");
+        try {
+            for (LIRClass lirClass : lir.getClasses()) {
+                for (LIRMethod method : lirClass.getMethods()) {
+                    hierarchy.devirtualize(method);
+                }
+            }
+        } finally {
+            timings.end();
+        }
+        timings.count("virtual calls", hierarchy.getVirtualCallCount());
+        timings.count("devirtualized calls", hierarchy.getDevirtualizedCount());
+
+        List<SSAForm> forms = new ArrayList<>();
+        timings.begin("ssa");
+        try {
+            for (LIRClass lirClass : lir.getClasses()) {
+                for (LIRMethod method : lirClass.getMethods()) {
+                    forms.add(SSAForm.construct(method));
+                }
+            }
+        } finally {
+            timings.end();
+        }
+
+        int numbered = 0;
+        timings.begin("gvn");
+        try {
+            for (SSAForm form : forms) {
+                numbered += GlobalValueNumbering.run(form);
+            }
+        } finally {
+            timings.end();
+        }
+        timings.count("gvn removed", numbered);
+
+        timings.begin("ssa destruction");
+        try {
+            for (SSAForm form : forms) {
+                form.destruct();
+            }
+        } finally {
+            timings.end();
+        }
+
+        DeadCodeElimination elimination = new DeadCodeElimination();
+        timings.begin("dead code");
+        try {
+            for (SSAForm form : forms) {
+                elimination.run(form.getMethod());
+            }
+        } finally {
+            timings.end();
+        }
+        timings.count("dead blocks removed", elimination.getRemovedBlockCount());
+        timings.count("dead instructions removed", elimination.getRemovedInstructionCount());
+    }
+
+    /**
+     * translates the (optimized or not) LIR of a program to the bytecode the
+     * interpreter runs, as the "bytecode" phase of its timings
+     *
+     * @param result the result the LIR was lowered from, whose timings get the phase
+     */
+    public BytecodeProgram toBytecode(CompilationResult result, LIRProgram lir) {
+        PhaseTimings timings = result.getTimings();
+        timings.begin("bytecode");
+        BytecodeProgram bytecode;
+        try {
+            bytecode = BytecodeTranslator.translate(lir);
+        } finally {
+            timings.end();
+        }
+        timings.count("bytecode size", bytecode.getCodeSize());
+        return bytecode;
+    }
+
+    /**
+     * translates the (optimized or not) LIR of a program to JVM classes, as the
+     * "jvm" phase of its timings
+     *
+     * @param result the result the LIR was lowered from, whose timings get the phase
+     */
+    public JVMProgram toJVM(CompilationResult result, LIRProgram lir) {
+        PhaseTimings timings = result.getTimings();
+        timings.begin("jvm");
+        JVMProgram classes;
+        try {
+            classes = JVMTranslator.translate(lir);
+        } finally {
+            timings.end();
+        }
+        timings.count("class file bytes", classes.getSize());
+        return classes;
+    }
+
+    /**
+     * translates the (optimized or not) LIR of a program to x86-64 assembly, as
+     * the "x86" phase of its timings
+     *
+     * @param result the result the LIR was lowered from, whose timings get the phase
+     */
+    public AssemblyProgram toAssembly(CompilationResult result, LIRProgram lir) {
+        PhaseTimings timings = result.getTimings();
+        timings.begin("x86");
+        AssemblyProgram assembly;
+        try {
+            assembly = X86Translator.translate(lir);
+        } finally {
+            timings.end();
+        }
+        timings.count("assembly lines", assembly.getLineCount());
+        timings.count("spilled registers", assembly.getSpillCount());
+        return assembly;
+    }
+
+    private static void countSizes(PhaseTimings timings, Program program, GlobalSymbolTable symbolTable) {
+        timings.count("AST nodes", NodeCounter.count(program));
+        int tables = 0;
+        int symbols = 0;
+        Deque<SymbolTable> scopes = new ArrayDeque<>();
+        scopes.push(symbolTable);
+        while (!scopes.isEmpty()) {
+            SymbolTable scope = scopes.pop();
+            tables++;
+            symbols += scope.getSymbolCount();
+            for (SymbolTable child : scope.getChildren()) {
+                scopes.push(child);
+            }
+        }
+        timings.count("symbol tables", tables);
+        timings.count("symbols", symbols);
+        timings.count("types", symbolTable.getTypeTable().getSymbolTypes().size());
+    }
+
+    /**
+     * runs the checks in order, stopping at the first one that finds errors
+     *
+     * @return the errors of the failing check, or an empty list
+     */
+    private List<SemanticError> semanticChecks(Program program, List<SemanticError> symbolTableErrors, PhaseTimings timings) {
+        if (!symbolTableErrors.isEmpty()) {
+            return symbolTableErrors;
+        }
+        if (!separateChecks) {
+            SemanticChecker checker = new SemanticChecker();
+            timings.begin("semantic checks", program);
+            try {
+                checker.visit(program, new TypeCheckingContext());
+            } finally {
+                timings.end(checker.getErrors().size());
+            }
+            return checker.getErrors();
+        }
+
+        //scope
+        ScopeChecker scopeChecker = new ScopeChecker();
+        timings.begin("scope check", program);
+        try {
+            scopeChecker.visit(program);
+        } finally {
+            timings.end(scopeChecker.getErrors().size());
+        }
+        if (!scopeChecker.getErrors().isEmpty()) {
+            return scopeChecker.getErrors();
+        }
+
+        //type check
+        TypeChecker typeChecker = new TypeChecker();
+        timings.begin("type check", program);
+        try {
+            typeChecker.visit(program, new TypeCheckingContext());
+        } finally {
+            timings.end(typeChecker.getErrors().size());
+        }
+        if (!typeChecker.getErrors().isEmpty()) {
+            return typeChecker.getErrors();
+        }
+
+        //single main check
+        SemanticError mainValidatorResult = null;
+        timings.begin("main check", program);
+        try {
+            mainValidatorResult = new MainFunctionValidator().visit(program);
+        } finally {
+            timings.end(mainValidatorResult == null ? 0 : 1);
+        }
+        if (mainValidatorResult != null) {
+            return Collections.singletonList(mainValidatorResult);
+        }
+
+        // break continue only in loop
+        //this only in instance mothods
+        BreakContinueValidator keywordValid = new BreakContinueValidator();
+        timings.begin("break/continue check", program);
+        try {
+            keywordValid.visit(program);
+        } finally {
+            timings.end(keywordValid.getErrors().size());
+        }
+        return keywordValid.getErrors();
+    }
+}
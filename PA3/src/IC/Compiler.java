@@ -2,209 +2,319 @@ package IC;
 
 import IC.AST.ICClass;
 import IC.AST.PrettyPrinter;
-import IC.AST.Program;
+import IC.CFG.ControlFlowGraph;
+import IC.Dataflow.DataflowReport;
+import IC.Dataflow.DataflowRunner;
+import IC.Interpreter.BytecodeProgram;
+import IC.Interpreter.Interpreter;
+import IC.JVM.JVMProgram;
+import IC.LIR.LIRClass;
+import IC.LIR.LIRMethod;
+import IC.LIR.LIRProgram;
 import IC.Parser.*;
-import IC.Semantic.*;
-import IC.Symbols.GlobalSymbolTable;
+import IC.X86.AssemblyProgram;
+import IC.Semantic.SemanticError;
 import java_cup.runtime.Symbol;
 
 import java.io.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 
 /**
  * Main class of the jar project
  */
 public class Compiler {
-    private static String icFileName;
-    private static String libFileName;
-    private static boolean printAst;
-    private static boolean dumpsymtab;
+    private final String icFileName;
+    private final boolean printAst;
+    private final boolean printLir;
+    private final boolean printCfg;
+    private final boolean printDataflow;
+    private final boolean optimize;
+    private final boolean dumpsymtab;
+    private final boolean timings;
+    private final boolean run;
+    private final List<String> programArgs;
+    private final String jarPath;
+    private final String assemblyPath;
+    private final PrintStream out;
+    private final PrintStream err;
+    private int exitCode = 0;
 
-    public static void main(String[] args) {
-
-        Options options = Options.parseCommandLineArgs(args);
-        libFileName = options.getLibicPath();
-        icFileName = options.getICFile();
-        printAst = options.isPrintAST();
-        dumpsymtab = options.isDumpSymTab();
-
-        try { //main try
+    /**
+     * @param options the options of this compilation
+     * @param icFileName the file to compile
+     * @param out replaces System.out
+     * @param err replaces System.err
+     */
+    public Compiler(Options options, String icFileName, PrintStream out, PrintStream err) {
+        this.icFileName = icFileName;
+        this.printAst = options.isPrintAST();
+        this.printLir = options.isPrintLIR();
+        this.printCfg = options.isPrintCFG();
+        this.printDataflow = options.isPrintDataflow();
+        this.optimize = options.isOptimize();
+        this.dumpsymtab = options.isDumpSymTab();
+        this.timings = options.isTimings();
+        this.run = options.isRun();
+        this.programArgs = options.getProgramArgs();
+        this.jarPath = options.getJarPath();
+        this.assemblyPath = options.getAssemblyPath();
+        this.out = out;
+        this.err = err;
+    }
 
-            ICClass libRootSymbol = null;
-            Program icRootClass;
+    public static void main(String[] args) {
 
-            if (libFileName != null) {
-                libRootSymbol = (ICClass) parseLibFile(libFileName);
-            }
-            icRootClass = parseMainFile();
-
-            if (icRootClass != null) {
-                if (semanticChecks(libRootSymbol, icRootClass)) {
-                    if (printAst) {
-                        PrettyPrinter prettyPrinter = new PrettyPrinter(icFileName);
-                        prettyPrinter.isEnabledASTLibraryPrinting(false);
-                        String output = (String) icRootClass.accept(prettyPrinter);
-                        System.out.println(output);
-                    }
-                }
+        Options options;
+        try {
+            options = Options.parseCommandLineArgs(args);
+        } catch (OptionsException e) {
+            if (!e.getMessage().isEmpty()) {
+                System.out.println(e.getMessage());
             }
+            System.out.println("Can't run compiler.");
+            System.out.println(Options.getUsage());
+            System.exit(1);
+            return;
+        }
+        if (options.isServerMode()) {
+            new CompilerServer(options).run();
+            return;
+        }
 
+        LibrarySnapshot library = null;
+        try {
+            if (options.getLibicPath() != null) {
+                library = parseLibFile(options.getLibicPath(), options.getSnapshotDirectory(), System.out, System.err);
+            }
         } catch (FileNotFoundException e) {
             System.err.print("File not found");
             System.err.println(e.getStackTrace());
+            return;
         } catch (Exception e) {
             e.printStackTrace();
-            //System.err.println(e.getStackTrace()  + e.getMessage();
+            return;
+        }
+
+        if (options.isBatchMode()) {
+            new BatchCompiler(options, library).run();
+        } else {
+            Compiler compiler = new Compiler(options, options.getICFile(), System.out, System.err);
+            compiler.compile(new CompilationSession(library, options.isSeparateChecks(), options.isTimings()));
+            if (compiler.getExitCode() != 0) {
+                System.exit(compiler.getExitCode());
+            }
         }
     }
 
     /**
-     * does semntic checks and populates type tables
+     * @return the exit code of the program run with -run, or 0
+     */
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    /**
+     * compiles the IC file and prints the results
      *
-     * @param libRootSymbol library
-     * @param icRootClass   root file
-     * @return is succeded
-     * @throws IOException file not found
+     * @param session the session to compile with
      */
-    private static boolean semanticChecks(ICClass libRootSymbol, Program icRootClass) throws IOException {
-        //semantic checks
+    public void compile(CompilationSession session) {
+        try { //main try
 
-        //add class to root class
-        if (libRootSymbol != null) {
-            icRootClass.getClasses().add(0, libRootSymbol);
-        }
+            CompilationResult result = session.compile(icFileName);
+            try {
+                printResult(session, result);
+            } finally {
+                if (timings) {
+                    printTimings(result);
+                }
+            }
 
-        SymbolTableBuilder symTabBuilder = new SymbolTableBuilder(new File(icFileName).getName());
-        GlobalSymbolTable symbolTable = symTabBuilder.visit(icRootClass);
-        if (printErrors(icFileName, symTabBuilder.getErrors())) {
-            return false;
+        } catch (FileNotFoundException e) {
+            err.print("File not found");
+            err.println(e.getStackTrace());
+        } catch (Exception e) {
+            e.printStackTrace(err);
+            //System.err.println(e.getStackTrace()  + e.getMessage();
         }
+    }
 
-
-        //scope
-        ScopeChecker scopeChecker = new ScopeChecker();
-        scopeChecker.visit(icRootClass);
-        if (printErrors(icFileName, scopeChecker.getErrors())) {
-            return false;
+    private void printResult(CompilationSession session, CompilationResult result) {
+        if (!result.isParsed()) {
+            printParseError(result.getParseError());
+            return;
         }
+        out.println(String.format("Parsed %s successfully!", icFileName));
 
-        //type check
-        TypeChecker typeChecker = new TypeChecker();
-        typeChecker.visit(icRootClass, new TypeCheckingContext());
-        if (printErrors(icFileName, typeChecker.getErrors())) {
-            return false;
+        if (printErrors(result, result.getSemanticErrors())) {
+            return;
         }
+        if (dumpsymtab) {
+            out.println();
+            out.println(result.getGlobalSymbolTable().toString());
+        }
+        if (printAst) {
+            PrettyPrinter prettyPrinter = new PrettyPrinter(icFileName);
+            prettyPrinter.isEnabledASTLibraryPrinting(false);
+            String output = (String) result.getProgram().accept(prettyPrinter);
+            out.println(output);
+        }
+        if (printLir || printCfg || printDataflow || run || jarPath != null || assemblyPath != null) {
+            if (optimize) {
+                session.foldConstants(result);
+            }
+            LIRProgram lir = session.lower(result);
+            if (optimize) {
+                session.optimize(result, lir);
+            }
+            if (printLir) {
+                out.println();
+                out.print(lir);
+            }
+            if (printCfg) {
+                printGraphs(lir);
+            }
+            if (printDataflow) {
+                for (String report : DataflowRunner.analyze(lir, DataflowReport::describe, false).values()) {
+                    out.println();
+                    out.print(report);
+                }
+            }
+            if (jarPath != null) {
+                writeJar(session, result, lir);
+            }
+            if (assemblyPath != null) {
+                writeAssembly(session, result, lir);
+            }
+            if (run) {
+                runProgram(session, result, lir);
+            }
+        }
+    }
 
-
-        //single main check
-        MainFunctionValidator mainValidator = new MainFunctionValidator();
-        SemanticError mainValidatorResult = mainValidator.visit(icRootClass);
-        if (mainValidatorResult != null) {
-            printError(icFileName, mainValidatorResult);
-            return false;
+    /**
+     * runs the program with the interpreter, on stdin and out, as the "run" phase
+     * of the timings
+     */
+    private void runProgram(CompilationSession session, CompilationResult result, LIRProgram lir) {
+        BytecodeProgram bytecode = session.toBytecode(result, lir);
+        result.getTimings().begin("run");
+        try {
+            exitCode = new Interpreter(bytecode, System.in, out, err).run(programArgs);
+        } finally {
+            result.getTimings().end();
         }
+    }
 
-        // break continue only in loop
-        //this only in instance mothods
-        BreakContinueValidator keywordValid = new BreakContinueValidator();
-        keywordValid.visit(icRootClass);
-        if (printErrors(icFileName, keywordValid.getErrors())) {
-            return false;
+    /**
+     * writes the program as JVM classes to the jar, which java -jar runs
+     */
+    private void writeJar(CompilationSession session, CompilationResult result, LIRProgram lir) {
+        JVMProgram classes = session.toJVM(result, lir);
+        try (OutputStream jar = new FileOutputStream(jarPath)) {
+            classes.writeJar(jar);
+        } catch (IOException e) {
+            err.println("Can't write jar " + jarPath + ": " + e.getMessage());
         }
+    }
 
-        if (dumpsymtab) {
-            System.out.println();
-            System.out.println(symbolTable.toString());
+    /**
+     * writes the program as x86-64 assembly, which gcc links with runtime/libic.c
+     */
+    private void writeAssembly(CompilationSession session, CompilationResult result, LIRProgram lir) {
+        AssemblyProgram assembly = session.toAssembly(result, lir);
+        try (Writer file = new FileWriter(assemblyPath)) {
+            file.write(assembly.toString());
+        } catch (IOException e) {
+            err.println("Can't write assembly " + assemblyPath + ": " + e.getMessage());
         }
-        return true;
     }
 
+    private void printGraphs(LIRProgram lir) {
+        for (LIRClass lirClass : lir.getClasses()) {
+            for (LIRMethod method : lirClass.getMethods()) {
+                out.println();
+                out.print(ControlFlowGraph.build(method));
+            }
+        }
+    }
 
     /**
-     * parse the main IC file
-     *
-     * @return Program (symbol)
-     * @throws Exception
+     * prints the timings as a table, followed by the same numbers as a line of JSON
      */
-    private static Program parseMainFile() throws Exception {
-        FileReader programFile = new FileReader(icFileName);
-        Lexer scanner = new Lexer(programFile);
-        Parser parser = new Parser(scanner);
-        try {
-            Symbol rootSymbol = parser.parse();
-            System.out.println(String.format("Parsed %s successfully!", icFileName));
-            return (Program) rootSymbol.value;
+    private void printTimings(CompilationResult result) {
+        out.println();
+        out.print(result.getTimings().toTable());
+        out.println(result.getTimings().toJson());
+    }
 
-        } catch (SyntaxError e) {
-            System.err.print("Syntax Error while parsing IC File " + icFileName + ": ");
-            System.err.println(e.toString());
-        } catch (LexicalError e) {
-            System.err.print("Lexical error while parsing IC File " + icFileName + ": ");
-            System.err.println(e.toString());
-        } finally {
-            programFile.close();
+    private void printParseError(Exception e) {
+        if (e instanceof SyntaxError) {
+            err.print("Syntax Error while parsing IC File " + icFileName + ": ");
+        } else {
+            err.print("Lexical error while parsing IC File " + icFileName + ": ");
         }
-        return null;
+        err.println(e.toString());
     }
 
     /**
-     * parse the library file
+     * parse the library file, or load its snapshot if it was parsed before
      *
      * @param libFileName
-     * @return
+     * @param snapshotDirectory where snapshots are saved, or null for the default one
+     * @param out replaces System.out
+     * @param err replaces System.err
+     * @return the parsed library, or null if parsing failed
      * @throws Exception
      */
-    private static Object parseLibFile(String libFileName) throws Exception {
-        FileReader libFile = new FileReader(libFileName);
-        Lexer libLexer = new Lexer(libFile);
+    static LibrarySnapshot parseLibFile(String libFileName, String snapshotDirectory, PrintStream out, PrintStream err) throws Exception {
+        Path directory = snapshotDirectory != null ? Paths.get(snapshotDirectory) : LibrarySnapshot.getDefaultDirectory();
+        byte[] signatureHash = LibrarySnapshot.hashSignatureFile(libFileName);
+        LibrarySnapshot snapshot = LibrarySnapshot.load(directory, signatureHash);
+        if (snapshot != null) {
+            out.println(String.format("Parsed %s successfully!", libFileName));
+            return snapshot;
+        }
+
+        Lexer libLexer = Lexer.fromFile(libFileName);
         LibParser libParser = new LibParser(libLexer);
         try { //parsing library file
             Symbol libRootSymbol = libParser.parse();
-            if (libRootSymbol != null) {
-                System.out.println(String.format("Parsed %s successfully!", libFileName));
-                return libRootSymbol.value;
+            if (libRootSymbol != null && libRootSymbol.value != null) {
+                out.println(String.format("Parsed %s successfully!", libFileName));
+                snapshot = LibrarySnapshot.create((ICClass) libRootSymbol.value);
+                snapshot.save(directory, signatureHash);
+                return snapshot;
             } else {
-                System.err.println(String.format("Parsed %s Failed!", libFileName));
+                err.println(String.format("Parsed %s Failed!", libFileName));
             }
         } catch (SyntaxError e) {
-            System.err.print("Syntax error while parsing Library File " + libFileName + ": ");
-            System.err.println(e.toString());
+            err.print("Syntax error while parsing Library File " + libFileName + ": ");
+            err.println(e.toString());
         } catch (LexicalError e) {
-            System.err.print("Lexical error while parsing Library File " + libFileName + ": ");
-            System.err.println(e.toString());
-        } finally {
-            libFile.close();
+            err.print("Lexical error while parsing Library File " + libFileName + ": ");
+            err.println(e.toString());
         }
         return null;
     }
 
-    private static boolean printErrors(String filepath, List<SemanticError> errors) throws IOException {
+    private boolean printErrors(CompilationResult result, List<SemanticError> errors) {
         boolean hadErrors2 = false;
         for (SemanticError error : errors) {
-            printError(filepath, error);
+            printError(result, error);
             hadErrors2 = true;
         }
         return hadErrors2;
     }
 
-    private static void printError(String filepath, ICCompilerError e)
-        throws IOException {
-        System.out.println();
-        System.out.println(e);
-        printLine(filepath, e.getLine());
-    }
-
-    private static void printLine(String filepath, int line) throws IOException {
-        BufferedReader in = new BufferedReader(new FileReader(filepath));
-        int currentLine = 0;
-        String strLine;
-        while ((strLine = in.readLine()) != null) {
-            if (++currentLine == line) {
-                // Print the content on the console
-                System.out.println("Line " + line + ": " + strLine);
-                break;
-            }
+    private void printError(CompilationResult result, ICCompilerError e) {
+        out.println();
+        out.println(e);
+        String line = result.getSourceLine(e.getLine());
+        if (line != null) {
+            out.println("Line " + e.getLine() + ": " + line);
         }
     }
 }
-
@@ -0,0 +1,158 @@
+package IC;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Long living compiler process. Keeps the JVM (and the JIT) warm and every
+ * library signature file parsed only once, so a compile request costs only the
+ * parsing and checking of the IC file itself.
+ *
+ * A request is a single line with the same syntax as the command line, e.g.
+ * "test/Quicksort.ic -print-ast". Requests without -L use the library given when
+ * the server was started. Requests are read from stdin (the end of every response
+ * is marked with END_OF_RESPONSE), or, when a port is given, from connections to
+ * that port on the loopback interface (one request per connection).
+ */
+public class CompilerServer {
+    public static final String END_OF_RESPONSE = "%%";
+    public static final String SHUTDOWN_REQUEST = "shutdown";
+
+    private final Options serverOptions;
+    private final Map<String, ParsedLibrary> libraries = new HashMap<>();
+
+    public CompilerServer(Options serverOptions) {
+        this.serverOptions = serverOptions;
+    }
+
+    /**
+     * serves requests until stdin is closed or a shutdown request arrives
+     */
+    public void run() {
+        if (serverOptions.getLibicPath() != null) {
+            getLibrary(serverOptions.getLibicPath(), System.out, System.err);
+        }
+        try {
+            if (serverOptions.getServerPort() == Options.NO_PORT) {
+                serveStdin();
+            } else {
+                serveSocket(serverOptions.getServerPort());
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void serveStdin() throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        String request;
+        while ((request = in.readLine()) != null) {
+            if (request.trim().equals(SHUTDOWN_REQUEST)) {
+                return;
+            }
+            if (request.trim().isEmpty()) {
+                continue;
+            }
+            handleRequest(request, System.out, System.err);
+            System.err.flush();
+            System.out.println(END_OF_RESPONSE);
+            System.out.flush();
+        }
+    }
+
+    private void serveSocket(int port) throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            System.out.println("Compiler server listening on port " + serverSocket.getLocalPort());
+            while (true) {
+                try (Socket client = serverSocket.accept()) {
+                    BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream()));
+                    PrintStream clientOut = new PrintStream(new BufferedOutputStream(client.getOutputStream()), false);
+                    String request = in.readLine();
+                    if (request == null) {
+                        continue;
+                    }
+                    if (request.trim().equals(SHUTDOWN_REQUEST)) {
+                        return;
+                    }
+                    handleRequest(request, clientOut, clientOut);
+                    clientOut.flush();
+                } catch (IOException e) {
+                    // A broken connection shouldn't take the server down.
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private void handleRequest(String request, PrintStream out, PrintStream err) {
+        Options options;
+        try {
+            options = Options.parseRequestArgs(request.trim().split("\\s+"));
+        } catch (OptionsException e) {
+            if (!e.getMessage().isEmpty()) {
+                out.println(e.getMessage());
+            }
+            out.println("Can't run compiler.");
+            out.println(Options.getUsage());
+            return;
+        }
+
+        String libPath = options.getLibicPath() != null ? options.getLibicPath() : serverOptions.getLibicPath();
+        LibrarySnapshot library = null;
+        if (libPath != null) {
+            library = getLibrary(libPath, out, err);
+        }
+
+        if (options.isBatchMode()) {
+            new BatchCompiler(options, library, out, err).run();
+        } else {
+            new Compiler(options, options.getICFile(), out, err).compile(new CompilationSession(library, options.isSeparateChecks(), options.isTimings()));
+        }
+    }
+
+    /**
+     * returns the parsed library, parsing the file only if it wasn't parsed
+     * before or was modified since.
+     */
+    private LibrarySnapshot getLibrary(String libPath, PrintStream out, PrintStream err) {
+        File libFile = new File(libPath);
+        String key;
+        try {
+            key = libFile.getCanonicalPath();
+        } catch (IOException e) {
+            key = libFile.getAbsolutePath();
+        }
+        ParsedLibrary cached = libraries.get(key);
+        if (cached != null && cached.lastModified == libFile.lastModified()) {
+            out.println(String.format("Parsed %s successfully!", libPath));
+            return cached.snapshot;
+        }
+
+        try {
+            LibrarySnapshot snapshot = Compiler.parseLibFile(libPath, serverOptions.getSnapshotDirectory(), out, err);
+            if (snapshot != null) {
+                libraries.put(key, new ParsedLibrary(snapshot, libFile.lastModified()));
+            }
+            return snapshot;
+        } catch (FileNotFoundException e) {
+            err.println("File not found: " + libPath);
+        } catch (Exception e) {
+            e.printStackTrace(err);
+        }
+        return null;
+    }
+
+    private static class ParsedLibrary {
+        final LibrarySnapshot snapshot;
+        final long lastModified;
+
+        ParsedLibrary(LibrarySnapshot snapshot, long lastModified) {
+            this.snapshot = snapshot;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package IC.Dataflow;
+
+import IC.CFG.ControlFlowGraph;
+import IC.LIR.Instruction;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A bit vector dataflow analysis over the control flow graph of a method, solved
+ * with a worklist. Every bit is a fact (e.g. "register 3 is live"), and the facts
+ * of the predecessors of a block (or of its successors, going backward) are merged
+ * by union for "may" analyses and by intersection for "must" analyses.
+ *
+ * The worklist is a BitSet of positions in reverse postorder (in postorder going
+ * backward), and the first pending position is always taken next, so every block
+ * is visited after the blocks it depends on, except along loops, and acyclic code
+ * converges in a single pass. Unreachable blocks are never visited.
+ *
+ * Subclasses define the facts of a single instruction, and are solved by a static
+ * analyze method, after they are fully constructed.
+ */
+public abstract class DataflowAnalysis {
+    public enum Direction {
+        FORWARD,
+        BACKWARD
+    }
+
+    protected final ControlFlowGraph graph;
+    private final Direction direction;
+    private final boolean union;
+    private final int size;
+    // The facts at the start and at the end of every block, in program order.
+    private final BitSet[] in;
+    private final BitSet[] out;
+    private int visits = 0;
+
+    /**
+     * @param union whether facts are merged by union (may) or intersection (must)
+     * @param size the number of facts
+     */
+    protected DataflowAnalysis(ControlFlowGraph graph, Direction direction, boolean union, int size) {
+        this.graph = graph;
+        this.direction = direction;
+        this.union = union;
+        this.size = size;
+        this.in = new BitSet[graph.getBlockCount()];
+        this.out = new BitSet[graph.getBlockCount()];
+    }
+
+    /**
+     * sets the facts at the entry of the method, or at its exits going backward
+     */
+    protected abstract void initBoundary(BitSet facts);
+
+    /**
+     * changes the facts before an instruction to those after it (the other way
+     * around going backward)
+     *
+     * @param index the index of the instruction in the method
+     */
+    protected abstract void transfer(Instruction instruction, int index, BitSet facts);
+
+    /**
+     * solves the analysis, called once by the analyze methods of subclasses
+     */
+    protected final void solve() {
+        for (int block = 0; block < graph.getBlockCount(); block++) {
+            in[block] = top();
+            out[block] = top();
+        }
+        int[] order = graph.getReversePostorder();
+        BitSet pending = new BitSet(order.length);
+        pending.set(0, order.length);
+        boolean forward = direction == Direction.FORWARD;
+        for (int position = pending.nextSetBit(0); position >= 0; position = pending.nextSetBit(0)) {
+            pending.clear(position);
+            visits++;
+            int block = forward ? order[position] : order[order.length - 1 - position];
+            BitSet facts = forward ? meetPredecessors(block) : meetSuccessors(block);
+            if (forward) {
+                in[block] = (BitSet) facts.clone();
+            } else {
+                out[block] = (BitSet) facts.clone();
+            }
+            transferBlock(block, facts, forward ? graph.getBlockEnd(block) : graph.getBlockStart(block));
+            BitSet previous = forward ? out[block] : in[block];
+            if (facts.equals(previous)) {
+                continue;
+            }
+            if (forward) {
+                out[block] = facts;
+                for (int successor : graph.getSuccessors(block)) {
+                    pending.set(graph.getReversePostorderNumber(successor));
+                }
+            } else {
+                in[block] = facts;
+                for (int predecessor : graph.getPredecessors(block)) {
+                    if (graph.isReachable(predecessor)) {
+                        pending.set(order.length - 1 - graph.getReversePostorderNumber(predecessor));
+                    }
+                }
+            }
+        }
+    }
+
+    private BitSet top() {
+        // Sets of a may analysis only grow as large as their last fact.
+        BitSet facts = new BitSet();
+        if (!union) {
+            facts.set(0, size);
+        }
+        return facts;
+    }
+
+    private BitSet meetPredecessors(int block) {
+        BitSet facts = null;
+        if (block == 0) {
+            facts = new BitSet();
+            initBoundary(facts);
+        }
+        for (int predecessor : graph.getPredecessors(block)) {
+            if (graph.isReachable(predecessor)) {
+                facts = meet(facts, out[predecessor]);
+            }
+        }
+        return facts == null ? top() : facts;
+    }
+
+    private BitSet meetSuccessors(int block) {
+        if (graph.isExit(block)) {
+            BitSet facts = new BitSet();
+            initBoundary(facts);
+            return facts;
+        }
+        BitSet facts = null;
+        for (int successor : graph.getSuccessors(block)) {
+            facts = meet(facts, in[successor]);
+        }
+        return facts;
+    }
+
+    private BitSet meet(BitSet facts, BitSet other) {
+        if (facts == null) {
+            return (BitSet) other.clone();
+        }
+        if (union) {
+            facts.or(other);
+        } else {
+            facts.and(other);
+        }
+        return facts;
+    }
+
+    /**
+     * transfers the facts of a block from its start up to the instruction at the
+     * index, exclusive, or going backward, from its end down to it, inclusive
+     */
+    private void transferBlock(int block, BitSet facts, int until) {
+        List<Instruction> instructions = graph.getMethod().getInstructions();
+        if (direction == Direction.FORWARD) {
+            for (int i = graph.getBlockStart(block); i < until; i++) {
+                transfer(instructions.get(i), i, facts);
+            }
+        } else {
+            for (int i = graph.getBlockEnd(block) - 1; i >= until; i--) {
+                transfer(instructions.get(i), i, facts);
+            }
+        }
+    }
+
+    public ControlFlowGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return the facts at the start of a block; don't modify
+     */
+    public BitSet getIn(int block) {
+        return in[block];
+    }
+
+    /**
+     * @return the facts at the end of a block; don't modify
+     */
+    public BitSet getOut(int block) {
+        return out[block];
+    }
+
+    /**
+     * @return the facts right before an instruction, by its index in the method
+     */
+    public BitSet getBefore(int instruction) {
+        int block = graph.getBlockOf(instruction);
+        BitSet facts = (BitSet) (direction == Direction.FORWARD ? in[block] : out[block]).clone();
+        transferBlock(block, facts, instruction);
+        return facts;
+    }
+
+    /**
+     * @return the facts right after an instruction, by its index in the method
+     */
+    public BitSet getAfter(int instruction) {
+        int block = graph.getBlockOf(instruction);
+        BitSet facts = (BitSet) (direction == Direction.FORWARD ? in[block] : out[block]).clone();
+        transferBlock(block, facts, instruction + 1);
+        return facts;
+    }
+
+    /**
+     * @return how many times blocks were transferred until the facts stopped changing
+     */
+    public int getBlockVisits() {
+        return visits;
+    }
+}
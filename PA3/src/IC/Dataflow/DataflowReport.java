@@ -0,0 +1,86 @@
+package IC.Dataflow;
+
+import IC.CFG.ControlFlowGraph;
+import IC.LIR.Instruction;
+import IC.LIR.Label;
+import IC.LIR.LIRMethod;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The facts of every analysis at the start and at the end of every block of a
+ * method (-print-dataflow): live registers, definitely assigned registers,
+ * registers that are not null, and reaching definitions, as register@instruction,
+ * or register@entry for the value a register has at the entry. Only the
+ * definitions ReachingDefinitions tracks are shown.
+ */
+public class DataflowReport {
+    private DataflowReport() {
+    }
+
+    /**
+     * @return the report of the method of the graph, e.g. for DataflowRunner
+     */
+    public static String describe(ControlFlowGraph graph) {
+        LiveVariables live = LiveVariables.analyze(graph);
+        DefiniteAssignment assigned = DefiniteAssignment.analyze(graph);
+        Nullness nullness = Nullness.analyze(graph);
+        ReachingDefinitions reaching = ReachingDefinitions.analyze(graph);
+
+        LIRMethod method = graph.getMethod();
+        List<Instruction> instructions = method.getInstructions();
+        StringBuilder builder = new StringBuilder();
+        builder.append(method.getReference()).append(": dataflow\n");
+        for (int block = 0; block < graph.getBlockCount(); block++) {
+            builder.append("  B").append(block);
+            if (!graph.isReachable(block)) {
+                builder.append(" unreachable\n");
+                continue;
+            }
+            builder.append('\n');
+            appendRegisters(builder.append("    live in "), method, live.getIn(block));
+            appendRegisters(builder.append(" out "), method, live.getOut(block));
+            appendRegisters(builder.append("\n    assigned in "), method, assigned.getIn(block));
+            appendRegisters(builder.append(" out "), method, assigned.getOut(block));
+            appendRegisters(builder.append("\n    not null in "), method, nullness.getIn(block));
+            appendRegisters(builder.append(" out "), method, nullness.getOut(block));
+            appendDefinitions(builder.append("\n    reaching in "), method, reaching, reaching.getIn(block));
+            appendDefinitions(builder.append(" out "), method, reaching, reaching.getOut(block));
+            builder.append('\n');
+            for (int i = graph.getBlockStart(block); i < graph.getBlockEnd(block); i++) {
+                builder.append(instructions.get(i) instanceof Label ? "  " : "    ")
+                    .append(i).append(": ").append(instructions.get(i)).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+
+    private static void appendRegisters(StringBuilder builder, LIRMethod method, BitSet registers) {
+        builder.append('[');
+        for (int register = registers.nextSetBit(0); register >= 0; register = registers.nextSetBit(register + 1)) {
+            if (builder.charAt(builder.length() - 1) != '[') {
+                builder.append(", ");
+            }
+            builder.append(method.getRegisters().get(register));
+        }
+        builder.append(']');
+    }
+
+    private static void appendDefinitions(StringBuilder builder, LIRMethod method, ReachingDefinitions reaching, BitSet bits) {
+        builder.append('[');
+        for (int bit = bits.nextSetBit(0); bit >= 0; bit = bits.nextSetBit(bit + 1)) {
+            if (builder.charAt(builder.length() - 1) != '[') {
+                builder.append(", ");
+            }
+            int definition = reaching.getDefinitionOfBit(bit);
+            builder.append(method.getRegisters().get(reaching.getRegisterIndex(definition))).append('@');
+            if (reaching.isEntryDefinition(definition)) {
+                builder.append("entry");
+            } else {
+                builder.append(reaching.getInstruction(definition));
+            }
+        }
+        builder.append(']');
+    }
+}
@@ -0,0 +1,50 @@
+package IC.Dataflow;
+
+import IC.CFG.ControlFlowGraph;
+import IC.LIR.LIRClass;
+import IC.LIR.LIRMethod;
+import IC.LIR.LIRProgram;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * Runs an analysis on every method of a program. Methods are analyzed on their
+ * own, so they can be analyzed in parallel; the tasks are forked to the pool of
+ * the calling task (e.g. of the BatchCompiler), or to the common pool.
+ */
+public class DataflowRunner {
+    private DataflowRunner() {
+    }
+
+    /**
+     * @param analysis e.g. LiveVariables::analyze; it must not change the methods
+     * @param parallel whether methods are analyzed in parallel
+     * @return the result of every method, in the order of the program
+     */
+    public static <A> Map<LIRMethod, A> analyze(LIRProgram program, Function<ControlFlowGraph, A> analysis, boolean parallel) {
+        List<LIRMethod> methods = new ArrayList<>();
+        for (LIRClass lirClass : program.getClasses()) {
+            methods.addAll(lirClass.getMethods());
+        }
+        Map<LIRMethod, A> results = new LinkedHashMap<>();
+        if (!parallel) {
+            for (LIRMethod method : methods) {
+                results.put(method, analysis.apply(ControlFlowGraph.build(method)));
+            }
+            return results;
+        }
+        List<ForkJoinTask<A>> tasks = new ArrayList<>();
+        for (LIRMethod method : methods) {
+            tasks.add(ForkJoinTask.adapt(() -> analysis.apply(ControlFlowGraph.build(method))).fork());
+        }
+        for (int i = 0; i < methods.size(); i++) {
+            results.put(methods.get(i), tasks.get(i).join());
+        }
+        return results;
+    }
+}
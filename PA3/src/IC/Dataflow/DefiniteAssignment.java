@@ -0,0 +1,44 @@
+package IC.Dataflow;
+
+import IC.CFG.ControlFlowGraph;
+import IC.LIR.Instruction;
+import IC.LIR.Register;
+
+import java.util.BitSet;
+
+/**
+ * Which registers were assigned on every path from the entry, one bit per register
+ * index. A register that isn't may still be read, and then holds its default value.
+ */
+public class DefiniteAssignment extends DataflowAnalysis {
+    private DefiniteAssignment(ControlFlowGraph graph) {
+        super(graph, Direction.FORWARD, false, graph.getMethod().getRegisterCount());
+    }
+
+    public static DefiniteAssignment analyze(ControlFlowGraph graph) {
+        DefiniteAssignment analysis = new DefiniteAssignment(graph);
+        analysis.solve();
+        return analysis;
+    }
+
+    @Override
+    protected void initBoundary(BitSet facts) {
+        for (Register parameter : graph.getMethod().getParameters()) {
+            facts.set(parameter.getIndex());
+        }
+    }
+
+    @Override
+    protected void transfer(Instruction instruction, int index, BitSet facts) {
+        if (instruction.getDefinedRegister() != null) {
+            facts.set(instruction.getDefinedRegister().getIndex());
+        }
+    }
+
+    /**
+     * @return whether the register was assigned on every path to the instruction
+     */
+    public boolean isAssignedBefore(int instruction, Register register) {
+        return getBefore(instruction).get(register.getIndex());
+    }
+}
@@ -0,0 +1,49 @@
+package IC.Dataflow;
+
+import IC.CFG.ControlFlowGraph;
+import IC.LIR.Instruction;
+import IC.LIR.Operand;
+import IC.LIR.Register;
+
+import java.util.BitSet;
+
+/**
+ * Which registers may still be read before they are assigned again, one bit per
+ * register index.
+ */
+public class LiveVariables extends DataflowAnalysis {
+    private LiveVariables(ControlFlowGraph graph) {
+        super(graph, Direction.BACKWARD, true, graph.getMethod().getRegisterCount());
+    }
+
+    public static LiveVariables analyze(ControlFlowGraph graph) {
+        LiveVariables analysis = new LiveVariables(graph);
+        analysis.solve();
+        return analysis;
+    }
+
+    @Override
+    protected void initBoundary(BitSet facts) {
+        // Nothing is read after the method returns.
+    }
+
+    @Override
+    protected void transfer(Instruction instruction, int index, BitSet facts) {
+        if (instruction.getDefinedRegister() != null) {
+            facts.clear(instruction.getDefinedRegister().getIndex());
+        }
+        for (int i = 0; i < instruction.getOperandCount(); i++) {
+            Operand operand = instruction.getOperand(i);
+            if (operand.isRegister()) {
+                facts.set(((Register) operand).getIndex());
+            }
+        }
+    }
+
+    /**
+     * @return whether the register may be read after the instruction, before it is assigned again
+     */
+    public boolean isLiveAfter(int instruction, Register register) {
+        return getAfter(instruction).get(register.getIndex());
+    }
+}
@@ -0,0 +1,83 @@
+package IC.Dataflow;
+
+import IC.CFG.ControlFlowGraph;
+import IC.LIR.*;
+
+import java.util.BitSet;
+
+/**
+ * Which registers are certainly not null, one bit per register index: those
+ * assigned a new object, array or string, "this", and references that passed a
+ * null check. A null check of a register that is certainly not null is redundant.
+ */
+public class Nullness extends DataflowAnalysis {
+    private Nullness(ControlFlowGraph graph) {
+        super(graph, Direction.FORWARD, false, graph.getMethod().getRegisterCount());
+    }
+
+    public static Nullness analyze(ControlFlowGraph graph) {
+        Nullness analysis = new Nullness(graph);
+        analysis.solve();
+        return analysis;
+    }
+
+    @Override
+    protected void initBoundary(BitSet facts) {
+        LIRMethod method = graph.getMethod();
+        if (!method.isStatic()) {
+            facts.set(method.getParameters().get(0).getIndex());
+        }
+    }
+
+    @Override
+    protected void transfer(Instruction instruction, int index, BitSet facts) {
+        Register defined = instruction.getDefinedRegister();
+        if (defined != null) {
+            facts.set(defined.getIndex(), isNotNullResult(instruction, facts));
+        }
+        if (isNullCheck(instruction) && instruction.getOperand(0).isRegister()) {
+            // Execution only goes on if the check passed.
+            facts.set(((Register) instruction.getOperand(0)).getIndex());
+        }
+    }
+
+    private static boolean isNullCheck(Instruction instruction) {
+        return instruction instanceof RuntimeCheck && ((RuntimeCheck) instruction).getKind() == RuntimeCheck.Kind.NULL_REFERENCE;
+    }
+
+    private static boolean isNotNullResult(Instruction instruction, BitSet facts) {
+        if (instruction instanceof AllocObject || instruction instanceof AllocArray) {
+            return true;
+        }
+        if (instruction instanceof Binary) {
+            return ((Binary) instruction).getOperator() == BinaryOperator.CONCAT;
+        }
+        if (instruction instanceof Move) {
+            return isNotNull(instruction.getOperand(0), facts);
+        }
+        // Fields, array elements and calls may all be null.
+        return false;
+    }
+
+    private static boolean isNotNull(Operand operand, BitSet facts) {
+        if (operand.isConstant()) {
+            return ((Constant) operand).getKind() == Constant.Kind.STRING;
+        }
+        return facts.get(((Register) operand).getIndex());
+    }
+
+    /**
+     * @return whether the operand is certainly not null right before the instruction
+     */
+    public boolean isNotNullBefore(int instruction, Operand operand) {
+        return isNotNull(operand, getBefore(instruction));
+    }
+
+    /**
+     * @return whether the instruction is a null check that always passes
+     */
+    public boolean isRedundantNullCheck(int instruction) {
+        Instruction check = graph.getMethod().getInstructions().get(instruction);
+        return isNullCheck(check) && isNotNullBefore(instruction, check.getOperand(0));
+    }
+}
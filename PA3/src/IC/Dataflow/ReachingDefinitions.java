@@ -0,0 +1,185 @@
+package IC.Dataflow;
+
+import IC.CFG.ControlFlowGraph;
+import IC.LIR.Instruction;
+import IC.LIR.LIRMethod;
+import IC.LIR.Register;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Which assignments of registers may still hold. The definitions of a method are
+ * numbered: the first are those of every register at the entry of the method (the
+ * arguments of the parameters, the default values of the other registers), then
+ * comes a definition for every instruction that assigns a register.
+ *
+ * Only the definitions of registers that may have several reach a use are facts:
+ * a temporary assigned by a single instruction is only read after it, and the
+ * definitions of the temporaries of a long method would otherwise reach all the
+ * rest of it. The facts are bits, see getDefinitionOfBit.
+ */
+public class ReachingDefinitions extends DataflowAnalysis {
+    private final int registerCount;
+    // The instruction of every definition after the entry ones.
+    private final int[] definitionInstructions;
+    // The definition of every instruction, or NONE.
+    private final int[] instructionDefinitions;
+    // The bit of every definition, or NONE if it isn't tracked, and back.
+    private final int[] definitionBits;
+    private final int[] bitDefinitions;
+    // The bits of the definitions of every tracked register, or null.
+    private final BitSet[] registerBits;
+    // The definition of every untracked register.
+    private final int[] singleDefinitions;
+
+    private ReachingDefinitions(ControlFlowGraph graph, int[] definitionInstructions, int[] instructionDefinitions,
+                                int[] definitionBits, int[] bitDefinitions, int[] singleDefinitions) {
+        super(graph, Direction.FORWARD, true, bitDefinitions.length);
+        this.registerCount = graph.getMethod().getRegisterCount();
+        this.definitionInstructions = definitionInstructions;
+        this.instructionDefinitions = instructionDefinitions;
+        this.definitionBits = definitionBits;
+        this.bitDefinitions = bitDefinitions;
+        this.singleDefinitions = singleDefinitions;
+        this.registerBits = new BitSet[registerCount];
+        for (int bit = 0; bit < bitDefinitions.length; bit++) {
+            int register = getRegisterIndex(bitDefinitions[bit]);
+            if (registerBits[register] == null) {
+                registerBits[register] = new BitSet();
+            }
+            registerBits[register].set(bit);
+        }
+    }
+
+    public static ReachingDefinitions analyze(ControlFlowGraph graph) {
+        LIRMethod method = graph.getMethod();
+        List<Instruction> instructions = method.getInstructions();
+        int registerCount = method.getRegisterCount();
+        int[] definitionInstructions = new int[instructions.size()];
+        int[] instructionDefinitions = new int[instructions.size()];
+        int[] assignments = new int[registerCount];
+        // The entry definition, until an instruction assigns the register.
+        int[] singleDefinitions = new int[registerCount];
+        for (int register = 0; register < registerCount; register++) {
+            singleDefinitions[register] = register;
+        }
+        int count = 0;
+        for (int i = 0; i < instructions.size(); i++) {
+            Register defined = instructions.get(i).getDefinedRegister();
+            if (defined == null) {
+                instructionDefinitions[i] = ControlFlowGraph.NONE;
+            } else {
+                instructionDefinitions[i] = registerCount + count;
+                definitionInstructions[count++] = i;
+                assignments[defined.getIndex()]++;
+                singleDefinitions[defined.getIndex()] = instructionDefinitions[i];
+            }
+        }
+        definitionInstructions = Arrays.copyOf(definitionInstructions, count);
+
+        boolean[] tracked = new boolean[registerCount];
+        for (Register register : method.getRegisters()) {
+            tracked[register.getIndex()] = !register.isTemporary() || assignments[register.getIndex()] > 1;
+        }
+        int[] definitionBits = new int[registerCount + count];
+        int[] bitDefinitions = new int[registerCount + count];
+        int bits = 0;
+        for (int definition = 0; definition < definitionBits.length; definition++) {
+            int register = definition < registerCount
+                ? definition
+                : instructions.get(definitionInstructions[definition - registerCount]).getDefinedRegister().getIndex();
+            if (tracked[register]) {
+                definitionBits[definition] = bits;
+                bitDefinitions[bits++] = definition;
+            } else {
+                definitionBits[definition] = ControlFlowGraph.NONE;
+            }
+        }
+
+        ReachingDefinitions analysis = new ReachingDefinitions(graph, definitionInstructions, instructionDefinitions,
+            definitionBits, Arrays.copyOf(bitDefinitions, bits), singleDefinitions);
+        analysis.solve();
+        return analysis;
+    }
+
+    @Override
+    protected void initBoundary(BitSet facts) {
+        for (int register = 0; register < registerCount; register++) {
+            if (definitionBits[register] != ControlFlowGraph.NONE) {
+                facts.set(definitionBits[register]);
+            }
+        }
+    }
+
+    @Override
+    protected void transfer(Instruction instruction, int index, BitSet facts) {
+        Register defined = instruction.getDefinedRegister();
+        if (defined != null && registerBits[defined.getIndex()] != null) {
+            facts.andNot(registerBits[defined.getIndex()]);
+            facts.set(definitionBits[instructionDefinitions[index]]);
+        }
+    }
+
+    public int getDefinitionCount() {
+        return registerCount + definitionInstructions.length;
+    }
+
+    /**
+     * @return whether the definition is the value of a register at the entry
+     */
+    public boolean isEntryDefinition(int definition) {
+        return definition < registerCount;
+    }
+
+    /**
+     * @return the index of the instruction of a definition, or NONE for an entry definition
+     */
+    public int getInstruction(int definition) {
+        return isEntryDefinition(definition) ? ControlFlowGraph.NONE : definitionInstructions[definition - registerCount];
+    }
+
+    /**
+     * @return the definition of the instruction at the index, or NONE if it assigns nothing
+     */
+    public int getDefinitionOfInstruction(int instruction) {
+        return instructionDefinitions[instruction];
+    }
+
+    /**
+     * @return the index of the register a definition assigns
+     */
+    public int getRegisterIndex(int definition) {
+        if (isEntryDefinition(definition)) {
+            return definition;
+        }
+        return graph.getMethod().getInstructions().get(getInstruction(definition)).getDefinedRegister().getIndex();
+    }
+
+    /**
+     * @return the definition a fact stands for
+     */
+    public int getDefinitionOfBit(int bit) {
+        return bitDefinitions[bit];
+    }
+
+    /**
+     * @return the definitions of the register that may reach the instruction
+     */
+    public BitSet getReachingDefinitions(int instruction, Register register) {
+        BitSet definitions = new BitSet();
+        BitSet bits = registerBits[register.getIndex()];
+        if (bits == null) {
+            // A temporary assigned at most once.
+            definitions.set(singleDefinitions[register.getIndex()]);
+            return definitions;
+        }
+        BitSet facts = getBefore(instruction);
+        facts.and(bits);
+        for (int bit = facts.nextSetBit(0); bit >= 0; bit = facts.nextSetBit(bit + 1)) {
+            definitions.set(bitDefinitions[bit]);
+        }
+        return definitions;
+    }
+}
@@ -0,0 +1,46 @@
+package IC.Events;
+
+import IC.AST.ICClass;
+import IC.AST.NodeCounter;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * a Flight Recorder event for type checking a single class
+ */
+@Name("IC.ClassCheck")
+@Label("Class Check")
+@Category({"IC Compiler", "Type Checking"})
+@Description("Type checking of a single IC class, including its methods")
+@StackTrace(false)
+public class ClassCheckEvent extends jdk.jfr.Event {
+    @Label("Class")
+    public String className;
+
+    @Label("AST Nodes")
+    public int nodes;
+
+    @Label("Errors")
+    @Description("Errors found in the class")
+    public int errors;
+
+    /**
+     * ends the event and commits it, if it is recorded
+     *
+     * @param clazz the checked class
+     * @param errors the number of errors found while checking it
+     */
+    public void finish(ICClass clazz, int errors) {
+        end();
+        if (shouldCommit()) {
+            this.className = clazz.getName();
+            // Counting walks the class, so it's only done for recorded events.
+            this.nodes = NodeCounter.count(clazz);
+            this.errors = errors;
+            commit();
+        }
+    }
+}
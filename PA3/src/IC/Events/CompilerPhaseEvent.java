@@ -0,0 +1,32 @@
+package IC.Events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * a Flight Recorder event for a compiler phase, e.g. parsing or type checking,
+ * on a single file
+ */
+@Name("IC.CompilerPhase")
+@Label("Compiler Phase")
+@Category({"IC Compiler"})
+@Description("A compiler phase on a single IC file")
+@StackTrace(false)
+public class CompilerPhaseEvent extends jdk.jfr.Event {
+    @Label("File")
+    public String file;
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("AST Nodes")
+    @Description("Nodes of the AST the phase ran on, 0 for the phases that build it")
+    public int nodes;
+
+    @Label("Errors")
+    @Description("Errors the phase found")
+    public int errors;
+}
@@ -0,0 +1,50 @@
+package IC.Events;
+
+import IC.AST.Method;
+import IC.AST.NodeCounter;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * a Flight Recorder event for type checking a single method
+ */
+@Name("IC.MethodCheck")
+@Label("Method Check")
+@Category({"IC Compiler", "Type Checking"})
+@Description("Type checking of a single IC method")
+@StackTrace(false)
+public class MethodCheckEvent extends jdk.jfr.Event {
+    @Label("Class")
+    public String className;
+
+    @Label("Method")
+    public String methodName;
+
+    @Label("AST Nodes")
+    public int nodes;
+
+    @Label("Errors")
+    @Description("Errors found in the method")
+    public int errors;
+
+    /**
+     * ends the event and commits it, if it is recorded
+     *
+     * @param method the checked method
+     * @param errors the number of errors found while checking it
+     */
+    public void finish(Method method, int errors) {
+        end();
+        if (shouldCommit()) {
+            // The parent of a method scope is the scope of its class, named after it.
+            this.className = method.getMethodSymbolTable().getParent().getName();
+            this.methodName = method.getName();
+            this.nodes = NodeCounter.count(method);
+            this.errors = errors;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,511 @@
+package IC.Generator;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates valid, type correct IC programs of any size, for stress and scaling
+ * tests. The program is a function of the parameters and the seed. It calls
+ * Library, so it should be compiled with a library signature file (e.g.
+ * test/libic.sig).
+ *
+ * Classes are named C0, C1, ..., and form extends chains of inheritanceDepth
+ * classes. Every class has int fields, and methods that alternate between virtual
+ * (mI_J) and static (sI_J), all of type int (int d, int p). A method has about
+ * methodSize statements: locals, assignments to locals, fields and an int array,
+ * nested ifs and whiles, Library calls and calls to other methods, over
+ * expressions nested expressionDepth levels deep. Every class also overrides
+ * run(int d, int p), which calls its first method, and the class Main calls run on
+ * an instance of every class, through a reference to the first class of its chain.
+ *
+ * Methods only call methods of classes the checks can find from them: the class,
+ * its base classes and classes without a base class. Classes that extend another
+ * class can't be referenced by name outside their extends chain.
+ *
+ * Generated programs also run safely: every call passes d - 1 and is guarded by
+ * d &gt; 0, loops have fixed trip counts, divisors are never 0 and array indices
+ * are always in range.
+ */
+public class ProgramGenerator {
+    private static final int ARRAY_SIZE = 16;
+    private static final int LOOP_COUNT = 4;
+    private static final int FIELDS_PER_CLASS = 2;
+    private static final int MAX_BLOCK_DEPTH = 3;
+    private static final int MAIN_FUEL = 2;
+    private static final int MAX_LITERAL = 100;
+
+    private int classCount = 10;
+    private int inheritanceDepth = 4;
+    private int methodsPerClass = 4;
+    private int methodSize = 20;
+    private int expressionDepth = 3;
+    private double libraryCallDensity = 0.1;
+    private long seed = 1;
+
+    // state of the method being generated
+    private Random random;
+    private StringBuilder out;
+    private int currentClass;
+    private boolean inVirtualMethod;
+    private int localsCount;
+    // locals in scope, assignable (ints) and loop counters (read only)
+    private List<String> locals = new ArrayList<>();
+    private List<String> counters = new ArrayList<>();
+
+    /**
+     * creates a generator from parameters like "classes=1000", see usage
+     *
+     * @param parameters the parameters, each of the form name=value
+     * @throws IllegalArgumentException if a parameter is unknown or invalid
+     */
+    public static ProgramGenerator fromParameters(String... parameters) {
+        ProgramGenerator generator = new ProgramGenerator();
+        for (String parameter : parameters) {
+            int separator = parameter.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected name=value: " + parameter);
+            }
+            String name = parameter.substring(0, separator);
+            String value = parameter.substring(separator + 1);
+            try {
+                switch (name) {
+                    case "classes":
+                        generator.setClassCount(Integer.parseInt(value));
+                        break;
+                    case "depth":
+                        generator.setInheritanceDepth(Integer.parseInt(value));
+                        break;
+                    case "methods":
+                        generator.setMethodsPerClass(Integer.parseInt(value));
+                        break;
+                    case "method-size":
+                        generator.setMethodSize(Integer.parseInt(value));
+                        break;
+                    case "nesting":
+                        generator.setExpressionDepth(Integer.parseInt(value));
+                        break;
+                    case "library-calls":
+                        generator.setLibraryCallDensity(Double.parseDouble(value));
+                        break;
+                    case "seed":
+                        generator.setSeed(Long.parseLong(value));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown parameter: " + name);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for " + name + ": " + value);
+            }
+        }
+        return generator;
+    }
+
+    public static String getUsage() {
+        return "Usage: ProgramGenerator [name=value ...] [-o <file>]\n"
+            + "  classes=N         number of classes (10)\n"
+            + "  depth=N           number of classes in an extends chain (4)\n"
+            + "  methods=N         methods per class (4)\n"
+            + "  method-size=N     statements per method (20)\n"
+            + "  nesting=N         depth of expressions (3)\n"
+            + "  library-calls=F   fraction of statements that call Library (0.1)\n"
+            + "  seed=N            random seed (1)\n"
+            + "The program is printed to the standard output, or to the -o file.";
+    }
+
+    public static void main(String[] args) {
+        List<String> parameters = new ArrayList<>();
+        String outputFile = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-o") && i + 1 < args.length) {
+                outputFile = args[++i];
+            } else {
+                parameters.add(args[i]);
+            }
+        }
+        ProgramGenerator generator;
+        try {
+            generator = fromParameters(parameters.toArray(new String[parameters.size()]));
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.out.println(getUsage());
+            System.exit(1);
+            return;
+        }
+        try (Writer writer = outputFile == null
+            ? new BufferedWriter(new OutputStreamWriter(System.out))
+            : new BufferedWriter(new FileWriter(outputFile))) {
+            generator.generate(writer);
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    public void setClassCount(int classCount) {
+        checkPositive("classes", classCount);
+        this.classCount = classCount;
+    }
+
+    public void setInheritanceDepth(int inheritanceDepth) {
+        checkPositive("depth", inheritanceDepth);
+        this.inheritanceDepth = inheritanceDepth;
+    }
+
+    public void setMethodsPerClass(int methodsPerClass) {
+        checkPositive("methods", methodsPerClass);
+        this.methodsPerClass = methodsPerClass;
+    }
+
+    public void setMethodSize(int methodSize) {
+        checkPositive("method-size", methodSize);
+        this.methodSize = methodSize;
+    }
+
+    public void setExpressionDepth(int expressionDepth) {
+        checkPositive("nesting", expressionDepth);
+        this.expressionDepth = expressionDepth;
+    }
+
+    public void setLibraryCallDensity(double libraryCallDensity) {
+        if (libraryCallDensity < 0 || libraryCallDensity > 1) {
+            throw new IllegalArgumentException("library-calls must be between 0 and 1");
+        }
+        this.libraryCallDensity = libraryCallDensity;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    private static void checkPositive(String name, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+    }
+
+    /**
+     * @return the program
+     */
+    public String generate() {
+        StringWriter writer = new StringWriter();
+        try {
+            generate(writer);
+        } catch (IOException e) {
+            // Can't happen when writing to a string.
+        }
+        return writer.toString();
+    }
+
+    /**
+     * writes the program class by class, so it never has to be in memory as a whole
+     */
+    public void generate(Writer writer) throws IOException {
+        random = new Random(seed);
+        for (int c = 0; c < classCount; c++) {
+            out = new StringBuilder();
+            generateClass(c);
+            writer.write(out.toString());
+        }
+        out = new StringBuilder();
+        generateMain();
+        writer.write(out.toString());
+        out = null;
+    }
+
+    private void generateClass(int c) {
+        currentClass = c;
+        out.append("class C").append(c);
+        if (hasSuperClass(c)) {
+            out.append(" extends C").append(c - 1);
+        }
+        out.append(" {\n");
+        for (int f = 0; f < FIELDS_PER_CLASS; f++) {
+            out.append("    int ").append(fieldName(c, f)).append(";\n");
+        }
+        out.append("\n");
+        out.append("    int run(int d, int p) {\n");
+        out.append("        return ").append(methodName(c, 0)).append("(d, p);\n");
+        out.append("    }\n");
+        for (int m = 0; m < methodsPerClass; m++) {
+            out.append("\n");
+            generateMethod(c, m);
+        }
+        out.append("}\n\n");
+    }
+
+    private void generateMain() {
+        out.append("class Main {\n");
+        out.append("    static void main(string[] args) {\n");
+        out.append("        int acc = 0;\n");
+        for (int c = 0; c < classCount; c++) {
+            String instance = "x" + (c - c % inheritanceDepth);
+            if (!hasSuperClass(c)) {
+                out.append("        C").append(c).append(" ").append(instance).append(";\n");
+            }
+            out.append("        ").append(instance).append(" = new C").append(c).append("();\n");
+            out.append("        acc = acc + ").append(instance).append(".run(").append(MAIN_FUEL).append(", ").append(c).append(");\n");
+        }
+        out.append("        Library.printi(acc);\n");
+        out.append("        Library.println(\"\");\n");
+        out.append("    }\n");
+        out.append("}\n");
+    }
+
+    private void generateMethod(int c, int m) {
+        inVirtualMethod = isVirtual(m);
+        localsCount = 0;
+        locals.clear();
+        counters.clear();
+        out.append("    ");
+        if (!inVirtualMethod) {
+            out.append("static ");
+        }
+        out.append("int ").append(methodName(c, m)).append("(int d, int p) {\n");
+        out.append("        int acc = p;\n");
+        out.append("        int[] arr = new int[").append(ARRAY_SIZE).append("];\n");
+        locals.add("acc");
+        locals.add("p");
+        generateStatements(methodSize, 2);
+        out.append("        return acc;\n");
+        out.append("    }\n");
+    }
+
+    private void generateStatements(int count, int indent) {
+        while (count > 0) {
+            count -= generateStatement(count, indent);
+        }
+    }
+
+    /**
+     * @param budget the most statements to generate
+     * @return the number of statements generated
+     */
+    private int generateStatement(int budget, int indent) {
+        if (random.nextDouble() < libraryCallDensity) {
+            indent(indent);
+            out.append("Library.printi(").append(intExpression(expressionDepth)).append(");\n");
+            return 1;
+        }
+        boolean canNest = budget >= 3 && indent - 2 < MAX_BLOCK_DEPTH;
+        switch (random.nextInt(canNest ? 8 : 6)) {
+            case 0: {
+                String local = "v" + localsCount++;
+                indent(indent);
+                out.append("int ").append(local).append(" = ").append(intExpression(expressionDepth)).append(";\n");
+                locals.add(local);
+                return 1;
+            }
+            case 1:
+                indent(indent);
+                out.append(pick(locals)).append(" = ").append(intExpression(expressionDepth)).append(";\n");
+                return 1;
+            case 2:
+                indent(indent);
+                if (inVirtualMethod) {
+                    out.append(randomField()).append(" = ").append(intExpression(expressionDepth)).append(";\n");
+                } else {
+                    out.append(pick(locals)).append(" = ").append(intExpression(expressionDepth)).append(";\n");
+                }
+                return 1;
+            case 3:
+                indent(indent);
+                out.append("arr[").append(index(intExpression(expressionDepth - 1))).append("] = ").append(intExpression(expressionDepth)).append(";\n");
+                return 1;
+            case 4:
+            case 5:
+                return generateCall(indent);
+            case 6:
+                return generateIf(budget, indent);
+            default:
+                return generateWhile(budget, indent);
+        }
+    }
+
+    private int generateCall(int indent) {
+        // A base class or a class without one.
+        int callee = random.nextBoolean()
+            ? currentClass - random.nextInt(currentClass % inheritanceDepth + 1)
+            : random.nextInt(currentClass / inheritanceDepth + 1) * inheritanceDepth;
+        int method = random.nextInt(methodsPerClass);
+        indent(indent);
+        out.append("if (d > 0) {\n");
+        indent(indent + 1);
+        out.append("acc = acc + ").append(callOf(callee, method, inVirtualMethod, "d - 1", intExpression(expressionDepth - 1))).append(";\n");
+        indent(indent);
+        out.append("}\n");
+        return 1;
+    }
+
+    private int generateIf(int budget, int indent) {
+        int thenSize = 1 + random.nextInt(budget / 2);
+        int elseSize = random.nextInt(budget - thenSize);
+        indent(indent);
+        out.append("if (").append(booleanExpression(expressionDepth)).append(") {\n");
+        generateBlock(thenSize, indent + 1);
+        indent(indent);
+        if (elseSize > 0) {
+            out.append("} else {\n");
+            generateBlock(elseSize, indent + 1);
+            indent(indent);
+        }
+        out.append("}\n");
+        return 1 + thenSize + elseSize;
+    }
+
+    private int generateWhile(int budget, int indent) {
+        int bodySize = 1 + random.nextInt(budget - 2);
+        String counter = "w" + localsCount++;
+        indent(indent);
+        out.append("int ").append(counter).append(" = 0;\n");
+        indent(indent);
+        out.append("while (").append(counter).append(" < ").append(LOOP_COUNT).append(") {\n");
+        counters.add(counter);
+        generateBlock(bodySize, indent + 1);
+        indent(indent + 1);
+        out.append(counter).append(" = ").append(counter).append(" + 1;\n");
+        indent(indent);
+        out.append("}\n");
+        // The counter stays in scope, and can still be read.
+        return 2 + bodySize;
+    }
+
+    /**
+     * generates statements in a nested scope: locals declared there are forgotten after it
+     */
+    private void generateBlock(int size, int indent) {
+        int localsBefore = locals.size();
+        int countersBefore = counters.size();
+        generateStatements(size, indent);
+        locals.subList(localsBefore, locals.size()).clear();
+        counters.subList(countersBefore, counters.size()).clear();
+    }
+
+    private String intExpression(int depth) {
+        if (depth <= 0 || random.nextInt(4) == 0) {
+            return intLeaf();
+        }
+        String left = intExpression(depth - 1);
+        switch (random.nextInt(9)) {
+            case 0:
+                return "(" + left + " + " + intExpression(depth - 1) + ")";
+            case 1:
+                return "(" + left + " - " + intExpression(depth - 1) + ")";
+            case 2:
+                return "(" + left + " * " + intExpression(depth - 1) + ")";
+            case 3:
+                return "(" + left + " / " + nonZero() + ")";
+            case 4:
+                return "(" + left + " % " + nonZero() + ")";
+            case 5:
+                return "(-" + left + ")";
+            case 6:
+                return "arr[" + index(left) + "]";
+            case 7:
+                if (random.nextDouble() < libraryCallDensity) {
+                    return "Library.stoi(Library.itos(" + left + "), 0)";
+                }
+                return "(" + left + " + arr.length)";
+            default:
+                return "(" + left + " + " + intLeaf() + ")";
+        }
+    }
+
+    private String intLeaf() {
+        switch (random.nextInt(inVirtualMethod ? 5 : 4)) {
+            case 0:
+                return Integer.toString(random.nextInt(MAX_LITERAL));
+            case 1:
+                return counters.isEmpty() ? "d" : pick(counters);
+            case 2:
+                return "arr.length";
+            case 3:
+                return pick(locals);
+            default:
+                return randomField();
+        }
+    }
+
+    private String booleanExpression(int depth) {
+        if (depth <= 1 || random.nextInt(3) == 0) {
+            String[] comparisons = {" < ", " <= ", " > ", " >= ", " == ", " != "};
+            return "(" + intExpression(depth - 1) + comparisons[random.nextInt(comparisons.length)] + intExpression(depth - 1) + ")";
+        }
+        switch (random.nextInt(3)) {
+            case 0:
+                return "(" + booleanExpression(depth - 1) + " && " + booleanExpression(depth - 1) + ")";
+            case 1:
+                return "(" + booleanExpression(depth - 1) + " || " + booleanExpression(depth - 1) + ")";
+            default:
+                return "!" + booleanExpression(depth - 1);
+        }
+    }
+
+    /**
+     * @return an int expression that is never 0: x * x + 1 isn't, not even with
+     * overflow, since squares are 0 or 1 modulo 4
+     */
+    private String nonZero() {
+        String leaf = intLeaf();
+        return "((" + leaf + " * " + leaf + ") + 1)";
+    }
+
+    /**
+     * @return an index in the array for any int value
+     */
+    private static String index(String value) {
+        return "((" + value + " % " + ARRAY_SIZE + ") + " + ARRAY_SIZE + ") % " + ARRAY_SIZE;
+    }
+
+    /**
+     * @param inVirtualMethod whether the call can be made on this
+     * @return a call to method m of class c
+     */
+    private String callOf(int c, int m, boolean inVirtualMethod, String fuel, String argument) {
+        String arguments = "(" + fuel + ", " + argument + ")";
+        if (!isVirtual(m)) {
+            return "C" + c + "." + methodName(c, m) + arguments;
+        }
+        if (inVirtualMethod && isAncestorOrSelf(c, currentClass)) {
+            return "this." + methodName(c, m) + arguments;
+        }
+        return "new C" + c + "()." + methodName(c, m) + arguments;
+    }
+
+    private String randomField() {
+        // Any field of the class or of one of its base classes.
+        int c = currentClass - random.nextInt(currentClass % inheritanceDepth + 1);
+        return fieldName(c, random.nextInt(FIELDS_PER_CLASS));
+    }
+
+    private boolean hasSuperClass(int c) {
+        return c % inheritanceDepth != 0;
+    }
+
+    private boolean isAncestorOrSelf(int ancestor, int c) {
+        return ancestor <= c && c - ancestor <= c % inheritanceDepth;
+    }
+
+    private static boolean isVirtual(int m) {
+        return m % 2 == 0;
+    }
+
+    private static String methodName(int c, int m) {
+        return (isVirtual(m) ? "m" : "s") + c + "_" + m;
+    }
+
+    private static String fieldName(int c, int f) {
+        return "f" + c + "_" + f;
+    }
+
+    private String pick(List<String> names) {
+        return names.get(random.nextInt(names.size()));
+    }
+
+    private void indent(int level) {
+        for (int i = 0; i < level; i++) {
+            out.append("    ");
+        }
+    }
+}
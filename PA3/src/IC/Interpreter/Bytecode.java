@@ -0,0 +1,167 @@
+package IC.Interpreter;
+
+/**
+ * The opcodes of the bytecode. The code of a function is an int[] of opcodes,
+ * each followed by its operands: slots of the frame, which are in the int
+ * frame (ints and booleans) or in the reference frame (strings, arrays and
+ * objects) as the opcode says, code indices, and indices of functions,
+ * classes, fields and dispatch table slots.
+ *
+ * Operands are listed after each opcode; "dst" is a slot that is assigned.
+ */
+final class Bytecode {
+    private Bytecode() {
+    }
+
+    /** dst src */
+    static final int MOVE = 0;
+    /** dst src */
+    static final int MOVE_REFERENCE = 1;
+    /** dst left right, on ints */
+    static final int ADD = 2;
+    static final int SUB = 3;
+    static final int MUL = 4;
+    static final int DIV = 5;
+    static final int MOD = 6;
+    static final int LT = 7;
+    static final int LE = 8;
+    static final int GT = 9;
+    static final int GE = 10;
+    static final int EQ = 11;
+    static final int NE = 12;
+    /** dst(int) left right, on references */
+    static final int EQ_REFERENCE = 13;
+    static final int NE_REFERENCE = 14;
+    /** dst left right, on strings */
+    static final int CONCAT = 15;
+    /** dst src */
+    static final int NEG = 16;
+    static final int NOT = 17;
+    /** dst class */
+    static final int NEW_OBJECT = 18;
+    /** dst size(int) */
+    static final int NEW_INT_ARRAY = 19;
+    static final int NEW_REFERENCE_ARRAY = 20;
+    /** dst(int) array */
+    static final int INT_ARRAY_LENGTH = 21;
+    static final int REFERENCE_ARRAY_LENGTH = 22;
+    /** dst object field, the field indexes the ints or the references of the object */
+    static final int LOAD_INT_FIELD = 23;
+    static final int LOAD_REFERENCE_FIELD = 24;
+    /** object field value */
+    static final int STORE_INT_FIELD = 25;
+    static final int STORE_REFERENCE_FIELD = 26;
+    /** dst array index(int) */
+    static final int LOAD_INT_ELEMENT = 27;
+    static final int LOAD_REFERENCE_ELEMENT = 28;
+    /** array index(int) value */
+    static final int STORE_INT_ELEMENT = 29;
+    static final int STORE_REFERENCE_ELEMENT = 30;
+    /** reference */
+    static final int CHECK_NULL = 31;
+    /** array index(int) */
+    static final int CHECK_INT_INDEX = 32;
+    static final int CHECK_REFERENCE_INDEX = 33;
+    /** size(int) */
+    static final int CHECK_SIZE = 34;
+    /** divisor(int) */
+    static final int CHECK_ZERO = 35;
+    /** target */
+    static final int JUMP = 36;
+    /** condition(int) ifTrue ifFalse */
+    static final int BRANCH = 37;
+    /** left right ifTrue ifFalse, a comparison of ints branched on right away */
+    static final int BRANCH_LT = 38;
+    static final int BRANCH_LE = 39;
+    static final int BRANCH_GT = 40;
+    static final int BRANCH_GE = 41;
+    static final int BRANCH_EQ = 42;
+    static final int BRANCH_NE = 43;
+    /** (nothing) */
+    static final int RETURN = 44;
+    /** value */
+    static final int RETURN_INT = 45;
+    static final int RETURN_REFERENCE = 46;
+    /**
+     * function dst argumentCount arguments..., dst is NONE if the result isn't used,
+     * and every argument is in the frame the parameter of the function is
+     */
+    static final int CALL = 47;
+    /** slot dst argumentCount receiver arguments..., the receiver being the first argument */
+    static final int CALL_VIRTUAL = 48;
+    /** libraryMethod dst argumentCount arguments... */
+    static final int CALL_LIBRARY = 49;
+    /**
+     * dst array index(int), an access of an element with the null and index checks
+     * of the array before it
+     */
+    static final int LOAD_INT_ELEMENT_CHECKED = 50;
+    static final int LOAD_REFERENCE_ELEMENT_CHECKED = 51;
+    /** array index(int) value */
+    static final int STORE_INT_ELEMENT_CHECKED = 52;
+    static final int STORE_REFERENCE_ELEMENT_CHECKED = 53;
+
+    /**
+     * a missing slot, e.g. the dst of a call whose result isn't used
+     */
+    static final int NONE = -1;
+
+    private static final String[] NAMES = {
+        "move", "move_reference", "add", "sub", "mul", "div", "mod", "lt", "le", "gt", "ge", "eq", "ne",
+        "eq_reference", "ne_reference", "concat", "neg", "not", "new_object", "new_int_array",
+        "new_reference_array", "int_array_length", "reference_array_length", "load_int_field",
+        "load_reference_field", "store_int_field", "store_reference_field", "load_int_element",
+        "load_reference_element", "store_int_element", "store_reference_element", "check_null",
+        "check_int_index", "check_reference_index", "check_size", "check_zero", "jump", "branch",
+        "branch_lt", "branch_le", "branch_gt", "branch_ge", "branch_eq", "branch_ne", "return",
+        "return_int", "return_reference", "call", "call_virtual", "call_library", "load_int_element_checked",
+        "load_reference_element_checked", "store_int_element_checked", "store_reference_element_checked"
+    };
+
+    static String getName(int opcode) {
+        return NAMES[opcode];
+    }
+
+    /**
+     * @return the number of operands of the instruction at the index, which
+     * depends on the argument count for calls
+     */
+    static int getOperandCount(int[] code, int index) {
+        switch (code[index]) {
+            case RETURN:
+                return 0;
+            case CHECK_NULL:
+            case CHECK_SIZE:
+            case CHECK_ZERO:
+            case JUMP:
+            case RETURN_INT:
+            case RETURN_REFERENCE:
+                return 1;
+            case MOVE:
+            case MOVE_REFERENCE:
+            case NEG:
+            case NOT:
+            case NEW_OBJECT:
+            case NEW_INT_ARRAY:
+            case NEW_REFERENCE_ARRAY:
+            case INT_ARRAY_LENGTH:
+            case REFERENCE_ARRAY_LENGTH:
+            case CHECK_INT_INDEX:
+            case CHECK_REFERENCE_INDEX:
+                return 2;
+            case BRANCH_LT:
+            case BRANCH_LE:
+            case BRANCH_GT:
+            case BRANCH_GE:
+            case BRANCH_EQ:
+            case BRANCH_NE:
+                return 4;
+            case CALL:
+            case CALL_VIRTUAL:
+            case CALL_LIBRARY:
+                return 3 + code[index + 3];
+            default:
+                return 3;
+        }
+    }
+}
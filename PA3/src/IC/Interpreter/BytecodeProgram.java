@@ -0,0 +1,41 @@
+package IC.Interpreter;
+
+import java.util.List;
+
+/**
+ * a program translated to bytecode, which the interpreter runs
+ */
+public class BytecodeProgram {
+    final Function[] functions;
+    final RuntimeClass[] classes;
+    final Function main;
+
+    BytecodeProgram(List<Function> functions, List<RuntimeClass> classes, Function main) {
+        this.functions = functions.toArray(new Function[0]);
+        this.classes = classes.toArray(new RuntimeClass[0]);
+        this.main = main;
+    }
+
+    /**
+     * @return the number of ints of code of all the functions
+     */
+    public int getCodeSize() {
+        int size = 0;
+        for (Function function : functions) {
+            size += function.code.length;
+        }
+        return size;
+    }
+
+    /**
+     * @return the code of every function
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Function function : functions) {
+            builder.append(function).append('\n');
+        }
+        return builder.toString();
+    }
+}
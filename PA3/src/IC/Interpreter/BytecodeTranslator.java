@@ -0,0 +1,566 @@
+package IC.Interpreter;
+
+import IC.LIR.*;
+import IC.SymbolTypes.ArraySymbolType;
+import IC.SymbolTypes.ClassLayout;
+import IC.SymbolTypes.SymbolType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates the LIR of a program to bytecode. Every register of a method gets a
+ * slot of its frame, in register order, in the int frame if it holds an int or a
+ * boolean and in the reference frame otherwise, and every constant it uses gets
+ * a slot after them, set in the templates of the frame. The fields of a class get
+ * an index in the ints or the references of its instances in the order of their
+ * offsets in the class layout, so a field has the same index in an instance of a
+ * derived class, and its dispatch table has the functions of its layout.
+ *
+ * Some instructions are translated together, as the interpreter runs an
+ * instruction of bytecode faster than two:
+ * - a comparison of ints whose result only the branch right after it reads, with
+ *   the branch,
+ * - the null and index checks of an array right before an access of the element
+ *   they check, with the access,
+ * - an instruction assigning a register only the move right after it reads, with
+ *   the move, by assigning the register of the move instead (SSA destruction
+ *   leaves such moves).
+ */
+public class BytecodeTranslator implements InstructionVisitor<Void> {
+    private final LIRProgram program;
+    private final Map<String, RuntimeClass> classes = new LinkedHashMap<>();
+    private final Map<String, Integer> classIndices = new HashMap<>();
+    // The index of every field in the ints or the references of an instance, by class and name.
+    private final Map<String, Map<String, Integer>> fieldIndices = new HashMap<>();
+    private final Map<MethodReference, Integer> functionIndices = new HashMap<>();
+    private final List<Function> functions = new ArrayList<>();
+    // The first string of every value, so equal string constants are the same object.
+    private final Map<String, String> strings = new HashMap<>();
+
+    // The method being translated.
+    private LIRMethod method;
+    private int[] slots;
+    private int intSlotCount;
+    private int referenceSlotCount;
+    private Map<Constant, Integer> constantSlots;
+    private int[] code;
+    private int size;
+    private Map<Label, Integer> labelIndices;
+    // The code indices that hold the index of a label, and their labels.
+    private List<Integer> targetIndices;
+    private List<Label> targets;
+    private int[] useCounts;
+    // The register the instruction being translated assigns instead of its own, or null.
+    private Register coalesced;
+
+    private BytecodeTranslator(LIRProgram program) {
+        this.program = program;
+    }
+
+    /**
+     * @param program a program whose class layouts are computed, and without phi
+     *                instructions
+     */
+    public static BytecodeProgram translate(LIRProgram program) {
+        return new BytecodeTranslator(program).translate();
+    }
+
+    private BytecodeProgram translate() {
+        for (LIRClass lirClass : program.getClasses()) {
+            classIndices.put(lirClass.getName(), classes.size());
+            classes.put(lirClass.getName(), new RuntimeClass(lirClass.getName()));
+            for (LIRMethod lirMethod : lirClass.getMethods()) {
+                functionIndices.put(lirMethod.getReference(), functions.size());
+                functions.add(new Function(lirMethod.getReference().toString()));
+            }
+        }
+        for (LIRClass lirClass : program.getClasses()) {
+            translateClass(lirClass);
+            for (LIRMethod lirMethod : lirClass.getMethods()) {
+                translateMethod(lirMethod, functions.get(functionIndices.get(lirMethod.getReference())));
+            }
+        }
+        LIRMethod main = program.getMainMethod();
+        return new BytecodeProgram(functions, new ArrayList<>(classes.values()), functions.get(functionIndices.get(main.getReference())));
+    }
+
+    private void translateClass(LIRClass lirClass) {
+        // The types of the fields of the class and of its base classes.
+        Map<String, SymbolType> fieldTypes = new HashMap<>();
+        for (LIRClass base = lirClass; base != null; base = base.hasSuperClass() ? program.getClass(base.getSuperClassName()) : null) {
+            for (FieldReference field : base.getFields()) {
+                fieldTypes.put(field.getName(), field.getType());
+            }
+        }
+        RuntimeClass runtimeClass = classes.get(lirClass.getName());
+        ClassLayout layout = lirClass.getType().getLayout();
+        Map<String, Integer> indices = new HashMap<>();
+        for (int offset = 1; offset <= layout.getFieldCount(); offset++) {
+            String name = layout.getFieldName(offset);
+            indices.put(name, fieldTypes.get(name).isReferenceType() ? runtimeClass.referenceFieldCount++ : runtimeClass.intFieldCount++);
+        }
+        fieldIndices.put(lirClass.getName(), indices);
+
+        runtimeClass.dispatchTable = new Function[layout.getMethodCount()];
+        for (int slot = 0; slot < layout.getMethodCount(); slot++) {
+            LIRMethod implementation = program.getClass(layout.getImplementingClass(slot)).getMethod(layout.getMethodName(slot));
+            runtimeClass.dispatchTable[slot] = functions.get(functionIndices.get(implementation.getReference()));
+        }
+    }
+
+    private void translateMethod(LIRMethod lirMethod, Function function) {
+        method = lirMethod;
+        slots = new int[lirMethod.getRegisterCount()];
+        intSlotCount = 0;
+        referenceSlotCount = 0;
+        for (Register register : lirMethod.getRegisters()) {
+            slots[register.getIndex()] = isReference(register) ? referenceSlotCount++ : intSlotCount++;
+        }
+        int parameterCount = lirMethod.getParameters().size();
+        function.parameterSlots = new int[parameterCount];
+        function.parameterReferences = new boolean[parameterCount];
+        for (int i = 0; i < parameterCount; i++) {
+            Register parameter = lirMethod.getParameters().get(i);
+            function.parameterSlots[i] = slots[parameter.getIndex()];
+            function.parameterReferences[i] = isReference(parameter);
+        }
+        function.returnsReference = lirMethod.getReturnType().isReferenceType();
+
+        constantSlots = new HashMap<>();
+        code = new int[4 * lirMethod.getInstructions().size() + 1];
+        size = 0;
+        labelIndices = new IdentityHashMap<>();
+        targetIndices = new ArrayList<>();
+        targets = new ArrayList<>();
+
+        List<Instruction> instructions = lirMethod.getInstructions();
+        useCounts = countUses(lirMethod);
+        int i = 0;
+        while (i < instructions.size()) {
+            Instruction instruction = instructions.get(i);
+            Instruction next = i + 1 < instructions.size() ? instructions.get(i + 1) : null;
+            if (isBranchedOn(instruction, next)) {
+                Binary comparison = (Binary) instruction;
+                Branch branch = (Branch) next;
+                emit(branchOpcode(comparison.getOperator()), slot(comparison.getLeft()), slot(comparison.getRight()));
+                emitTarget(branch.getIfTrue());
+                emitTarget(branch.getIfFalse());
+                i += 2;
+                continue;
+            }
+            int access = findCheckedAccess(instructions, i);
+            if (access != Bytecode.NONE) {
+                i = access;
+                instruction = instructions.get(i);
+                next = i + 1 < instructions.size() ? instructions.get(i + 1) : null;
+            }
+            coalesced = isMovedAway(instruction, next) ? next.getDefinedRegister() : null;
+            if (access == Bytecode.NONE) {
+                instruction.accept(this);
+            } else {
+                emitCheckedAccess(instruction);
+            }
+            i += coalesced == null ? 1 : 2;
+        }
+        coalesced = null;
+        for (int target = 0; target < targets.size(); target++) {
+            code[targetIndices.get(target)] = labelIndices.get(targets.get(target));
+        }
+
+        function.code = Arrays.copyOf(code, size);
+        function.intTemplate = new int[intSlotCount];
+        function.referenceTemplate = new Object[referenceSlotCount];
+        for (Map.Entry<Constant, Integer> entry : constantSlots.entrySet()) {
+            Constant constant = entry.getKey();
+            if (constant.getKind() == Constant.Kind.STRING) {
+                function.referenceTemplate[entry.getValue()] = intern(constant.getString());
+            } else if (constant.getKind() != Constant.Kind.NULL) {
+                function.intTemplate[entry.getValue()] = constant.getValue();
+            }
+        }
+    }
+
+    private static int[] countUses(LIRMethod lirMethod) {
+        int[] useCounts = new int[lirMethod.getRegisterCount()];
+        for (Instruction instruction : lirMethod.getInstructions()) {
+            for (int i = 0; i < instruction.getOperandCount(); i++) {
+                if (instruction.getOperand(i).isRegister()) {
+                    useCounts[((Register) instruction.getOperand(i)).getIndex()]++;
+                }
+            }
+        }
+        return useCounts;
+    }
+
+    /**
+     * @return whether the instruction is a comparison of ints whose result only the
+     * next instruction, a branch, reads
+     */
+    private boolean isBranchedOn(Instruction instruction, Instruction next) {
+        if (!(instruction instanceof Binary) || !(next instanceof Branch)) {
+            return false;
+        }
+        Binary comparison = (Binary) instruction;
+        Register result = comparison.getDefinedRegister();
+        return comparison.getOperator().isComparison()
+                && !isReference(comparison.getLeft()) && !isReference(comparison.getRight())
+                && ((Branch) next).getCondition() == result && useCounts[result.getIndex()] == 1;
+    }
+
+    /**
+     * @return whether the instruction assigns a register that only the next
+     * instruction, a move to a register of the same kind, reads
+     */
+    private boolean isMovedAway(Instruction instruction, Instruction next) {
+        Register defined = instruction.getDefinedRegister();
+        if (defined == null || !(next instanceof Move) || ((Move) next).getSource() != defined) {
+            return false;
+        }
+        return useCounts[defined.getIndex()] == 1 && isReference(defined) == isReference(next.getDefinedRegister());
+    }
+
+    /**
+     * finds an access of an element at the instruction, after a check of its index
+     * and maybe a null check of its array before that
+     *
+     * @return the index of the access, or NONE
+     */
+    private static int findCheckedAccess(List<Instruction> instructions, int index) {
+        int check = index;
+        if (isCheck(instructions.get(check), RuntimeCheck.Kind.NULL_REFERENCE)) {
+            check++;
+        }
+        int access = check + 1;
+        if (access >= instructions.size() || !isCheck(instructions.get(check), RuntimeCheck.Kind.ARRAY_INDEX)) {
+            return Bytecode.NONE;
+        }
+        Operand array = instructions.get(check).getOperand(0);
+        Operand element = instructions.get(check).getOperand(1);
+        if (check > index && !isSame(instructions.get(index).getOperand(0), array)) {
+            return Bytecode.NONE;
+        }
+        Instruction instruction = instructions.get(access);
+        if (instruction instanceof LoadElement && isSame(((LoadElement) instruction).getArray(), array) && isSame(((LoadElement) instruction).getIndex(), element)) {
+            return access;
+        }
+        if (instruction instanceof StoreElement && isSame(((StoreElement) instruction).getArray(), array) && isSame(((StoreElement) instruction).getIndex(), element)) {
+            return access;
+        }
+        return Bytecode.NONE;
+    }
+
+    private static boolean isSame(Operand first, Operand second) {
+        return first == second || (first.isConstant() && first.equals(second));
+    }
+
+    private static boolean isCheck(Instruction instruction, RuntimeCheck.Kind kind) {
+        return instruction instanceof RuntimeCheck && ((RuntimeCheck) instruction).getKind() == kind;
+    }
+
+    private void emitCheckedAccess(Instruction access) {
+        if (access instanceof LoadElement) {
+            LoadElement load = (LoadElement) access;
+            emit(isReference(load.getDefinedRegister()) ? Bytecode.LOAD_REFERENCE_ELEMENT_CHECKED : Bytecode.LOAD_INT_ELEMENT_CHECKED,
+                    target(load), slot(load.getArray()), slot(load.getIndex()));
+        } else {
+            StoreElement store = (StoreElement) access;
+            emit(hasReferenceElements(store.getArray(), store.getValue()) ? Bytecode.STORE_REFERENCE_ELEMENT_CHECKED : Bytecode.STORE_INT_ELEMENT_CHECKED,
+                    slot(store.getArray()), slot(store.getIndex()), slot(store.getValue()));
+        }
+    }
+
+    private static int branchOpcode(BinaryOperator operator) {
+        switch (operator) {
+            case LT:
+                return Bytecode.BRANCH_LT;
+            case LE:
+                return Bytecode.BRANCH_LE;
+            case GT:
+                return Bytecode.BRANCH_GT;
+            case GE:
+                return Bytecode.BRANCH_GE;
+            case EQ:
+                return Bytecode.BRANCH_EQ;
+            default:
+                return Bytecode.BRANCH_NE;
+        }
+    }
+
+    private String intern(String string) {
+        String first = strings.get(string);
+        if (first == null) {
+            strings.put(string, string);
+            first = string;
+        }
+        return first;
+    }
+
+    private static boolean isReference(Operand operand) {
+        return operand.getType().isReferenceType();
+    }
+
+    /**
+     * @param element an element of the array, or null
+     * @return whether the array is an Object[]; an array known to be null is never
+     * accessed, as its null check fails first
+     */
+    private static boolean hasReferenceElements(Operand array, Operand element) {
+        if (array.getType() instanceof ArraySymbolType) {
+            return ((ArraySymbolType) array.getType()).getBaseType().isReferenceType();
+        }
+        return element == null || isReference(element);
+    }
+
+    private int slot(Operand operand) {
+        if (operand.isRegister()) {
+            return slots[((Register) operand).getIndex()];
+        }
+        Integer slot = constantSlots.get(operand);
+        if (slot == null) {
+            slot = isReference(operand) ? referenceSlotCount++ : intSlotCount++;
+            constantSlots.put((Constant) operand, slot);
+        }
+        return slot;
+    }
+
+    /**
+     * @return the slot the instruction assigns
+     */
+    private int target(Instruction instruction) {
+        return slot(coalesced != null ? coalesced : instruction.getDefinedRegister());
+    }
+
+    private int fieldIndex(FieldReference field) {
+        return fieldIndices.get(field.getClassName()).get(field.getName());
+    }
+
+    private void emit(int... ints) {
+        if (size + ints.length > code.length) {
+            code = Arrays.copyOf(code, Math.max(2 * code.length, size + ints.length));
+        }
+        System.arraycopy(ints, 0, code, size, ints.length);
+        size += ints.length;
+    }
+
+    private void emitTarget(Label label) {
+        targetIndices.add(size);
+        targets.add(label);
+        emit(0);
+    }
+
+    /**
+     * emits the dst, count and arguments of a call
+     */
+    private void emitCall(Register target, List<Operand> arguments) {
+        emit(target == null ? Bytecode.NONE : slot(coalesced != null ? coalesced : target), arguments.size());
+        for (Operand argument : arguments) {
+            emit(slot(argument));
+        }
+    }
+
+    @Override
+    public Void visit(Move move) {
+        emit(isReference(move.getDefinedRegister()) ? Bytecode.MOVE_REFERENCE : Bytecode.MOVE,
+                target(move), slot(move.getSource()));
+        return null;
+    }
+
+    @Override
+    public Void visit(Binary binary) {
+        int opcode;
+        switch (binary.getOperator()) {
+            case ADD:
+                opcode = Bytecode.ADD;
+                break;
+            case SUB:
+                opcode = Bytecode.SUB;
+                break;
+            case MUL:
+                opcode = Bytecode.MUL;
+                break;
+            case DIV:
+                opcode = Bytecode.DIV;
+                break;
+            case MOD:
+                opcode = Bytecode.MOD;
+                break;
+            case LT:
+                opcode = Bytecode.LT;
+                break;
+            case LE:
+                opcode = Bytecode.LE;
+                break;
+            case GT:
+                opcode = Bytecode.GT;
+                break;
+            case GE:
+                opcode = Bytecode.GE;
+                break;
+            case EQ:
+                opcode = isReference(binary.getLeft()) || isReference(binary.getRight()) ? Bytecode.EQ_REFERENCE : Bytecode.EQ;
+                break;
+            case NE:
+                opcode = isReference(binary.getLeft()) || isReference(binary.getRight()) ? Bytecode.NE_REFERENCE : Bytecode.NE;
+                break;
+            default:
+                opcode = Bytecode.CONCAT;
+                break;
+        }
+        emit(opcode, target(binary), slot(binary.getLeft()), slot(binary.getRight()));
+        return null;
+    }
+
+    @Override
+    public Void visit(Unary unary) {
+        emit(unary.getOperator() == UnaryOperator.NEG ? Bytecode.NEG : Bytecode.NOT, target(unary), slot(unary.getSource()));
+        return null;
+    }
+
+    @Override
+    public Void visit(AllocObject alloc) {
+        emit(Bytecode.NEW_OBJECT, target(alloc), classIndices.get(alloc.getClassName()));
+        return null;
+    }
+
+    @Override
+    public Void visit(AllocArray alloc) {
+        emit(hasReferenceElements(alloc.getDefinedRegister(), null) ? Bytecode.NEW_REFERENCE_ARRAY : Bytecode.NEW_INT_ARRAY,
+                target(alloc), slot(alloc.getSize()));
+        return null;
+    }
+
+    @Override
+    public Void visit(ArrayLength length) {
+        emit(hasReferenceElements(length.getArray(), null) ? Bytecode.REFERENCE_ARRAY_LENGTH : Bytecode.INT_ARRAY_LENGTH,
+                target(length), slot(length.getArray()));
+        return null;
+    }
+
+    @Override
+    public Void visit(LoadField load) {
+        emit(isReference(load.getDefinedRegister()) ? Bytecode.LOAD_REFERENCE_FIELD : Bytecode.LOAD_INT_FIELD,
+                target(load), slot(load.getObject()), fieldIndex(load.getField()));
+        return null;
+    }
+
+    @Override
+    public Void visit(StoreField store) {
+        emit(store.getField().getType().isReferenceType() ? Bytecode.STORE_REFERENCE_FIELD : Bytecode.STORE_INT_FIELD,
+                slot(store.getObject()), fieldIndex(store.getField()), slot(store.getValue()));
+        return null;
+    }
+
+    @Override
+    public Void visit(LoadElement load) {
+        emit(isReference(load.getDefinedRegister()) ? Bytecode.LOAD_REFERENCE_ELEMENT : Bytecode.LOAD_INT_ELEMENT,
+                target(load), slot(load.getArray()), slot(load.getIndex()));
+        return null;
+    }
+
+    @Override
+    public Void visit(StoreElement store) {
+        emit(hasReferenceElements(store.getArray(), store.getValue()) ? Bytecode.STORE_REFERENCE_ELEMENT : Bytecode.STORE_INT_ELEMENT,
+                slot(store.getArray()), slot(store.getIndex()), slot(store.getValue()));
+        return null;
+    }
+
+    @Override
+    public Void visit(CallStatic call) {
+        List<Operand> arguments = new ArrayList<>();
+        for (int i = 0; i < call.getArgumentCount(); i++) {
+            arguments.add(call.getArgument(i));
+        }
+        MethodReference reference = call.getMethod();
+        if (reference.getKind() == MethodReference.Kind.LIBRARY) {
+            int id = Library.getId(reference.getName());
+            if (id == Bytecode.NONE) {
+                throw new IllegalArgumentException("No library method " + reference.getName());
+            }
+            emit(Bytecode.CALL_LIBRARY, id);
+        } else {
+            emit(Bytecode.CALL, functionIndices.get(reference));
+        }
+        emitCall(call.getDefinedRegister(), arguments);
+        return null;
+    }
+
+    @Override
+    public Void visit(CallVirtual call) {
+        List<Operand> arguments = new ArrayList<>();
+        arguments.add(call.getReceiver());
+        for (int i = 0; i < call.getArgumentCount(); i++) {
+            arguments.add(call.getArgument(i));
+        }
+        MethodReference reference = call.getMethod();
+        if (call.isDirect()) {
+            emit(Bytecode.CALL, functionIndices.get(reference));
+        } else {
+            ClassLayout layout = program.getClass(reference.getClassName()).getType().getLayout();
+            emit(Bytecode.CALL_VIRTUAL, layout.getMethodSlot(reference.getNameId()));
+        }
+        emitCall(call.getDefinedRegister(), arguments);
+        return null;
+    }
+
+    @Override
+    public Void visit(Label label) {
+        labelIndices.put(label, size);
+        return null;
+    }
+
+    @Override
+    public Void visit(Jump jump) {
+        emit(Bytecode.JUMP);
+        emitTarget(jump.getTarget());
+        return null;
+    }
+
+    @Override
+    public Void visit(Branch branch) {
+        emit(Bytecode.BRANCH, slot(branch.getCondition()));
+        emitTarget(branch.getIfTrue());
+        emitTarget(branch.getIfFalse());
+        return null;
+    }
+
+    @Override
+    public Void visit(Ret ret) {
+        if (!ret.hasValue()) {
+            emit(Bytecode.RETURN);
+        } else {
+            emit(method.getReturnType().isReferenceType() ? Bytecode.RETURN_REFERENCE : Bytecode.RETURN_INT, slot(ret.getValue()));
+        }
+        return null;
+    }
+
+    @Override
+    public Void visit(RuntimeCheck check) {
+        switch (check.getKind()) {
+            case NULL_REFERENCE:
+                emit(Bytecode.CHECK_NULL, slot(check.getOperand(0)));
+                break;
+            case ARRAY_INDEX:
+                emit(hasReferenceElements(check.getOperand(0), null) ? Bytecode.CHECK_REFERENCE_INDEX : Bytecode.CHECK_INT_INDEX,
+                        slot(check.getOperand(0)), slot(check.getOperand(1)));
+                break;
+            case ARRAY_SIZE:
+                emit(Bytecode.CHECK_SIZE, slot(check.getOperand(0)));
+                break;
+            default:
+                emit(Bytecode.CHECK_ZERO, slot(check.getOperand(0)));
+                break;
+        }
+        return null;
+    }
+
+    @Override
+    public Void visit(Phi phi) {
+        throw new IllegalStateException("Phi instructions must be removed before translating to bytecode");
+    }
+}
@@ -0,0 +1,39 @@
+package IC.Interpreter;
+
+/**
+ * the bytecode of a method. A call runs it on a frame of its own: copies of the
+ * templates, which hold the constants of the method in their slots. The
+ * parameters take the first slots of each frame, so methods with the same
+ * signature, such as a method and its overrides, take their arguments in the
+ * same slots.
+ */
+final class Function {
+    final String name;
+    int[] code;
+    int[] intTemplate;
+    Object[] referenceTemplate;
+    // The slot of every parameter, in the reference frame if it is a reference.
+    int[] parameterSlots;
+    boolean[] parameterReferences;
+    boolean returnsReference;
+
+    Function(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the code, one instruction a line
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(name).append(":\n");
+        for (int pc = 0; pc < code.length; pc += 1 + Bytecode.getOperandCount(code, pc)) {
+            builder.append(String.format("%5d  %s", pc, Bytecode.getName(code[pc])));
+            for (int i = 1; i <= Bytecode.getOperandCount(code, pc); i++) {
+                builder.append(' ').append(code[pc + i]);
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+}
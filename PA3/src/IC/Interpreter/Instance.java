@@ -0,0 +1,20 @@
+package IC.Interpreter;
+
+/**
+ * an object of the program. Its int and boolean fields are in ints and the
+ * others in references, each at the index the translator gave the field.
+ */
+final class Instance {
+    private static final int[] NO_INTS = new int[0];
+    private static final Object[] NO_REFERENCES = new Object[0];
+
+    final RuntimeClass type;
+    final int[] ints;
+    final Object[] references;
+
+    Instance(RuntimeClass type) {
+        this.type = type;
+        ints = type.intFieldCount == 0 ? NO_INTS : new int[type.intFieldCount];
+        references = type.referenceFieldCount == 0 ? NO_REFERENCES : new Object[type.referenceFieldCount];
+    }
+}
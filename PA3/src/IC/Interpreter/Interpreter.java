@@ -0,0 +1,436 @@
+package IC.Interpreter;
+
+import IC.LIR.RuntimeCheck;
+
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Runs the bytecode of a program. A call runs the code of its function in a
+ * loop dispatching on the opcodes, on a frame of its own: an int[] for its ints
+ * and booleans, which are never boxed, and an Object[] for its strings (Java
+ * strings), arrays (int[] for ints and booleans, Object[] otherwise) and objects
+ * (instances). A call of the program is a Java call, so the program runs on a
+ * thread with a stack large enough for deep recursion.
+ *
+ * When a runtime check fails, the interpreter prints its error and the program
+ * exits with code 1.
+ */
+public class Interpreter {
+    private static final long STACK_SIZE = 1L << 30;
+    private static final String STACK_OVERFLOW_MESSAGE = "Runtime Error: Stack overflow!";
+
+    private final BytecodeProgram program;
+    private final PrintStream err;
+    private final Library library;
+    // What the last function returned.
+    private int intResult;
+    private Object referenceResult;
+
+    /**
+     * @param out the output of the program, which the interpreter buffers
+     * @param err where runtime errors are printed
+     */
+    public Interpreter(BytecodeProgram program, InputStream in, PrintStream out, PrintStream err) {
+        this.program = program;
+        this.err = err;
+        library = new Library(in, out);
+    }
+
+    /**
+     * runs the main method of the program, on a thread of its own
+     *
+     * @param args the elements of the string[] main gets
+     * @return the exit code: the code the program passed to Library.exit, 1 after a
+     * runtime error, or 0
+     */
+    public int run(List<String> args) {
+        int[] exitCode = new int[1];
+        Throwable[] failure = new Throwable[1];
+        Thread thread = new Thread(null, () -> {
+            try {
+                exitCode[0] = runMain(args);
+            } catch (RuntimeException | Error e) {
+                failure[0] = e;
+            }
+        }, "IC main", STACK_SIZE);
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running the program", e);
+        }
+        if (failure[0] instanceof RuntimeException) {
+            throw (RuntimeException) failure[0];
+        } else if (failure[0] != null) {
+            throw (Error) failure[0];
+        }
+        return exitCode[0];
+    }
+
+    private int runMain(List<String> args) {
+        Function main = program.main;
+        int[] ints = main.intTemplate.clone();
+        Object[] references = main.referenceTemplate.clone();
+        if (main.parameterSlots.length > 0) {
+            references[main.parameterSlots[0]] = args.toArray(new Object[0]);
+        }
+        try {
+            execute(main, ints, references);
+            return 0;
+        } catch (ProgramExit e) {
+            return e.getCode();
+        } catch (RuntimeError e) {
+            library.flush();
+            err.println(e.getMessage());
+            return 1;
+        } catch (StackOverflowError e) {
+            library.flush();
+            err.println(STACK_OVERFLOW_MESSAGE);
+            return 1;
+        } finally {
+            library.flush();
+        }
+    }
+
+    private void execute(Function function, int[] ints, Object[] references) {
+        final int[] code = function.code;
+        int pc = 0;
+        while (true) {
+            switch (code[pc]) {
+                case Bytecode.MOVE:
+                    ints[code[pc + 1]] = ints[code[pc + 2]];
+                    pc += 3;
+                    break;
+                case Bytecode.MOVE_REFERENCE:
+                    references[code[pc + 1]] = references[code[pc + 2]];
+                    pc += 3;
+                    break;
+                case Bytecode.ADD:
+                    ints[code[pc + 1]] = ints[code[pc + 2]] + ints[code[pc + 3]];
+                    pc += 4;
+                    break;
+                case Bytecode.SUB:
+                    ints[code[pc + 1]] = ints[code[pc + 2]] - ints[code[pc + 3]];
+                    pc += 4;
+                    break;
+                case Bytecode.MUL:
+                    ints[code[pc + 1]] = ints[code[pc + 2]] * ints[code[pc + 3]];
+                    pc += 4;
+                    break;
+                case Bytecode.DIV:
+                    ints[code[pc + 1]] = ints[code[pc + 2]] / ints[code[pc + 3]];
+                    pc += 4;
+                    break;
+                case Bytecode.MOD:
+                    ints[code[pc + 1]] = ints[code[pc + 2]] % ints[code[pc + 3]];
+                    pc += 4;
+                    break;
+                case Bytecode.LT:
+                    ints[code[pc + 1]] = ints[code[pc + 2]] < ints[code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                    break;
+                case Bytecode.LE:
+                    ints[code[pc + 1]] = ints[code[pc + 2]] <= ints[code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                    break;
+                case Bytecode.GT:
+                    ints[code[pc + 1]] = ints[code[pc + 2]] > ints[code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                    break;
+                case Bytecode.GE:
+                    ints[code[pc + 1]] = ints[code[pc + 2]] >= ints[code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                    break;
+                case Bytecode.EQ:
+                    ints[code[pc + 1]] = ints[code[pc + 2]] == ints[code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                    break;
+                case Bytecode.NE:
+                    ints[code[pc + 1]] = ints[code[pc + 2]] != ints[code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                    break;
+                case Bytecode.EQ_REFERENCE:
+                    ints[code[pc + 1]] = references[code[pc + 2]] == references[code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                    break;
+                case Bytecode.NE_REFERENCE:
+                    ints[code[pc + 1]] = references[code[pc + 2]] != references[code[pc + 3]] ? 1 : 0;
+                    pc += 4;
+                    break;
+                case Bytecode.CONCAT:
+                    references[code[pc + 1]] = (String) references[code[pc + 2]] + references[code[pc + 3]];
+                    pc += 4;
+                    break;
+                case Bytecode.NEG:
+                    ints[code[pc + 1]] = -ints[code[pc + 2]];
+                    pc += 3;
+                    break;
+                case Bytecode.NOT:
+                    ints[code[pc + 1]] = ints[code[pc + 2]] ^ 1;
+                    pc += 3;
+                    break;
+                case Bytecode.NEW_OBJECT:
+                    references[code[pc + 1]] = new Instance(program.classes[code[pc + 2]]);
+                    pc += 3;
+                    break;
+                case Bytecode.NEW_INT_ARRAY:
+                    references[code[pc + 1]] = new int[ints[code[pc + 2]]];
+                    pc += 3;
+                    break;
+                case Bytecode.NEW_REFERENCE_ARRAY:
+                    references[code[pc + 1]] = new Object[ints[code[pc + 2]]];
+                    pc += 3;
+                    break;
+                case Bytecode.INT_ARRAY_LENGTH:
+                    ints[code[pc + 1]] = ((int[]) references[code[pc + 2]]).length;
+                    pc += 3;
+                    break;
+                case Bytecode.REFERENCE_ARRAY_LENGTH:
+                    ints[code[pc + 1]] = ((Object[]) references[code[pc + 2]]).length;
+                    pc += 3;
+                    break;
+                case Bytecode.LOAD_INT_FIELD:
+                    ints[code[pc + 1]] = ((Instance) references[code[pc + 2]]).ints[code[pc + 3]];
+                    pc += 4;
+                    break;
+                case Bytecode.LOAD_REFERENCE_FIELD:
+                    references[code[pc + 1]] = ((Instance) references[code[pc + 2]]).references[code[pc + 3]];
+                    pc += 4;
+                    break;
+                case Bytecode.STORE_INT_FIELD:
+                    ((Instance) references[code[pc + 1]]).ints[code[pc + 2]] = ints[code[pc + 3]];
+                    pc += 4;
+                    break;
+                case Bytecode.STORE_REFERENCE_FIELD:
+                    ((Instance) references[code[pc + 1]]).references[code[pc + 2]] = references[code[pc + 3]];
+                    pc += 4;
+                    break;
+                case Bytecode.LOAD_INT_ELEMENT:
+                    ints[code[pc + 1]] = ((int[]) references[code[pc + 2]])[ints[code[pc + 3]]];
+                    pc += 4;
+                    break;
+                case Bytecode.LOAD_REFERENCE_ELEMENT:
+                    references[code[pc + 1]] = ((Object[]) references[code[pc + 2]])[ints[code[pc + 3]]];
+                    pc += 4;
+                    break;
+                case Bytecode.STORE_INT_ELEMENT:
+                    ((int[]) references[code[pc + 1]])[ints[code[pc + 2]]] = ints[code[pc + 3]];
+                    pc += 4;
+                    break;
+                case Bytecode.STORE_REFERENCE_ELEMENT:
+                    ((Object[]) references[code[pc + 1]])[ints[code[pc + 2]]] = references[code[pc + 3]];
+                    pc += 4;
+                    break;
+                case Bytecode.CHECK_NULL:
+                    if (references[code[pc + 1]] == null) {
+                        throw new RuntimeError(RuntimeCheck.Kind.NULL_REFERENCE);
+                    }
+                    pc += 2;
+                    break;
+                case Bytecode.CHECK_INT_INDEX:
+                    checkIndex(((int[]) references[code[pc + 1]]).length, ints[code[pc + 2]]);
+                    pc += 3;
+                    break;
+                case Bytecode.CHECK_REFERENCE_INDEX:
+                    checkIndex(((Object[]) references[code[pc + 1]]).length, ints[code[pc + 2]]);
+                    pc += 3;
+                    break;
+                case Bytecode.CHECK_SIZE:
+                    if (ints[code[pc + 1]] < 0) {
+                        throw new RuntimeError(RuntimeCheck.Kind.ARRAY_SIZE);
+                    }
+                    pc += 2;
+                    break;
+                case Bytecode.CHECK_ZERO:
+                    if (ints[code[pc + 1]] == 0) {
+                        throw new RuntimeError(RuntimeCheck.Kind.DIVISION_BY_ZERO);
+                    }
+                    pc += 2;
+                    break;
+                case Bytecode.JUMP:
+                    pc = code[pc + 1];
+                    break;
+                case Bytecode.BRANCH:
+                    pc = ints[code[pc + 1]] != 0 ? code[pc + 2] : code[pc + 3];
+                    break;
+                case Bytecode.BRANCH_LT:
+                    pc = ints[code[pc + 1]] < ints[code[pc + 2]] ? code[pc + 3] : code[pc + 4];
+                    break;
+                case Bytecode.BRANCH_LE:
+                    pc = ints[code[pc + 1]] <= ints[code[pc + 2]] ? code[pc + 3] : code[pc + 4];
+                    break;
+                case Bytecode.BRANCH_GT:
+                    pc = ints[code[pc + 1]] > ints[code[pc + 2]] ? code[pc + 3] : code[pc + 4];
+                    break;
+                case Bytecode.BRANCH_GE:
+                    pc = ints[code[pc + 1]] >= ints[code[pc + 2]] ? code[pc + 3] : code[pc + 4];
+                    break;
+                case Bytecode.BRANCH_EQ:
+                    pc = ints[code[pc + 1]] == ints[code[pc + 2]] ? code[pc + 3] : code[pc + 4];
+                    break;
+                case Bytecode.BRANCH_NE:
+                    pc = ints[code[pc + 1]] != ints[code[pc + 2]] ? code[pc + 3] : code[pc + 4];
+                    break;
+                case Bytecode.RETURN:
+                    return;
+                case Bytecode.RETURN_INT:
+                    intResult = ints[code[pc + 1]];
+                    return;
+                case Bytecode.RETURN_REFERENCE:
+                    referenceResult = references[code[pc + 1]];
+                    return;
+                case Bytecode.CALL:
+                    pc = call(program.functions[code[pc + 1]], code, pc, ints, references);
+                    break;
+                case Bytecode.CALL_VIRTUAL:
+                    // The receiver is the first argument.
+                    pc = call(((Instance) references[code[pc + 4]]).type.dispatchTable[code[pc + 1]], code, pc, ints, references);
+                    break;
+                case Bytecode.CALL_LIBRARY:
+                    pc = callLibrary(code, pc, ints, references);
+                    break;
+                case Bytecode.LOAD_INT_ELEMENT_CHECKED: {
+                    int[] array = (int[]) references[code[pc + 2]];
+                    ints[code[pc + 1]] = array[checkElement(array == null ? -1 : array.length, ints[code[pc + 3]])];
+                    pc += 4;
+                    break;
+                }
+                case Bytecode.LOAD_REFERENCE_ELEMENT_CHECKED: {
+                    Object[] array = (Object[]) references[code[pc + 2]];
+                    references[code[pc + 1]] = array[checkElement(array == null ? -1 : array.length, ints[code[pc + 3]])];
+                    pc += 4;
+                    break;
+                }
+                case Bytecode.STORE_INT_ELEMENT_CHECKED: {
+                    int[] array = (int[]) references[code[pc + 1]];
+                    array[checkElement(array == null ? -1 : array.length, ints[code[pc + 2]])] = ints[code[pc + 3]];
+                    pc += 4;
+                    break;
+                }
+                case Bytecode.STORE_REFERENCE_ELEMENT_CHECKED: {
+                    Object[] array = (Object[]) references[code[pc + 1]];
+                    array[checkElement(array == null ? -1 : array.length, ints[code[pc + 2]])] = references[code[pc + 3]];
+                    pc += 4;
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("Unknown opcode " + code[pc] + " at " + pc + " in " + function.name);
+            }
+        }
+    }
+
+    private static void checkIndex(int length, int index) {
+        if (index < 0 || index >= length) {
+            throw new RuntimeError(RuntimeCheck.Kind.ARRAY_INDEX);
+        }
+    }
+
+    /**
+     * checks an access of an element of an array
+     *
+     * @param length the length of the array, or -1 if it is null
+     * @return the index
+     */
+    private static int checkElement(int length, int index) {
+        if (length < 0) {
+            throw new RuntimeError(RuntimeCheck.Kind.NULL_REFERENCE);
+        }
+        checkIndex(length, index);
+        return index;
+    }
+
+    /**
+     * runs the call at pc, whose arguments are in the frame of the caller
+     *
+     * @return the pc after the call
+     */
+    private int call(Function callee, int[] code, int pc, int[] ints, Object[] references) {
+        int[] calleeInts = callee.intTemplate.clone();
+        Object[] calleeReferences = callee.referenceTemplate.clone();
+        int argumentCount = code[pc + 3];
+        for (int i = 0; i < argumentCount; i++) {
+            int argument = code[pc + 4 + i];
+            if (callee.parameterReferences[i]) {
+                calleeReferences[callee.parameterSlots[i]] = references[argument];
+            } else {
+                calleeInts[callee.parameterSlots[i]] = ints[argument];
+            }
+        }
+        execute(callee, calleeInts, calleeReferences);
+        int target = code[pc + 2];
+        if (target != Bytecode.NONE) {
+            if (callee.returnsReference) {
+                references[target] = referenceResult;
+            } else {
+                ints[target] = intResult;
+            }
+        }
+        return pc + 4 + argumentCount;
+    }
+
+    private int callLibrary(int[] code, int pc, int[] ints, Object[] references) {
+        int target = code[pc + 2];
+        // The index of the first argument in the code.
+        int arguments = pc + 4;
+        switch (code[pc + 1]) {
+            case Library.PRINTLN:
+                library.println((String) references[code[arguments]]);
+                break;
+            case Library.PRINT:
+                library.print((String) references[code[arguments]]);
+                break;
+            case Library.PRINTI:
+                library.printi(ints[code[arguments]]);
+                break;
+            case Library.PRINTB:
+                library.printb(ints[code[arguments]] != 0);
+                break;
+            case Library.READI:
+                setInt(ints, target, library.readi());
+                break;
+            case Library.READLN:
+                setReference(references, target, library.readln());
+                break;
+            case Library.EOF:
+                setInt(ints, target, library.eof() ? 1 : 0);
+                break;
+            case Library.STOI:
+                setInt(ints, target, library.stoi((String) references[code[arguments]], ints[code[arguments + 1]]));
+                break;
+            case Library.ITOS:
+                setReference(references, target, library.itos(ints[code[arguments]]));
+                break;
+            case Library.STOA:
+                setReference(references, target, library.stoa((String) references[code[arguments]]));
+                break;
+            case Library.ATOS:
+                setReference(references, target, library.atos((int[]) references[code[arguments]]));
+                break;
+            case Library.RANDOM:
+                setInt(ints, target, library.random(ints[code[arguments]]));
+                break;
+            case Library.TIME:
+                setInt(ints, target, library.time());
+                break;
+            default:
+                setInt(ints, target, library.exit(ints[code[arguments]]));
+                break;
+        }
+        return arguments + code[pc + 3];
+    }
+
+    private static void setInt(int[] ints, int target, int value) {
+        if (target != Bytecode.NONE) {
+            ints[target] = value;
+        }
+    }
+
+    private static void setReference(Object[] references, int target, Object value) {
+        if (target != Bytecode.NONE) {
+            references[target] = value;
+        }
+    }
+}
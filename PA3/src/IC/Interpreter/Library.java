@@ -0,0 +1,259 @@
+package IC.Interpreter;
+
+import IC.LIR.RuntimeCheck;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Random;
+
+/**
+ * the methods of the Library class (libic.sig), which IC programs call and the
+ * interpreter implements. Strings are Java strings of ascii characters, and
+ * int[] arrays are int[]. The output is buffered as bytes, a character each,
+ * which is much faster than a PrintStream encoding every string it prints.
+ */
+final class Library {
+    static final int PRINTLN = 0;
+    static final int PRINT = 1;
+    static final int PRINTI = 2;
+    static final int PRINTB = 3;
+    static final int READI = 4;
+    static final int READLN = 5;
+    static final int EOF = 6;
+    static final int STOI = 7;
+    static final int ITOS = 8;
+    static final int STOA = 9;
+    static final int ATOS = 10;
+    static final int RANDOM = 11;
+    static final int TIME = 12;
+    static final int EXIT = 13;
+
+    private static final String[] NAMES = {
+        "println", "print", "printi", "printb", "readi", "readln", "eof", "stoi", "itos", "stoa", "atos",
+        "random", "time", "exit"
+    };
+
+    private static final int NO_BYTE = -2;
+    private static final int BUFFER_SIZE = 1 << 16;
+    // The longest int printed, -2147483648.
+    private static final int MAX_INT_LENGTH = 11;
+
+    private final InputStream in;
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int buffered = 0;
+    private final Random random = new Random();
+    private final long startTime = System.currentTimeMillis();
+    // The byte read ahead from the input, NO_BYTE or -1 at its end.
+    private int next = NO_BYTE;
+
+    /**
+     * @param out the output of the program, which flush writes the buffered output to
+     */
+    Library(InputStream in, OutputStream out) {
+        this.in = in;
+        this.out = out;
+    }
+
+    /**
+     * @return the id of a library method, or Bytecode.NONE
+     */
+    static int getId(String name) {
+        for (int id = 0; id < NAMES.length; id++) {
+            if (NAMES[id].equals(name)) {
+                return id;
+            }
+        }
+        return Bytecode.NONE;
+    }
+
+    static String getName(int id) {
+        return NAMES[id];
+    }
+
+    void println(String s) {
+        print(s);
+        write('\n');
+    }
+
+    void print(String s) {
+        if (s == null) {
+            s = "null";
+        }
+        for (int i = 0; i < s.length(); i++) {
+            write(s.charAt(i));
+        }
+    }
+
+    void printi(int i) {
+        if (buffered + MAX_INT_LENGTH > buffer.length) {
+            flush();
+        }
+        if (i == Integer.MIN_VALUE) {
+            print(Integer.toString(i));
+            return;
+        }
+        if (i < 0) {
+            buffer[buffered++] = '-';
+            i = -i;
+        }
+        int end = buffered + digitCount(i);
+        for (int position = end - 1; position >= buffered; position--) {
+            buffer[position] = (byte) ('0' + i % 10);
+            i /= 10;
+        }
+        buffered = end;
+    }
+
+    private static int digitCount(int nonNegative) {
+        int count = 1;
+        for (int bound = 10; count < 10 && nonNegative >= bound; bound *= 10) {
+            count++;
+        }
+        return count;
+    }
+
+    void printb(boolean b) {
+        print(b ? "true" : "false");
+    }
+
+    /**
+     * reads an integer like scanf("%d"): skips white space, then reads a sign and
+     * digits
+     *
+     * @return the integer, or 0 if the input doesn't start with one
+     */
+    int readi() {
+        while (peek() != -1 && Character.isWhitespace(peek())) {
+            read();
+        }
+        boolean negative = false;
+        if (peek() == '-' || peek() == '+') {
+            negative = read() == '-';
+        }
+        int value = 0;
+        while (peek() >= '0' && peek() <= '9') {
+            value = value * 10 + read() - '0';
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return the rest of the line without its end, or null at the end of the input
+     */
+    String readln() {
+        if (peek() == -1) {
+            return null;
+        }
+        StringBuilder line = new StringBuilder();
+        while (peek() != -1 && peek() != '\n') {
+            line.append((char) read());
+        }
+        read();
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') {
+            line.setLength(length - 1);
+        }
+        return line.toString();
+    }
+
+    boolean eof() {
+        return peek() == -1;
+    }
+
+    int stoi(String s, int n) {
+        if (s == null) {
+            return n;
+        }
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            return n;
+        }
+    }
+
+    String itos(int i) {
+        return Integer.toString(i);
+    }
+
+    int[] stoa(String s) {
+        if (s == null) {
+            throw new RuntimeError(RuntimeCheck.Kind.NULL_REFERENCE);
+        }
+        int[] codes = new int[s.length()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = s.charAt(i);
+        }
+        return codes;
+    }
+
+    String atos(int[] a) {
+        if (a == null) {
+            throw new RuntimeError(RuntimeCheck.Kind.NULL_REFERENCE);
+        }
+        char[] chars = new char[a.length];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) a[i];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @return rand() % n, as the C library does
+     */
+    int random(int n) {
+        if (n == 0) {
+            throw new RuntimeError(RuntimeCheck.Kind.DIVISION_BY_ZERO);
+        }
+        return random.nextInt(Integer.MAX_VALUE) % n;
+    }
+
+    int time() {
+        return (int) (System.currentTimeMillis() - startTime);
+    }
+
+    int exit(int i) {
+        throw new ProgramExit(i);
+    }
+
+    /**
+     * writes the buffered output of the program
+     */
+    void flush() {
+        try {
+            out.write(buffer, 0, buffered);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffered = 0;
+    }
+
+    private void write(char c) {
+        if (buffered == buffer.length) {
+            flush();
+        }
+        buffer[buffered++] = (byte) c;
+    }
+
+    private int peek() {
+        if (next == NO_BYTE) {
+            try {
+                next = in.read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next;
+    }
+
+    private int read() {
+        int read = peek();
+        if (read != -1) {
+            next = NO_BYTE;
+        }
+        return read;
+    }
+}
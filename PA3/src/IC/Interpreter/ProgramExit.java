@@ -0,0 +1,17 @@
+package IC.Interpreter;
+
+/**
+ * thrown by Library.exit to stop the program, with its exit code
+ */
+final class ProgramExit extends RuntimeException {
+    private final int code;
+
+    ProgramExit(int code) {
+        super("exit " + code, null, false, false);
+        this.code = code;
+    }
+
+    int getCode() {
+        return code;
+    }
+}
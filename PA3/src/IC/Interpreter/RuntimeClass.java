@@ -0,0 +1,16 @@
+package IC.Interpreter;
+
+/**
+ * a class of the program as the interpreter sees it: how many int and reference
+ * fields its instances have, and the function of every slot of its dispatch table
+ */
+final class RuntimeClass {
+    final String name;
+    int intFieldCount;
+    int referenceFieldCount;
+    Function[] dispatchTable;
+
+    RuntimeClass(String name) {
+        this.name = name;
+    }
+}
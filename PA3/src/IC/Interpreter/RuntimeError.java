@@ -0,0 +1,20 @@
+package IC.Interpreter;
+
+import IC.LIR.RuntimeCheck;
+
+/**
+ * thrown when a runtime check of the program fails, which stops the program
+ */
+final class RuntimeError extends RuntimeException {
+    private final RuntimeCheck.Kind kind;
+
+    RuntimeError(RuntimeCheck.Kind kind) {
+        // The Java stack trace says nothing about the program.
+        super(kind.getMessage(), null, false, false);
+        this.kind = kind;
+    }
+
+    RuntimeCheck.Kind getKind() {
+        return kind;
+    }
+}
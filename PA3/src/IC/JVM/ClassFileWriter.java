@@ -0,0 +1,182 @@
+package IC.JVM;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a class file. The classes are version 49 (Java 5), the last version
+ * verified by type inference, so methods need no stack map frames.
+ */
+class ClassFileWriter {
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int MAJOR_VERSION = 49;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private final ByteArrayOutputStream constantBytes = new ByteArrayOutputStream();
+    private final DataOutputStream constants = new DataOutputStream(constantBytes);
+    // The index of every constant, by its tag and contents.
+    private final Map<String, Integer> constantIndices = new HashMap<>();
+    private int constantCount = 1;
+
+    private final int thisClass;
+    private final int superClass;
+    private final List<byte[]> fields = new ArrayList<>();
+    private final List<MethodWriter> methods = new ArrayList<>();
+
+    /**
+     * @param name      the internal name of the class, e.g. java/lang/Object
+     * @param superName the internal name of its base class
+     */
+    ClassFileWriter(String name, String superName) {
+        thisClass = classConstant(name);
+        superClass = classConstant(superName);
+    }
+
+    void addField(int access, String name, String descriptor) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream field = new DataOutputStream(bytes);
+        try {
+            field.writeShort(access);
+            field.writeShort(utf8Constant(name));
+            field.writeShort(utf8Constant(descriptor));
+            field.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        fields.add(bytes.toByteArray());
+    }
+
+    /**
+     * @return the writer of the code of a new method
+     */
+    MethodWriter addMethod(int access, String name, String descriptor) {
+        MethodWriter method = new MethodWriter(this, access, utf8Constant(name), utf8Constant(descriptor));
+        methods.add(method);
+        return method;
+    }
+
+    byte[] toByteArray() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream file = new DataOutputStream(bytes);
+        try {
+            int code = utf8Constant("Code");
+            file.writeInt(MAGIC);
+            file.writeShort(0);
+            file.writeShort(MAJOR_VERSION);
+            file.writeShort(constantCount);
+            constants.flush();
+            constantBytes.writeTo(file);
+            file.writeShort(Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER);
+            file.writeShort(thisClass);
+            file.writeShort(superClass);
+            file.writeShort(0);
+            file.writeShort(fields.size());
+            for (byte[] field : fields) {
+                file.write(field);
+            }
+            file.writeShort(methods.size());
+            for (MethodWriter method : methods) {
+                method.write(file, code);
+            }
+            file.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    int utf8Constant(String value) {
+        String key = CONSTANT_UTF8 + value;
+        Integer index = constantIndices.get(key);
+        if (index == null) {
+            try {
+                constants.writeByte(CONSTANT_UTF8);
+                constants.writeUTF(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            index = add(key);
+        }
+        return index;
+    }
+
+    int intConstant(int value) {
+        String key = CONSTANT_INTEGER + ":" + value;
+        Integer index = constantIndices.get(key);
+        if (index == null) {
+            write(CONSTANT_INTEGER, value >>> 16, value & 0xFFFF);
+            index = add(key);
+        }
+        return index;
+    }
+
+    int stringConstant(String value) {
+        return reference(CONSTANT_STRING, utf8Constant(value));
+    }
+
+    int classConstant(String internalName) {
+        return reference(CONSTANT_CLASS, utf8Constant(internalName));
+    }
+
+    int fieldConstant(String owner, String name, String descriptor) {
+        return reference(CONSTANT_FIELDREF, classConstant(owner), nameAndType(name, descriptor));
+    }
+
+    int methodConstant(String owner, String name, String descriptor) {
+        return reference(CONSTANT_METHODREF, classConstant(owner), nameAndType(name, descriptor));
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        return reference(CONSTANT_NAME_AND_TYPE, utf8Constant(name), utf8Constant(descriptor));
+    }
+
+    /**
+     * @return the index of a constant made of the indices of other constants
+     */
+    private int reference(int tag, int... indices) {
+        StringBuilder key = new StringBuilder().append(tag);
+        for (int index : indices) {
+            key.append(':').append(index);
+        }
+        Integer index = constantIndices.get(key.toString());
+        if (index == null) {
+            write(tag, indices);
+            index = add(key.toString());
+        }
+        return index;
+    }
+
+    private void write(int tag, int... shorts) {
+        try {
+            constants.writeByte(tag);
+            for (int value : shorts) {
+                constants.writeShort(value);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int add(String key) {
+        int index = constantCount;
+        constantCount++;
+        if (constantCount > 0xFFFF) {
+            throw new IllegalStateException("Too many constants in a class");
+        }
+        constantIndices.put(key, index);
+        return index;
+    }
+}
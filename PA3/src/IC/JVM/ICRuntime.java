@@ -0,0 +1,290 @@
+package IC.JVM;
+
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Random;
+import java.util.jar.JarFile;
+
+/**
+ * The runtime of IC programs compiled to JVM classes: the methods of the Library
+ * class (libic.sig), the runtime checks, and the entry point of the jar. The jar
+ * holds a copy of this class, so it only uses the Java library. Booleans are
+ * ints, 1 or 0, as in the compiled classes.
+ */
+public final class ICRuntime {
+    /**
+     * the manifest attribute naming the class whose main the entry point runs
+     */
+    public static final String MAIN_CLASS_ATTRIBUTE = "IC-Main-Class";
+
+    // Compiled frames are small, and a larger stack only makes an endless
+    // recursion take longer to overflow.
+    private static final long STACK_SIZE = 1L << 28;
+    private static final int BUFFER_SIZE = 1 << 16;
+    // The longest int printed, -2147483648.
+    private static final int MAX_INT_LENGTH = 11;
+    private static final int NO_BYTE = -2;
+
+    private static final OutputStream out = new FileOutputStream(FileDescriptor.out);
+    private static final InputStream in = System.in;
+    private static final byte[] buffer = new byte[BUFFER_SIZE];
+    private static int buffered = 0;
+    private static final Random random = new Random();
+    private static final long startTime = System.currentTimeMillis();
+    // The byte read ahead from the input, NO_BYTE or -1 at its end.
+    private static int next = NO_BYTE;
+
+    private ICRuntime() {
+    }
+
+    /**
+     * runs the main method of the class the manifest of the jar names, on a thread
+     * with a stack large enough for deep recursion
+     */
+    public static void main(String[] args) throws Exception {
+        String mainClass;
+        try (JarFile jar = new JarFile(new File(ICRuntime.class.getProtectionDomain().getCodeSource().getLocation().toURI()))) {
+            mainClass = jar.getManifest().getMainAttributes().getValue(MAIN_CLASS_ATTRIBUTE);
+        }
+        Method main = Class.forName(mainClass).getMethod("main", String[].class);
+        Throwable[] failure = new Throwable[1];
+        Thread thread = new Thread(null, () -> {
+            try {
+                main.invoke(null, (Object) args);
+            } catch (InvocationTargetException e) {
+                failure[0] = e.getCause();
+            } catch (IllegalAccessException e) {
+                failure[0] = e;
+            }
+        }, "IC main", STACK_SIZE);
+        thread.start();
+        thread.join();
+        if (failure[0] instanceof StackOverflowError) {
+            fail("Runtime Error: Stack overflow!");
+        }
+        flush();
+        if (failure[0] != null) {
+            throw new IllegalStateException("The program failed", failure[0]);
+        }
+    }
+
+    public static void println(String s) {
+        print(s);
+        write('\n');
+    }
+
+    public static void print(String s) {
+        if (s == null) {
+            s = "null";
+        }
+        for (int i = 0; i < s.length(); i++) {
+            write(s.charAt(i));
+        }
+    }
+
+    public static void printi(int i) {
+        if (buffered + MAX_INT_LENGTH > buffer.length) {
+            flush();
+        }
+        if (i == Integer.MIN_VALUE) {
+            print(Integer.toString(i));
+            return;
+        }
+        if (i < 0) {
+            buffer[buffered++] = '-';
+            i = -i;
+        }
+        int end = buffered + digitCount(i);
+        for (int position = end - 1; position >= buffered; position--) {
+            buffer[position] = (byte) ('0' + i % 10);
+            i /= 10;
+        }
+        buffered = end;
+    }
+
+    private static int digitCount(int nonNegative) {
+        int count = 1;
+        for (int bound = 10; count < 10 && nonNegative >= bound; bound *= 10) {
+            count++;
+        }
+        return count;
+    }
+
+    public static void printb(int b) {
+        print(b != 0 ? "true" : "false");
+    }
+
+    /**
+     * reads an integer like scanf("%d"): skips white space, then reads a sign and
+     * digits
+     *
+     * @return the integer, or 0 if the input doesn't start with one
+     */
+    public static int readi() {
+        while (peek() != -1 && Character.isWhitespace(peek())) {
+            read();
+        }
+        boolean negative = false;
+        if (peek() == '-' || peek() == '+') {
+            negative = read() == '-';
+        }
+        int value = 0;
+        while (peek() >= '0' && peek() <= '9') {
+            value = value * 10 + read() - '0';
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return the rest of the line without its end, or null at the end of the input
+     */
+    public static String readln() {
+        if (peek() == -1) {
+            return null;
+        }
+        StringBuilder line = new StringBuilder();
+        while (peek() != -1 && peek() != '\n') {
+            line.append((char) read());
+        }
+        read();
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') {
+            line.setLength(length - 1);
+        }
+        return line.toString();
+    }
+
+    public static int eof() {
+        return peek() == -1 ? 1 : 0;
+    }
+
+    public static int stoi(String s, int n) {
+        if (s == null) {
+            return n;
+        }
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            return n;
+        }
+    }
+
+    public static String itos(int i) {
+        return Integer.toString(i);
+    }
+
+    public static int[] stoa(String s) {
+        checkNull(s);
+        int[] codes = new int[s.length()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = s.charAt(i);
+        }
+        return codes;
+    }
+
+    public static String atos(int[] a) {
+        checkNull(a);
+        char[] chars = new char[a.length];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) a[i];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @return rand() % n, as the C library does
+     */
+    public static int random(int n) {
+        checkZero(n);
+        return random.nextInt(Integer.MAX_VALUE) % n;
+    }
+
+    public static int time() {
+        return (int) (System.currentTimeMillis() - startTime);
+    }
+
+    public static int exit(int i) {
+        flush();
+        System.exit(i);
+        return i;
+    }
+
+    public static String concat(String first, String second) {
+        return first + second;
+    }
+
+    public static void checkNull(Object reference) {
+        if (reference == null) {
+            fail("Runtime Error: Null pointer dereference!");
+        }
+    }
+
+    public static void checkIndex(int length, int index) {
+        if (index < 0 || index >= length) {
+            fail("Runtime Error: Array index out of bounds!");
+        }
+    }
+
+    public static void checkSize(int size) {
+        if (size < 0) {
+            fail("Runtime Error: Array allocation with negative array size!");
+        }
+    }
+
+    public static void checkZero(int divisor) {
+        if (divisor == 0) {
+            fail("Runtime Error: Division by zero!");
+        }
+    }
+
+    /**
+     * prints a runtime error and exits with code 1
+     */
+    private static void fail(String message) {
+        flush();
+        System.err.println(message);
+        System.exit(1);
+    }
+
+    private static void flush() {
+        try {
+            out.write(buffer, 0, buffered);
+            out.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        buffered = 0;
+    }
+
+    private static void write(char c) {
+        if (buffered == buffer.length) {
+            flush();
+        }
+        buffer[buffered++] = (byte) c;
+    }
+
+    private static int peek() {
+        if (next == NO_BYTE) {
+            try {
+                next = in.read();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return next;
+    }
+
+    private static int read() {
+        int read = peek();
+        if (read != -1) {
+            next = NO_BYTE;
+        }
+        return read;
+    }
+}
@@ -0,0 +1,76 @@
+package IC.JVM;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * a program translated to JVM classes, which runs from a jar with ICRuntime
+ */
+public class JVMProgram {
+    private static final String CLASS_SUFFIX = ".class";
+
+    // The class files, by the names of their classes.
+    private final Map<String, byte[]> classes;
+    private final String mainClass;
+
+    JVMProgram(Map<String, byte[]> classes, String mainClass) {
+        this.classes = classes;
+        this.mainClass = mainClass;
+    }
+
+    /**
+     * @return the number of bytes of all the class files
+     */
+    public int getSize() {
+        int size = 0;
+        for (byte[] classFile : classes.values()) {
+            size += classFile.length;
+        }
+        return size;
+    }
+
+    /**
+     * writes a jar of the classes and of ICRuntime, which runs the main method of
+     * the program with java -jar
+     */
+    public void writeJar(OutputStream out) throws IOException {
+        Manifest manifest = new Manifest();
+        Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attributes.put(Attributes.Name.MAIN_CLASS, ICRuntime.class.getName());
+        attributes.putValue(ICRuntime.MAIN_CLASS_ATTRIBUTE, mainClass);
+        try (JarOutputStream jar = new JarOutputStream(out, manifest)) {
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                jar.putNextEntry(new JarEntry(entry.getKey() + CLASS_SUFFIX));
+                jar.write(entry.getValue());
+                jar.closeEntry();
+            }
+            jar.putNextEntry(new JarEntry(JVMTranslator.RUNTIME_CLASS + CLASS_SUFFIX));
+            jar.write(readRuntimeClass());
+            jar.closeEntry();
+        }
+    }
+
+    private static byte[] readRuntimeClass() throws IOException {
+        String name = ICRuntime.class.getSimpleName() + CLASS_SUFFIX;
+        try (InputStream in = ICRuntime.class.getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IOException("Can't find " + name + " to put in the jar");
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                bytes.write(buffer, 0, read);
+            }
+            return bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,564 @@
+package IC.JVM;
+
+import IC.LIR.*;
+import IC.SymbolTypes.ArraySymbolType;
+import IC.SymbolTypes.ClassSymbolType;
+import IC.SymbolTypes.MethodSymbolType;
+import IC.SymbolTypes.PrimitiveSymbolType;
+import IC.SymbolTypes.SymbolType;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Translates the LIR of a program to JVM classes. Every IC class becomes a class
+ * of the same name, deriving from its base class or from Object, with a public
+ * field per field and a public method per method: an instance method for a
+ * virtual one and a static method for a static one. Ints and booleans are JVM
+ * ints, strings are Strings, and arrays are typed JVM arrays, int[] for ints and
+ * booleans. The library and the runtime checks are static methods of ICRuntime.
+ *
+ * Every register of a method is the local with its index, so the parameters, and
+ * this, are where the JVM puts them. The other locals are set to 0 or null when
+ * the method starts, as the verifier doesn't know that the LIR assigns a register
+ * before reading it.
+ */
+public class JVMTranslator implements InstructionVisitor<Void> {
+    static final String RUNTIME_CLASS = "IC/JVM/ICRuntime";
+    private static final String OBJECT_CLASS = "java/lang/Object";
+    private static final String STRING_CLASS = "java/lang/String";
+    private static final String CONSTRUCTOR = "<init>";
+    private static final Set<String> LIBRARY_METHODS = new HashSet<>(Arrays.asList(
+            "println", "print", "printi", "printb", "readi", "readln", "eof",
+            "stoi", "itos", "stoa", "atos", "random", "time", "exit"));
+    // Final methods of Object, or ones the JVM calls, that an IC method may override.
+    private static final Set<String> OBJECT_METHODS = new HashSet<>(Arrays.asList(
+            "wait", "notify", "notifyAll", "finalize"));
+
+    private final LIRProgram program;
+
+    // The method being translated.
+    private LIRMethod method;
+    private MethodWriter code;
+    private List<Instruction> instructions;
+    // The index of the instruction being translated.
+    private int position;
+    private Map<Label, Integer> labels;
+    private int[] useCounts;
+
+    private JVMTranslator(LIRProgram program) {
+        this.program = program;
+    }
+
+    /**
+     * @param program a program without phi instructions
+     */
+    public static JVMProgram translate(LIRProgram program) {
+        return new JVMTranslator(program).translate();
+    }
+
+    private JVMProgram translate() {
+        Map<String, byte[]> classes = new LinkedHashMap<>();
+        for (LIRClass lirClass : program.getClasses()) {
+            classes.put(lirClass.getName(), translateClass(lirClass));
+        }
+        return new JVMProgram(classes, program.getMainMethod().getClassName());
+    }
+
+    private byte[] translateClass(LIRClass lirClass) {
+        String superName = lirClass.hasSuperClass() ? lirClass.getSuperClassName() : OBJECT_CLASS;
+        ClassFileWriter writer = new ClassFileWriter(lirClass.getName(), superName);
+        for (FieldReference field : lirClass.getFields()) {
+            writer.addField(Opcodes.ACC_PUBLIC, field.getName(), descriptor(field.getType()));
+        }
+
+        MethodWriter constructor = writer.addMethod(Opcodes.ACC_PUBLIC, CONSTRUCTOR, "()V");
+        constructor.loadReference(0);
+        constructor.invoke(Opcodes.INVOKESPECIAL, superName, CONSTRUCTOR, "()V");
+        constructor.op(Opcodes.RETURN);
+
+        for (LIRMethod lirMethod : lirClass.getMethods()) {
+            int access = Opcodes.ACC_PUBLIC | (lirMethod.isStatic() ? Opcodes.ACC_STATIC : 0);
+            MethodReference reference = lirMethod.getReference();
+            translateMethod(lirMethod, writer.addMethod(access, methodName(reference), descriptor(reference.getType())));
+        }
+        return writer.toByteArray();
+    }
+
+    private void translateMethod(LIRMethod lirMethod, MethodWriter writer) {
+        method = lirMethod;
+        code = writer;
+        instructions = lirMethod.getInstructions();
+        labels = new IdentityHashMap<>();
+        useCounts = countUses(lirMethod);
+
+        code.useLocals(lirMethod.getRegisterCount());
+        int parameterCount = lirMethod.getParameters().size();
+        for (Register register : lirMethod.getRegisters()) {
+            if (register.getIndex() >= parameterCount) {
+                if (isReference(register)) {
+                    code.pushNull();
+                } else {
+                    code.pushInt(0);
+                }
+                store(register);
+            }
+        }
+
+        for (position = 0; position < instructions.size(); position++) {
+            Instruction instruction = instructions.get(position);
+            Instruction next = position + 1 < instructions.size() ? instructions.get(position + 1) : null;
+            if (isBranchedOn(instruction, next)) {
+                Binary comparison = (Binary) instruction;
+                Branch branch = (Branch) next;
+                position++;
+                load(comparison.getLeft());
+                load(comparison.getRight());
+                if (follows(branch.getIfTrue())) {
+                    code.jump(negate(compareOpcode(comparison)), label(branch.getIfFalse()));
+                } else {
+                    code.jump(compareOpcode(comparison), label(branch.getIfTrue()));
+                    jumpUnlessFollows(branch.getIfFalse());
+                }
+            } else {
+                instruction.accept(this);
+            }
+        }
+    }
+
+    private static int[] countUses(LIRMethod lirMethod) {
+        int[] useCounts = new int[lirMethod.getRegisterCount()];
+        for (Instruction instruction : lirMethod.getInstructions()) {
+            for (int i = 0; i < instruction.getOperandCount(); i++) {
+                if (instruction.getOperand(i).isRegister()) {
+                    useCounts[((Register) instruction.getOperand(i)).getIndex()]++;
+                }
+            }
+        }
+        return useCounts;
+    }
+
+    /**
+     * @return whether the instruction is a comparison whose result only the next
+     * instruction, a branch, reads
+     */
+    private boolean isBranchedOn(Instruction instruction, Instruction next) {
+        if (!(instruction instanceof Binary) || !(next instanceof Branch)) {
+            return false;
+        }
+        Binary comparison = (Binary) instruction;
+        Register result = comparison.getDefinedRegister();
+        return comparison.getOperator().isComparison()
+                && ((Branch) next).getCondition() == result && useCounts[result.getIndex()] == 1;
+    }
+
+    /**
+     * @return the jump taken when the comparison is true
+     */
+    private static int compareOpcode(Binary comparison) {
+        boolean references = isReference(comparison.getLeft()) || isReference(comparison.getRight());
+        switch (comparison.getOperator()) {
+            case LT:
+                return Opcodes.IF_ICMPLT;
+            case LE:
+                return Opcodes.IF_ICMPLE;
+            case GT:
+                return Opcodes.IF_ICMPGT;
+            case GE:
+                return Opcodes.IF_ICMPGE;
+            case EQ:
+                return references ? Opcodes.IF_ACMPEQ : Opcodes.IF_ICMPEQ;
+            default:
+                return references ? Opcodes.IF_ACMPNE : Opcodes.IF_ICMPNE;
+        }
+    }
+
+    /**
+     * @return the comparison jump taken when the one given isn't
+     */
+    private static int negate(int opcode) {
+        switch (opcode) {
+            case Opcodes.IF_ICMPLT:
+                return Opcodes.IF_ICMPGE;
+            case Opcodes.IF_ICMPLE:
+                return Opcodes.IF_ICMPGT;
+            case Opcodes.IF_ICMPGT:
+                return Opcodes.IF_ICMPLE;
+            case Opcodes.IF_ICMPGE:
+                return Opcodes.IF_ICMPLT;
+            case Opcodes.IF_ICMPEQ:
+                return Opcodes.IF_ICMPNE;
+            case Opcodes.IF_ICMPNE:
+                return Opcodes.IF_ICMPEQ;
+            case Opcodes.IF_ACMPEQ:
+                return Opcodes.IF_ACMPNE;
+            default:
+                return Opcodes.IF_ACMPEQ;
+        }
+    }
+
+    /**
+     * @return whether the label is placed right after the instruction being
+     * translated, maybe among other labels
+     */
+    private boolean follows(Label label) {
+        for (int i = position + 1; i < instructions.size() && instructions.get(i) instanceof Label; i++) {
+            if (instructions.get(i) == label) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void jumpUnlessFollows(Label label) {
+        if (!follows(label)) {
+            code.jump(Opcodes.GOTO, label(label));
+        }
+    }
+
+    private int label(Label label) {
+        Integer id = labels.get(label);
+        if (id == null) {
+            id = code.newLabel();
+            labels.put(label, id);
+        }
+        return id;
+    }
+
+    private static boolean isReference(Operand operand) {
+        return operand.getType().isReferenceType();
+    }
+
+    /**
+     * @param element an element of the array, or null
+     * @return whether the array is an array of references; an array known to be
+     * null is never accessed, as its null check fails first
+     */
+    private static boolean hasReferenceElements(Operand array, Operand element) {
+        if (array.getType() instanceof ArraySymbolType) {
+            return ((ArraySymbolType) array.getType()).getBaseType().isReferenceType();
+        }
+        return element == null || isReference(element);
+    }
+
+    /**
+     * @return the JVM name of the method, which doesn't override a method of Object
+     */
+    private static String methodName(MethodReference reference) {
+        return OBJECT_METHODS.contains(reference.getName()) ? reference.getName() + "$" : reference.getName();
+    }
+
+    private static String descriptor(MethodSymbolType type) {
+        StringBuilder builder = new StringBuilder("(");
+        for (SymbolType formal : type.getFormalsTypes()) {
+            builder.append(descriptor(formal));
+        }
+        return builder.append(')').append(descriptor(type.getReturnType())).toString();
+    }
+
+    private static String descriptor(SymbolType type) {
+        if (type instanceof ArraySymbolType) {
+            return "[" + descriptor(((ArraySymbolType) type).getBaseType());
+        }
+        if (type instanceof ClassSymbolType) {
+            return "L" + ((ClassSymbolType) type).getName() + ";";
+        }
+        switch (((PrimitiveSymbolType) type).getPrimitiveType()) {
+            case INT:
+            case BOOLEAN:
+                return "I";
+            case VOID:
+                return "V";
+            case STRING:
+                return "L" + STRING_CLASS + ";";
+            default:
+                return "L" + OBJECT_CLASS + ";";
+        }
+    }
+
+    /**
+     * @return the name of the class of an array's elements for ANEWARRAY: a class,
+     * or the descriptor of an array
+     */
+    private static String internalName(SymbolType elementType) {
+        if (elementType instanceof ClassSymbolType) {
+            return ((ClassSymbolType) elementType).getName();
+        }
+        if (elementType instanceof ArraySymbolType) {
+            return descriptor(elementType);
+        }
+        return STRING_CLASS;
+    }
+
+    private void load(Operand operand) {
+        if (operand.isRegister()) {
+            int local = ((Register) operand).getIndex();
+            if (isReference(operand)) {
+                code.loadReference(local);
+            } else {
+                code.loadInt(local);
+            }
+            return;
+        }
+        Constant constant = (Constant) operand;
+        switch (constant.getKind()) {
+            case STRING:
+                code.pushString(constant.getString());
+                break;
+            case NULL:
+                code.pushNull();
+                break;
+            default:
+                code.pushInt(constant.getValue());
+                break;
+        }
+    }
+
+    private void store(Register register) {
+        if (isReference(register)) {
+            code.storeReference(register.getIndex());
+        } else {
+            code.storeInt(register.getIndex());
+        }
+    }
+
+    /**
+     * stores the result of a call, or pops it if it isn't used
+     */
+    private void storeResult(Register target, SymbolType returnType) {
+        if (target != null) {
+            store(target);
+        } else if (!"V".equals(descriptor(returnType))) {
+            code.op(Opcodes.POP);
+        }
+    }
+
+    @Override
+    public Void visit(Move move) {
+        load(move.getSource());
+        store(move.getDefinedRegister());
+        return null;
+    }
+
+    @Override
+    public Void visit(Binary binary) {
+        if (binary.getOperator().isComparison()) {
+            int isTrue = code.newLabel();
+            int end = code.newLabel();
+            load(binary.getLeft());
+            load(binary.getRight());
+            code.jump(compareOpcode(binary), isTrue);
+            code.pushInt(0);
+            code.jump(Opcodes.GOTO, end);
+            code.placeLabel(isTrue);
+            code.pushInt(1);
+            code.placeLabel(end);
+            store(binary.getDefinedRegister());
+            return null;
+        }
+        load(binary.getLeft());
+        load(binary.getRight());
+        switch (binary.getOperator()) {
+            case ADD:
+                code.op(Opcodes.IADD);
+                break;
+            case SUB:
+                code.op(Opcodes.ISUB);
+                break;
+            case MUL:
+                code.op(Opcodes.IMUL);
+                break;
+            case DIV:
+                code.op(Opcodes.IDIV);
+                break;
+            case MOD:
+                code.op(Opcodes.IREM);
+                break;
+            default:
+                code.invoke(Opcodes.INVOKESTATIC, RUNTIME_CLASS, "concat", "(Ljava/lang/String;Ljava/lang/String;)Ljava/lang/String;");
+                break;
+        }
+        store(binary.getDefinedRegister());
+        return null;
+    }
+
+    @Override
+    public Void visit(Unary unary) {
+        load(unary.getSource());
+        if (unary.getOperator() == UnaryOperator.NEG) {
+            code.op(Opcodes.INEG);
+        } else {
+            code.pushInt(1);
+            code.op(Opcodes.IXOR);
+        }
+        store(unary.getDefinedRegister());
+        return null;
+    }
+
+    @Override
+    public Void visit(AllocObject alloc) {
+        code.type(Opcodes.NEW, alloc.getClassName());
+        code.op(Opcodes.DUP);
+        code.invoke(Opcodes.INVOKESPECIAL, alloc.getClassName(), CONSTRUCTOR, "()V");
+        store(alloc.getDefinedRegister());
+        return null;
+    }
+
+    @Override
+    public Void visit(AllocArray alloc) {
+        load(alloc.getSize());
+        SymbolType elementType = ((ArraySymbolType) alloc.getDefinedRegister().getType()).getBaseType();
+        if (elementType.isReferenceType()) {
+            code.type(Opcodes.ANEWARRAY, internalName(elementType));
+        } else {
+            code.newIntArray();
+        }
+        store(alloc.getDefinedRegister());
+        return null;
+    }
+
+    @Override
+    public Void visit(ArrayLength length) {
+        load(length.getArray());
+        code.op(Opcodes.ARRAYLENGTH);
+        store(length.getDefinedRegister());
+        return null;
+    }
+
+    @Override
+    public Void visit(LoadField load) {
+        FieldReference field = load.getField();
+        load(load.getObject());
+        code.field(Opcodes.GETFIELD, field.getClassName(), field.getName(), descriptor(field.getType()));
+        store(load.getDefinedRegister());
+        return null;
+    }
+
+    @Override
+    public Void visit(StoreField store) {
+        FieldReference field = store.getField();
+        load(store.getObject());
+        load(store.getValue());
+        code.field(Opcodes.PUTFIELD, field.getClassName(), field.getName(), descriptor(field.getType()));
+        return null;
+    }
+
+    @Override
+    public Void visit(LoadElement load) {
+        load(load.getArray());
+        load(load.getIndex());
+        code.op(isReference(load.getDefinedRegister()) ? Opcodes.AALOAD : Opcodes.IALOAD);
+        store(load.getDefinedRegister());
+        return null;
+    }
+
+    @Override
+    public Void visit(StoreElement store) {
+        load(store.getArray());
+        load(store.getIndex());
+        load(store.getValue());
+        code.op(hasReferenceElements(store.getArray(), store.getValue()) ? Opcodes.AASTORE : Opcodes.IASTORE);
+        return null;
+    }
+
+    @Override
+    public Void visit(CallStatic call) {
+        MethodReference reference = call.getMethod();
+        for (int i = 0; i < call.getArgumentCount(); i++) {
+            load(call.getArgument(i));
+        }
+        String owner = reference.getClassName();
+        if (reference.getKind() == MethodReference.Kind.LIBRARY) {
+            if (!LIBRARY_METHODS.contains(reference.getName())) {
+                throw new IllegalArgumentException("No library method " + reference.getName());
+            }
+            owner = RUNTIME_CLASS;
+        }
+        code.invoke(Opcodes.INVOKESTATIC, owner, methodName(reference), descriptor(reference.getType()));
+        storeResult(call.getDefinedRegister(), reference.getType().getReturnType());
+        return null;
+    }
+
+    @Override
+    public Void visit(CallVirtual call) {
+        // A direct call is virtual too: the JIT devirtualizes it as well.
+        MethodReference reference = call.getMethod();
+        load(call.getReceiver());
+        for (int i = 0; i < call.getArgumentCount(); i++) {
+            load(call.getArgument(i));
+        }
+        code.invoke(Opcodes.INVOKEVIRTUAL, reference.getClassName(), methodName(reference), descriptor(reference.getType()));
+        storeResult(call.getDefinedRegister(), reference.getType().getReturnType());
+        return null;
+    }
+
+    @Override
+    public Void visit(Label label) {
+        code.placeLabel(label(label));
+        return null;
+    }
+
+    @Override
+    public Void visit(Jump jump) {
+        jumpUnlessFollows(jump.getTarget());
+        return null;
+    }
+
+    @Override
+    public Void visit(Branch branch) {
+        load(branch.getCondition());
+        if (follows(branch.getIfTrue())) {
+            code.jump(Opcodes.IFEQ, label(branch.getIfFalse()));
+        } else {
+            code.jump(Opcodes.IFNE, label(branch.getIfTrue()));
+            jumpUnlessFollows(branch.getIfFalse());
+        }
+        return null;
+    }
+
+    @Override
+    public Void visit(Ret ret) {
+        if (!ret.hasValue()) {
+            code.op(Opcodes.RETURN);
+        } else {
+            load(ret.getValue());
+            code.op(method.getReturnType().isReferenceType() ? Opcodes.ARETURN : Opcodes.IRETURN);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visit(RuntimeCheck check) {
+        switch (check.getKind()) {
+            case NULL_REFERENCE:
+                load(check.getOperand(0));
+                code.invoke(Opcodes.INVOKESTATIC, RUNTIME_CLASS, "checkNull", "(Ljava/lang/Object;)V");
+                break;
+            case ARRAY_INDEX:
+                load(check.getOperand(0));
+                code.op(Opcodes.ARRAYLENGTH);
+                load(check.getOperand(1));
+                code.invoke(Opcodes.INVOKESTATIC, RUNTIME_CLASS, "checkIndex", "(II)V");
+                break;
+            case ARRAY_SIZE:
+                load(check.getOperand(0));
+                code.invoke(Opcodes.INVOKESTATIC, RUNTIME_CLASS, "checkSize", "(I)V");
+                break;
+            default:
+                load(check.getOperand(0));
+                code.invoke(Opcodes.INVOKESTATIC, RUNTIME_CLASS, "checkZero", "(I)V");
+                break;
+        }
+        return null;
+    }
+
+    @Override
+    public Void visit(Phi phi) {
+        throw new IllegalStateException("Phi instructions must be removed before translating to JVM classes");
+    }
+}
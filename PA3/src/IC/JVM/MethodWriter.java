@@ -0,0 +1,259 @@
+package IC.JVM;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes the code of a method, keeping track of the depth of the operand stack
+ * and of the locals used for the Code attribute. Labels are ints, placed once
+ * and jumped to any number of times; jumps are patched when the method is
+ * written.
+ */
+class MethodWriter {
+    private static final int NO_OFFSET = -1;
+    private static final int MAX_CODE_SIZE = 0xFFFF;
+
+    private final ClassFileWriter owner;
+    private final int access;
+    private final int name;
+    private final int descriptor;
+    private byte[] code = new byte[64];
+    private int size = 0;
+    private int stack = 0;
+    private int maxStack = 0;
+    private int maxLocals = 0;
+    // Whether the previous instruction may continue to the next one.
+    private boolean reachable = true;
+    private final List<Integer> labelOffsets = new ArrayList<>();
+    // The stack depth at the jumps to every label.
+    private final List<Integer> labelStacks = new ArrayList<>();
+    // The offsets of the jump instructions, and the labels they jump to.
+    private final List<Integer> jumpOffsets = new ArrayList<>();
+    private final List<Integer> jumpLabels = new ArrayList<>();
+
+    MethodWriter(ClassFileWriter owner, int access, int name, int descriptor) {
+        this.owner = owner;
+        this.access = access;
+        this.name = name;
+        this.descriptor = descriptor;
+    }
+
+    /**
+     * makes room for locals 0 to count - 1, e.g. the parameters
+     */
+    void useLocals(int count) {
+        maxLocals = Math.max(maxLocals, count);
+    }
+
+    int newLabel() {
+        labelOffsets.add(NO_OFFSET);
+        labelStacks.add(0);
+        return labelOffsets.size() - 1;
+    }
+
+    void placeLabel(int label) {
+        if (!reachable) {
+            stack = labelStacks.get(label);
+        }
+        labelOffsets.set(label, size);
+        reachable = true;
+    }
+
+    /**
+     * a conditional jump (popping its operands) or a GOTO
+     */
+    void jump(int opcode, int label) {
+        if (opcode == Opcodes.IFEQ || opcode == Opcodes.IFNE) {
+            stack -= 1;
+        } else if (opcode != Opcodes.GOTO) {
+            stack -= 2;
+        }
+        labelStacks.set(label, stack);
+        jumpOffsets.add(size);
+        jumpLabels.add(label);
+        emit(opcode, 0, 0);
+        reachable = opcode != Opcodes.GOTO;
+    }
+
+    void loadInt(int local) {
+        local(Opcodes.ILOAD, local, 1);
+    }
+
+    void loadReference(int local) {
+        local(Opcodes.ALOAD, local, 1);
+    }
+
+    void storeInt(int local) {
+        local(Opcodes.ISTORE, local, -1);
+    }
+
+    void storeReference(int local) {
+        local(Opcodes.ASTORE, local, -1);
+    }
+
+    private void local(int opcode, int local, int delta) {
+        if (local > 0xFF) {
+            emit(Opcodes.WIDE, opcode, local >>> 8, local & 0xFF);
+        } else {
+            emit(opcode, local);
+        }
+        useLocals(local + 1);
+        push(delta);
+    }
+
+    void pushInt(int value) {
+        if (value >= -1 && value <= 5) {
+            emit(Opcodes.ICONST_0 + value);
+        } else if (value == (byte) value) {
+            emit(Opcodes.BIPUSH, value & 0xFF);
+        } else if (value == (short) value) {
+            emit(Opcodes.SIPUSH, (value >>> 8) & 0xFF, value & 0xFF);
+        } else {
+            loadConstant(owner.intConstant(value));
+            return;
+        }
+        push(1);
+    }
+
+    void pushString(String value) {
+        loadConstant(owner.stringConstant(value));
+    }
+
+    void pushNull() {
+        emit(Opcodes.ACONST_NULL);
+        push(1);
+    }
+
+    private void loadConstant(int index) {
+        if (index <= 0xFF) {
+            emit(Opcodes.LDC, index);
+        } else {
+            emit(Opcodes.LDC_W, index >>> 8, index & 0xFF);
+        }
+        push(1);
+    }
+
+    /**
+     * an instruction without operands
+     */
+    void op(int opcode) {
+        emit(opcode);
+        switch (opcode) {
+            case Opcodes.DUP:
+                push(1);
+                break;
+            case Opcodes.INEG:
+            case Opcodes.ARRAYLENGTH:
+                break;
+            case Opcodes.IASTORE:
+            case Opcodes.AASTORE:
+                push(-3);
+                break;
+            case Opcodes.IRETURN:
+            case Opcodes.ARETURN:
+                push(-1);
+                reachable = false;
+                break;
+            case Opcodes.RETURN:
+                reachable = false;
+                break;
+            default:
+                // Loads of elements, pops and binary operators.
+                push(-1);
+                break;
+        }
+    }
+
+    /**
+     * NEW of a class, or ANEWARRAY of arrays of a class or an array type
+     */
+    void type(int opcode, String internalName) {
+        int index = owner.classConstant(internalName);
+        emit(opcode, index >>> 8, index & 0xFF);
+        push(opcode == Opcodes.NEW ? 1 : 0);
+    }
+
+    void newIntArray() {
+        emit(Opcodes.NEWARRAY, Opcodes.T_INT);
+    }
+
+    void field(int opcode, String fieldOwner, String fieldName, String fieldDescriptor) {
+        int index = owner.fieldConstant(fieldOwner, fieldName, fieldDescriptor);
+        emit(opcode, index >>> 8, index & 0xFF);
+        push(opcode == Opcodes.GETFIELD ? 0 : -2);
+    }
+
+    void invoke(int opcode, String methodOwner, String methodName, String methodDescriptor) {
+        int index = owner.methodConstant(methodOwner, methodName, methodDescriptor);
+        emit(opcode, index >>> 8, index & 0xFF);
+        push(-argumentCount(methodDescriptor) - (opcode == Opcodes.INVOKESTATIC ? 0 : 1));
+        push(methodDescriptor.endsWith(")V") ? 0 : 1);
+    }
+
+    /**
+     * @return the number of arguments of a method descriptor, none of which are
+     * long or double
+     */
+    private static int argumentCount(String methodDescriptor) {
+        int count = 0;
+        for (int i = 1; methodDescriptor.charAt(i) != ')'; i++) {
+            char c = methodDescriptor.charAt(i);
+            if (c == 'L') {
+                i = methodDescriptor.indexOf(';', i);
+            }
+            if (c != '[') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void push(int delta) {
+        stack += delta;
+        maxStack = Math.max(maxStack, stack);
+    }
+
+    private void emit(int... bytes) {
+        if (size + bytes.length > code.length) {
+            code = Arrays.copyOf(code, Math.max(2 * code.length, size + bytes.length));
+        }
+        for (int b : bytes) {
+            code[size++] = (byte) b;
+        }
+    }
+
+    /**
+     * writes the method, with its Code attribute
+     *
+     * @param codeName the index of the "Code" constant
+     */
+    void write(DataOutputStream out, int codeName) throws IOException {
+        if (size > MAX_CODE_SIZE) {
+            throw new IllegalStateException("The code of a method is longer than the JVM allows");
+        }
+        for (int i = 0; i < jumpOffsets.size(); i++) {
+            int offset = labelOffsets.get(jumpLabels.get(i)) - jumpOffsets.get(i);
+            if (offset != (short) offset) {
+                throw new IllegalStateException("A jump is longer than the JVM allows");
+            }
+            code[jumpOffsets.get(i) + 1] = (byte) (offset >>> 8);
+            code[jumpOffsets.get(i) + 2] = (byte) offset;
+        }
+        out.writeShort(access);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(codeName);
+        // max_stack, max_locals, code_length, code, and empty exception and attribute tables.
+        out.writeInt(2 + 2 + 4 + size + 2 + 2);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(size);
+        out.write(code, 0, size);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+}
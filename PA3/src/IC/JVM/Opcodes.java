@@ -0,0 +1,68 @@
+package IC.JVM;
+
+/**
+ * the JVM instructions and access flags the backend uses
+ */
+final class Opcodes {
+    private Opcodes() {
+    }
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_STATIC = 0x0008;
+    static final int ACC_SUPER = 0x0020;
+
+    static final int ACONST_NULL = 1;
+    static final int ICONST_M1 = 2;
+    static final int ICONST_0 = 3;
+    static final int ICONST_1 = 4;
+    static final int BIPUSH = 16;
+    static final int SIPUSH = 17;
+    static final int LDC = 18;
+    static final int LDC_W = 19;
+    static final int ILOAD = 21;
+    static final int ALOAD = 25;
+    static final int IALOAD = 46;
+    static final int AALOAD = 50;
+    static final int ISTORE = 54;
+    static final int ASTORE = 58;
+    static final int IASTORE = 79;
+    static final int AASTORE = 83;
+    static final int POP = 87;
+    static final int DUP = 89;
+    static final int IADD = 96;
+    static final int ISUB = 100;
+    static final int IMUL = 104;
+    static final int IDIV = 108;
+    static final int IREM = 112;
+    static final int INEG = 116;
+    static final int IXOR = 130;
+    static final int IFEQ = 153;
+    static final int IFNE = 154;
+    static final int IF_ICMPEQ = 159;
+    static final int IF_ICMPNE = 160;
+    static final int IF_ICMPLT = 161;
+    static final int IF_ICMPGE = 162;
+    static final int IF_ICMPGT = 163;
+    static final int IF_ICMPLE = 164;
+    static final int IF_ACMPEQ = 165;
+    static final int IF_ACMPNE = 166;
+    static final int GOTO = 167;
+    static final int IRETURN = 172;
+    static final int ARETURN = 176;
+    static final int RETURN = 177;
+    static final int GETFIELD = 180;
+    static final int PUTFIELD = 181;
+    static final int INVOKEVIRTUAL = 182;
+    static final int INVOKESPECIAL = 183;
+    static final int INVOKESTATIC = 184;
+    static final int NEW = 187;
+    static final int NEWARRAY = 188;
+    static final int ANEWARRAY = 189;
+    static final int ARRAYLENGTH = 190;
+    static final int WIDE = 196;
+
+    /**
+     * the type operand of NEWARRAY for an int[]
+     */
+    static final int T_INT = 10;
+}
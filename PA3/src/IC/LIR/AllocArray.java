@@ -0,0 +1,25 @@
+package IC.LIR;
+
+/**
+ * register = new array of a (non negative) size, with all elements set to
+ * their default value. The array type is the type of the register.
+ */
+public class AllocArray extends Instruction {
+    public AllocArray(Register target, Operand size) {
+        super(target, size);
+    }
+
+    public Operand getSize() {
+        return getOperand(0);
+    }
+
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+        return definedString() + "new " + getDefinedRegister().getType() + " " + getSize();
+    }
+}
@@ -0,0 +1,27 @@
+package IC.LIR;
+
+/**
+ * register = new instance of a class, with all fields set to their default value
+ */
+public class AllocObject extends Instruction {
+    private final String className;
+
+    public AllocObject(Register target, String className) {
+        super(target);
+        this.className = className;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+        return definedString() + "new " + className;
+    }
+}
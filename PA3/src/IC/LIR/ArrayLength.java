@@ -0,0 +1,24 @@
+package IC.LIR;
+
+/**
+ * register = length of a (non null) array
+ */
+public class ArrayLength extends Instruction {
+    public ArrayLength(Register target, Operand array) {
+        super(target, array);
+    }
+
+    public Operand getArray() {
+        return getOperand(0);
+    }
+
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+        return definedString() + "length " + getArray();
+    }
+}
@@ -0,0 +1,36 @@
+package IC.LIR;
+
+/**
+ * register = left op right. Division and modulo never trap, a RuntimeCheck
+ * before them rules out a zero divisor.
+ */
+public class Binary extends Instruction {
+    private final BinaryOperator operator;
+
+    public Binary(BinaryOperator operator, Register target, Operand left, Operand right) {
+        super(target, left, right);
+        this.operator = operator;
+    }
+
+    public BinaryOperator getOperator() {
+        return operator;
+    }
+
+    public Operand getLeft() {
+        return getOperand(0);
+    }
+
+    public Operand getRight() {
+        return getOperand(1);
+    }
+
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+        return definedString() + operator.getMnemonic() + " " + operandsString(0);
+    }
+}
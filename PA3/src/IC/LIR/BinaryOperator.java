@@ -0,0 +1,46 @@
+package IC.LIR;
+
+/**
+ * operators of Binary instructions. Comparisons produce a boolean, CONCAT
+ * concatenates two strings, the rest are 32 bit int arithmetic.
+ */
+public enum BinaryOperator {
+    ADD("add"),
+    SUB("sub"),
+    MUL("mul"),
+    DIV("div"),
+    MOD("mod"),
+    LT("lt"),
+    LE("le"),
+    GT("gt"),
+    GE("ge"),
+    EQ("eq"),
+    NE("ne"),
+    CONCAT("concat");
+
+    private final String mnemonic;
+
+    BinaryOperator(String mnemonic) {
+        this.mnemonic = mnemonic;
+    }
+
+    public String getMnemonic() {
+        return mnemonic;
+    }
+
+    public boolean isComparison() {
+        return this == LT || this == LE || this == GT || this == GE || this == EQ || this == NE;
+    }
+
+    /**
+     * @return whether every evaluation creates a new object, which is never the
+     * same reference as another evaluation with the same operands
+     */
+    public boolean allocates() {
+        return this == CONCAT;
+    }
+
+    public boolean isCommutative() {
+        return this == ADD || this == MUL || this == EQ || this == NE;
+    }
+}
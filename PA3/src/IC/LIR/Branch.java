@@ -0,0 +1,58 @@
+package IC.LIR;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * goto ifTrue if a boolean condition holds, else goto ifFalse
+ */
+public class Branch extends Instruction {
+    private Label ifTrue;
+    private Label ifFalse;
+
+    public Branch(Operand condition, Label ifTrue, Label ifFalse) {
+        super(null, condition);
+        this.ifTrue = ifTrue;
+        this.ifFalse = ifFalse;
+    }
+
+    public Operand getCondition() {
+        return getOperand(0);
+    }
+
+    public Label getIfTrue() {
+        return ifTrue;
+    }
+
+    public Label getIfFalse() {
+        return ifFalse;
+    }
+
+    public void setIfTrue(Label ifTrue) {
+        this.ifTrue = ifTrue;
+    }
+
+    public void setIfFalse(Label ifFalse) {
+        this.ifFalse = ifFalse;
+    }
+
+    @Override
+    public List<Label> getTargets() {
+        return Arrays.asList(ifTrue, ifFalse);
+    }
+
+    @Override
+    public boolean isTerminator() {
+        return true;
+    }
+
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+        return "branch " + getCondition() + ", " + ifTrue.getName() + ", " + ifFalse.getName();
+    }
+}
@@ -0,0 +1,45 @@
+package IC.LIR;
+
+import java.util.List;
+
+/**
+ * [register =] Class.method(arguments), for a static or a library method
+ */
+public class CallStatic extends Instruction {
+    private final MethodReference method;
+
+    /**
+     * @param target the register of the returned value, or null if it isn't used
+     */
+    public CallStatic(Register target, MethodReference method, List<Operand> arguments) {
+        super(target, arguments.toArray(new Operand[0]));
+        this.method = method;
+    }
+
+    public MethodReference getMethod() {
+        return method;
+    }
+
+    public int getArgumentCount() {
+        return getOperandCount();
+    }
+
+    public Operand getArgument(int index) {
+        return getOperand(index);
+    }
+
+    @Override
+    public boolean hasSideEffects() {
+        return true;
+    }
+
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+        return definedString() + "call " + method + "(" + operandsString(0) + ")";
+    }
+}
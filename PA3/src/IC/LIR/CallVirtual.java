@@ -0,0 +1,74 @@
+package IC.LIR;
+
+import java.util.List;
+
+/**
+ * [register =] receiver.method(arguments), dispatched on the class of a non null
+ * receiver. The method is the one the static type of the receiver sees.
+ *
+ * A direct call runs that method without dispatching, since no class of the
+ * receiver overrides it (see ClassHierarchyAnalysis).
+ */
+public class CallVirtual extends Instruction {
+    private final MethodReference method;
+    private boolean direct = false;
+
+    /**
+     * @param target the register of the returned value, or null if it isn't used
+     */
+    public CallVirtual(Register target, MethodReference method, Operand receiver, List<Operand> arguments) {
+        super(target, withReceiver(receiver, arguments));
+        this.method = method;
+    }
+
+    private static Operand[] withReceiver(Operand receiver, List<Operand> arguments) {
+        Operand[] operands = new Operand[arguments.size() + 1];
+        operands[0] = receiver;
+        for (int i = 0; i < arguments.size(); i++) {
+            operands[i + 1] = arguments.get(i);
+        }
+        return operands;
+    }
+
+    public MethodReference getMethod() {
+        return method;
+    }
+
+    /**
+     * @return whether the method is called without dispatching
+     */
+    public boolean isDirect() {
+        return direct;
+    }
+
+    public void setDirect(boolean direct) {
+        this.direct = direct;
+    }
+
+    public Operand getReceiver() {
+        return getOperand(0);
+    }
+
+    public int getArgumentCount() {
+        return getOperandCount() - 1;
+    }
+
+    public Operand getArgument(int index) {
+        return getOperand(index + 1);
+    }
+
+    @Override
+    public boolean hasSideEffects() {
+        return true;
+    }
+
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+        return definedString() + (direct ? "call direct " : "call ") + getReceiver() + "." + method + "(" + operandsString(1) + ")";
+    }
+}
@@ -0,0 +1,153 @@
+package IC.LIR;
+
+import IC.SymbolTypes.PrimitiveSymbolType;
+import IC.SymbolTypes.PrimitiveSymbolType.PrimitiveSymbolTypes;
+import IC.SymbolTypes.SymbolType;
+
+/**
+ * an int, boolean, string or null constant
+ */
+public class Constant extends Operand {
+    public static final Constant NULL = new Constant(Kind.NULL, 0, null);
+    public static final Constant TRUE = new Constant(Kind.BOOLEAN, 1, null);
+    public static final Constant FALSE = new Constant(Kind.BOOLEAN, 0, null);
+
+    private final Kind kind;
+    private final int value;
+    private final String string;
+
+    private Constant(Kind kind, int value, String string) {
+        this.kind = kind;
+        this.value = value;
+        this.string = string;
+    }
+
+    public static Constant ofInt(int value) {
+        return new Constant(Kind.INT, value, null);
+    }
+
+    public static Constant ofBoolean(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    /**
+     * @param value the string itself, with no escape sequences
+     */
+    public static Constant ofString(String value) {
+        return new Constant(Kind.STRING, 0, value);
+    }
+
+    /**
+     * @return the default value of a variable of the type: 0, false or null
+     */
+    public static Constant defaultOf(SymbolType type) {
+        if (type instanceof PrimitiveSymbolType) {
+            switch (((PrimitiveSymbolType) type).getPrimitiveType()) {
+                case INT:
+                    return ofInt(0);
+                case BOOLEAN:
+                    return FALSE;
+                default:
+                    break;
+            }
+        }
+        return NULL;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the value of an int constant, 1 or 0 for a boolean one and 0 for null
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * @return the value of a string constant
+     */
+    public String getString() {
+        return string;
+    }
+
+    @Override
+    public SymbolType getType() {
+        return new PrimitiveSymbolType(kind.type);
+    }
+
+    @Override
+    public boolean isConstant() {
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Constant)) {
+            return false;
+        }
+        Constant other = (Constant) obj;
+        return kind == other.kind && value == other.value
+            && (string == null ? other.string == null : string.equals(other.string));
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * kind.hashCode() + value) + (string == null ? 0 : string.hashCode());
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case INT:
+                return String.valueOf(value);
+            case BOOLEAN:
+                return value != 0 ? "true" : "false";
+            case STRING:
+                return quote(string);
+            default:
+                return "null";
+        }
+    }
+
+    private static String quote(String string) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                default:
+                    builder.append(c);
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    public enum Kind {
+        INT(PrimitiveSymbolTypes.INT),
+        BOOLEAN(PrimitiveSymbolTypes.BOOLEAN),
+        STRING(PrimitiveSymbolTypes.STRING),
+        NULL(PrimitiveSymbolTypes.NULL);
+
+        private final PrimitiveSymbolTypes type;
+
+        Kind(PrimitiveSymbolTypes type) {
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package IC.LIR;
+
+import IC.SymbolTypes.SymbolType;
+
+/**
+ * a field, named by the class that declares it
+ */
+public class FieldReference {
+    private final String className;
+    private final String name;
+    // see NameTable
+    private final int nameId;
+    private final SymbolType type;
+
+    public FieldReference(String className, String name, int nameId, SymbolType type) {
+        this.className = className;
+        this.name = name;
+        this.nameId = nameId;
+        this.type = type;
+    }
+
+    /**
+     * @return the class that declares the field
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getNameId() {
+        return nameId;
+    }
+
+    public SymbolType getType() {
+        return type;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof FieldReference)) {
+            return false;
+        }
+        FieldReference other = (FieldReference) obj;
+        return className.equals(other.className) && name.equals(other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * className.hashCode() + name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return className + "." + name;
+    }
+}
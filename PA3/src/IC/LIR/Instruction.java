@@ -0,0 +1,87 @@
+package IC.LIR;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A three-address instruction: it reads its operands and assigns at most one
+ * register. The operands are kept in a single array, so passes that rename or
+ * replace values (e.g. SSA construction) can work on any instruction.
+ */
+public abstract class Instruction {
+    private Register definedRegister;
+    private final Operand[] operands;
+
+    protected Instruction(Register definedRegister, Operand... operands) {
+        this.definedRegister = definedRegister;
+        this.operands = operands;
+    }
+
+    /**
+     * @return the register the instruction assigns, or null
+     */
+    public Register getDefinedRegister() {
+        return definedRegister;
+    }
+
+    public void setDefinedRegister(Register definedRegister) {
+        this.definedRegister = definedRegister;
+    }
+
+    public int getOperandCount() {
+        return operands.length;
+    }
+
+    public Operand getOperand(int index) {
+        return operands[index];
+    }
+
+    public void setOperand(int index, Operand operand) {
+        operands[index] = operand;
+    }
+
+    /**
+     * @return the labels the instruction may jump to
+     */
+    public List<Label> getTargets() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * @return whether the next instruction is never executed after this one
+     */
+    public boolean isTerminator() {
+        return false;
+    }
+
+    /**
+     * @return whether the instruction does more than assign its register, so it
+     * can't be removed even if the register is never read
+     */
+    public boolean hasSideEffects() {
+        return false;
+    }
+
+    public abstract <R> R accept(InstructionVisitor<R> visitor);
+
+    /**
+     * @return "r = " for an instruction that assigns r, or ""
+     */
+    protected String definedString() {
+        return definedRegister == null ? "" : definedRegister + " = ";
+    }
+
+    /**
+     * @return the operands from the index on, separated by commas
+     */
+    protected String operandsString(int from) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = from; i < operands.length; i++) {
+            if (i > from) {
+                builder.append(", ");
+            }
+            builder.append(operands[i]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,44 @@
+package IC.LIR;
+
+/**
+ * visits the instruction types of the LIR
+ *
+ * @param <R> what the visits return
+ */
+public interface InstructionVisitor<R> {
+    R visit(Move move);
+
+    R visit(Binary binary);
+
+    R visit(Unary unary);
+
+    R visit(AllocObject alloc);
+
+    R visit(AllocArray alloc);
+
+    R visit(ArrayLength length);
+
+    R visit(LoadField load);
+
+    R visit(StoreField store);
+
+    R visit(LoadElement load);
+
+    R visit(StoreElement store);
+
+    R visit(CallStatic call);
+
+    R visit(CallVirtual call);
+
+    R visit(Label label);
+
+    R visit(Jump jump);
+
+    R visit(Branch branch);
+
+    R visit(Ret ret);
+
+    R visit(RuntimeCheck check);
+
+    R visit(Phi phi);
+}
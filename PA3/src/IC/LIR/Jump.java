@@ -0,0 +1,44 @@
+package IC.LIR;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * goto label
+ */
+public class Jump extends Instruction {
+    private Label target;
+
+    public Jump(Label target) {
+        super(null);
+        this.target = target;
+    }
+
+    public Label getTarget() {
+        return target;
+    }
+
+    public void setTarget(Label target) {
+        this.target = target;
+    }
+
+    @Override
+    public List<Label> getTargets() {
+        return Collections.singletonList(target);
+    }
+
+    @Override
+    public boolean isTerminator() {
+        return true;
+    }
+
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+        return "jump " + target.getName();
+    }
+}
@@ -0,0 +1,104 @@
+package IC.LIR;
+
+import IC.SymbolTypes.ClassLayout;
+import IC.SymbolTypes.ClassSymbolType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * a class of the program: the fields and the methods it declares
+ */
+public class LIRClass {
+    private final ClassSymbolType type;
+    private final String superClassName;
+    private final List<FieldReference> fields = new ArrayList<>();
+    private final List<LIRMethod> methods = new ArrayList<>();
+
+    /**
+     * @param superClassName the name of the base class, or null if there is none
+     */
+    public LIRClass(ClassSymbolType type, String superClassName) {
+        this.type = type;
+        this.superClassName = superClassName;
+    }
+
+    public String getName() {
+        return type.getName();
+    }
+
+    public ClassSymbolType getType() {
+        return type;
+    }
+
+    public boolean hasSuperClass() {
+        return superClassName != null;
+    }
+
+    public String getSuperClassName() {
+        return superClassName;
+    }
+
+    public void addField(FieldReference field) {
+        fields.add(field);
+    }
+
+    public void addMethod(LIRMethod method) {
+        methods.add(method);
+    }
+
+    /**
+     * @return the fields the class declares, in declaration order, without the
+     * inherited ones
+     */
+    public List<FieldReference> getFields() {
+        return Collections.unmodifiableList(fields);
+    }
+
+    /**
+     * @return the methods the class declares, in declaration order
+     */
+    public List<LIRMethod> getMethods() {
+        return Collections.unmodifiableList(methods);
+    }
+
+    /**
+     * @return the method the class declares with the name, or null
+     */
+    public LIRMethod getMethod(String name) {
+        for (LIRMethod method : methods) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("class ").append(getName());
+        if (hasSuperClass()) {
+            builder.append(" extends ").append(superClassName);
+        }
+        ClassLayout layout = type.getLayout();
+        if (layout != null) {
+            builder.append(" (size ").append(layout.getInstanceSize()).append(')');
+        }
+        builder.append('\n');
+        for (FieldReference field : fields) {
+            builder.append("  field ").append(field.getType()).append(' ').append(field.getName());
+            if (layout != null) {
+                builder.append(" @").append(layout.getFieldOffset(field.getNameId()));
+            }
+            builder.append('\n');
+        }
+        if (layout != null && layout.getMethodCount() > 0) {
+            builder.append("  dispatch ").append(layout).append('\n');
+        }
+        for (LIRMethod method : methods) {
+            builder.append('\n').append(method);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,130 @@
+package IC.LIR;
+
+import IC.SymbolTypes.SymbolType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The LIR of a method: its registers and its instructions. The parameters are
+ * the first registers, "this" first for a virtual method.
+ */
+public class LIRMethod {
+    private final MethodReference reference;
+    private final List<Register> parameters = new ArrayList<>();
+    private final List<Register> registers = new ArrayList<>();
+    private List<Instruction> instructions = new ArrayList<>();
+    private int labelCount = 0;
+
+    public LIRMethod(MethodReference reference) {
+        this.reference = reference;
+    }
+
+    public MethodReference getReference() {
+        return reference;
+    }
+
+    public String getName() {
+        return reference.getName();
+    }
+
+    public String getClassName() {
+        return reference.getClassName();
+    }
+
+    public boolean isStatic() {
+        return !reference.isVirtual();
+    }
+
+    public SymbolType getReturnType() {
+        return reference.getType().getReturnType();
+    }
+
+    /**
+     * adds a parameter, before any other register is created
+     */
+    public Register addParameter(SymbolType type, String name) {
+        if (registers.size() != parameters.size()) {
+            throw new IllegalStateException("Parameters must be added before other registers");
+        }
+        Register parameter = newRegister(type, name);
+        parameters.add(parameter);
+        return parameter;
+    }
+
+    /**
+     * @param name the name of the variable the register holds, or null for a temporary
+     */
+    public Register newRegister(SymbolType type, String name) {
+        Register register = new Register(registers.size(), name, type);
+        registers.add(register);
+        return register;
+    }
+
+    public Register newTemporary(SymbolType type) {
+        return newRegister(type, null);
+    }
+
+    /**
+     * removes a temporary that turned out to be unneeded
+     *
+     * @return false if it isn't the last register created, which is then kept
+     */
+    boolean discardLastRegister(Register register) {
+        if (registers.isEmpty() || registers.get(registers.size() - 1) != register || parameters.contains(register)) {
+            return false;
+        }
+        registers.remove(registers.size() - 1);
+        return true;
+    }
+
+    /**
+     * @return a label with a name that is unique in the method
+     */
+    public Label newLabel() {
+        return new Label("L" + labelCount++);
+    }
+
+    public List<Register> getParameters() {
+        return Collections.unmodifiableList(parameters);
+    }
+
+    public List<Register> getRegisters() {
+        return Collections.unmodifiableList(registers);
+    }
+
+    public int getRegisterCount() {
+        return registers.size();
+    }
+
+    public List<Instruction> getInstructions() {
+        return instructions;
+    }
+
+    /**
+     * replaces the instructions, for passes that rebuild the list
+     */
+    public void setInstructions(List<Instruction> instructions) {
+        this.instructions = instructions;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(isStatic() ? "static " : "virtual ")
+            .append(getReturnType()).append(' ')
+            .append(reference).append('(');
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(parameters.get(i).getType()).append(' ').append(parameters.get(i));
+        }
+        builder.append(")\n");
+        for (Instruction instruction : instructions) {
+            builder.append(instruction instanceof Label ? "  " : "    ").append(instruction).append('\n');
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package IC.LIR;
+
+import IC.SymbolTypes.SymbolTypeTable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The LIR of a whole program, made by LIRTranslator. The library has no LIR,
+ * calls to it are CallStatic instructions of LIBRARY methods.
+ */
+public class LIRProgram {
+    public static final String MAIN_METHOD_NAME = "main";
+
+    private final SymbolTypeTable typeTable;
+    private final Map<String, LIRClass> classes = new LinkedHashMap<>();
+
+    public LIRProgram(SymbolTypeTable typeTable) {
+        this.typeTable = typeTable;
+    }
+
+    public SymbolTypeTable getTypeTable() {
+        return typeTable;
+    }
+
+    public void addClass(LIRClass lirClass) {
+        classes.put(lirClass.getName(), lirClass);
+    }
+
+    /**
+     * @return the classes, in the order they are declared
+     */
+    public List<LIRClass> getClasses() {
+        return Collections.unmodifiableList(new ArrayList<>(classes.values()));
+    }
+
+    /**
+     * @return the class with the name, or null
+     */
+    public LIRClass getClass(String name) {
+        return classes.get(name);
+    }
+
+    /**
+     * @return the method, or null for a library method
+     */
+    public LIRMethod getMethod(MethodReference reference) {
+        LIRClass lirClass = classes.get(reference.getClassName());
+        return lirClass == null ? null : lirClass.getMethod(reference.getName());
+    }
+
+    /**
+     * @return the static main method (MainFunctionValidator makes sure there is one)
+     */
+    public LIRMethod getMainMethod() {
+        for (LIRClass lirClass : classes.values()) {
+            LIRMethod method = lirClass.getMethod(MAIN_METHOD_NAME);
+            if (method != null && method.isStatic()) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (LIRClass lirClass : classes.values()) {
+            if (builder.length() > 0) {
+                builder.append('\n');
+            }
+            builder.append(lirClass);
+        }
+        return builder.toString();
+    }
+}
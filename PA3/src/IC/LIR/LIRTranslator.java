@@ -0,0 +1,620 @@
+package IC.LIR;
+
+import IC.AST.*;
+import IC.BinaryOps;
+import IC.SymbolTypes.ArraySymbolType;
+import IC.SymbolTypes.ClassSymbolType;
+import IC.SymbolTypes.MethodSymbolType;
+import IC.SymbolTypes.PrimitiveSymbolType;
+import IC.SymbolTypes.PrimitiveSymbolType.PrimitiveSymbolTypes;
+import IC.SymbolTypes.SymbolType;
+import IC.SymbolTypes.SymbolTypeTable;
+import IC.Symbols.IntMap;
+import IC.Symbols.Symbol;
+import IC.Symbols.SymbolTable;
+import IC.UnaryOps;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates a checked program to LIR. Local variables and parameters live in
+ * registers, expressions are computed into temporaries, and names are the
+ * symbols the checks annotated them with (both the fused and the separate checks
+ * do), a member belonging to the class whose symbol table declares it.
+ * Operands are evaluated left to right, and the RuntimeChecks of an access run
+ * after all its operands were evaluated, like in Java.
+ *
+ * Statements return null, expressions return the Operand holding their value.
+ */
+public class LIRTranslator implements Visitor {
+    private static final SymbolType INT = new PrimitiveSymbolType(PrimitiveSymbolTypes.INT);
+    private static final SymbolType BOOLEAN = new PrimitiveSymbolType(PrimitiveSymbolTypes.BOOLEAN);
+    private static final SymbolType STRING = new PrimitiveSymbolType(PrimitiveSymbolTypes.STRING);
+    private static final SymbolType VOID = new PrimitiveSymbolType(PrimitiveSymbolTypes.VOID);
+
+    private final Program program;
+    private final SymbolTypeTable typeTable;
+    // keyed by the NameTable id of the class name
+    private final IntMap<ICClass> classes = new IntMap<>();
+
+    // The method being translated.
+    private LIRMethod method;
+    private Register thisRegister;
+    private final Map<Symbol, Register> variables = new IdentityHashMap<>();
+    private final Deque<Label> breakTargets = new ArrayDeque<>();
+    private final Deque<Label> continueTargets = new ArrayDeque<>();
+
+    /**
+     * @param program a program without semantic errors
+     */
+    public LIRTranslator(Program program) {
+        this.program = program;
+        this.typeTable = program.getGlobalSymbolTable().getTypeTable();
+    }
+
+    public LIRProgram translate() {
+        for (ICClass clazz : program.getClasses()) {
+            classes.put(clazz.getNameId(), clazz);
+        }
+        LIRProgram lirProgram = new LIRProgram(typeTable);
+        for (ICClass clazz : program.getClasses()) {
+            if (isLibrary(clazz)) {
+                continue;
+            }
+            LIRClass lirClass = new LIRClass(getClassType(clazz.getNameId()), clazz.hasSuperClass() ? clazz.getSuperClassName() : null);
+            for (Field field : clazz.getFields()) {
+                Symbol symbol = clazz.getClassSymbolTable().find(field.getNameId());
+                lirClass.addField(new FieldReference(clazz.getName(), field.getName(), field.getNameId(), getType(symbol)));
+            }
+            for (Method classMethod : clazz.getMethods()) {
+                lirClass.addMethod(translateMethod(clazz, classMethod));
+            }
+            lirProgram.addClass(lirClass);
+        }
+        return lirProgram;
+    }
+
+    private static boolean isLibrary(ICClass clazz) {
+        for (Method method : clazz.getMethods()) {
+            if (method instanceof LibraryMethod) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private LIRMethod translateMethod(ICClass clazz, Method astMethod) {
+        Symbol symbol = clazz.getClassSymbolTable().find(astMethod.getNameId());
+        method = new LIRMethod(getMethodReference(symbol));
+        variables.clear();
+        thisRegister = null;
+        if (astMethod instanceof VirtualMethod) {
+            thisRegister = method.addParameter(getClassType(clazz.getNameId()), "this");
+        }
+        for (Formal formal : astMethod.getFormals()) {
+            variables.put(formal.getSymbol(), method.addParameter(getType(formal.getSymbol()), formal.getName()));
+        }
+
+        for (Statement statement : astMethod.getStatements()) {
+            statement.accept(this);
+        }
+
+        // The end is reachable, unless the method ends with a jump or a return.
+        if (!endsWithTerminator()) {
+            SymbolType returnType = method.getReturnType();
+            emit(returnType.equals(VOID) ? new Ret() : new Ret(Constant.defaultOf(returnType)));
+        }
+        return method;
+    }
+
+    private void emit(Instruction instruction) {
+        method.getInstructions().add(instruction);
+    }
+
+    /**
+     * jumps to the label, unless the code before can't fall through anyway
+     */
+    private void jump(Label target) {
+        if (!endsWithTerminator()) {
+            emit(new Jump(target));
+        }
+    }
+
+    private boolean endsWithTerminator() {
+        List<Instruction> instructions = method.getInstructions();
+        return !instructions.isEmpty() && instructions.get(instructions.size() - 1).isTerminator();
+    }
+
+    private Operand translate(Expression expression) {
+        return (Operand) expression.accept(this);
+    }
+
+    /**
+     * @return the register of a local variable or a parameter
+     */
+    private Register getVariable(Symbol symbol) {
+        Register register = variables.get(symbol);
+        if (register == null) {
+            // A local is used before its declaration in the same block (the checks
+            // allow it); it holds its default value until then, like every register.
+            register = method.newRegister(getType(symbol), symbol.getName());
+            variables.put(symbol, register);
+        }
+        return register;
+    }
+
+    private static boolean isVariable(Symbol symbol) {
+        return symbol.getKind() == Symbol.Kind.LOCAL_VARIABLE || symbol.getKind() == Symbol.Kind.PARAMETER;
+    }
+
+    /**
+     * variable = value. A value the last instruction just computed into a new
+     * temporary is computed into the variable instead.
+     */
+    private void assign(Register variable, Operand value) {
+        List<Instruction> instructions = method.getInstructions();
+        Instruction last = instructions.isEmpty() ? null : instructions.get(instructions.size() - 1);
+        if (value != variable && value.isRegister() && ((Register) value).isTemporary()
+            && last != null && last.getDefinedRegister() == value && method.discardLastRegister((Register) value)) {
+            last.setDefinedRegister(variable);
+            return;
+        }
+        emit(new Move(variable, value));
+    }
+
+    private SymbolType getType(Symbol symbol) {
+        return typeTable.getSymbolById(symbol.getTypeId());
+    }
+
+    private ClassSymbolType getClassType(int classNameId) {
+        return (ClassSymbolType) getType(program.getGlobalSymbolTable().find(classNameId));
+    }
+
+    private MethodReference getMethodReference(Symbol symbol) {
+        SymbolTable declaringClass = symbol.getScope();
+        MethodReference.Kind kind;
+        if (symbol.getKind() == Symbol.Kind.VIRTUAL_METHOD) {
+            kind = MethodReference.Kind.VIRTUAL;
+        } else if (isLibrary(classes.get(declaringClass.getNameId()))) {
+            kind = MethodReference.Kind.LIBRARY;
+        } else {
+            kind = MethodReference.Kind.STATIC;
+        }
+        return new MethodReference(declaringClass.getName(), symbol.getName(), symbol.getNameId(), (MethodSymbolType) getType(symbol), kind);
+    }
+
+    private FieldReference getFieldReference(Symbol symbol) {
+        return new FieldReference(symbol.getScope().getName(), symbol.getName(), symbol.getNameId(), getType(symbol));
+    }
+
+    private void checkNotNull(Operand reference) {
+        // this is never null.
+        if (reference != thisRegister) {
+            emit(new RuntimeCheck(RuntimeCheck.Kind.NULL_REFERENCE, reference));
+        }
+    }
+
+    /**
+     * translates a condition to jumps to one of the labels
+     */
+    private void translateCondition(Expression condition, Label ifTrue, Label ifFalse) {
+        if (condition instanceof ExpressionBlock) {
+            translateCondition(((ExpressionBlock) condition).getExpression(), ifTrue, ifFalse);
+        } else if (condition instanceof LogicalBinaryOp && ((LogicalBinaryOp) condition).getOperator() == BinaryOps.LAND) {
+            LogicalBinaryOp and = (LogicalBinaryOp) condition;
+            Label second = method.newLabel();
+            translateCondition(and.getFirstOperand(), second, ifFalse);
+            emit(second);
+            translateCondition(and.getSecondOperand(), ifTrue, ifFalse);
+        } else if (condition instanceof LogicalBinaryOp && ((LogicalBinaryOp) condition).getOperator() == BinaryOps.LOR) {
+            LogicalBinaryOp or = (LogicalBinaryOp) condition;
+            Label second = method.newLabel();
+            translateCondition(or.getFirstOperand(), ifTrue, second);
+            emit(second);
+            translateCondition(or.getSecondOperand(), ifTrue, ifFalse);
+        } else if (condition instanceof LogicalUnaryOp) {
+            translateCondition(((LogicalUnaryOp) condition).getOperand(), ifFalse, ifTrue);
+        } else if (condition instanceof Literal) {
+            emit(new Jump(((Literal) condition).getType() == IC.LiteralTypes.TRUE ? ifTrue : ifFalse));
+        } else {
+            emit(new Branch(translate(condition), ifTrue, ifFalse));
+        }
+    }
+
+    private Operand translateStaticCall(StaticCall call, boolean resultUsed) {
+        Symbol symbol = call.getSymbolReference().getSymbol();
+        return emitStaticCall(getMethodReference(symbol), call, resultUsed);
+    }
+
+    private Operand emitStaticCall(MethodReference methodReference, Call call, boolean resultUsed) {
+        List<Operand> arguments = translateArguments(call);
+        Register result = getResultRegister(methodReference, resultUsed);
+        emit(new CallStatic(result, methodReference, arguments));
+        return result;
+    }
+
+    private Operand translateVirtualCall(VirtualCall call, boolean resultUsed) {
+        Operand receiver = call.isExternal() ? translate(call.getLocation()) : thisRegister;
+        Symbol symbol = call.getSymbolReference().getSymbol();
+        MethodReference methodReference = getMethodReference(symbol);
+        if (!methodReference.isVirtual()) {
+            // A static method, called by name or through an object.
+            return emitStaticCall(methodReference, call, resultUsed);
+        }
+        List<Operand> arguments = translateArguments(call);
+        if (call.isExternal()) {
+            checkNotNull(receiver);
+        }
+        Register result = getResultRegister(methodReference, resultUsed);
+        emit(new CallVirtual(result, methodReference, receiver, arguments));
+        return result;
+    }
+
+    private List<Operand> translateArguments(Call call) {
+        List<Operand> arguments = new ArrayList<>();
+        for (Expression argument : call.getArguments()) {
+            arguments.add(translate(argument));
+        }
+        return arguments;
+    }
+
+    private Register getResultRegister(MethodReference methodReference, boolean resultUsed) {
+        SymbolType returnType = methodReference.getType().getReturnType();
+        return resultUsed && !returnType.equals(VOID) ? method.newTemporary(returnType) : null;
+    }
+
+    /**
+     * @param value a string literal, in which the lexer kept \" and \\ escaped
+     */
+    private static String unescape(String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                c = value.charAt(++i);
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public Object visit(Program program) {
+        return translate();
+    }
+
+    @Override
+    public Object visit(ICClass icClass) {
+        return null;
+    }
+
+    @Override
+    public Object visit(Field field) {
+        return null;
+    }
+
+    @Override
+    public Object visit(VirtualMethod method) {
+        return null;
+    }
+
+    @Override
+    public Object visit(StaticMethod method) {
+        return null;
+    }
+
+    @Override
+    public Object visit(LibraryMethod method) {
+        return null;
+    }
+
+    @Override
+    public Object visit(Formal formal) {
+        return null;
+    }
+
+    @Override
+    public Object visit(PrimitiveType type) {
+        return null;
+    }
+
+    @Override
+    public Object visit(UserType type) {
+        return null;
+    }
+
+    @Override
+    public Object visit(Assignment assignment) {
+        Location target = assignment.getVariable();
+        if (target instanceof ArrayLocation) {
+            ArrayLocation location = (ArrayLocation) target;
+            Operand array = translate(location.getArray());
+            Operand index = translate(location.getIndex());
+            Operand value = translate(assignment.getAssignment());
+            checkNotNull(array);
+            emit(new RuntimeCheck(RuntimeCheck.Kind.ARRAY_INDEX, array, index));
+            emit(new StoreElement(array, index, value));
+            return null;
+        }
+
+        VariableLocation location = (VariableLocation) target;
+        Symbol symbol = location.getSymbolReference().getSymbol();
+        if (isVariable(symbol)) {
+            assign(getVariable(symbol), translate(assignment.getAssignment()));
+            return null;
+        }
+        Operand object = location.isExternal() ? translate(location.getLocation()) : thisRegister;
+        FieldReference field = getFieldReference(symbol);
+        Operand value = translate(assignment.getAssignment());
+        checkNotNull(object);
+        emit(new StoreField(object, field, value));
+        return null;
+    }
+
+    @Override
+    public Object visit(CallStatement callStatement) {
+        Call call = callStatement.getCall();
+        if (call instanceof StaticCall) {
+            translateStaticCall((StaticCall) call, false);
+        } else {
+            translateVirtualCall((VirtualCall) call, false);
+        }
+        return null;
+    }
+
+    @Override
+    public Object visit(Return returnStatement) {
+        emit(returnStatement.hasValue() ? new Ret(translate(returnStatement.getValue())) : new Ret());
+        return null;
+    }
+
+    @Override
+    public Object visit(If ifStatement) {
+        Label thenLabel = method.newLabel();
+        Label elseLabel = ifStatement.hasElse() ? method.newLabel() : null;
+        Label end = method.newLabel();
+        translateCondition(ifStatement.getCondition(), thenLabel, ifStatement.hasElse() ? elseLabel : end);
+        emit(thenLabel);
+        ifStatement.getOperation().accept(this);
+        if (ifStatement.hasElse()) {
+            jump(end);
+            emit(elseLabel);
+            ifStatement.getElseOperation().accept(this);
+        }
+        emit(end);
+        return null;
+    }
+
+    @Override
+    public Object visit(While whileStatement) {
+        Label test = method.newLabel();
+        Label body = method.newLabel();
+        Label end = method.newLabel();
+        emit(test);
+        translateCondition(whileStatement.getCondition(), body, end);
+        emit(body);
+        breakTargets.push(end);
+        continueTargets.push(test);
+        whileStatement.getOperation().accept(this);
+        continueTargets.pop();
+        breakTargets.pop();
+        jump(test);
+        emit(end);
+        return null;
+    }
+
+    @Override
+    public Object visit(Break breakStatement) {
+        emit(new Jump(breakTargets.peek()));
+        return null;
+    }
+
+    @Override
+    public Object visit(Continue continueStatement) {
+        emit(new Jump(continueTargets.peek()));
+        return null;
+    }
+
+    @Override
+    public Object visit(StatementsBlock statementsBlock) {
+        for (Statement statement : statementsBlock.getStatements()) {
+            statement.accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Object visit(LocalVariable localVariable) {
+        Register variable = getVariable(localVariable.getSymbol());
+        // Without an initial value, a local declared in a loop is reset on every iteration.
+        assign(variable, localVariable.hasInitValue() ? translate(localVariable.getInitValue()) : Constant.defaultOf(variable.getType()));
+        return null;
+    }
+
+    @Override
+    public Object visit(VariableLocation location) {
+        Symbol symbol = location.getSymbolReference().getSymbol();
+        if (isVariable(symbol)) {
+            return getVariable(symbol);
+        }
+        Operand object = location.isExternal() ? translate(location.getLocation()) : thisRegister;
+        FieldReference field = getFieldReference(symbol);
+        checkNotNull(object);
+        Register result = method.newTemporary(field.getType());
+        emit(new LoadField(result, object, field));
+        return result;
+    }
+
+    @Override
+    public Object visit(ArrayLocation location) {
+        Operand array = translate(location.getArray());
+        Operand index = translate(location.getIndex());
+        checkNotNull(array);
+        emit(new RuntimeCheck(RuntimeCheck.Kind.ARRAY_INDEX, array, index));
+        Register result = method.newTemporary(((ArraySymbolType) array.getType()).getBaseType());
+        emit(new LoadElement(result, array, index));
+        return result;
+    }
+
+    @Override
+    public Object visit(StaticCall call) {
+        return translateStaticCall(call, true);
+    }
+
+    @Override
+    public Object visit(VirtualCall call) {
+        return translateVirtualCall(call, true);
+    }
+
+    @Override
+    public Object visit(This thisExpression) {
+        return thisRegister;
+    }
+
+    @Override
+    public Object visit(NewClass newClass) {
+        Register result = method.newTemporary(getClassType(newClass.getNameId()));
+        emit(new AllocObject(result, newClass.getName()));
+        return result;
+    }
+
+    @Override
+    public Object visit(NewArray newArray) {
+        Operand size = translate(newArray.getSize());
+        emit(new RuntimeCheck(RuntimeCheck.Kind.ARRAY_SIZE, size));
+        SymbolType arrayType = typeTable.getSymbolById(typeTable.getSymbolTypeId(newArray.getType(), newArray.getElementDimension() + 1));
+        Register result = method.newTemporary(arrayType);
+        emit(new AllocArray(result, size));
+        return result;
+    }
+
+    @Override
+    public Object visit(Length length) {
+        Operand array = translate(length.getArray());
+        checkNotNull(array);
+        Register result = method.newTemporary(INT);
+        emit(new ArrayLength(result, array));
+        return result;
+    }
+
+    @Override
+    public Object visit(MathBinaryOp binaryOp) {
+        Operand left = translate(binaryOp.getFirstOperand());
+        Operand right = translate(binaryOp.getSecondOperand());
+        BinaryOperator operator;
+        switch (binaryOp.getOperator()) {
+            case PLUS:
+                operator = left.getType().equals(STRING) ? BinaryOperator.CONCAT : BinaryOperator.ADD;
+                break;
+            case MINUS:
+                operator = BinaryOperator.SUB;
+                break;
+            case MULTIPLY:
+                operator = BinaryOperator.MUL;
+                break;
+            case DIVIDE:
+                operator = BinaryOperator.DIV;
+                break;
+            case MOD:
+                operator = BinaryOperator.MOD;
+                break;
+            default:
+                throw new IllegalArgumentException("Not a math operator: " + binaryOp.getOperator());
+        }
+        if (operator == BinaryOperator.DIV || operator == BinaryOperator.MOD) {
+            emit(new RuntimeCheck(RuntimeCheck.Kind.DIVISION_BY_ZERO, right));
+        }
+        Register result = method.newTemporary(operator == BinaryOperator.CONCAT ? STRING : INT);
+        emit(new Binary(operator, result, left, right));
+        return result;
+    }
+
+    @Override
+    public Object visit(LogicalBinaryOp binaryOp) {
+        if (binaryOp.getOperator() == BinaryOps.LAND || binaryOp.getOperator() == BinaryOps.LOR) {
+            // result = first; if it decides the result, skip second.
+            Register result = method.newTemporary(BOOLEAN);
+            assign(result, translate(binaryOp.getFirstOperand()));
+            Label second = method.newLabel();
+            Label end = method.newLabel();
+            boolean and = binaryOp.getOperator() == BinaryOps.LAND;
+            emit(new Branch(result, and ? second : end, and ? end : second));
+            emit(second);
+            assign(result, translate(binaryOp.getSecondOperand()));
+            emit(end);
+            return result;
+        }
+
+        Operand left = translate(binaryOp.getFirstOperand());
+        Operand right = translate(binaryOp.getSecondOperand());
+        BinaryOperator operator;
+        switch (binaryOp.getOperator()) {
+            case LT:
+                operator = BinaryOperator.LT;
+                break;
+            case LTE:
+                operator = BinaryOperator.LE;
+                break;
+            case GT:
+                operator = BinaryOperator.GT;
+                break;
+            case GTE:
+                operator = BinaryOperator.GE;
+                break;
+            case EQUAL:
+                operator = BinaryOperator.EQ;
+                break;
+            case NEQUAL:
+                operator = BinaryOperator.NE;
+                break;
+            default:
+                throw new IllegalArgumentException("Not a logical operator: " + binaryOp.getOperator());
+        }
+        Register result = method.newTemporary(BOOLEAN);
+        emit(new Binary(operator, result, left, right));
+        return result;
+    }
+
+    @Override
+    public Object visit(MathUnaryOp unaryOp) {
+        Operand operand = translate(unaryOp.getOperand());
+        Register result = method.newTemporary(INT);
+        emit(new Unary(UnaryOperator.NEG, result, operand));
+        return result;
+    }
+
+    @Override
+    public Object visit(LogicalUnaryOp unaryOp) {
+        Operand operand = translate(unaryOp.getOperand());
+        Register result = method.newTemporary(BOOLEAN);
+        emit(new Unary(UnaryOperator.NOT, result, operand));
+        return result;
+    }
+
+    @Override
+    public Object visit(Literal literal) {
+        switch (literal.getType()) {
+            case INTEGER:
+                // 2147483648 is only allowed under a unary minus, which wraps it back.
+                return Constant.ofInt((int) Long.parseLong((String) literal.getValue()));
+            case STRING:
+                return Constant.ofString(unescape((String) literal.getValue()));
+            case TRUE:
+                return Constant.TRUE;
+            case FALSE:
+                return Constant.FALSE;
+            default:
+                return Constant.NULL;
+        }
+    }
+
+    @Override
+    public Object visit(ExpressionBlock expressionBlock) {
+        return translate(expressionBlock.getExpression());
+    }
+}
@@ -0,0 +1,27 @@
+package IC.LIR;
+
+/**
+ * a position in the instruction list that jumps go to; it does nothing itself
+ */
+public class Label extends Instruction {
+    private final String name;
+
+    Label(String name) {
+        super(null);
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+        return name + ":";
+    }
+}
@@ -0,0 +1,28 @@
+package IC.LIR;
+
+/**
+ * register = array[index], for a non null array and an index in its bounds
+ */
+public class LoadElement extends Instruction {
+    public LoadElement(Register target, Operand array, Operand index) {
+        super(target, array, index);
+    }
+
+    public Operand getArray() {
+        return getOperand(0);
+    }
+
+    public Operand getIndex() {
+        return getOperand(1);
+    }
+
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+        return definedString() + "load " + getArray() + "[" + getIndex() + "]";
+    }
+}
@@ -0,0 +1,31 @@
+package IC.LIR;
+
+/**
+ * register = object.field, for a non null object
+ */
+public class LoadField extends Instruction {
+    private final FieldReference field;
+
+    public LoadField(Register target, Operand object, FieldReference field) {
+        super(target, object);
+        this.field = field;
+    }
+
+    public Operand getObject() {
+        return getOperand(0);
+    }
+
+    public FieldReference getField() {
+        return field;
+    }
+
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+        return definedString() + "load " + getObject() + ", " + field;
+    }
+}
@@ -0,0 +1,78 @@
+package IC.LIR;
+
+import IC.SymbolTypes.MethodSymbolType;
+
+/**
+ * a method, named by the class that declares it
+ */
+public class MethodReference {
+    private final String className;
+    private final String name;
+    // see NameTable
+    private final int nameId;
+    private final MethodSymbolType type;
+    private final Kind kind;
+
+    public MethodReference(String className, String name, int nameId, MethodSymbolType type, Kind kind) {
+        this.className = className;
+        this.name = name;
+        this.nameId = nameId;
+        this.type = type;
+        this.kind = kind;
+    }
+
+    /**
+     * @return the class that declares the method
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getNameId() {
+        return nameId;
+    }
+
+    public MethodSymbolType getType() {
+        return type;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public boolean isVirtual() {
+        return kind == Kind.VIRTUAL;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof MethodReference)) {
+            return false;
+        }
+        MethodReference other = (MethodReference) obj;
+        return className.equals(other.className) && name.equals(other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * className.hashCode() + name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return className + "." + name;
+    }
+
+    public enum Kind {
+        VIRTUAL,
+        STATIC,
+        /**
+         * a static method of the library, which the runtime implements
+         */
+        LIBRARY
+    }
+}
@@ -0,0 +1,24 @@
+package IC.LIR;
+
+/**
+ * register = operand
+ */
+public class Move extends Instruction {
+    public Move(Register target, Operand source) {
+        super(target, source);
+    }
+
+    public Operand getSource() {
+        return getOperand(0);
+    }
+
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+        return definedString() + getSource();
+    }
+}
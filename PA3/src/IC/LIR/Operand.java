@@ -0,0 +1,21 @@
+package IC.LIR;
+
+import IC.SymbolTypes.SymbolType;
+
+/**
+ * a value an instruction reads: a register or a constant
+ */
+public abstract class Operand {
+    /**
+     * @return the IC type of the value
+     */
+    public abstract SymbolType getType();
+
+    public boolean isRegister() {
+        return false;
+    }
+
+    public boolean isConstant() {
+        return false;
+    }
+}
@@ -0,0 +1,22 @@
+package IC.LIR;
+
+/**
+ * register = the operand of the predecessor block control came from. Only exists
+ * in SSA form (see IC.SSA.SSAForm), where the operands are in the order of the
+ * predecessors of the block in its control flow graph.
+ */
+public class Phi extends Instruction {
+    public Phi(Register target, Operand[] operands) {
+        super(target, operands);
+    }
+
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+        return definedString() + "phi " + operandsString(0);
+    }
+}
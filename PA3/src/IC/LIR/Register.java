@@ -0,0 +1,51 @@
+package IC.LIR;
+
+import IC.SymbolTypes.SymbolType;
+
+/**
+ * A virtual register of a LIRMethod. Registers are numbered densely from 0 in
+ * the order they were created, the parameters first, so they can index arrays
+ * and BitSets. Every register holds the default value of its type (0, false or
+ * null) until it is first assigned.
+ */
+public class Register extends Operand {
+    private final int index;
+    private final String name;
+    private final SymbolType type;
+
+    Register(int index, String name, SymbolType type) {
+        this.index = index;
+        this.name = name;
+        this.type = type;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the name of the variable the register holds, or null for a temporary
+     */
+    public String getName() {
+        return name;
+    }
+
+    public boolean isTemporary() {
+        return name == null;
+    }
+
+    @Override
+    public SymbolType getType() {
+        return type;
+    }
+
+    @Override
+    public boolean isRegister() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return name == null ? "%" + index : name + "." + index;
+    }
+}
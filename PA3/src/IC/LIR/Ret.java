@@ -0,0 +1,37 @@
+package IC.LIR;
+
+/**
+ * returns from the method, with a value unless the method is void
+ */
+public class Ret extends Instruction {
+    public Ret() {
+        super(null);
+    }
+
+    public Ret(Operand value) {
+        super(null, value);
+    }
+
+    public boolean hasValue() {
+        return getOperandCount() > 0;
+    }
+
+    public Operand getValue() {
+        return getOperand(0);
+    }
+
+    @Override
+    public boolean isTerminator() {
+        return true;
+    }
+
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+        return hasValue() ? "ret " + getValue() : "ret";
+    }
+}
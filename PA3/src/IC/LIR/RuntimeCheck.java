@@ -0,0 +1,77 @@
+package IC.LIR;
+
+/**
+ * Stops the program with a runtime error unless a condition holds. The
+ * instructions that can fail (field and array accesses, calls on an object,
+ * division and array allocation) are preceded by these checks, so they can
+ * always be assumed to succeed, and the checks can be removed where an
+ * analysis proves them redundant.
+ */
+public class RuntimeCheck extends Instruction {
+    private final Kind kind;
+
+    /**
+     * @param operands the checked value, or the array and the index for ARRAY_INDEX
+     */
+    public RuntimeCheck(Kind kind, Operand... operands) {
+        super(null, operands);
+        this.kind = kind;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    @Override
+    public boolean hasSideEffects() {
+        return true;
+    }
+
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+        return "check " + kind.getMnemonic() + " " + operandsString(0);
+    }
+
+    public enum Kind {
+        /**
+         * the reference isn't null
+         */
+        NULL_REFERENCE("null", "Runtime Error: Null pointer dereference!"),
+        /**
+         * 0 <= index < array.length
+         */
+        ARRAY_INDEX("index", "Runtime Error: Array index out of bounds!"),
+        /**
+         * the size of a new array isn't negative
+         */
+        ARRAY_SIZE("size", "Runtime Error: Array allocation with negative array size!"),
+        /**
+         * the divisor isn't 0
+         */
+        DIVISION_BY_ZERO("zero", "Runtime Error: Division by zero!");
+
+        private final String mnemonic;
+        private final String message;
+
+        Kind(String mnemonic, String message) {
+            this.mnemonic = mnemonic;
+            this.message = message;
+        }
+
+        public String getMnemonic() {
+            return mnemonic;
+        }
+
+        /**
+         * @return the message the program prints when the check fails
+         */
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package IC.LIR;
+
+/**
+ * array[index] = value, for a non null array and an index in its bounds
+ */
+public class StoreElement extends Instruction {
+    public StoreElement(Operand array, Operand index, Operand value) {
+        super(null, array, index, value);
+    }
+
+    public Operand getArray() {
+        return getOperand(0);
+    }
+
+    public Operand getIndex() {
+        return getOperand(1);
+    }
+
+    public Operand getValue() {
+        return getOperand(2);
+    }
+
+    @Override
+    public boolean hasSideEffects() {
+        return true;
+    }
+
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+        return "store " + getArray() + "[" + getIndex() + "], " + getValue();
+    }
+}
@@ -0,0 +1,40 @@
+package IC.LIR;
+
+/**
+ * object.field = value, for a non null object
+ */
+public class StoreField extends Instruction {
+    private final FieldReference field;
+
+    public StoreField(Operand object, FieldReference field, Operand value) {
+        super(null, object, value);
+        this.field = field;
+    }
+
+    public Operand getObject() {
+        return getOperand(0);
+    }
+
+    public FieldReference getField() {
+        return field;
+    }
+
+    public Operand getValue() {
+        return getOperand(1);
+    }
+
+    @Override
+    public boolean hasSideEffects() {
+        return true;
+    }
+
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+        return "store " + getObject() + ", " + field + ", " + getValue();
+    }
+}
@@ -0,0 +1,31 @@
+package IC.LIR;
+
+/**
+ * register = op operand
+ */
+public class Unary extends Instruction {
+    private final UnaryOperator operator;
+
+    public Unary(UnaryOperator operator, Register target, Operand operand) {
+        super(target, operand);
+        this.operator = operator;
+    }
+
+    public UnaryOperator getOperator() {
+        return operator;
+    }
+
+    public Operand getSource() {
+        return getOperand(0);
+    }
+
+    @Override
+    public <R> R accept(InstructionVisitor<R> visitor) {
+        return visitor.visit(this);
+    }
+
+    @Override
+    public String toString() {
+        return definedString() + operator.getMnemonic() + " " + getSource();
+    }
+}
@@ -0,0 +1,25 @@
+package IC.LIR;
+
+/**
+ * operators of Unary instructions
+ */
+public enum UnaryOperator {
+    /**
+     * int negation
+     */
+    NEG("neg"),
+    /**
+     * boolean negation
+     */
+    NOT("not");
+
+    private final String mnemonic;
+
+    UnaryOperator(String mnemonic) {
+        this.mnemonic = mnemonic;
+    }
+
+    public String getMnemonic() {
+        return mnemonic;
+    }
+}
@@ -0,0 +1,445 @@
+package IC;
+
+import IC.AST.*;
+import IC.SymbolTypes.*;
+import IC.SymbolTypes.PrimitiveSymbolType.PrimitiveSymbolTypes;
+import IC.Symbols.Name;
+import IC.Symbols.NameTable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact binary snapshot of a parsed library signature file: the Library class
+ * AST and the type table entries created for it (the Library class type and the
+ * interned method types of its methods).
+ *
+ * Snapshots are saved in a cache directory of the user (see getDefaultDirectory),
+ * which no one else can write to, under the SHA-256 of the signature file content
+ * and of the snapshot format (the classes that write and read it), so a library
+ * that was already parsed once by the same compiler is loaded from a single memory
+ * mapped file, without running the Lexer and LibParser.
+ * A snapshot is immutable: every call to createLibraryClass / createTypeTableSeed
+ * builds new objects, so one snapshot can be shared by many compilations.
+ */
+public class LibrarySnapshot {
+    private static final int MAGIC = 0x49434C53; // "ICLS"
+    private static final int VERSION = 1;
+    private static final int HASH_LENGTH = 32;
+    private static final String SNAPSHOT_DIR = "ic-compiler";
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+    // The classes the content of a snapshot depends on.
+    private static final Class<?>[] FORMAT_CLASSES = {
+        LibrarySnapshot.class, ICClass.class, Method.class, LibraryMethod.class, Formal.class,
+        Type.class, PrimitiveType.class, UserType.class, DataTypes.class,
+        SymbolTypeTable.class, PrimitiveSymbolType.class, PrimitiveSymbolTypes.class,
+        ClassSymbolType.class, ArraySymbolType.class, MethodSymbolType.class
+    };
+    private static final String SNAPSHOT_SUFFIX = ".libsnap";
+
+    private static final byte PRIMITIVE_TYPE = 0;
+    private static final byte USER_TYPE = 1;
+
+    private static final byte PRIMITIVE_SYMBOL_TYPE = 'P';
+    private static final byte CLASS_SYMBOL_TYPE = 'C';
+    private static final byte ARRAY_SYMBOL_TYPE = 'A';
+    private static final byte METHOD_SYMBOL_TYPE = 'M';
+
+    // Layout: class section, then type section. Read only, shared between threads
+    // through duplicate().
+    private final ByteBuffer payload;
+    private final int typeSectionOffset;
+
+    private LibrarySnapshot(ByteBuffer payload, int typeSectionOffset) {
+        this.payload = payload.asReadOnlyBuffer();
+        this.typeSectionOffset = typeSectionOffset;
+    }
+
+    /**
+     * @param signatureFile path of a library signature file
+     * @return SHA-256 of the file content
+     * @throws IOException
+     */
+    public static byte[] hashSignatureFile(String signatureFile) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return digest.digest(Files.readAllBytes(Paths.get(signatureFile)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @return $XDG_CACHE_HOME/ic-compiler, or ~/.cache/ic-compiler if it isn't set
+     */
+    public static Path getDefaultDirectory() {
+        String cacheHome = System.getenv("XDG_CACHE_HOME");
+        if (cacheHome != null && Paths.get(cacheHome).isAbsolute()) {
+            return Paths.get(cacheHome, SNAPSHOT_DIR);
+        }
+        return Paths.get(System.getProperty("user.home"), ".cache", SNAPSHOT_DIR);
+    }
+
+    /**
+     * loads the snapshot saved for a signature file with the given hash
+     *
+     * @param directory where snapshots are saved, see getDefaultDirectory
+     * @param signatureHash see hashSignatureFile
+     * @return the snapshot, or null if there is no valid snapshot for this hash
+     */
+    public static LibrarySnapshot load(Path directory, byte[] signatureHash) {
+        byte[] key = getCacheKey(signatureHash);
+        Path path = getSnapshotPath(directory, key);
+        if (!Files.isRegularFile(path) || !isPrivate(directory)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 12 + HASH_LENGTH || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            byte[] hash = new byte[HASH_LENGTH];
+            buffer.get(hash);
+            if (!MessageDigest.isEqual(hash, key)) {
+                return null;
+            }
+            int typeSectionOffset = buffer.getInt();
+            return new LibrarySnapshot(buffer.slice(), typeSectionOffset);
+        } catch (IOException | RuntimeException e) {
+            // A broken snapshot is just a cache miss.
+            return null;
+        }
+    }
+
+    /**
+     * creates a snapshot from a freshly parsed library class
+     *
+     * @param library the root of the library AST
+     * @return the snapshot
+     */
+    public static LibrarySnapshot create(ICClass library) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream data = new DataOutputStream(bytes);
+            writeClass(data, library);
+            int typeSectionOffset = data.size();
+            writeTypes(data, buildTypeTableSeed(library));
+            data.flush();
+            return new LibrarySnapshot(ByteBuffer.wrap(bytes.toByteArray()), typeSectionOffset);
+        } catch (IOException e) {
+            // Can't happen when writing to memory.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * saves the snapshot for later runs, to a temp file that is then renamed, so
+     * no run ever sees a partial snapshot. Failing to save isn't an error, the
+     * library will just be parsed again next time.
+     *
+     * @param directory where snapshots are saved, created if needed, so that only
+     *                  its owner can use it
+     * @param signatureHash see hashSignatureFile
+     */
+    public void save(Path directory, byte[] signatureHash) {
+        byte[] key = getCacheKey(signatureHash);
+        Path path = getSnapshotPath(directory, key);
+        try {
+            createPrivateDirectory(directory);
+            if (!isPrivate(directory)) {
+                return;
+            }
+            Path tmp = Files.createTempFile(directory, "snapshot", ".tmp");
+            try (DataOutputStream data = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                data.writeInt(MAGIC);
+                data.writeInt(VERSION);
+                data.write(key);
+                data.writeInt(typeSectionOffset);
+                ByteBuffer content = payload.duplicate();
+                content.rewind();
+                byte[] raw = new byte[content.remaining()];
+                content.get(raw);
+                data.write(raw);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Ignored: see method doc.
+        }
+    }
+
+    /**
+     * @param names the name table of the compilation, where the names of the
+     *              library are interned
+     * @return a new Library class AST, equal to the one the snapshot was made from
+     */
+    public ICClass createLibraryClass(NameTable names) {
+        ByteBuffer in = payload.duplicate();
+        in.rewind();
+        int line = in.getInt();
+        Name name = readString(in, names);
+        int methodCount = in.getInt();
+        List<Method> methods = new ArrayList<>(methodCount);
+        for (int i = 0; i < methodCount; i++) {
+            Type returnType = readType(in, names);
+            Name methodName = readString(in, names);
+            int formalCount = in.getInt();
+            List<Formal> formals = new ArrayList<>(formalCount);
+            for (int j = 0; j < formalCount; j++) {
+                Type formalType = readType(in, names);
+                formals.add(new Formal(formalType, readString(in, names)));
+            }
+            methods.add(new LibraryMethod(returnType, methodName, formals));
+        }
+        return new ICClass(line, name, new ArrayList<Field>(), methods);
+    }
+
+    /**
+     * @return the types SymbolTableBuilder creates for the library when it is the
+     * first class of the program, ordered by id. See SymbolTypeTable(String, List)
+     *
+     * @param names the name table createLibraryClass was given
+     */
+    public List<SymbolType> createTypeTableSeed(NameTable names) {
+        ByteBuffer in = payload.duplicate();
+        in.position(typeSectionOffset);
+        int count = in.getInt();
+        List<SymbolType> types = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte tag = in.get();
+            switch (tag) {
+                case PRIMITIVE_SYMBOL_TYPE:
+                    types.add(new PrimitiveSymbolType(PrimitiveSymbolTypes.values()[in.get()]));
+                    break;
+                case CLASS_SYMBOL_TYPE:
+                    Name className = readString(in, names);
+                    ClassSymbolType classType = new ClassSymbolType(className.getText(), className.getId());
+                    int baseClassTypeId = in.getInt();
+                    if (baseClassTypeId != ClassSymbolType.NO_BASE_CLASS) {
+                        classType.setBaseClassTypeId(baseClassTypeId);
+                    }
+                    types.add(classType);
+                    break;
+                case ARRAY_SYMBOL_TYPE:
+                    types.add(new ArraySymbolType(types.get(in.getInt() - 1)));
+                    break;
+                case METHOD_SYMBOL_TYPE:
+                    SymbolType returnType = types.get(in.getInt() - 1);
+                    int formalCount = in.getInt();
+                    List<SymbolType> formalTypes = new ArrayList<>(formalCount);
+                    for (int j = 0; j < formalCount; j++) {
+                        formalTypes.add(types.get(in.getInt() - 1));
+                    }
+                    types.add(new MethodSymbolType(formalTypes, returnType));
+                    break;
+                default:
+                    throw new IllegalStateException("Corrupted library snapshot, unknown type tag: " + tag);
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Same order SymbolTableBuilder uses: the class type, then for every method its
+     * formal types, return type and method type.
+     */
+    private static List<SymbolType> buildTypeTableSeed(ICClass library) {
+        SymbolTypeTable table = new SymbolTypeTable(library.getName());
+        table.getSymbolTypeId(library);
+        for (Method method : library.getMethods()) {
+            table.getSymbolTypeId(method);
+        }
+        return table.getSymbolTypes();
+    }
+
+    private static Path getSnapshotPath(Path directory, byte[] key) {
+        StringBuilder name = new StringBuilder();
+        for (byte b : key) {
+            name.append(String.format("%02x", b));
+        }
+        name.append(SNAPSHOT_SUFFIX);
+        return directory.resolve(name.toString());
+    }
+
+    /**
+     * @return the SHA-256 of the snapshot format and of the signature file, so a
+     * compiler whose format classes changed doesn't load the snapshots of another
+     */
+    private static byte[] getCacheKey(byte[] signatureHash) {
+        MessageDigest digest = newDigest();
+        digest.update(Format.HASH);
+        digest.update(signatureHash);
+        return digest.digest();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform has SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Computed once, on the first use of the cache.
+    private static final class Format {
+        static final byte[] HASH = hashFormat();
+
+        private static byte[] hashFormat() {
+            MessageDigest digest = newDigest();
+            digest.update((byte) VERSION);
+            for (Class<?> formatClass : FORMAT_CLASSES) {
+                String resource = formatClass.getName().replace('.', '/') + ".class";
+                digest.update(resource.getBytes(StandardCharsets.UTF_8));
+                try (InputStream in = formatClass.getClassLoader().getResourceAsStream(resource)) {
+                    if (in == null) {
+                        continue;
+                    }
+                    byte[] buffer = new byte[8192];
+                    for (int read = in.read(buffer); read > 0; read = in.read(buffer)) {
+                        digest.update(buffer, 0, read);
+                    }
+                } catch (IOException e) {
+                    // Hash the name alone, as for a class without a class file.
+                }
+            }
+            return digest.digest();
+        }
+    }
+
+    private static void createPrivateDirectory(Path directory) throws IOException {
+        if (Files.isDirectory(directory)) {
+            return;
+        }
+        Path parent = directory.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try {
+            if (supportsPosix(directory)) {
+                Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+            } else {
+                Files.createDirectory(directory);
+            }
+        } catch (FileAlreadyExistsException e) {
+            // Created by another run in the meantime; isPrivate checks it.
+        }
+    }
+
+    /**
+     * @return whether only the current user can add or replace files in the
+     * directory, so the snapshots in it can be trusted. Always true where the file
+     * system has no POSIX permissions.
+     */
+    private static boolean isPrivate(Path directory) {
+        if (!supportsPosix(directory)) {
+            return true;
+        }
+        try {
+            UserPrincipal user = directory.getFileSystem().getUserPrincipalLookupService()
+                    .lookupPrincipalByName(System.getProperty("user.name"));
+            Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(directory);
+            return Files.getOwner(directory).equals(user)
+                    && !permissions.contains(PosixFilePermission.GROUP_WRITE)
+                    && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    private static boolean supportsPosix(Path directory) {
+        return directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+    }
+
+    private static void writeClass(DataOutputStream data, ICClass library) throws IOException {
+        data.writeInt(library.getLine());
+        writeString(data, library.getName());
+        data.writeInt(library.getMethods().size());
+        for (Method method : library.getMethods()) {
+            writeType(data, method.getType());
+            writeString(data, method.getName());
+            data.writeInt(method.getFormals().size());
+            for (Formal formal : method.getFormals()) {
+                writeType(data, formal.getType());
+                writeString(data, formal.getName());
+            }
+        }
+    }
+
+    private static void writeType(DataOutputStream data, Type type) throws IOException {
+        data.writeInt(type.getLine());
+        data.writeInt(type.getDimension());
+        if (type instanceof PrimitiveType) {
+            data.writeByte(PRIMITIVE_TYPE);
+            data.writeByte(((PrimitiveType) type).getDataType().ordinal());
+        } else {
+            data.writeByte(USER_TYPE);
+            writeString(data, type.getName());
+        }
+    }
+
+    private static Type readType(ByteBuffer in, NameTable names) {
+        int line = in.getInt();
+        int dimension = in.getInt();
+        Type type;
+        if (in.get() == PRIMITIVE_TYPE) {
+            type = new PrimitiveType(line, DataTypes.values()[in.get()]);
+        } else {
+            type = new UserType(line, readString(in, names));
+        }
+        type.setDimension(dimension);
+        return type;
+    }
+
+    private static void writeTypes(DataOutputStream data, List<SymbolType> types) throws IOException {
+        Map<SymbolType, Integer> ids = new HashMap<>();
+        data.writeInt(types.size());
+        for (SymbolType type : types) {
+            if (type instanceof PrimitiveSymbolType) {
+                data.writeByte(PRIMITIVE_SYMBOL_TYPE);
+                data.writeByte(((PrimitiveSymbolType) type).getPrimitiveType().ordinal());
+            } else if (type instanceof ClassSymbolType) {
+                data.writeByte(CLASS_SYMBOL_TYPE);
+                writeString(data, ((ClassSymbolType) type).getName());
+                data.writeInt(((ClassSymbolType) type).getBaseClassTypeId());
+            } else if (type instanceof ArraySymbolType) {
+                data.writeByte(ARRAY_SYMBOL_TYPE);
+                data.writeInt(ids.get(((ArraySymbolType) type).getBaseType()));
+            } else {
+                MethodSymbolType methodType = (MethodSymbolType) type;
+                data.writeByte(METHOD_SYMBOL_TYPE);
+                data.writeInt(ids.get(methodType.getReturnType()));
+                data.writeInt(methodType.getFormalsTypes().size());
+                for (SymbolType formalType : methodType.getFormalsTypes()) {
+                    data.writeInt(ids.get(formalType));
+                }
+            }
+            ids.put(type, ids.size() + 1);
+        }
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    private static Name readString(ByteBuffer in, NameTable names) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        // Every string in a snapshot is an identifier.
+        return names.intern(new String(bytes, StandardCharsets.UTF_8));
+    }
+}
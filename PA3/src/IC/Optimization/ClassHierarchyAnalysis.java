@@ -0,0 +1,109 @@
+package IC.Optimization;
+
+import IC.LIR.CallVirtual;
+import IC.LIR.Instruction;
+import IC.LIR.LIRMethod;
+import IC.SymbolTypes.ClassSymbolType;
+import IC.Symbols.ClassSymbolTable;
+import IC.Symbols.GlobalSymbolTable;
+import IC.Symbols.IntMap;
+import IC.Symbols.Symbol;
+import IC.Symbols.SymbolTable;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+
+/**
+ * Class hierarchy analysis: a program is compiled as a whole, so the class symbol
+ * tables (the table of a class is a child of the table of its base class) hold
+ * every class a receiver may be an instance of. A virtual call whose method isn't
+ * overridden by any class below the static type of its receiver always runs the
+ * method the static type sees, and is marked direct.
+ */
+public class ClassHierarchyAnalysis {
+    // keyed by the NameTable id of the class name
+    private final IntMap<ClassSymbolTable> classes = new IntMap<>();
+    // The ids of the names of the methods declared below a class, by the id of the
+    // class name, computed for a class when a call is first seen on it.
+    private final IntMap<BitSet> overridden = new IntMap<>();
+    private int virtualCallCount = 0;
+    private int devirtualizedCount = 0;
+
+    public ClassHierarchyAnalysis(GlobalSymbolTable globalTable) {
+        Deque<SymbolTable> scopes = new ArrayDeque<>();
+        scopes.push(globalTable);
+        while (!scopes.isEmpty()) {
+            for (SymbolTable child : scopes.pop().getChildren()) {
+                if (child instanceof ClassSymbolTable) {
+                    classes.put(child.getNameId(), (ClassSymbolTable) child);
+                    scopes.push(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of virtual calls seen
+     */
+    public int getVirtualCallCount() {
+        return virtualCallCount;
+    }
+
+    /**
+     * @return the number of virtual calls marked direct
+     */
+    public int getDevirtualizedCount() {
+        return devirtualizedCount;
+    }
+
+    /**
+     * @return whether a class derived from the class (not the class itself) declares
+     * the method again
+     */
+    public boolean isOverridden(int classNameId, int methodNameId) {
+        BitSet methods = overridden.get(classNameId);
+        if (methods == null) {
+            methods = new BitSet();
+            Deque<SymbolTable> scopes = new ArrayDeque<>();
+            scopes.push(classes.get(classNameId));
+            while (!scopes.isEmpty()) {
+                for (SymbolTable child : scopes.pop().getChildren()) {
+                    if (!(child instanceof ClassSymbolTable)) {
+                        continue;
+                    }
+                    // Only the symbols the class declares, not those it inherits.
+                    for (Symbol symbol : child.getSymbols()) {
+                        if (symbol.getKind() == Symbol.Kind.VIRTUAL_METHOD) {
+                            methods.set(symbol.getNameId());
+                        }
+                    }
+                    scopes.push(child);
+                }
+            }
+            overridden.put(classNameId, methods);
+        }
+        return methods.get(methodNameId);
+    }
+
+    /**
+     * marks the virtual calls of a method that have a single implementation direct
+     */
+    public void devirtualize(LIRMethod method) {
+        for (Instruction instruction : method.getInstructions()) {
+            if (!(instruction instanceof CallVirtual)) {
+                continue;
+            }
+            CallVirtual call = (CallVirtual) instruction;
+            virtualCallCount++;
+            if (!(call.getReceiver().getType() instanceof ClassSymbolType)) {
+                continue;
+            }
+            int receiverClass = ((ClassSymbolType) call.getReceiver().getType()).getNameId();
+            if (!isOverridden(receiverClass, call.getMethod().getNameId())) {
+                call.setDirect(true);
+                devirtualizedCount++;
+            }
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package IC.Optimization;
+
+import IC.AST.*;
+import IC.BinaryOps;
+import IC.LiteralTypes;
+import IC.Symbols.Symbol;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Folds the operations on literals of a checked program into literals, with the
+ * 32 bit wrapping arithmetic of IC, and propagates the constants local variables
+ * are initialized with when they are never assigned again, so the conditions of
+ * ifs and whiles over them become literals too (the translator turns those into
+ * jumps).
+ *
+ * A division or a modulo by zero isn't folded, so it still fails at run time. String
+ * operations aren't folded either: strings are compared by reference, and a folded
+ * concatenation would be a different string. Only int and boolean constants are
+ * propagated.
+ *
+ * Variables are told apart by the symbols the checks annotated their uses with.
+ *
+ * Statements return null, expressions return the expression that replaces them,
+ * which may be themselves.
+ */
+public class ConstantFolder implements Visitor {
+    // The locals of the method that are assigned after their declaration.
+    private final Set<Symbol> assigned = Collections.newSetFromMap(new IdentityHashMap<Symbol, Boolean>());
+    // The locals of the method known to hold a constant, from their declaration on.
+    private final Map<Symbol, Literal> constants = new IdentityHashMap<>();
+    private int foldedCount = 0;
+    private int propagatedCount = 0;
+
+    /**
+     * @return the number of operations replaced by their value
+     */
+    public int getFoldedCount() {
+        return foldedCount;
+    }
+
+    /**
+     * @return the number of uses of locals replaced by their constant value
+     */
+    public int getPropagatedCount() {
+        return propagatedCount;
+    }
+
+    private Expression fold(Expression expression) {
+        return (Expression) expression.accept(this);
+    }
+
+    private void foldAll(List<Expression> expressions) {
+        for (int i = 0; i < expressions.size(); i++) {
+            expressions.set(i, fold(expressions.get(i)));
+        }
+    }
+
+    private Object visitMethod(Method method) {
+        assigned.clear();
+        constants.clear();
+        for (Statement statement : method.getStatements()) {
+            collectAssigned(statement);
+        }
+        for (Statement statement : method.getStatements()) {
+            statement.accept(this);
+        }
+        return null;
+    }
+
+    /**
+     * adds the locals the statement assigns to assigned (assignments are statements,
+     * so the expressions don't have to be searched)
+     */
+    private void collectAssigned(Statement statement) {
+        if (statement instanceof Assignment) {
+            Location target = ((Assignment) statement).getVariable();
+            if (target instanceof VariableLocation && !((VariableLocation) target).isExternal()) {
+                assigned.add(((VariableLocation) target).getSymbolReference().getSymbol());
+            }
+        } else if (statement instanceof StatementsBlock) {
+            for (Statement inner : ((StatementsBlock) statement).getStatements()) {
+                collectAssigned(inner);
+            }
+        } else if (statement instanceof If) {
+            If ifStatement = (If) statement;
+            collectAssigned(ifStatement.getOperation());
+            if (ifStatement.hasElse()) {
+                collectAssigned(ifStatement.getElseOperation());
+            }
+        } else if (statement instanceof While) {
+            collectAssigned(((While) statement).getOperation());
+        }
+    }
+
+    private static boolean isInteger(Expression expression) {
+        return expression instanceof Literal && ((Literal) expression).getType() == LiteralTypes.INTEGER;
+    }
+
+    private static boolean isBoolean(Expression expression) {
+        return expression instanceof Literal
+            && (((Literal) expression).getType() == LiteralTypes.TRUE || ((Literal) expression).getType() == LiteralTypes.FALSE);
+    }
+
+    private static int intValue(Expression literal) {
+        // 2147483648 is only allowed under a unary minus, which wraps it back.
+        return (int) Long.parseLong((String) ((Literal) literal).getValue());
+    }
+
+    private static boolean booleanValue(Expression literal) {
+        return ((Literal) literal).getType() == LiteralTypes.TRUE;
+    }
+
+    private Literal replace(Expression expression, LiteralTypes type, Object value) {
+        Literal literal = new Literal(expression.getLine(), type, value);
+        literal.setParent(expression.getParent());
+        foldedCount++;
+        return literal;
+    }
+
+    private Literal replace(Expression expression, int value) {
+        return replace(expression, LiteralTypes.INTEGER, Integer.toString(value));
+    }
+
+    private Literal replace(Expression expression, boolean value) {
+        return replace(expression, value ? LiteralTypes.TRUE : LiteralTypes.FALSE, value);
+    }
+
+    @Override
+    public Object visit(Program program) {
+        for (ICClass clazz : program.getClasses()) {
+            clazz.accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Object visit(ICClass icClass) {
+        for (Method method : icClass.getMethods()) {
+            method.accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Object visit(Field field) {
+        return null;
+    }
+
+    @Override
+    public Object visit(VirtualMethod method) {
+        return visitMethod(method);
+    }
+
+    @Override
+    public Object visit(StaticMethod method) {
+        return visitMethod(method);
+    }
+
+    @Override
+    public Object visit(LibraryMethod method) {
+        return null;
+    }
+
+    @Override
+    public Object visit(Formal formal) {
+        return null;
+    }
+
+    @Override
+    public Object visit(PrimitiveType type) {
+        return null;
+    }
+
+    @Override
+    public Object visit(UserType type) {
+        return null;
+    }
+
+    @Override
+    public Object visit(Assignment assignment) {
+        Location target = assignment.getVariable();
+        if (target instanceof ArrayLocation) {
+            ArrayLocation location = (ArrayLocation) target;
+            location.getArray().accept(this);
+            location.setIndex(fold(location.getIndex()));
+        } else if (((VariableLocation) target).isExternal()) {
+            ((VariableLocation) target).getLocation().accept(this);
+        }
+        assignment.setAssignment(fold(assignment.getAssignment()));
+        return null;
+    }
+
+    @Override
+    public Object visit(CallStatement callStatement) {
+        callStatement.getCall().accept(this);
+        return null;
+    }
+
+    @Override
+    public Object visit(Return returnStatement) {
+        if (returnStatement.hasValue()) {
+            returnStatement.setValue(fold(returnStatement.getValue()));
+        }
+        return null;
+    }
+
+    @Override
+    public Object visit(If ifStatement) {
+        ifStatement.setCondition(fold(ifStatement.getCondition()));
+        ifStatement.getOperation().accept(this);
+        if (ifStatement.hasElse()) {
+            ifStatement.getElseOperation().accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Object visit(While whileStatement) {
+        whileStatement.setCondition(fold(whileStatement.getCondition()));
+        whileStatement.getOperation().accept(this);
+        return null;
+    }
+
+    @Override
+    public Object visit(Break breakStatement) {
+        return null;
+    }
+
+    @Override
+    public Object visit(Continue continueStatement) {
+        return null;
+    }
+
+    @Override
+    public Object visit(StatementsBlock statementsBlock) {
+        for (Statement statement : statementsBlock.getStatements()) {
+            statement.accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Object visit(LocalVariable localVariable) {
+        if (!localVariable.hasInitValue()) {
+            return null;
+        }
+        Expression initValue = fold(localVariable.getInitValue());
+        localVariable.setInitValue(initValue);
+        // Uses before the declaration (the checks allow them) still read the register,
+        // since they're visited before it.
+        if ((isInteger(initValue) || isBoolean(initValue)) && !assigned.contains(localVariable.getSymbol())) {
+            constants.put(localVariable.getSymbol(), (Literal) initValue);
+        }
+        return null;
+    }
+
+    @Override
+    public Object visit(VariableLocation location) {
+        if (location.isExternal()) {
+            location.getLocation().accept(this);
+            return location;
+        }
+        Literal constant = constants.get(location.getSymbolReference().getSymbol());
+        if (constant == null) {
+            return location;
+        }
+        Literal literal = new Literal(location.getLine(), constant.getType(), constant.getValue());
+        literal.setParent(location.getParent());
+        propagatedCount++;
+        return literal;
+    }
+
+    @Override
+    public Object visit(ArrayLocation location) {
+        location.getArray().accept(this);
+        location.setIndex(fold(location.getIndex()));
+        return location;
+    }
+
+    @Override
+    public Object visit(StaticCall call) {
+        foldAll(call.getArguments());
+        return call;
+    }
+
+    @Override
+    public Object visit(VirtualCall call) {
+        if (call.isExternal()) {
+            call.getLocation().accept(this);
+        }
+        foldAll(call.getArguments());
+        return call;
+    }
+
+    @Override
+    public Object visit(This thisExpression) {
+        return thisExpression;
+    }
+
+    @Override
+    public Object visit(NewClass newClass) {
+        return newClass;
+    }
+
+    @Override
+    public Object visit(NewArray newArray) {
+        newArray.setSize(fold(newArray.getSize()));
+        return newArray;
+    }
+
+    @Override
+    public Object visit(Length length) {
+        length.getArray().accept(this);
+        return length;
+    }
+
+    @Override
+    public Object visit(MathBinaryOp binaryOp) {
+        Expression first = fold(binaryOp.getFirstOperand());
+        Expression second = fold(binaryOp.getSecondOperand());
+        binaryOp.setFirstOperand(first);
+        binaryOp.setSecondOperand(second);
+        if (!isInteger(first) || !isInteger(second)) {
+            return binaryOp;
+        }
+        int left = intValue(first);
+        int right = intValue(second);
+        switch (binaryOp.getOperator()) {
+            case PLUS:
+                return replace(binaryOp, left + right);
+            case MINUS:
+                return replace(binaryOp, left - right);
+            case MULTIPLY:
+                return replace(binaryOp, left * right);
+            case DIVIDE:
+                return right == 0 ? binaryOp : replace(binaryOp, left / right);
+            case MOD:
+                return right == 0 ? binaryOp : replace(binaryOp, left % right);
+            default:
+                throw new IllegalArgumentException("Not a math operator: " + binaryOp.getOperator());
+        }
+    }
+
+    @Override
+    public Object visit(LogicalBinaryOp binaryOp) {
+        Expression first = fold(binaryOp.getFirstOperand());
+        Expression second = fold(binaryOp.getSecondOperand());
+        binaryOp.setFirstOperand(first);
+        binaryOp.setSecondOperand(second);
+        if (binaryOp.getOperator() == BinaryOps.LAND || binaryOp.getOperator() == BinaryOps.LOR) {
+            boolean and = binaryOp.getOperator() == BinaryOps.LAND;
+            // true && e is e, false && e is false; e && true is e, but e && false has to evaluate e.
+            if (isBoolean(first)) {
+                foldedCount++;
+                return booleanValue(first) == and ? second : first;
+            }
+            if (isBoolean(second) && booleanValue(second) == and) {
+                foldedCount++;
+                return first;
+            }
+            return binaryOp;
+        }
+
+        if (isInteger(first) && isInteger(second)) {
+            int left = intValue(first);
+            int right = intValue(second);
+            switch (binaryOp.getOperator()) {
+                case LT:
+                    return replace(binaryOp, left < right);
+                case LTE:
+                    return replace(binaryOp, left <= right);
+                case GT:
+                    return replace(binaryOp, left > right);
+                case GTE:
+                    return replace(binaryOp, left >= right);
+                case EQUAL:
+                    return replace(binaryOp, left == right);
+                case NEQUAL:
+                    return replace(binaryOp, left != right);
+                default:
+                    throw new IllegalArgumentException("Not a logical operator: " + binaryOp.getOperator());
+            }
+        }
+        boolean booleans = isBoolean(first) && isBoolean(second);
+        boolean nulls = first instanceof Literal && ((Literal) first).getType() == LiteralTypes.NULL
+            && second instanceof Literal && ((Literal) second).getType() == LiteralTypes.NULL;
+        if (booleans || nulls) {
+            boolean equal = nulls || booleanValue(first) == booleanValue(second);
+            if (binaryOp.getOperator() == BinaryOps.EQUAL) {
+                return replace(binaryOp, equal);
+            }
+            if (binaryOp.getOperator() == BinaryOps.NEQUAL) {
+                return replace(binaryOp, !equal);
+            }
+        }
+        return binaryOp;
+    }
+
+    @Override
+    public Object visit(MathUnaryOp unaryOp) {
+        Expression operand = fold(unaryOp.getOperand());
+        unaryOp.setOperand(operand);
+        return isInteger(operand) ? replace(unaryOp, -intValue(operand)) : unaryOp;
+    }
+
+    @Override
+    public Object visit(LogicalUnaryOp unaryOp) {
+        Expression operand = fold(unaryOp.getOperand());
+        unaryOp.setOperand(operand);
+        return isBoolean(operand) ? replace(unaryOp, !booleanValue(operand)) : unaryOp;
+    }
+
+    @Override
+    public Object visit(Literal literal) {
+        return literal;
+    }
+
+    @Override
+    public Object visit(ExpressionBlock expressionBlock) {
+        Expression expression = fold(expressionBlock.getExpression());
+        expressionBlock.setExpression(expression);
+        // Parentheses around a literal don't matter any more.
+        return expression instanceof Literal ? expression : expressionBlock;
+    }
+}
@@ -0,0 +1,301 @@
+package IC.Optimization;
+
+import IC.CFG.ControlFlowGraph;
+import IC.Dataflow.DataflowAnalysis;
+import IC.LIR.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Removes the code of methods that never runs or computes nothing that is used,
+ * until there is none left:
+ * - branches on a constant become jumps, and the blocks no path from the entry
+ *   reaches are removed (code after a return, a break or a continue, the branch
+ *   of an if or the body of a while whose condition was folded),
+ * - instructions without side effects whose register no needed instruction reads,
+ *   such as the assignments of locals that are never read, or a counter that only
+ *   increments itself,
+ * - assignments that are overwritten before they are read (by liveness),
+ * - jumps to the next instruction, and the labels nothing jumps to.
+ *
+ * A runtime check is never removed, even if the access it guards is, so a
+ * program still fails where it did.
+ */
+public class DeadCodeElimination {
+    private int removedBlockCount = 0;
+    private int removedInstructionCount = 0;
+
+    /**
+     * @return the number of unreachable blocks removed
+     */
+    public int getRemovedBlockCount() {
+        return removedBlockCount;
+    }
+
+    /**
+     * @return the number of instructions removed, including those of unreachable blocks
+     */
+    public int getRemovedInstructionCount() {
+        return removedInstructionCount;
+    }
+
+    /**
+     * removes the dead code of a method in place
+     */
+    public void run(LIRMethod method) {
+        boolean changed = true;
+        while (changed) {
+            foldConstantBranches(method);
+            changed = removeUnreachableBlocks(method);
+            changed |= removeUnneeded(method);
+            changed |= removeDeadStores(method);
+            changed |= removeJumps(method);
+        }
+    }
+
+    private static void foldConstantBranches(LIRMethod method) {
+        List<Instruction> instructions = method.getInstructions();
+        for (int i = 0; i < instructions.size(); i++) {
+            if (!(instructions.get(i) instanceof Branch)) {
+                continue;
+            }
+            Branch branch = (Branch) instructions.get(i);
+            if (branch.getCondition().isConstant()) {
+                instructions.set(i, new Jump(((Constant) branch.getCondition()).getValue() != 0 ? branch.getIfTrue() : branch.getIfFalse()));
+            } else if (branch.getIfTrue() == branch.getIfFalse()) {
+                instructions.set(i, new Jump(branch.getIfTrue()));
+            }
+        }
+    }
+
+    private boolean removeUnreachableBlocks(LIRMethod method) {
+        ControlFlowGraph graph = ControlFlowGraph.build(method);
+        boolean[] dead = new boolean[method.getInstructions().size()];
+        boolean changed = false;
+        for (int block = 0; block < graph.getBlockCount(); block++) {
+            if (!graph.isReachable(block)) {
+                for (int i = graph.getBlockStart(block); i < graph.getBlockEnd(block); i++) {
+                    dead[i] = true;
+                }
+                removedBlockCount++;
+                changed = true;
+            }
+        }
+        return changed && remove(method, dead);
+    }
+
+    /**
+     * removes the instructions without side effects whose register isn't needed: read
+     * by an instruction with side effects or without a register (a store, a call, a
+     * return, a branch...), or by an instruction assigning a needed register
+     */
+    private boolean removeUnneeded(LIRMethod method) {
+        List<Instruction> instructions = method.getInstructions();
+        int registerCount = method.getRegisterCount();
+        // The instructions assigning every register, packed by register.
+        int[] definitionStarts = new int[registerCount + 1];
+        for (Instruction instruction : instructions) {
+            if (instruction.getDefinedRegister() != null) {
+                definitionStarts[instruction.getDefinedRegister().getIndex() + 1]++;
+            }
+        }
+        for (int register = 0; register < registerCount; register++) {
+            definitionStarts[register + 1] += definitionStarts[register];
+        }
+        int[] definitions = new int[definitionStarts[registerCount]];
+        int[] filled = new int[registerCount];
+        for (int i = 0; i < instructions.size(); i++) {
+            Register defined = instructions.get(i).getDefinedRegister();
+            if (defined != null) {
+                definitions[definitionStarts[defined.getIndex()] + filled[defined.getIndex()]++] = i;
+            }
+        }
+
+        boolean[] needed = new boolean[registerCount];
+        int[] worklist = new int[registerCount];
+        int pending = 0;
+        for (Instruction instruction : instructions) {
+            if (isNeeded(instruction, needed)) {
+                pending = markOperands(instruction, needed, worklist, pending);
+            }
+        }
+        while (pending > 0) {
+            int register = worklist[--pending];
+            for (int d = definitionStarts[register]; d < definitionStarts[register + 1]; d++) {
+                pending = markOperands(instructions.get(definitions[d]), needed, worklist, pending);
+            }
+        }
+
+        boolean[] dead = new boolean[instructions.size()];
+        boolean changed = false;
+        for (int i = 0; i < instructions.size(); i++) {
+            if (!isNeeded(instructions.get(i), needed)) {
+                dead[i] = true;
+                changed = true;
+            }
+        }
+        return changed && remove(method, dead);
+    }
+
+    private static boolean isNeeded(Instruction instruction, boolean[] needed) {
+        Register defined = instruction.getDefinedRegister();
+        return defined == null || instruction.hasSideEffects() || needed[defined.getIndex()];
+    }
+
+    private static int markOperands(Instruction instruction, boolean[] needed, int[] worklist, int pending) {
+        for (int i = 0; i < instruction.getOperandCount(); i++) {
+            Operand operand = instruction.getOperand(i);
+            if (operand.isRegister() && !needed[((Register) operand).getIndex()]) {
+                needed[((Register) operand).getIndex()] = true;
+                worklist[pending++] = ((Register) operand).getIndex();
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * removes the instructions without side effects whose register is assigned again
+     * before it is read, or never read again, and the moves of a register to itself.
+     * Only the liveness of registers assigned more than once is computed: a register
+     * assigned once that is read at all was kept by removeUnneeded, and is live after
+     * its assignment unless the reads are only reachable without it.
+     */
+    private boolean removeDeadStores(LIRMethod method) {
+        List<Instruction> instructions = method.getInstructions();
+        int[] assignments = new int[method.getRegisterCount()];
+        for (Instruction instruction : instructions) {
+            if (instruction.getDefinedRegister() != null) {
+                assignments[instruction.getDefinedRegister().getIndex()]++;
+            }
+        }
+        int[] bits = new int[method.getRegisterCount()];
+        int size = 0;
+        for (int register = 0; register < bits.length; register++) {
+            bits[register] = assignments[register] > 1 ? size++ : ControlFlowGraph.NONE;
+        }
+
+        ControlFlowGraph graph = ControlFlowGraph.build(method);
+        ReassignedLiveness liveness = ReassignedLiveness.analyze(graph, bits, size);
+        boolean[] dead = new boolean[instructions.size()];
+        boolean changed = false;
+        BitSet live = new BitSet(size);
+        for (int block = 0; block < graph.getBlockCount(); block++) {
+            live.clear();
+            live.or(liveness.getOut(block));
+            for (int i = graph.getBlockEnd(block) - 1; i >= graph.getBlockStart(block); i--) {
+                Instruction instruction = instructions.get(i);
+                Register defined = instruction.getDefinedRegister();
+                if (defined != null && !instruction.hasSideEffects()) {
+                    int bit = bits[defined.getIndex()];
+                    boolean selfMove = instruction instanceof Move && ((Move) instruction).getSource() == defined;
+                    if (selfMove || (bit != ControlFlowGraph.NONE && !live.get(bit))) {
+                        dead[i] = true;
+                        changed = true;
+                        continue;
+                    }
+                }
+                liveness.transfer(instruction, i, live);
+            }
+        }
+        return changed && remove(method, dead);
+    }
+
+    /**
+     * removes the jumps to the label right after them, and then the labels no
+     * instruction jumps to
+     */
+    private boolean removeJumps(LIRMethod method) {
+        List<Instruction> instructions = method.getInstructions();
+        boolean[] dead = new boolean[instructions.size()];
+        boolean changed = false;
+        for (int i = 0; i < instructions.size(); i++) {
+            if (!(instructions.get(i) instanceof Jump)) {
+                continue;
+            }
+            Label target = ((Jump) instructions.get(i)).getTarget();
+            for (int next = i + 1; next < instructions.size() && instructions.get(next) instanceof Label; next++) {
+                if (instructions.get(next) == target) {
+                    dead[i] = true;
+                    changed = true;
+                    break;
+                }
+            }
+        }
+
+        Set<Label> targets = Collections.newSetFromMap(new IdentityHashMap<Label, Boolean>());
+        for (int i = 0; i < instructions.size(); i++) {
+            if (!dead[i]) {
+                targets.addAll(instructions.get(i).getTargets());
+            }
+        }
+        for (int i = 0; i < instructions.size(); i++) {
+            if (instructions.get(i) instanceof Label && !targets.contains(instructions.get(i))) {
+                dead[i] = true;
+                changed = true;
+            }
+        }
+        return changed && remove(method, dead);
+    }
+
+    /**
+     * removes the instructions marked dead
+     *
+     * @return true
+     */
+    private boolean remove(LIRMethod method, boolean[] dead) {
+        List<Instruction> instructions = method.getInstructions();
+        List<Instruction> kept = new ArrayList<>(instructions.size());
+        for (int i = 0; i < instructions.size(); i++) {
+            if (dead[i]) {
+                removedInstructionCount++;
+            } else {
+                kept.add(instructions.get(i));
+            }
+        }
+        method.setInstructions(kept);
+        return true;
+    }
+
+    /**
+     * liveness of the registers assigned more than once, one bit for each
+     */
+    private static class ReassignedLiveness extends DataflowAnalysis {
+        // The bit of every register, or NONE.
+        private final int[] bits;
+
+        private ReassignedLiveness(ControlFlowGraph graph, int[] bits, int size) {
+            super(graph, Direction.BACKWARD, true, size);
+            this.bits = bits;
+        }
+
+        static ReassignedLiveness analyze(ControlFlowGraph graph, int[] bits, int size) {
+            ReassignedLiveness analysis = new ReassignedLiveness(graph, bits, size);
+            analysis.solve();
+            return analysis;
+        }
+
+        @Override
+        protected void initBoundary(BitSet facts) {
+            // Nothing is read after the method returns.
+        }
+
+        @Override
+        protected void transfer(Instruction instruction, int index, BitSet facts) {
+            Register defined = instruction.getDefinedRegister();
+            if (defined != null && bits[defined.getIndex()] != ControlFlowGraph.NONE) {
+                facts.clear(bits[defined.getIndex()]);
+            }
+            for (int i = 0; i < instruction.getOperandCount(); i++) {
+                Operand operand = instruction.getOperand(i);
+                if (operand.isRegister() && bits[((Register) operand).getIndex()] != ControlFlowGraph.NONE) {
+                    facts.set(bits[((Register) operand).getIndex()]);
+                }
+            }
+        }
+    }
+}
@@ -1,90 +1,304 @@
 package IC;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * helper class to handle args from user.
  */
 public class Options {
+    public static final int NO_PORT = -1;
+
     private boolean dumpSymTab;
     private String libicPath;
-    private String icFile;
+    private List<String> icFiles;
     private boolean printAST;
+    private boolean printLIR;
+    private boolean printCFG;
+    private boolean printDataflow;
+    private boolean optimize;
+    private boolean separateChecks;
+    private boolean timings;
+    private boolean serverMode;
+    private int serverPort;
+    private boolean run;
+    private List<String> programArgs;
+    private String jarPath;
+    private String assemblyPath;
+    private String snapshotDirectory;
 
     private Options() {
         this.libicPath = null;
         this.printAST = false;
-        this.icFile = null;
+        this.printLIR = false;
+        this.printCFG = false;
+        this.printDataflow = false;
+        this.optimize = false;
+        this.icFiles = new ArrayList<>();
         this.dumpSymTab = false;
+        this.separateChecks = false;
+        this.timings = false;
+        this.serverMode = false;
+        this.serverPort = NO_PORT;
+        this.run = false;
+        this.programArgs = new ArrayList<>();
+        this.jarPath = null;
+        this.assemblyPath = null;
+        this.snapshotDirectory = null;
+    }
+
+    public static String getUsage() {
+        return "Usage:\n\tjava IC.Compiler <file.ic> [ -L</path/to/libic.sig> ] [ -print-ast ] [ -print-lir ] [ -print-cfg ] [ -print-dataflow ] [ -O ] [ -dump-symtab ] [ -separate-checks ] [ -Xtimings ] [ -jar=<file.jar> ] [ -asm=<file.s> ] [ -snapshot-dir=<dir> ] [ -run [ <arg>... ] ]"
+            + "\n\tjava IC.Compiler <file.ic|directory>... [ -L</path/to/libic.sig> ] [ -print-ast ] [ -print-lir ] [ -print-cfg ] [ -print-dataflow ] [ -O ] [ -dump-symtab ] [ -separate-checks ] [ -Xtimings ] [ -snapshot-dir=<dir> ]"
+            + "\n\tjava IC.Compiler -server[=<port>] [ -L</path/to/libic.sig> ] [ -snapshot-dir=<dir> ]";
     }
 
-    private static void handleWrongSyntax() {
-        System.out.println("Can't run compiler.");
-        System.out.println("Usage:\n\tjava IC.Compiler <file.ic> [ -L</path/to/libic.sig> ] [ -print-ast ]");
-        System.exit(1);
+    /**
+     * @param args the command line args
+     * @return the options
+     * @throws OptionsException on wrong syntax
+     */
+    public static IC.Options parseCommandLineArgs(String[] args) throws OptionsException {
+        return parse(args, true);
     }
 
-    public static IC.Options parseCommandLineArgs(String[] args) {
+    /**
+     * parses the args of a single compile request sent to a running compiler server.
+     *
+     * @param args request args, same syntax as the command line (without -server)
+     * @return the options of the request
+     * @throws OptionsException on wrong syntax
+     */
+    public static IC.Options parseRequestArgs(String[] args) throws OptionsException {
+        return parse(args, false);
+    }
+
+    private static IC.Options parse(String[] args, boolean commandLine) throws OptionsException {
         IC.Options options = new IC.Options();
         if (args.length == 0) {
-            handleWrongSyntax();
+            throw new OptionsException("");
         }
 
         for (String arg : args) {
-            if (arg.startsWith("-L")) {
+            if (options.run) {
+                // Everything after -run goes to the program.
+                options.programArgs.add(arg);
+            } else if (arg.startsWith("-L")) {
                 options.libicPath = arg.substring(2);
             } else if (arg.equals("-print-ast")) {
                 options.printAST = true;
-            } else if (!arg.startsWith("-") && options.icFile == null) {
-                options.icFile = arg;
+            } else if (arg.equals("-print-lir")) {
+                options.printLIR = true;
+            } else if (arg.equals("-print-cfg")) {
+                options.printCFG = true;
+            } else if (arg.equals("-print-dataflow")) {
+                options.printDataflow = true;
+            } else if (arg.equals("-O")) {
+                options.optimize = true;
+            } else if (!arg.startsWith("-")) {
+                options.icFiles.add(arg);
             } else if (arg.equals("-dump-symtab")) {
                 options.dumpSymTab = true;
+            } else if (arg.equals("-separate-checks")) {
+                options.separateChecks = true;
+            } else if (arg.equals("-Xtimings")) {
+                options.timings = true;
+            } else if (arg.startsWith("-jar=")) {
+                options.jarPath = arg.substring("-jar=".length());
+            } else if (arg.startsWith("-asm=")) {
+                options.assemblyPath = arg.substring("-asm=".length());
+            } else if (commandLine && arg.equals("-server")) {
+                options.serverMode = true;
+            } else if (commandLine && arg.startsWith("-server=")) {
+                options.serverMode = true;
+                options.serverPort = parsePort(arg.substring("-server=".length()));
+            } else if (commandLine && arg.startsWith("-snapshot-dir=")) {
+                // Where library snapshots are saved; a request can't make the server use another.
+                options.snapshotDirectory = arg.substring("-snapshot-dir=".length());
+            } else if (commandLine && arg.equals("-run")) {
+                // A server reads its requests from stdin, which a program would read too.
+                options.run = true;
             } else {
-                System.out.println("Unrecognized flag: " + arg);
-                handleWrongSyntax();
+                throw new OptionsException("Unrecognized flag: " + arg);
             }
         }
 
-        if (options.icFile == null) {
-            handleWrongSyntax();
+        if (options.icFiles.isEmpty() && !options.serverMode) {
+            throw new OptionsException("");
         }
 
         options.makeSureValid();
         return options;
     }
 
+    private static int parsePort(String port) throws OptionsException {
+        try {
+            return Integer.parseInt(port);
+        } catch (NumberFormatException e) {
+            throw new OptionsException("Illegal server port: " + port);
+        }
+    }
+
     public String getLibicPath() {
         return libicPath;
     }
 
+    /**
+     * @return the first IC file (or directory) given, or null if there is none
+     */
     public String getICFile() {
-        return icFile;
+        return icFiles.isEmpty() ? null : icFiles.get(0);
+    }
+
+    /**
+     * @return all the IC files and directories given, in order
+     */
+    public List<String> getICFiles() {
+        return Collections.unmodifiableList(icFiles);
+    }
+
+    /**
+     * @return whether more than one file should be compiled: several files, or a directory, were given
+     */
+    public boolean isBatchMode() {
+        return icFiles.size() > 1 || (icFiles.size() == 1 && new File(icFiles.get(0)).isDirectory());
     }
 
     public boolean isPrintAST() {
         return printAST;
     }
 
+    /**
+     * @return whether the LIR of a program without errors should be printed
+     */
+    public boolean isPrintLIR() {
+        return printLIR;
+    }
+
+    /**
+     * @return whether the control flow graphs of a program without errors should be printed
+     */
+    public boolean isPrintCFG() {
+        return printCFG;
+    }
+
+    /**
+     * @return whether the dataflow facts of the methods of a program without errors should be printed
+     */
+    public boolean isPrintDataflow() {
+        return printDataflow;
+    }
+
+    /**
+     * @return whether the LIR should be optimized before it is printed
+     */
+    public boolean isOptimize() {
+        return optimize;
+    }
+
     public boolean isDumpSymTab() {
         return dumpSymTab;
     }
 
-    private void makeSureValid() {
-        boolean valid = true;
+    /**
+     * @return whether every semantic check should walk the AST on its own, see CompilationSession
+     */
+    public boolean isSeparateChecks() {
+        return separateChecks;
+    }
+
+    /**
+     * @return whether the time and memory every phase took should be printed
+     */
+    public boolean isTimings() {
+        return timings;
+    }
+
+    /**
+     * @return whether the program should be run by the interpreter after it compiles
+     */
+    public boolean isRun() {
+        return run;
+    }
+
+    /**
+     * @return the args given after -run, which main gets
+     */
+    public List<String> getProgramArgs() {
+        return Collections.unmodifiableList(programArgs);
+    }
+
+    /**
+     * @return the jar to write the program to as JVM classes, or null
+     */
+    public String getJarPath() {
+        return jarPath;
+    }
+
+    /**
+     * @return the file to write the program to as x86-64 assembly, or null
+     */
+    public String getAssemblyPath() {
+        return assemblyPath;
+    }
+
+    /**
+     * @return the directory to save library snapshots in, or null for LibrarySnapshot.getDefaultDirectory
+     */
+    public String getSnapshotDirectory() {
+        return snapshotDirectory;
+    }
+
+    public boolean isServerMode() {
+        return serverMode;
+    }
+
+    /**
+     * @return the port the server listens on, or NO_PORT when requests come from stdin
+     */
+    public int getServerPort() {
+        return serverPort;
+    }
+
+    private void makeSureValid() throws OptionsException {
+        StringBuilder problems = new StringBuilder();
         if (libicPath != null) {
             File f = new File(libicPath);
             if (!f.exists()) {
-                System.out.println("Can't find library signature file at path: " + libicPath);
-                valid = false;
+                problems.append("Can't find library signature file at path: ").append(libicPath);
+            }
+        }
+        for (String icFile : icFiles) {
+            File f = new File(icFile);
+            if (!f.exists()) {
+                if (problems.length() > 0) {
+                    problems.append("\n");
+                }
+                problems.append("Can't find source file at path: ").append(icFile);
             }
         }
-        File f = new File(icFile);
-        if (!f.exists()) {
-            System.out.println("Can't find source file at path: " + icFile);
-            valid = false;
+        if (run && (serverMode || isBatchMode())) {
+            if (problems.length() > 0) {
+                problems.append("\n");
+            }
+            problems.append("Can only run a single IC file");
+        }
+        if (jarPath != null && isBatchMode()) {
+            if (problems.length() > 0) {
+                problems.append("\n");
+            }
+            problems.append("Can only write a single IC file to a jar");
+        }
+        if (assemblyPath != null && isBatchMode()) {
+            if (problems.length() > 0) {
+                problems.append("\n");
+            }
+            problems.append("Can only write a single IC file to an assembly file");
         }
-        if (!valid) {
-            handleWrongSyntax();
+        if (problems.length() > 0) {
+            throw new OptionsException(problems.toString());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,11 @@
+package IC;
+
+/**
+ * thrown when the command line (or a compile request) has wrong syntax
+ */
+public class OptionsException extends Exception {
+
+    public OptionsException(String message) {
+        super(message);
+    }
+}
@@ -3,6 +3,7 @@
 package IC.Parser;
 
 import java_cup.runtime.Scanner;
+import IC.Symbols.NameTable;
 
 
 /**
@@ -352,20 +353,86 @@ public class Lexer implements Scanner {
     StringBuffer string = new StringBuffer();
     int stringLine = 0;
     int stringColumn = 0;
+    int stringOffset = 0;
+    // the whole input, when scanning a mapped file
+    java.nio.CharBuffer source;
+    // where identifiers are interned
+    NameTable names = new NameTable();
+
+    /**
+     * Creates a scanner over a memory mapped IC file.
+     *
+     * @param fileName path of the file
+     * @throws java.io.FileNotFoundException if the file can't be opened, like a FileReader
+     */
+    public static Lexer fromFile(String fileName) throws java.io.IOException {
+    	try (java.io.RandomAccessFile file = new java.io.RandomAccessFile(fileName, "r");
+    		java.nio.channels.FileChannel channel = file.getChannel()) {
+    		return new Lexer(channel.map(java.nio.channels.FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    	}
+    }
+
+    /**
+     * Creates a scanner over a whole source at once. The bytes are decoded a single
+     * time into the scan buffer, which then holds all the input, so the scanner never
+     * refills or moves it, and there is no Reader in between.
+     *
+     * @param input the source, ASCII (or else in the default charset)
+     */
+    public Lexer(java.nio.ByteBuffer input) {
+    	this((java.io.Reader) null);
+    	zzBuffer = decode(input);
+    	zzEndRead = zzBuffer.length;
+    	zzAtEOF = true;
+    	source = java.nio.CharBuffer.wrap(zzBuffer).asReadOnlyBuffer();
+    }
+
+    private static char[] decode(java.nio.ByteBuffer input) {
+    	int start = input.position();
+    	char[] chars = new char[input.remaining()];
+    	for (int i = 0; i < chars.length; i++) {
+    		byte b = input.get(start + i);
+    		if (b < 0) {
+    			// Not ASCII, so decode it the way a FileReader would.
+    			java.nio.CharBuffer decoded = java.nio.charset.Charset.defaultCharset().decode(input.duplicate());
+    			chars = new char[decoded.remaining()];
+    			decoded.get(chars);
+    			return chars;
+    		}
+    		chars[i] = (char) b;
+    	}
+    	return chars;
+    }
+
+    /**
+     * @return the whole input if the scanner was created over a ByteBuffer, or null
+     * if it reads from a Reader. Token offsets are offsets into it.
+     */
+    public CharSequence getSource() {
+    	return source;
+    }
+
+    /**
+     * Makes the scanner intern identifiers in the given table, e.g. the table of a
+     * compilation that already holds the library's names, instead of its own.
+     */
+    public void setNameTable(NameTable names) {
+    	this.names = names;
+    }
 
     public int getLine() { return yyline+1; }
     
     private Token NewToken(int type)
     {
-    	return new Token(type, yyline+1, yycolumn+1, yytext());
+    	return new Token(type, yyline+1, yycolumn+1, yychar, yylength());
     }
 
     private Token NewToken(int type, Object value, String tag)
     {
     	if (type == sym.QUOTE)
-    		return new Token(type, stringLine, stringColumn, value, tag);
+    		return new Token(type, stringLine, stringColumn, stringOffset, yychar + yylength() - stringOffset, value, tag);
     	else
-    		return new Token(type, yyline+1, yycolumn+1, value, tag);
+    		return new Token(type, yyline+1, yycolumn+1, yychar, yylength(), value, tag);
     }
     
     public int GetLineNumber()
@@ -639,6 +706,8 @@ public class Lexer implements Scanner {
     while (true) {
       zzMarkedPosL = zzMarkedPos;
 
+      yychar+= zzMarkedPosL-zzStartRead;
+
       boolean zzR = false;
       int zzCh;
       int zzCharCount;
@@ -765,11 +834,11 @@ public class Lexer implements Scanner {
           }
         case 66: break;
         case 3: 
-          { return NewToken(sym.ID, yytext(), "ID");
+          { return NewToken(sym.ID, names.intern(yytext()), "ID");
           }
         case 67: break;
         case 4: 
-          { return NewToken(sym.CLASS_ID, yytext(), "CLASS_ID");
+          { return NewToken(sym.CLASS_ID, names.intern(yytext()), "CLASS_ID");
           }
         case 68: break;
         case 5: 
@@ -849,7 +918,7 @@ public class Lexer implements Scanner {
           }
         case 87: break;
         case 24: 
-          { string.setLength(0); stringLine = yyline+1; stringColumn = yycolumn + 1; yybegin(STRING);
+          { string.setLength(0); stringLine = yyline+1; stringColumn = yycolumn + 1; stringOffset = yychar; yybegin(STRING);
           }
         case 88: break;
         case 25: 
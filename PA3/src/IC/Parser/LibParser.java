@@ -1,7 +1,7 @@
 
 //----------------------------------------------------
 // The following code was generated by CUP v0.11a beta 20060608
-// Sat Mar 28 23:54:25 IDT 2015
+// Sun Oct 18 20:39:47 UTC 2026
 //----------------------------------------------------
 
 package IC.Parser;
@@ -9,11 +9,12 @@ package IC.Parser;
 import IC.Parser.Token;
 import java_cup.runtime.*;
 import IC.AST.*;
+import IC.Symbols.Name;
 import java.util.List;
 import java.util.ArrayList;
 
 /** CUP v0.11a beta 20060608 generated parser.
-  * @version Sat Mar 28 23:54:25 IDT 2015
+  * @version Sun Oct 18 20:39:47 UTC 2026
   */
 public class LibParser extends java_cup.runtime.lr_parser {
 
@@ -128,7 +129,7 @@ public class LibParser extends java_cup.runtime.lr_parser {
     }
 
 
-	/** Causes the parsr to print every token it reads.
+	/** Causes the parser to print every token it reads.
 	 * This is useful for debugging.
 	 */
 	public boolean printTokens;
@@ -190,8 +191,8 @@ class CUP$LibParser$actions {
 		Type t = (Type)((java_cup.runtime.Symbol) CUP$LibParser$stack.elementAt(CUP$LibParser$top-1)).value;
 		int fNameleft = ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()).left;
 		int fNameright = ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()).right;
-		String fName = (String)((java_cup.runtime.Symbol) CUP$LibParser$stack.peek()).value;
-		 RESULT = new Formal(t, fName.toString()); 
+		Name fName = (Name)((java_cup.runtime.Symbol) CUP$LibParser$stack.peek()).value;
+		 RESULT = new Formal(t, fName); 
               CUP$LibParser$result = parser.getSymbolFactory().newSymbol("formal",6, ((java_cup.runtime.Symbol)CUP$LibParser$stack.elementAt(CUP$LibParser$top-1)), ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()), RESULT);
             }
           return CUP$LibParser$result;
@@ -262,8 +263,8 @@ class CUP$LibParser$actions {
               Type RESULT =null;
 		int cleft = ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()).left;
 		int cright = ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()).right;
-		String c = (String)((java_cup.runtime.Symbol) CUP$LibParser$stack.peek()).value;
-		 RESULT = new UserType(cleft, c.toString()); 
+		Name c = (Name)((java_cup.runtime.Symbol) CUP$LibParser$stack.peek()).value;
+		 RESULT = new UserType(cleft, c); 
               CUP$LibParser$result = parser.getSymbolFactory().newSymbol("type",7, ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()), ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()), RESULT);
             }
           return CUP$LibParser$result;
@@ -274,7 +275,7 @@ class CUP$LibParser$actions {
               Type RESULT =null;
 		int strKeyleft = ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()).left;
 		int strKeyright = ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()).right;
-		Object strKey = ((Symbol) CUP$LibParser$stack.peek()).value;
+		Object strKey = (Object)((java_cup.runtime.Symbol) CUP$LibParser$stack.peek()).value;
 		 RESULT = new PrimitiveType(strKeyleft, IC.DataTypes.STRING); 
               CUP$LibParser$result = parser.getSymbolFactory().newSymbol("type",7, ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()), ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()), RESULT);
             }
@@ -286,7 +287,7 @@ class CUP$LibParser$actions {
               Type RESULT =null;
 		int boolKeyleft = ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()).left;
 		int boolKeyright = ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()).right;
-		Object boolKey = ((Symbol) CUP$LibParser$stack.peek()).value;
+		Object boolKey = (Object)((java_cup.runtime.Symbol) CUP$LibParser$stack.peek()).value;
 		 RESULT = new PrimitiveType(boolKeyleft, IC.DataTypes.BOOLEAN); 
               CUP$LibParser$result = parser.getSymbolFactory().newSymbol("type",7, ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()), ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()), RESULT);
             }
@@ -298,7 +299,7 @@ class CUP$LibParser$actions {
               Type RESULT =null;
 		int intKeyleft = ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()).left;
 		int intKeyright = ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()).right;
-		Object intKey = ((Symbol) CUP$LibParser$stack.peek()).value;
+		Object intKey = (Object)((java_cup.runtime.Symbol) CUP$LibParser$stack.peek()).value;
 		 RESULT = new PrimitiveType(intKeyleft, IC.DataTypes.INT); 
               CUP$LibParser$result = parser.getSymbolFactory().newSymbol("type",7, ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()), ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()), RESULT);
             }
@@ -334,7 +335,7 @@ class CUP$LibParser$actions {
               Type RESULT =null;
 		int vleft = ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()).left;
 		int vright = ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()).right;
-		Object v = ((Symbol) CUP$LibParser$stack.peek()).value;
+		Object v = (Object)((java_cup.runtime.Symbol) CUP$LibParser$stack.peek()).value;
 		 RESULT = new PrimitiveType(vleft, IC.DataTypes.VOID); 
               CUP$LibParser$result = parser.getSymbolFactory().newSymbol("method_type",8, ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()), ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()), RESULT);
             }
@@ -349,11 +350,11 @@ class CUP$LibParser$actions {
 		Type mt = (Type)((java_cup.runtime.Symbol) CUP$LibParser$stack.elementAt(CUP$LibParser$top-5)).value;
 		int idleft = ((java_cup.runtime.Symbol)CUP$LibParser$stack.elementAt(CUP$LibParser$top-4)).left;
 		int idright = ((java_cup.runtime.Symbol)CUP$LibParser$stack.elementAt(CUP$LibParser$top-4)).right;
-		String id = (String)((java_cup.runtime.Symbol) CUP$LibParser$stack.elementAt(CUP$LibParser$top-4)).value;
+		Name id = (Name)((java_cup.runtime.Symbol) CUP$LibParser$stack.elementAt(CUP$LibParser$top-4)).value;
 		int flleft = ((java_cup.runtime.Symbol)CUP$LibParser$stack.elementAt(CUP$LibParser$top-2)).left;
 		int flright = ((java_cup.runtime.Symbol)CUP$LibParser$stack.elementAt(CUP$LibParser$top-2)).right;
 		List<Formal> fl = (List<Formal>)((java_cup.runtime.Symbol) CUP$LibParser$stack.elementAt(CUP$LibParser$top-2)).value;
-		 RESULT = new LibraryMethod(mt, id.toString(), fl); 
+		 RESULT = new LibraryMethod(mt, id, fl); 
               CUP$LibParser$result = parser.getSymbolFactory().newSymbol("libmethod",1, ((java_cup.runtime.Symbol)CUP$LibParser$stack.elementAt(CUP$LibParser$top-6)), ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()), RESULT);
             }
           return CUP$LibParser$result;
@@ -402,14 +403,14 @@ class CUP$LibParser$actions {
               ICClass RESULT =null;
 		int ckleft = ((java_cup.runtime.Symbol)CUP$LibParser$stack.elementAt(CUP$LibParser$top-4)).left;
 		int ckright = ((java_cup.runtime.Symbol)CUP$LibParser$stack.elementAt(CUP$LibParser$top-4)).right;
-		Object ck = ((Symbol) CUP$LibParser$stack.elementAt(CUP$LibParser$top-4)).value;
+		Object ck = (Object)((java_cup.runtime.Symbol) CUP$LibParser$stack.elementAt(CUP$LibParser$top-4)).value;
 		int cidleft = ((java_cup.runtime.Symbol)CUP$LibParser$stack.elementAt(CUP$LibParser$top-3)).left;
 		int cidright = ((java_cup.runtime.Symbol)CUP$LibParser$stack.elementAt(CUP$LibParser$top-3)).right;
-		String cid = (String)((java_cup.runtime.Symbol) CUP$LibParser$stack.elementAt(CUP$LibParser$top-3)).value;
+		Name cid = (Name)((java_cup.runtime.Symbol) CUP$LibParser$stack.elementAt(CUP$LibParser$top-3)).value;
 		int mlleft = ((java_cup.runtime.Symbol)CUP$LibParser$stack.elementAt(CUP$LibParser$top-1)).left;
 		int mlright = ((java_cup.runtime.Symbol)CUP$LibParser$stack.elementAt(CUP$LibParser$top-1)).right;
 		List<Method> ml = (List<Method>)((java_cup.runtime.Symbol) CUP$LibParser$stack.elementAt(CUP$LibParser$top-1)).value;
-		 RESULT = new ICClass(ckleft, cid.toString(), new ArrayList<Field>(), ml); 
+		 RESULT = new ICClass(ckleft, cid, new ArrayList<Field>(), ml); 
               CUP$LibParser$result = parser.getSymbolFactory().newSymbol("libic",0, ((java_cup.runtime.Symbol)CUP$LibParser$stack.elementAt(CUP$LibParser$top-4)), ((java_cup.runtime.Symbol)CUP$LibParser$stack.peek()), RESULT);
             }
           return CUP$LibParser$result;
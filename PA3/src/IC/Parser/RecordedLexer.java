@@ -0,0 +1,71 @@
+package IC.Parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A Lexer that replays the tokens of a source that was already scanned, so that
+ * scanning and parsing can run (and be timed) one after the other.
+ * A lexical error is thrown when the parser asks for the token it stopped at, like
+ * the Lexer would do.
+ */
+public class RecordedLexer extends Lexer {
+    private final List<Token> tokens;
+    private final LexicalError error;
+    private int next = 0;
+
+    private RecordedLexer(List<Token> tokens, LexicalError error) {
+        super((Reader) null);
+        this.tokens = tokens;
+        this.error = error;
+    }
+
+    /**
+     * scans all the tokens of the lexer
+     *
+     * @param lexer a new lexer
+     * @return a lexer with the tokens
+     * @throws IOException
+     */
+    public static RecordedLexer record(Lexer lexer) throws IOException {
+        List<Token> tokens = new ArrayList<>();
+        try {
+            Token token;
+            do {
+                token = lexer.next_token();
+                tokens.add(token);
+            } while (token.sym != sym.EOF);
+        } catch (LexicalError e) {
+            return new RecordedLexer(tokens, e);
+        }
+        return new RecordedLexer(tokens, null);
+    }
+
+    /**
+     * @return the number of tokens, including EOF
+     */
+    public int getTokenCount() {
+        return tokens.size();
+    }
+
+    @Override
+    public Token next_token() throws LexicalError {
+        if (next == tokens.size()) {
+            if (error != null) {
+                throw error;
+            }
+            // The parser may read past EOF, and rejects a token it has seen before,
+            // so every read gets a new EOF like from the Lexer.
+            Token eof = tokens.get(tokens.size() - 1);
+            return new Token(eof.sym, eof.getLine(), eof.getColumn(), eof.getOffset(), eof.getLength());
+        }
+        return tokens.get(next++);
+    }
+
+    @Override
+    public int getLine() {
+        return next == 0 ? 1 : tokens.get(next - 1).getLine();
+    }
+}
@@ -13,6 +13,8 @@ public class Token extends Symbol {
     private int id;
     private int line;
     private int column;
+    private int offset;
+    private int length;
     private String value;
 
     public String getTag() {
@@ -47,6 +49,24 @@ public class Token extends Symbol {
         this.tag = tag;
     }
 
+    /**
+     * a token without a value (keyword, operator, etc.), which is known by its text
+     * in the source
+     */
+    public Token(int id, int line, int column, int offset, int length)
+    {
+        this(id, line, column);
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public Token(int id, int line, int column, int offset, int length, Object val, String tag)
+    {
+        this(id, line, column, val, tag);
+        this.offset = offset;
+        this.length = length;
+    }
+
 
     /**
      * @return line number
@@ -63,6 +83,20 @@ public class Token extends Symbol {
         return column;
     }
 
+    /**
+     * @return index of the first character of the token in the source
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return number of characters of the token in the source
+     */
+    public int getLength() {
+        return length;
+    }
+
     /**
      *
      * @return input string value
@@ -0,0 +1,302 @@
+package IC;
+
+import IC.AST.ASTNode;
+import IC.AST.NodeCounter;
+import IC.Events.CompilerPhaseEvent;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wall time, CPU time and allocated bytes of every phase of a single compilation,
+ * and the sizes of what the phases built (-Xtimings).
+ * A compilation runs on a single thread, so the CPU time and the allocations of the
+ * current thread are those of the phase.
+ * Every phase is also a CompilerPhaseEvent, which Flight Recorder records whether or
+ * not the timings are enabled.
+ */
+public class PhaseTimings {
+    /**
+     * the value of a measurement the JVM doesn't support
+     */
+    public static final long UNAVAILABLE = -1;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final String fileName;
+    private final boolean enabled;
+    private final List<Phase> phases = new ArrayList<>();
+    private final Map<String, Long> counts = new LinkedHashMap<>();
+
+    private String currentName;
+    private ASTNode currentTree;
+    private CompilerPhaseEvent currentEvent;
+    private ASTNode countedTree;
+    private int countedNodes;
+    private long startWall;
+    private long startCpu;
+    private long startAllocated;
+
+    /**
+     * @param fileName the compiled file
+     * @param enabled when false, nothing is measured, only the events are recorded
+     */
+    public PhaseTimings(String fileName, boolean enabled) {
+        this.fileName = fileName;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * starts measuring a phase, which lasts until end is called
+     *
+     * @param name the name of the phase
+     */
+    public void begin(String name) {
+        begin(name, null);
+    }
+
+    /**
+     * starts measuring a phase that runs on an AST, which lasts until end is called
+     *
+     * @param name the name of the phase
+     * @param tree the AST, or null if the phase runs before there is one
+     */
+    public void begin(String name, ASTNode tree) {
+        currentName = name;
+        currentTree = tree;
+        currentEvent = new CompilerPhaseEvent();
+        currentEvent.begin();
+        if (!enabled) {
+            return;
+        }
+        startAllocated = allocatedBytes();
+        startCpu = cpuNanos();
+        startWall = System.nanoTime();
+    }
+
+    /**
+     * ends the phase begun last
+     */
+    public void end() {
+        end(0);
+    }
+
+    /**
+     * ends the phase begun last
+     *
+     * @param errors the number of errors the phase found
+     */
+    public void end(int errors) {
+        if (currentName == null) {
+            return;
+        }
+        currentEvent.end();
+        if (enabled) {
+            long wall = System.nanoTime() - startWall;
+            long cpu = cpuNanos();
+            long allocated = allocatedBytes();
+            phases.add(new Phase(currentName,
+                wall,
+                cpu == UNAVAILABLE ? UNAVAILABLE : cpu - startCpu,
+                allocated == UNAVAILABLE ? UNAVAILABLE : allocated - startAllocated));
+        }
+        // The event is only filled in after the measurements, counting nodes takes time.
+        if (currentEvent.shouldCommit()) {
+            currentEvent.file = fileName;
+            currentEvent.phase = currentName;
+            currentEvent.nodes = countNodes(currentTree);
+            currentEvent.errors = errors;
+            currentEvent.commit();
+        }
+        currentName = null;
+        currentTree = null;
+        currentEvent = null;
+    }
+
+    /**
+     * @return the number of nodes in the tree; consecutive phases usually run on
+     * the same tree, so it's only counted once
+     */
+    private int countNodes(ASTNode tree) {
+        if (tree == null) {
+            return 0;
+        }
+        if (tree != countedTree) {
+            countedNodes = NodeCounter.count(tree);
+            countedTree = tree;
+        }
+        return countedNodes;
+    }
+
+    /**
+     * records the size of something a phase built, e.g. the number of AST nodes
+     */
+    public void count(String name, long value) {
+        if (enabled) {
+            counts.put(name, value);
+        }
+    }
+
+    public List<Phase> getPhases() {
+        return Collections.unmodifiableList(phases);
+    }
+
+    public Map<String, Long> getCounts() {
+        return Collections.unmodifiableMap(counts);
+    }
+
+    private static long cpuNanos() {
+        if (!THREADS.isCurrentThreadCpuTimeSupported()) {
+            return UNAVAILABLE;
+        }
+        return THREADS.getCurrentThreadCpuTime();
+    }
+
+    private static long allocatedBytes() {
+        if (!(THREADS instanceof com.sun.management.ThreadMXBean)) {
+            return UNAVAILABLE;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+        if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+            return UNAVAILABLE;
+        }
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @return the phases and counts as a table
+     */
+    public String toTable() {
+        // The label column is 24 characters wide, or as wide as the longest name.
+        int width = 24;
+        for (Phase phase : phases) {
+            width = Math.max(width, phase.getName().length());
+        }
+        for (String count : counts.keySet()) {
+            width = Math.max(width, count.length());
+        }
+        String row = "%-" + width + "s %12s %12s %14s%n";
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format(row, "Phase", "Wall (ms)", "CPU (ms)", "Allocated (KB)"));
+        long totalWall = 0;
+        long totalCpu = 0;
+        long totalAllocated = 0;
+        for (Phase phase : phases) {
+            builder.append(String.format(row, phase.getName(),
+                millis(phase.getWallNanos()), millis(phase.getCpuNanos()), kilobytes(phase.getAllocatedBytes())));
+            totalWall += phase.getWallNanos();
+            totalCpu = add(totalCpu, phase.getCpuNanos());
+            totalAllocated = add(totalAllocated, phase.getAllocatedBytes());
+        }
+        builder.append(String.format(row, "total",
+            millis(totalWall), millis(totalCpu), kilobytes(totalAllocated)));
+        for (Map.Entry<String, Long> count : counts.entrySet()) {
+            builder.append(String.format("%-" + width + "s %12d%n", count.getKey(), count.getValue()));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return the phases and counts as a single line of JSON
+     */
+    public String toJson() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("{\"file\":").append(jsonString(fileName)).append(",\"phases\":[");
+        for (int i = 0; i < phases.size(); i++) {
+            Phase phase = phases.get(i);
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"name\":").append(jsonString(phase.getName()))
+                .append(",\"wallNanos\":").append(phase.getWallNanos())
+                .append(",\"cpuNanos\":").append(phase.getCpuNanos())
+                .append(",\"allocatedBytes\":").append(phase.getAllocatedBytes())
+                .append('}');
+        }
+        builder.append("],\"counts\":{");
+        boolean first = true;
+        for (Map.Entry<String, Long> count : counts.entrySet()) {
+            if (!first) {
+                builder.append(',');
+            }
+            first = false;
+            builder.append(jsonString(count.getKey())).append(':').append(count.getValue());
+        }
+        return builder.append("}}").toString();
+    }
+
+    private static long add(long total, long value) {
+        return total == UNAVAILABLE || value == UNAVAILABLE ? UNAVAILABLE : total + value;
+    }
+
+    private static String millis(long nanos) {
+        return nanos == UNAVAILABLE ? "n/a" : String.format("%.3f", nanos / 1e6);
+    }
+
+    private static String kilobytes(long bytes) {
+        return bytes == UNAVAILABLE ? "n/a" : String.format("%.1f", bytes / 1024.0);
+    }
+
+    private static String jsonString(String value) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20) {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    /**
+     * the measurements of a single phase
+     */
+    public static class Phase {
+        private final String name;
+        private final long wallNanos;
+        private final long cpuNanos;
+        private final long allocatedBytes;
+
+        Phase(String name, long wallNanos, long cpuNanos, long allocatedBytes) {
+            this.name = name;
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        /**
+         * @return CPU time of the compiling thread, or UNAVAILABLE
+         */
+        public long getCpuNanos() {
+            return cpuNanos;
+        }
+
+        /**
+         * @return bytes allocated by the compiling thread, or UNAVAILABLE
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package IC.SSA;
+
+import IC.CFG.ControlFlowGraph;
+import IC.LIR.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dominator based value numbering (Briggs, Cooper and Simpson, "Value Numbering")
+ * on a method in SSA form. Walking the dominator tree, an instruction that
+ * computes what an instruction in a dominating block already computed is removed,
+ * and its register is replaced by the earlier one. Moves are propagated the same
+ * way, and so are phis whose operands are all the same value.
+ *
+ * Arithmetic, comparisons and array lengths are numbered, since they only
+ * depend on their operands (arrays never change their length). Concatenations
+ * aren't: each creates a new string, and == compares strings by reference. Runtime checks
+ * are numbered too: a check that a dominating check already passed always
+ * passes, which removes the repeated null and bounds checks of array accesses.
+ * Loads aren't numbered, since a store or a call may change what they read.
+ */
+public class GlobalValueNumbering {
+    private final SSAForm form;
+    private final ControlFlowGraph graph;
+    // The value of every removed register, or null.
+    private final Operand[] replacements;
+    private final Map<Key, Operand> available = new HashMap<>();
+    private int removed = 0;
+
+    private GlobalValueNumbering(SSAForm form) {
+        this.form = form;
+        this.graph = form.getGraph();
+        this.replacements = new Operand[form.getMethod().getRegisterCount()];
+    }
+
+    /**
+     * @return the number of instructions and phis removed
+     */
+    public static int run(SSAForm form) {
+        GlobalValueNumbering numbering = new GlobalValueNumbering(form);
+        numbering.number();
+        numbering.removeMeaninglessPhis();
+        numbering.replaceOperands();
+        return numbering.removed;
+    }
+
+    private void number() {
+        // The expressions each block made available, to forget when leaving it.
+        List<List<Key>> added = new ArrayList<>(graph.getBlockCount());
+        for (int block = 0; block < graph.getBlockCount(); block++) {
+            added.add(null);
+        }
+        // A block is pushed to be entered, and its complement to be left.
+        int[] walk = new int[2 * graph.getBlockCount() + 1];
+        int depth = 0;
+        if (graph.getBlockCount() > 0) {
+            walk[depth++] = 0;
+        }
+        while (depth > 0) {
+            int block = walk[--depth];
+            if (block < 0) {
+                for (Key key : added.get(~block)) {
+                    available.remove(key);
+                }
+                added.set(~block, null);
+                continue;
+            }
+            List<Key> keys = new ArrayList<>();
+            added.set(block, keys);
+            numberPhis(block, keys);
+            numberInstructions(block, keys);
+            walk[depth++] = ~block;
+            for (int child : graph.getDominatorTreeChildren(block)) {
+                walk[depth++] = child;
+            }
+        }
+    }
+
+    private void numberPhis(int block, List<Key> keys) {
+        for (Iterator<Phi> phis = form.getPhis(block).iterator(); phis.hasNext(); ) {
+            Phi phi = phis.next();
+            Operand[] operands = resolveOperands(phi);
+            Operand same = getSameOperand(phi, operands);
+            if (same != null) {
+                replace(phi.getDefinedRegister(), same);
+                phis.remove();
+                continue;
+            }
+            // Phis of a block with the same operands have the same value.
+            if (reuse(new Key("phi" + block, operands), phi, keys)) {
+                phis.remove();
+            }
+        }
+    }
+
+    private void numberInstructions(int block, List<Key> keys) {
+        for (Iterator<Instruction> instructions = form.getInstructions(block).iterator(); instructions.hasNext(); ) {
+            Instruction instruction = instructions.next();
+            for (int i = 0; i < instruction.getOperandCount(); i++) {
+                instruction.setOperand(i, resolve(instruction.getOperand(i)));
+            }
+            if (instruction instanceof Move) {
+                replace(instruction.getDefinedRegister(), ((Move) instruction).getSource());
+                instructions.remove();
+                continue;
+            }
+            Key key = getKey(instruction);
+            if (key != null && reuse(key, instruction, keys)) {
+                instructions.remove();
+            }
+        }
+    }
+
+    /**
+     * @return whether the value is already available, in which case the
+     * instruction computing it again is replaced
+     */
+    private boolean reuse(Key key, Instruction instruction, List<Key> keys) {
+        Operand value = available.get(key);
+        if (value == null) {
+            // A check has no value, only the fact that it passed.
+            available.put(key, instruction.getDefinedRegister() == null ? Constant.TRUE : instruction.getDefinedRegister());
+            keys.add(key);
+            return false;
+        }
+        if (instruction.getDefinedRegister() != null) {
+            replace(instruction.getDefinedRegister(), value);
+        } else {
+            removed++;
+        }
+        return true;
+    }
+
+    private static Key getKey(Instruction instruction) {
+        if (instruction instanceof Binary) {
+            Binary binary = (Binary) instruction;
+            if (binary.getOperator().allocates()) {
+                return null;
+            }
+            Operand left = binary.getLeft();
+            Operand right = binary.getRight();
+            if (binary.getOperator().isCommutative() && right.hashCode() < left.hashCode()) {
+                left = binary.getRight();
+                right = binary.getLeft();
+            }
+            return new Key(binary.getOperator(), left, right);
+        }
+        if (instruction instanceof Unary) {
+            return new Key(((Unary) instruction).getOperator(), instruction.getOperand(0));
+        }
+        if (instruction instanceof ArrayLength) {
+            return new Key("length", instruction.getOperand(0));
+        }
+        if (instruction instanceof RuntimeCheck) {
+            return new Key(((RuntimeCheck) instruction).getKind(), operandsOf(instruction));
+        }
+        return null;
+    }
+
+    private static Operand[] operandsOf(Instruction instruction) {
+        Operand[] operands = new Operand[instruction.getOperandCount()];
+        for (int i = 0; i < operands.length; i++) {
+            operands[i] = instruction.getOperand(i);
+        }
+        return operands;
+    }
+
+    private Operand[] resolveOperands(Instruction instruction) {
+        Operand[] operands = operandsOf(instruction);
+        for (int i = 0; i < operands.length; i++) {
+            operands[i] = resolve(operands[i]);
+        }
+        return operands;
+    }
+
+    /**
+     * @return the operand all the operands of the phi are, not counting the phi
+     * itself, or null if they differ
+     */
+    private static Operand getSameOperand(Phi phi, Operand[] operands) {
+        Operand same = null;
+        for (Operand operand : operands) {
+            if (operand == phi.getDefinedRegister() || operand.equals(same)) {
+                continue;
+            }
+            if (same != null) {
+                return null;
+            }
+            same = operand;
+        }
+        return same;
+    }
+
+    private void replace(Register register, Operand value) {
+        replacements[register.getIndex()] = value;
+        removed++;
+    }
+
+    private Operand resolve(Operand operand) {
+        if (!operand.isRegister()) {
+            return operand;
+        }
+        Operand value = operand;
+        while (value.isRegister() && replacements[((Register) value).getIndex()] != null) {
+            value = replacements[((Register) value).getIndex()];
+        }
+        if (value != operand) {
+            // Path compression, chains of moves are common.
+            replacements[((Register) operand).getIndex()] = value;
+        }
+        return value;
+    }
+
+    /**
+     * removes the phis that turned out to merge a single value once the operands
+     * of loops were numbered too
+     */
+    private void removeMeaninglessPhis() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int block = 0; block < graph.getBlockCount(); block++) {
+                for (Iterator<Phi> phis = form.getPhis(block).iterator(); phis.hasNext(); ) {
+                    Phi phi = phis.next();
+                    Operand same = getSameOperand(phi, resolveOperands(phi));
+                    if (same != null) {
+                        replace(phi.getDefinedRegister(), same);
+                        phis.remove();
+                        changed = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private void replaceOperands() {
+        for (int block = 0; block < graph.getBlockCount(); block++) {
+            for (Phi phi : form.getPhis(block)) {
+                for (int i = 0; i < phi.getOperandCount(); i++) {
+                    phi.setOperand(i, resolve(phi.getOperand(i)));
+                }
+            }
+            for (Instruction instruction : form.getInstructions(block)) {
+                for (int i = 0; i < instruction.getOperandCount(); i++) {
+                    instruction.setOperand(i, resolve(instruction.getOperand(i)));
+                }
+            }
+        }
+    }
+
+    /**
+     * what an instruction computes: an operation and its operands, which are
+     * registers (by identity) and constants (by value)
+     */
+    private static class Key {
+        private final Object operation;
+        private final Operand[] operands;
+
+        Key(Object operation, Operand... operands) {
+            this.operation = operation;
+            this.operands = operands;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return operation.equals(other.operation) && Arrays.equals(operands, other.operands);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * operation.hashCode() + Arrays.hashCode(operands);
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package IC.SSA;
+
+import IC.CFG.ControlFlowGraph;
+import IC.Dataflow.LiveVariables;
+import IC.LIR.*;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A method in SSA form: every register is assigned once, and where the values of
+ * a variable meet, a Phi assigns the value of the predecessor control came from.
+ *
+ * Construction follows Cytron et al., "Efficiently Computing Static Single
+ * Assignment Form and the Control Dependence Graph": phis are placed on the
+ * iterated dominance frontiers of the assignments of a variable, where it is live
+ * (pruned SSA), and the uses are renamed in a walk of the dominator tree. Every
+ * variable and parameter register is renamed, and so is every temporary that is
+ * assigned more than once; a read before any assignment reads the default value.
+ *
+ * The blocks are kept as lists, with the phis apart, so passes on the form can
+ * remove and replace instructions without renumbering anything. The control flow
+ * can't change until destruct writes the instructions back to the method.
+ */
+public class SSAForm {
+    private final LIRMethod method;
+    private final ControlFlowGraph graph;
+    private final List<List<Phi>> phis;
+    private final List<List<Instruction>> blocks;
+
+    private SSAForm(LIRMethod method, ControlFlowGraph graph) {
+        this.method = method;
+        this.graph = graph;
+        this.phis = new ArrayList<>(graph.getBlockCount());
+        this.blocks = new ArrayList<>(graph.getBlockCount());
+        for (int block = 0; block < graph.getBlockCount(); block++) {
+            phis.add(new ArrayList<>());
+            blocks.add(new ArrayList<>(graph.getInstructions(block)));
+        }
+    }
+
+    /**
+     * converts a method to SSA form; its instructions are only replaced by destruct
+     */
+    public static SSAForm construct(LIRMethod method) {
+        List<Instruction> instructions = method.getInstructions();
+        if (!instructions.isEmpty() && instructions.get(0) instanceof Label) {
+            // Values that enter the method need a predecessor block to come from
+            // when the first block is a loop.
+            List<Instruction> withEntry = new ArrayList<>(instructions.size() + 1);
+            withEntry.add(new Jump((Label) instructions.get(0)));
+            withEntry.addAll(instructions);
+            method.setInstructions(withEntry);
+        }
+        SSAForm form = new SSAForm(method, ControlFlowGraph.build(method));
+        boolean[] renamed = form.findRenamedRegisters();
+        List<List<Register>> phiVariables = form.placePhis(renamed);
+        form.rename(renamed, phiVariables);
+        return form;
+    }
+
+    private boolean[] findRenamedRegisters() {
+        int[] assignments = new int[method.getRegisterCount()];
+        for (Instruction instruction : method.getInstructions()) {
+            if (instruction.getDefinedRegister() != null) {
+                assignments[instruction.getDefinedRegister().getIndex()]++;
+            }
+        }
+        boolean[] renamed = new boolean[method.getRegisterCount()];
+        for (Register register : method.getRegisters()) {
+            renamed[register.getIndex()] = !register.isTemporary() || assignments[register.getIndex()] > 1;
+        }
+        return renamed;
+    }
+
+    /**
+     * @return the variable of every phi, by block
+     */
+    private List<List<Register>> placePhis(boolean[] renamed) {
+        LiveVariables liveness = LiveVariables.analyze(graph);
+        List<List<Register>> phiVariables = new ArrayList<>(graph.getBlockCount());
+        List<List<Integer>> assigningBlocks = new ArrayList<>(method.getRegisterCount());
+        for (int block = 0; block < graph.getBlockCount(); block++) {
+            phiVariables.add(new ArrayList<>());
+        }
+        for (int register = 0; register < method.getRegisterCount(); register++) {
+            assigningBlocks.add(null);
+        }
+        for (int block : graph.getReversePostorder()) {
+            for (Instruction instruction : blocks.get(block)) {
+                Register defined = instruction.getDefinedRegister();
+                if (defined == null || !renamed[defined.getIndex()]) {
+                    continue;
+                }
+                List<Integer> assigning = assigningBlocks.get(defined.getIndex());
+                if (assigning == null) {
+                    assigning = new ArrayList<>();
+                    assigningBlocks.set(defined.getIndex(), assigning);
+                }
+                if (assigning.isEmpty() || assigning.get(assigning.size() - 1) != block) {
+                    assigning.add(block);
+                }
+            }
+        }
+
+        // Stamped with the variable + 1, so they are cleared for free between variables.
+        int[] hasPhi = new int[graph.getBlockCount()];
+        int[] queued = new int[graph.getBlockCount()];
+        int[] worklist = new int[graph.getBlockCount()];
+        for (Register variable : method.getRegisters()) {
+            List<Integer> assigning = assigningBlocks.get(variable.getIndex());
+            if (assigning == null) {
+                continue;
+            }
+            int stamp = variable.getIndex() + 1;
+            int count = 0;
+            for (int block : assigning) {
+                queued[block] = stamp;
+                worklist[count++] = block;
+            }
+            while (count > 0) {
+                int block = worklist[--count];
+                for (int frontier : graph.getDominanceFrontier(block)) {
+                    if (hasPhi[frontier] == stamp || !liveness.getIn(frontier).get(variable.getIndex())) {
+                        continue;
+                    }
+                    hasPhi[frontier] = stamp;
+                    phis.get(frontier).add(new Phi(variable, new Operand[graph.getPredecessors(frontier).length]));
+                    phiVariables.get(frontier).add(variable);
+                    if (queued[frontier] != stamp) {
+                        queued[frontier] = stamp;
+                        worklist[count++] = frontier;
+                    }
+                }
+            }
+        }
+        return phiVariables;
+    }
+
+    private void rename(boolean[] renamed, List<List<Register>> phiVariables) {
+        int variableCount = method.getRegisterCount();
+        List<List<Operand>> stacks = new ArrayList<>(variableCount);
+        for (int variable = 0; variable < variableCount; variable++) {
+            stacks.add(renamed[variable] ? new ArrayList<>() : null);
+        }
+        for (Register parameter : method.getParameters()) {
+            stacks.get(parameter.getIndex()).add(parameter);
+        }
+        List<Register> registers = new ArrayList<>(method.getRegisters().subList(0, variableCount));
+
+        // The variables assigned in every block on the walk, to pop when leaving it.
+        List<List<Integer>> pushed = new ArrayList<>(graph.getBlockCount());
+        for (int block = 0; block < graph.getBlockCount(); block++) {
+            pushed.add(null);
+        }
+        // A block is pushed to be entered, and its complement to be left.
+        int[] walk = new int[2 * graph.getBlockCount() + 1];
+        int depth = 0;
+        if (graph.getBlockCount() > 0) {
+            walk[depth++] = 0;
+        }
+        while (depth > 0) {
+            int block = walk[--depth];
+            if (block < 0) {
+                for (int variable : pushed.get(~block)) {
+                    List<Operand> stack = stacks.get(variable);
+                    stack.remove(stack.size() - 1);
+                }
+                pushed.set(~block, null);
+                continue;
+            }
+            List<Integer> assigned = new ArrayList<>();
+            pushed.set(block, assigned);
+            List<Phi> blockPhis = phis.get(block);
+            for (int i = 0; i < blockPhis.size(); i++) {
+                Register variable = phiVariables.get(block).get(i);
+                Register version = newVersion(variable);
+                blockPhis.get(i).setDefinedRegister(version);
+                stacks.get(variable.getIndex()).add(version);
+                assigned.add(variable.getIndex());
+            }
+            for (Instruction instruction : blocks.get(block)) {
+                for (int i = 0; i < instruction.getOperandCount(); i++) {
+                    Operand operand = instruction.getOperand(i);
+                    if (operand.isRegister() && renamed[((Register) operand).getIndex()]) {
+                        instruction.setOperand(i, current(stacks, registers, (Register) operand));
+                    }
+                }
+                Register defined = instruction.getDefinedRegister();
+                if (defined != null && renamed[defined.getIndex()]) {
+                    Register version = newVersion(defined);
+                    instruction.setDefinedRegister(version);
+                    stacks.get(defined.getIndex()).add(version);
+                    assigned.add(defined.getIndex());
+                }
+            }
+            for (int successor : graph.getSuccessors(block)) {
+                int index = indexOf(graph.getPredecessors(successor), block);
+                List<Phi> successorPhis = phis.get(successor);
+                for (int i = 0; i < successorPhis.size(); i++) {
+                    Register variable = phiVariables.get(successor).get(i);
+                    successorPhis.get(i).setOperand(index, current(stacks, registers, variable));
+                }
+            }
+            walk[depth++] = ~block;
+            int[] children = graph.getDominatorTreeChildren(block);
+            for (int i = children.length - 1; i >= 0; i--) {
+                walk[depth++] = children[i];
+            }
+        }
+
+        // Phi operands of unreachable predecessors are never used.
+        for (int block = 0; block < graph.getBlockCount(); block++) {
+            for (Phi phi : phis.get(block)) {
+                for (int i = 0; i < phi.getOperandCount(); i++) {
+                    if (phi.getOperand(i) == null) {
+                        phi.setOperand(i, Constant.defaultOf(phi.getDefinedRegister().getType()));
+                    }
+                }
+            }
+        }
+    }
+
+    private Register newVersion(Register variable) {
+        return method.newRegister(variable.getType(), variable.getName());
+    }
+
+    private static Operand current(List<List<Operand>> stacks, List<Register> registers, Register variable) {
+        List<Operand> stack = stacks.get(variable.getIndex());
+        if (stack.isEmpty()) {
+            return Constant.defaultOf(registers.get(variable.getIndex()).getType());
+        }
+        return stack.get(stack.size() - 1);
+    }
+
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Not a predecessor: " + value);
+    }
+
+    public LIRMethod getMethod() {
+        return method;
+    }
+
+    /**
+     * @return the graph of the method when it was converted, whose blocks these are
+     */
+    public ControlFlowGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return the phis at the start of a block, their operands in the order of
+     * its predecessors in the graph
+     */
+    public List<Phi> getPhis(int block) {
+        return phis.get(block);
+    }
+
+    /**
+     * @return the instructions of a block, which can be removed or replaced,
+     * except for labels and jumps
+     */
+    public List<Instruction> getInstructions(int block) {
+        return blocks.get(block);
+    }
+
+    /**
+     * replaces the phis by moves at the end of the predecessors, and writes the
+     * instructions back to the method. An edge from a branch to a block with
+     * phis gets a block of its own for the moves, at the end of the method.
+     * The moves of a block's phis happen at once, so they are ordered to read
+     * every value before it is overwritten.
+     */
+    public void destruct() {
+        Map<Label, Integer> labelBlocks = new IdentityHashMap<>();
+        for (int block = 0; block < graph.getBlockCount(); block++) {
+            for (Instruction instruction : blocks.get(block)) {
+                if (!(instruction instanceof Label)) {
+                    break;
+                }
+                labelBlocks.put((Label) instruction, block);
+            }
+        }
+
+        List<Instruction> splitBlocks = new ArrayList<>();
+        for (int block = 0; block < graph.getBlockCount(); block++) {
+            List<Phi> blockPhis = phis.get(block);
+            if (blockPhis.isEmpty()) {
+                continue;
+            }
+            int[] predecessors = graph.getPredecessors(block);
+            for (int i = 0; i < predecessors.length; i++) {
+                int predecessor = predecessors[i];
+                if (!graph.isReachable(predecessor)) {
+                    continue;
+                }
+                List<Move> copies = new ArrayList<>();
+                for (Phi phi : blockPhis) {
+                    if (phi.getOperand(i) != phi.getDefinedRegister()) {
+                        copies.add(new Move(phi.getDefinedRegister(), phi.getOperand(i)));
+                    }
+                }
+                if (copies.isEmpty()) {
+                    continue;
+                }
+                List<Instruction> moves = sequentialize(copies);
+                // A block without a jump may have lost all its instructions.
+                List<Instruction> instructions = blocks.get(predecessor);
+                Instruction last = instructions.isEmpty() ? null : instructions.get(instructions.size() - 1);
+                if (graph.getSuccessors(predecessor).length == 1) {
+                    instructions.addAll(last != null && last.isTerminator() ? instructions.size() - 1 : instructions.size(), moves);
+                    continue;
+                }
+                // A critical edge: the moves can't be on the way to the other successors.
+                Label target = (Label) blocks.get(block).get(0);
+                Label split = method.newLabel();
+                Branch branch = (Branch) last;
+                if (labelBlocks.get(branch.getIfTrue()) == block) {
+                    branch.setIfTrue(split);
+                } else {
+                    branch.setIfFalse(split);
+                }
+                splitBlocks.add(split);
+                splitBlocks.addAll(moves);
+                splitBlocks.add(new Jump(target));
+            }
+            blockPhis.clear();
+        }
+
+        List<Instruction> instructions = new ArrayList<>();
+        for (List<Instruction> block : blocks) {
+            instructions.addAll(block);
+        }
+        instructions.addAll(splitBlocks);
+        method.setInstructions(instructions);
+    }
+
+    /**
+     * orders moves that happen at once: a move waits while its target is still to
+     * be read, and a cycle of moves is broken with a temporary
+     */
+    private List<Instruction> sequentialize(List<Move> copies) {
+        List<Instruction> moves = new ArrayList<>();
+        List<Move> pending = new ArrayList<>(copies);
+        while (!pending.isEmpty()) {
+            boolean progress = false;
+            for (int i = 0; i < pending.size(); i++) {
+                Move copy = pending.get(i);
+                if (!isRead(pending, copy.getDefinedRegister(), copy)) {
+                    moves.add(copy);
+                    pending.remove(i--);
+                    progress = true;
+                }
+            }
+            if (!progress) {
+                // Every target is still to be read: save one and read the copy instead.
+                Move copy = pending.get(0);
+                Register saved = method.newTemporary(copy.getDefinedRegister().getType());
+                moves.add(new Move(saved, copy.getDefinedRegister()));
+                for (Move other : pending) {
+                    if (other.getSource() == copy.getDefinedRegister()) {
+                        other.setOperand(0, saved);
+                    }
+                }
+            }
+        }
+        return moves;
+    }
+
+    private static boolean isRead(List<Move> copies, Register register, Move except) {
+        for (Move copy : copies) {
+            if (copy != except && copy.getSource() == register) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(method.getReference()).append(" (SSA)\n");
+        for (int block = 0; block < graph.getBlockCount(); block++) {
+            builder.append("  B").append(block).append('\n');
+            for (Phi phi : phis.get(block)) {
+                builder.append("    ").append(phi).append('\n');
+            }
+            for (Instruction instruction : blocks.get(block)) {
+                builder.append(instruction instanceof Label ? "  " : "    ").append(instruction).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+}
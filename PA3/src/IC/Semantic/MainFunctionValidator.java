@@ -25,6 +25,16 @@ public class MainFunctionValidator implements Visitor {
                 lineNumberWithSecondMain = lineNumberOfClassMainMethod;
             }
         }
+        return checkMainCount(program, classesWithMain, lineNumberWithSecondMain);
+    }
+
+    /**
+     * @param program the program
+     * @param classesWithMain descriptions of the classes that have a main method, in order
+     * @param lineNumberWithSecondMain line of the main method of the last of these classes
+     * @return the error, or null if there is exactly one main method
+     */
+    static SemanticError checkMainCount(Program program, List<String> classesWithMain, int lineNumberWithSecondMain) {
         if (classesWithMain.size() > 1) {
             return new SemanticError("More than one class has 'main' function: " + StringUtils.joinStrings(classesWithMain), lineNumberWithSecondMain);
         }
@@ -58,24 +68,28 @@ public class MainFunctionValidator implements Visitor {
 
     @Override
     public Integer visit(StaticMethod method) {
+        return isMainMethod(method) ? method.getLine() : -1;
+    }
+
+    /**
+     * @return whether the method is "static void main(string[])"
+     */
+    static boolean isMainMethod(StaticMethod method) {
         if (!method.getName().equals("main")) {
-            return -1;
+            return false;
         }
         if (!(method.getType() instanceof PrimitiveType)) {
-            return -1;
+            return false;
         }
         PrimitiveType returnType = (PrimitiveType) method.getType();
         if (returnType.getDataType() != DataTypes.VOID) {
-            return -1;
+            return false;
         }
         if (method.getFormals().size() != 1 || !(method.getFormals().get(0).getType() instanceof PrimitiveType)) {
-            return -1;
+            return false;
         }
         PrimitiveType formalType = (PrimitiveType) method.getFormals().get(0).getType();
-        if (formalType.getDataType() != DataTypes.STRING || formalType.getDimension() != 1) {
-            return -1;
-        }
-        return method.getLine();
+        return formalType.getDataType() == DataTypes.STRING && formalType.getDimension() == 1;
     }
 
     @Override
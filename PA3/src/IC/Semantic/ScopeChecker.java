@@ -22,12 +22,10 @@ public class ScopeChecker implements Visitor {
         return errors;
     }
 
-    private boolean verifySymbolIsOfKind(ASTNode node, String name, Symbol.Kind... kinds) {
-        Symbol symbol;
-        try {
-            symbol = getCurrentScope().lookup(name);
-        } catch (SymbolTableException e) {
-            errors.add(new SemanticError(e.getMessage(), node.getLine()));
+    private boolean verifySymbolIsOfKind(ASTNode node, String name, int nameId, Symbol.Kind... kinds) {
+        Symbol symbol = getCurrentScope().find(nameId);
+        if (symbol == null) {
+            errors.add(new SemanticError(SymbolTable.getNotFoundMessage(name), node.getLine()));
             return false;
         }
         if (currentScopeIsStaticAndSymbolIsVirtualMethodOrField(symbol)) {
@@ -37,13 +35,15 @@ public class ScopeChecker implements Visitor {
         return verifySymbolIsOfKind(node, symbol, kinds);
     }
 
-    private boolean verifySymbolInOtherScopeIsOfKind(String otherScopeName, String symbolName, ASTNode node, Symbol.Kind... kinds) {
-        Symbol symbol;
-        try {
-            SymbolTable otherScope = getCurrentScope().lookupScope(otherScopeName);
-            symbol = otherScope.lookup(symbolName);
-        } catch (SymbolTableException e) {
-            errors.add(new SemanticError(e.getMessage(), node.getLine()));
+    private boolean verifySymbolInOtherScopeIsOfKind(String otherScopeName, int otherScopeNameId, String symbolName, int symbolNameId, ASTNode node, Symbol.Kind... kinds) {
+        SymbolTable otherScope = getCurrentScope().findScope(otherScopeNameId);
+        if (otherScope == null) {
+            errors.add(new SemanticError(SymbolTable.getNotFoundMessage(otherScopeName), node.getLine()));
+            return false;
+        }
+        Symbol symbol = otherScope.find(symbolNameId);
+        if (symbol == null) {
+            errors.add(new SemanticError(SymbolTable.getNotFoundMessage(symbolName), node.getLine()));
             return false;
         }
         return verifySymbolIsOfKind(node, symbol, kinds);
@@ -102,14 +102,13 @@ public class ScopeChecker implements Visitor {
      */
     private void verifyFieldDoesntHideBaseClassMember(Field field) {
         SymbolTable classScope = getCurrentScope();
-        try {
-            if (classScope.getParent() != null && classScope.getParent() instanceof ClassSymbolTable) {
-                Symbol inBase = classScope.getParent().lookup(field.getName());
+        if (classScope.getParent() != null && classScope.getParent() instanceof ClassSymbolTable) {
+            Symbol inBase = classScope.getParent().find(field.getNameId());
+            // null means that symbol doesn't exist in base class.
+            if (inBase != null) {
                 SymbolType baseMemberType = classScope.getTypeTable().getSymbolById(inBase.getTypeId());
                 errors.add(new SemanticError("Field '" + field.getName() + "' hides base class member " + baseMemberType + " '" + inBase.getName() + "'", field.getLine()));
             }
-        } catch (SymbolTableException e) {
-            // This means that symbol doesn't exist in base class.
         }
     }
 
@@ -158,7 +157,7 @@ public class ScopeChecker implements Visitor {
 
     @Override
     public Object visit(UserType type) {
-        verifySymbolIsOfKind(type, type.getName(), Symbol.Kind.CLASS);
+        verifySymbolIsOfKind(type, type.getName(), type.getNameId(), Symbol.Kind.CLASS);
         return true;
     }
 
@@ -235,7 +234,7 @@ public class ScopeChecker implements Visitor {
         if (location.isExternal()) {
             location.getLocation().accept(this);
         } else {
-            verifySymbolIsOfKind(location, location.getName(), Symbol.Kind.LOCAL_VARIABLE, Symbol.Kind.PARAMETER, Symbol.Kind.FIELD);
+            verifySymbolIsOfKind(location, location.getName(), location.getNameId(), Symbol.Kind.LOCAL_VARIABLE, Symbol.Kind.PARAMETER, Symbol.Kind.FIELD);
         }
 
         return true;
@@ -253,10 +252,10 @@ public class ScopeChecker implements Visitor {
         for (Expression arg : call.getArguments()) {
             arg.accept(this);
         }
-        if (!verifySymbolIsOfKind(call, call.getClassName(), Symbol.Kind.CLASS)) {
+        if (!verifySymbolIsOfKind(call, call.getClassName(), call.getClassNameId(), Symbol.Kind.CLASS)) {
             return true;
         }
-        verifySymbolInOtherScopeIsOfKind(call.getClassName(), call.getName(), call, Symbol.Kind.STATIC_METHOD);
+        verifySymbolInOtherScopeIsOfKind(call.getClassName(), call.getClassNameId(), call.getName(), call.getNameId(), call, Symbol.Kind.STATIC_METHOD);
         return true;
     }
 
@@ -269,7 +268,7 @@ public class ScopeChecker implements Visitor {
             call.getLocation().accept(this);
 
         } else {
-            verifySymbolIsOfKind(call, call.getName(), Symbol.Kind.VIRTUAL_METHOD, Symbol.Kind.STATIC_METHOD);
+            verifySymbolIsOfKind(call, call.getName(), call.getNameId(), Symbol.Kind.VIRTUAL_METHOD, Symbol.Kind.STATIC_METHOD);
         }
 
         return true;
@@ -282,7 +281,7 @@ public class ScopeChecker implements Visitor {
 
     @Override
     public Object visit(NewClass newClass) {
-        verifySymbolIsOfKind(newClass, newClass.getName(), Symbol.Kind.CLASS);
+        verifySymbolIsOfKind(newClass, newClass.getName(), newClass.getNameId(), Symbol.Kind.CLASS);
         return true;
     }
 
@@ -352,19 +351,13 @@ public class ScopeChecker implements Visitor {
      * @return
      */
     private boolean currentScopeIsStaticAndSymbolIsVirtualMethodOrField(Symbol symbol) {
-        Symbol scopeSymbol;
-        try {
-            scopeSymbol = findClosestEnclosingMethodScope();
-        } catch (SymbolTableException e) {
-            return false;
-        }
+        Symbol scopeSymbol = findClosestEnclosingMethodScope();
         boolean currentScopeIsStatic = scopeSymbol != null && scopeSymbol.getKind() == Symbol.Kind.STATIC_METHOD;
         boolean symbolIsNonStaticClassMember = symbol.getKind() == Symbol.Kind.FIELD || symbol.getKind() == Symbol.Kind.VIRTUAL_METHOD;
         return currentScopeIsStatic && symbolIsNonStaticClassMember;
     }
 
-    private Symbol findClosestEnclosingMethodScope()
-        throws SymbolTableException {
+    private Symbol findClosestEnclosingMethodScope() {
         SymbolTable scope = getCurrentScope();
         while (scope != null && !(scope instanceof MethodSymbolTable)) {
             scope = scope.getParent();
@@ -375,9 +368,8 @@ public class ScopeChecker implements Visitor {
         return getScopeSymbolInEnclosingScope(scope);
     }
 
-    private Symbol getScopeSymbolInEnclosingScope(SymbolTable scope)
-        throws SymbolTableException {
-        return getCurrentScope().getParent().lookup(scope.getName());
+    private Symbol getScopeSymbolInEnclosingScope(SymbolTable scope) {
+        return getCurrentScope().getParent().find(scope.getNameId());
     }
 
 }
@@ -0,0 +1,776 @@
+package IC.Semantic;
+
+import IC.AST.*;
+import IC.Events.ClassCheckEvent;
+import IC.Events.MethodCheckEvent;
+import IC.Parser.StringUtils;
+import IC.SymbolTypes.*;
+import IC.SymbolTypes.PrimitiveSymbolType.PrimitiveSymbolTypes;
+import IC.Symbols.*;
+import IC.UnaryOps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Stack;
+
+/**
+ * Does the checks of ScopeChecker, TypeChecker, MainFunctionValidator and
+ * BreakContinueValidator in a single walk over the AST.
+ *
+ * Every check keeps its own errors, in the order its own pass would find them, and
+ * getErrors returns the errors of the first check that failed, so the diagnostics
+ * are the same as running the passes one after the other. The walk visits children
+ * in the order TypeChecker does (it adds types to the type table, so its order
+ * matters), and reorders the errors of the other checks where their pass visits
+ * children in another order. Subtrees a pass skips are walked with its check off.
+ */
+public class SemanticChecker implements semanticCheckVisitor<TypeCheckingContext, SymbolType> {
+
+    private Stack<SymbolTable> symScopeStack = new Stack<>();
+    private List<SemanticError> scopeErrors = new ArrayList<>();
+    private List<SemanticError> typeErrors = new ArrayList<>();
+    private List<SemanticError> keywordErrors = new ArrayList<>();
+    private SemanticError mainError;
+    private TypeCompareUtil typeCompareUtil;
+
+    // Main methods found so far, see MainFunctionValidator.
+    private List<String> classesWithMain = new ArrayList<>();
+    private int lineNumberWithSecondMain = -1;
+
+    // Which checks are done in the current subtree.
+    private boolean checkScopes = true;
+    private boolean checkTypes = true;
+    private boolean checkKeywords = true;
+    private boolean inVirtualMethod = false;
+
+    /**
+     * @return the errors of the first check that failed, in the order the checks run
+     * when they are separate passes: scopes, types, main method, break/continue/this
+     */
+    public List<SemanticError> getErrors() {
+        if (!scopeErrors.isEmpty()) {
+            return scopeErrors;
+        }
+        if (!typeErrors.isEmpty()) {
+            return typeErrors;
+        }
+        if (mainError != null) {
+            return Collections.singletonList(mainError);
+        }
+        return keywordErrors;
+    }
+
+    /**
+     * @return the number of errors all the checks found so far, for the events
+     */
+    private int getErrorCount() {
+        return scopeErrors.size() + typeErrors.size() + keywordErrors.size();
+    }
+
+    /**
+     * TypeChecker only runs on programs without scope errors, so types are only
+     * computed while there are none (they can't be computed for undefined symbols).
+     */
+    private boolean typesNeeded() {
+        return checkTypes && scopeErrors.isEmpty();
+    }
+
+    private SymbolType visitWith(ASTNode node, TypeCheckingContext context, boolean scopes, boolean types, boolean keywords) {
+        boolean savedScopes = checkScopes;
+        boolean savedTypes = checkTypes;
+        boolean savedKeywords = checkKeywords;
+        checkScopes &= scopes;
+        checkTypes &= types;
+        checkKeywords &= keywords;
+        SymbolType type = node.accept(this, context);
+        checkScopes = savedScopes;
+        checkTypes = savedTypes;
+        checkKeywords = savedKeywords;
+        return type;
+    }
+
+    /**
+     * moves the errors in [from, middle) after the ones added since middle
+     */
+    private static void swapErrorRuns(List<SemanticError> errors, int from, int middle) {
+        Collections.rotate(errors.subList(from, errors.size()), errors.size() - middle);
+    }
+
+    private SymbolTable getCurrentScope() {
+        return symScopeStack.peek();
+    }
+
+    private SymbolTypeTable getTypeTable() {
+        return getCurrentScope().getTypeTable();
+    }
+
+    private SymbolType getVoidType() {
+        return getPrimitiveType(PrimitiveSymbolTypes.VOID);
+    }
+
+    private SymbolType getPrimitiveType(PrimitiveSymbolTypes type) {
+        return new PrimitiveSymbolType(type);
+    }
+
+    @Override
+    public SymbolType visit(Program program, TypeCheckingContext context) {
+        symScopeStack.push(program.getGlobalSymbolTable());
+        typeCompareUtil = new TypeCompareUtil(getTypeTable());
+        for (ICClass clazz : program.getClasses()) {
+            ClassCheckEvent event = new ClassCheckEvent();
+            event.begin();
+            int errorCount = getErrorCount();
+            clazz.accept(this, context);
+            event.finish(clazz, getErrorCount() - errorCount);
+        }
+        mainError = MainFunctionValidator.checkMainCount(program, classesWithMain, lineNumberWithSecondMain);
+        symScopeStack.pop();
+        return null;
+    }
+
+    @Override
+    public SymbolType visit(ICClass clazz, TypeCheckingContext context) {
+        symScopeStack.push(clazz.getClassSymbolTable());
+        Symbol classSymbol = getCurrentScope().find(clazz.getNameId());
+        context.setCurrentClassSymbolType(classSymbol == null ? null : (ClassSymbolType) getTypeTable().getSymbolById(classSymbol.getTypeId()));
+        int lineNumberOfMain = -1;
+        for (Method meth : clazz.getMethods()) {
+            MethodCheckEvent event = new MethodCheckEvent();
+            event.begin();
+            int errorCount = getErrorCount();
+            meth.accept(this, context);
+            event.finish(meth, getErrorCount() - errorCount);
+            if (lineNumberOfMain < 0 && meth instanceof StaticMethod && MainFunctionValidator.isMainMethod((StaticMethod) meth)) {
+                lineNumberOfMain = meth.getLine();
+            }
+        }
+        if (lineNumberOfMain >= 0) {
+            classesWithMain.add("class " + clazz.getName());
+            lineNumberWithSecondMain = lineNumberOfMain;
+        }
+        for (Field fld : clazz.getFields()) {
+            fld.accept(this, context);
+        }
+        context.setCurrentClassSymbolType(null);
+        symScopeStack.pop();
+        return null;
+    }
+
+    @Override
+    public SymbolType visit(Field field, TypeCheckingContext context) {
+        field.getType().accept(this, context);
+        if (checkScopes) {
+            verifyFieldDoesntHideBaseClassMember(field);
+        }
+        return null;
+    }
+
+    private void verifyFieldDoesntHideBaseClassMember(Field field) {
+        SymbolTable classScope = getCurrentScope();
+        if (classScope.getParent() != null && classScope.getParent() instanceof ClassSymbolTable) {
+            Symbol inBase = classScope.getParent().find(field.getNameId());
+            // null means that symbol doesn't exist in base class.
+            if (inBase != null) {
+                SymbolType baseMemberType = classScope.getTypeTable().getSymbolById(inBase.getTypeId());
+                scopeErrors.add(new SemanticError("Field '" + field.getName() + "' hides base class member " + baseMemberType + " '" + inBase.getName() + "'", field.getLine()));
+            }
+        }
+    }
+
+    @Override
+    public SymbolType visit(VirtualMethod method, TypeCheckingContext context) {
+        inVirtualMethod = true;
+        MethodSymbolType methodSymbolType = visitMethod(method, context);
+        inVirtualMethod = false;
+        if (typesNeeded()) {
+            verifyOverridingIsLegal(method, methodSymbolType);
+        }
+        return methodSymbolType;
+    }
+
+    private void verifyOverridingIsLegal(VirtualMethod method, MethodSymbolType methodSymbolType) {
+        Symbol methodInBaseClass = getCurrentScope().getParent().find(method.getNameId());
+        if (methodInBaseClass == null) {
+            // That's ok: not every method hides something in base class.
+            return;
+        }
+        SymbolType symbolInBaseClassType = getTypeTable().getSymbolById(methodInBaseClass.getTypeId());
+        boolean symbolHidingLegal = false;
+        String errorMessage = "";
+        if (methodInBaseClass.getKind() == Symbol.Kind.VIRTUAL_METHOD) {
+            MethodSymbolType methodInBaseClassType = (MethodSymbolType) symbolInBaseClassType;
+            if (methodInBaseClassType.getFormalsTypes().size() != methodSymbolType.getFormalsTypes().size()) {
+                errorMessage += "Wrong number of arguments";
+            } else {
+                symbolHidingLegal = true;
+                for (int i = 0; i < methodInBaseClassType.getFormalsTypes().size(); ++i) {
+                    if (!typeCompareUtil.isTypeSameOrExtends(methodInBaseClassType.getFormalsTypes().get(i), methodSymbolType.getFormalsTypes().get(i))) {
+                        symbolHidingLegal = false;
+                        errorMessage += "Type of arg"
+                            + i
+                            + " ('"
+                            + method.getFormals().get(i).getName()
+                            + "')"
+                            + " is expected to be >= '"
+                            + methodInBaseClassType.getFormalsTypes()
+                            .get(i) + "', but it is '"
+                            + methodSymbolType.getFormalsTypes().get(i)
+                            + "'\n";
+                    }
+                }
+            }
+            if (!typeCompareUtil.isTypeSameOrExtends(methodSymbolType.getReturnType(), methodInBaseClassType.getReturnType())) {
+                errorMessage += "Return type '" + methodSymbolType.getReturnType() + "' is expected to <= '" + methodInBaseClassType.getReturnType() + "'\n";
+                symbolHidingLegal = false;
+            }
+        } else if (methodInBaseClass.getKind() == Symbol.Kind.STATIC_METHOD) {
+            errorMessage += "Method in base class is marked as static";
+        }
+        if (!symbolHidingLegal) {
+            typeErrors.add(new SemanticError("Method [" + method.getName() + "] hides '" + methodInBaseClass.getKind() + "' in base class. Method signature: " + methodSymbolType + ", base class type: " + symbolInBaseClassType + ". Errors:\n" + errorMessage, method.getLine()));
+        }
+    }
+
+    @Override
+    public SymbolType visit(StaticMethod method, TypeCheckingContext context) {
+        return visitMethod(method, context);
+    }
+
+    @Override
+    public SymbolType visit(LibraryMethod method, TypeCheckingContext context) {
+        return visitMethod(method, context);
+    }
+
+    private MethodSymbolType visitMethod(Method method, TypeCheckingContext context) {
+        symScopeStack.push(method.getMethodSymbolTable());
+        int typeId = method.getMethodSymbolTable().getParent().find(method.getNameId()).getTypeId();
+        MethodSymbolType symbolType = (MethodSymbolType) getTypeTable().getSymbolById(typeId);
+        context.setCurrentMethodSymbolType(symbolType);
+        for (Formal formal : method.getFormals()) {
+            formal.accept(this, context);
+        }
+        for (Statement stmnt : method.getStatements()) {
+            stmnt.accept(this, context);
+        }
+        method.getType().accept(this, context);
+        context.setCurrentMethodSymbolType(null);
+        symScopeStack.pop();
+        return symbolType;
+    }
+
+    @Override
+    public SymbolType visit(Formal formal, TypeCheckingContext context) {
+        formal.getType().accept(this, context);
+        return null;
+    }
+
+    @Override
+    public SymbolType visit(PrimitiveType type, TypeCheckingContext context) {
+        // always defined
+        return null;
+    }
+
+    @Override
+    public SymbolType visit(UserType type, TypeCheckingContext context) {
+        if (checkScopes) {
+            verifySymbolIsOfKind(type, type.getName(), type.getNameId(), Symbol.Kind.CLASS);
+        }
+        return null;
+    }
+
+    @Override
+    public SymbolType visit(Assignment assignment, TypeCheckingContext context) {
+        int scopeErrorsBefore = scopeErrors.size();
+        SymbolType variable = assignment.getVariable().accept(this, context);
+        int scopeErrorsOfVariable = scopeErrors.size();
+        SymbolType expression = assignment.getAssignment().accept(this, context);
+        // ScopeChecker visits the assigned value before the variable.
+        swapErrorRuns(scopeErrors, scopeErrorsBefore, scopeErrorsOfVariable);
+        if (typesNeeded()) {
+            checkTypeError(assignment, variable, expression);
+        }
+        return getVoidType();
+    }
+
+    private boolean checkTypeError(ASTNode node, SymbolType expectedType, SymbolType actualType) {
+        if (!typeCompareUtil.isTypeSameOrExtends(actualType, expectedType)) {
+            typeErrors.add(new SemanticError("Type error in node '" + node.getClass().getSimpleName() + "': unexpected type: '" + actualType + "', expected a type that is less than or equals to: '" + expectedType + "'", node.getLine()));
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public SymbolType visit(CallStatement callStatement, TypeCheckingContext context) {
+        callStatement.getCall().accept(this, context);
+        return getVoidType();
+    }
+
+    @Override
+    public SymbolType visit(Return returnStatement, TypeCheckingContext context) {
+        SymbolType returnType = context.getCurrentMethodSymbolType().getReturnType();
+        boolean isVoidMethod = returnType.equals(getVoidType());
+        if (returnStatement.hasValue() && isVoidMethod) {
+            if (typesNeeded()) {
+                typeErrors.add(new SemanticError("A 'void' method is trying to return a value", returnStatement.getLine()));
+            }
+            // TypeChecker doesn't look at the value in this case.
+            visitWith(returnStatement.getValue(), context, true, false, true);
+        } else if (!returnStatement.hasValue() && !isVoidMethod) {
+            if (typesNeeded()) {
+                typeErrors.add(new SemanticError("A non-'void' method should return a value", returnStatement.getLine()));
+            }
+        } else if (returnStatement.hasValue()) {
+            SymbolType expression = returnStatement.getValue().accept(this, context);
+            if (typesNeeded()) {
+                checkTypeError(returnStatement, returnType, expression);
+            }
+        }
+        return getVoidType();
+    }
+
+    @Override
+    public SymbolType visit(If ifStatement, TypeCheckingContext context) {
+        SymbolType conditionExpression = ifStatement.getCondition().accept(this, context);
+        if (typesNeeded()) {
+            checkTypeError(ifStatement, getPrimitiveType(PrimitiveSymbolTypes.BOOLEAN), conditionExpression);
+        }
+        ifStatement.getOperation().accept(this, context);
+        if (ifStatement.hasElse()) {
+            ifStatement.getElseOperation().accept(this, context);
+        }
+        return getVoidType();
+    }
+
+    @Override
+    public SymbolType visit(While whileStatement, TypeCheckingContext context) {
+        SymbolType conditionExpression = whileStatement.getCondition().accept(this, context);
+        if (typesNeeded()) {
+            checkTypeError(whileStatement, getPrimitiveType(PrimitiveSymbolTypes.BOOLEAN), conditionExpression);
+        }
+        // BreakContinueValidator doesn't look inside the loop body.
+        visitWith(whileStatement.getOperation(), context, true, true, false);
+        return getVoidType();
+    }
+
+    @Override
+    public SymbolType visit(Break breakStatement, TypeCheckingContext context) {
+        // Outside of loop bodies, see visit(While).
+        if (checkKeywords) {
+            keywordErrors.add(new SemanticError("'break' not inside 'while'", breakStatement.getLine()));
+        }
+        return getVoidType();
+    }
+
+    @Override
+    public SymbolType visit(Continue continueStatement, TypeCheckingContext context) {
+        if (checkKeywords) {
+            keywordErrors.add(new SemanticError("'continue' not inside 'while'", continueStatement.getLine()));
+        }
+        return getVoidType();
+    }
+
+    @Override
+    public SymbolType visit(StatementsBlock statementsBlock, TypeCheckingContext context) {
+        symScopeStack.push(statementsBlock.getStatementsBlockSymbolTable());
+        for (Statement stmt : statementsBlock.getStatements()) {
+            stmt.accept(this, context);
+        }
+        symScopeStack.pop();
+        return getVoidType();
+    }
+
+    @Override
+    public SymbolType visit(LocalVariable localVariable, TypeCheckingContext context) {
+        localVariable.getType().accept(this, context);
+        if (localVariable.hasInitValue()) {
+            SymbolType variableType = typesNeeded() ? getTypeTable().getSymbolById(localVariable.getSymbol().getTypeId()) : null;
+            if (typesNeeded() && variableType == null) {
+                visitWith(localVariable.getInitValue(), context, true, false, true);
+            } else {
+                SymbolType initValueType = localVariable.getInitValue().accept(this, context);
+                if (typesNeeded()) {
+                    checkTypeError(localVariable, variableType, initValueType);
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public SymbolType visit(VariableLocation location, TypeCheckingContext context) {
+        if (!location.isExternal()) {
+            if (checkScopes) {
+                location.setSymbolReference(resolve(location, location.getName(), location.getNameId(), Symbol.Kind.LOCAL_VARIABLE, Symbol.Kind.PARAMETER, Symbol.Kind.FIELD));
+            }
+            return typesNeeded() ? getSymbolType(location.getSymbolReference()) : null;
+        }
+
+        SymbolType locationType = location.getLocation().accept(this, context);
+        if (!typesNeeded()) {
+            return null;
+        }
+        if (!(locationType instanceof ClassSymbolType)) {
+            typeErrors.add(new SemanticError("Location is not a class, can't look for field '" + location.getName() + "' under expression of type '" + locationType + "'", location.getLine()));
+            return getVoidType();
+        }
+        SymbolTable classSymbolTable = getCurrentScope().findScope(((ClassSymbolType) locationType).getNameId());
+        if (classSymbolTable == null) {
+            // The type of a field of an undefined class. Fields are checked after the
+            // methods, so the scope error for it just wasn't reported yet.
+            return getVoidType();
+        }
+        location.setSymbolReference(classSymbolTable.resolve(location.getNameId()));
+        if (location.getSymbolReference() == null) {
+            typeErrors.add(new SemanticError(SymbolTable.getNotFoundMessage(location.getName()), location.getLine()));
+            return getVoidType();
+        }
+        return getSymbolType(location.getSymbolReference());
+    }
+
+    @Override
+    public SymbolType visit(ArrayLocation location, TypeCheckingContext context) {
+        int keywordErrorsBefore = keywordErrors.size();
+        SymbolType indexType = location.getIndex().accept(this, context);
+        if (typesNeeded()) {
+            checkTypeError(location, getPrimitiveType(PrimitiveSymbolTypes.INT), indexType);
+        }
+        int keywordErrorsOfIndex = keywordErrors.size();
+        SymbolType locationType = location.getArray().accept(this, context);
+        // BreakContinueValidator visits the array before the index.
+        swapErrorRuns(keywordErrors, keywordErrorsBefore, keywordErrorsOfIndex);
+        if (!typesNeeded()) {
+            return null;
+        }
+        if (!(locationType instanceof ArraySymbolType)) {
+            typeErrors.add(new SemanticError("Value is treated as an array when it is actaully of type '" + locationType + "'", location.getLine()));
+            return getVoidType();
+        }
+        return ((ArraySymbolType) locationType).getBaseType();
+    }
+
+    @Override
+    public SymbolType visit(StaticCall call, TypeCheckingContext context) {
+        String resolveError = null;
+        SymbolTable classScope = getCurrentScope().findScope(call.getClassNameId());
+        if (classScope == null) {
+            resolveError = SymbolTable.getNotFoundMessage(call.getClassName());
+        } else {
+            call.setSymbolReference(classScope.resolve(call.getNameId()));
+            if (call.getSymbolReference() == null) {
+                resolveError = SymbolTable.getNotFoundMessage(call.getName());
+            }
+        }
+        // TypeChecker doesn't look at the arguments of unknown methods.
+        boolean typeArguments = call.getSymbolReference() != null;
+        List<SymbolType> argumentsTypes = new ArrayList<>();
+        for (Expression arg : call.getArguments()) {
+            argumentsTypes.add(visitWith(arg, context, true, typeArguments, true));
+        }
+        if (checkScopes && verifySymbolIsOfKind(call, call.getClassName(), call.getClassNameId(), Symbol.Kind.CLASS)) {
+            if (resolveError != null) {
+                scopeErrors.add(new SemanticError(resolveError, call.getLine()));
+            } else {
+                verifySymbolIsOfKind(call, call.getSymbolReference().getSymbol(), Symbol.Kind.STATIC_METHOD);
+            }
+        }
+        if (!typesNeeded()) {
+            return null;
+        }
+        if (call.getSymbolReference() == null) {
+            return getVoidType();
+        }
+
+        MethodSymbolType methodSymbolType = (MethodSymbolType) getSymbolType(call.getSymbolReference());
+        String methodName = call.getClassName() + "." + call.getName();
+        checkMethodCallTypeMatching(call, methodName, methodSymbolType.getFormalsTypes(), argumentsTypes);
+        return methodSymbolType.getReturnType();
+    }
+
+    private boolean checkMethodCallTypeMatching(Call call, String methodName, List<SymbolType> argumentsExpectedTypes, List<SymbolType> argumentsTypes) {
+        boolean isCallLegal = true;
+        if (argumentsExpectedTypes.size() != argumentsTypes.size()) {
+            typeErrors.add(new SemanticError("Wrong number of arguments on call to method [" + methodName + "]. Expected: " + argumentsExpectedTypes.size() + ", got: " + argumentsTypes.size(), call.getLine()));
+            isCallLegal = false;
+        } else {
+            for (int i = 0; i < argumentsExpectedTypes.size(); ++i) {
+                isCallLegal &= checkTypeError(call, argumentsExpectedTypes.get(i), argumentsTypes.get(i));
+            }
+        }
+        return isCallLegal;
+    }
+
+    @Override
+    public SymbolType visit(VirtualCall call, TypeCheckingContext context) {
+        for (Expression arg : call.getArguments()) {
+            arg.accept(this, context);
+        }
+        String methodName;
+        if (call.isExternal()) {
+            // BreakContinueValidator doesn't look at the object a method is called on.
+            SymbolType locationType = visitWith(call.getLocation(), context, true, true, false);
+            if (!typesNeeded()) {
+                return null;
+            }
+            if (!(locationType instanceof ClassSymbolType)) {
+                typeErrors.add(new SemanticError("Can't invoke a method: expression is not a reference to a class object.", call.getLine()));
+                return getVoidType();
+            }
+            ClassSymbolType classLocation = (ClassSymbolType) locationType;
+            SymbolTable classScope = getCurrentScope().findScope(classLocation.getNameId());
+            if (classScope == null) {
+                typeErrors.add(new SemanticError("Can't invoke a method: expression couldn't find class of type " + classLocation.getName() + ".", call.getLine()));
+                return getVoidType();
+            }
+            call.setSymbolReference(classScope.resolve(call.getNameId()));
+            if (call.getSymbolReference() == null) {
+                typeErrors.add(new SemanticError(SymbolTable.getNotFoundMessage(call.getName()), call.getLine()));
+                return getVoidType();
+            }
+            methodName = classLocation.getName() + "." + call.getName();
+        } else {
+            if (checkScopes) {
+                call.setSymbolReference(resolve(call, call.getName(), call.getNameId(), Symbol.Kind.VIRTUAL_METHOD, Symbol.Kind.STATIC_METHOD));
+            }
+            if (!typesNeeded()) {
+                return null;
+            }
+            methodName = call.getName();
+        }
+        MethodSymbolType methodSymbolType = (MethodSymbolType) getSymbolType(call.getSymbolReference());
+
+        // TypeChecker visits the arguments again when matching them to the formals.
+        List<SymbolType> argumentsTypes = new ArrayList<>();
+        for (Expression arg : call.getArguments()) {
+            argumentsTypes.add(visitWith(arg, context, false, true, false));
+        }
+        checkMethodCallTypeMatching(call, methodName, methodSymbolType.getFormalsTypes(), argumentsTypes);
+        return methodSymbolType.getReturnType();
+    }
+
+    @Override
+    public SymbolType visit(This thisExpression, TypeCheckingContext context) {
+        if (checkKeywords && !inVirtualMethod) {
+            keywordErrors.add(new SemanticError("'this' not inside an instance method", thisExpression.getLine()));
+        }
+        return context.getCurrentClassSymbolType();
+    }
+
+    @Override
+    public SymbolType visit(NewClass newClass, TypeCheckingContext context) {
+        if (checkScopes) {
+            verifySymbolIsOfKind(newClass, newClass.getName(), newClass.getNameId(), Symbol.Kind.CLASS);
+        }
+        if (!typesNeeded()) {
+            return null;
+        }
+        Symbol classSymbol = getCurrentScope().find(newClass.getNameId());
+        if (classSymbol == null) {
+            return getVoidType();
+        }
+        return getTypeTable().getSymbolById(classSymbol.getTypeId());
+    }
+
+    @Override
+    public SymbolType visit(NewArray newArray, TypeCheckingContext context) {
+        SymbolType sizeType = newArray.getSize().accept(this, context);
+        newArray.getType().accept(this, context);
+        if (!typesNeeded()) {
+            return null;
+        }
+        checkTypeError(newArray, getPrimitiveType(PrimitiveSymbolTypes.INT), sizeType);
+        newArray.getType().incrementDimension();
+        return getTypeTable().getSymbolById(getTypeTable().getSymbolTypeId(newArray.getType(), newArray.getType().getDimension()));
+    }
+
+    @Override
+    public SymbolType visit(Length length, TypeCheckingContext context) {
+        SymbolType arrayType = length.getArray().accept(this, context);
+        if (typesNeeded() && !(arrayType instanceof ArraySymbolType)) {
+            typeErrors.add(new SemanticError("length can only be run on arrays; got type: " + arrayType, length.getLine()));
+        }
+        return getPrimitiveType(PrimitiveSymbolTypes.INT);
+    }
+
+    @Override
+    public SymbolType visit(MathBinaryOp binaryOp, TypeCheckingContext context) {
+        SymbolType leftType = binaryOp.getFirstOperand().accept(this, context);
+        SymbolType rightType = binaryOp.getSecondOperand().accept(this, context);
+        if (!typesNeeded()) {
+            return null;
+        }
+        switch (binaryOp.getOperator()) {
+            case DIVIDE:
+            case MINUS:
+            case MOD:
+            case MULTIPLY:
+                revisitBinaryOp(binaryOp, context);
+                return getPrimitiveType(PrimitiveSymbolTypes.INT);
+            case PLUS:
+                if (typeCompareUtil.isTypeSameOrExtends(leftType, getPrimitiveType(PrimitiveSymbolTypes.STRING)) && typeCompareUtil.isTypeSameOrExtends(rightType, getPrimitiveType(PrimitiveSymbolTypes.STRING))) {
+                    return getPrimitiveType(PrimitiveSymbolTypes.STRING);
+                }
+                if (typeCompareUtil.isTypeSameOrExtends(leftType, getPrimitiveType(PrimitiveSymbolTypes.INT)) && typeCompareUtil.isTypeSameOrExtends(rightType, getPrimitiveType(PrimitiveSymbolTypes.INT))) {
+                    return getPrimitiveType(PrimitiveSymbolTypes.INT);
+                }
+                typeErrors.add(new SemanticError("'+' operator can be used for either INT addition or STRING concatenation. Types received: " + leftType + ", " + rightType, binaryOp.getLine()));
+                return getPrimitiveType(PrimitiveSymbolTypes.NULL);
+            case GT:
+            case GTE:
+            case LT:
+            case LTE:
+                revisitBinaryOp(binaryOp, context);
+                return getPrimitiveType(PrimitiveSymbolTypes.BOOLEAN);
+            case EQUAL:
+            case NEQUAL:
+                if (!(typeCompareUtil.isTypeSameOrExtends(leftType, rightType) || typeCompareUtil.isTypeSameOrExtends(rightType, leftType))) {
+                    typeErrors.add(new SemanticError("Can't check equality in non-matching types. Types: " + leftType + ", " + rightType, binaryOp.getLine()));
+                }
+                return getPrimitiveType(PrimitiveSymbolTypes.BOOLEAN);
+            default:
+                // Should never get here: binary op must be of above types.
+                return getVoidType();
+        }
+    }
+
+    /**
+     * TypeChecker checks these operators by visiting the operands a second time
+     */
+    private void revisitBinaryOp(BinaryOp binaryOp, TypeCheckingContext context) {
+        SymbolType leftType = visitWith(binaryOp.getFirstOperand(), context, false, true, false);
+        SymbolType rightType = visitWith(binaryOp.getSecondOperand(), context, false, true, false);
+        checkBinaryOp(binaryOp, leftType, rightType);
+    }
+
+    private void checkBinaryOp(BinaryOp binaryOp, SymbolType leftType, SymbolType rightType) {
+        if (!typeCompareUtil.isTypeSameOrExtends(leftType, rightType)) {
+            typeErrors.add(new SemanticError("Type error in node '" + binaryOp.getClass().getSimpleName() + "': unexpected type: '" + leftType + "', expected a type that is less than or equals to: '" + rightType + "'", binaryOp.getLine()));
+        }
+    }
+
+    @Override
+    public SymbolType visit(LogicalBinaryOp binaryOp, TypeCheckingContext context) {
+        SymbolType leftType = binaryOp.getFirstOperand().accept(this, context);
+        SymbolType rightType = binaryOp.getSecondOperand().accept(this, context);
+        if (typesNeeded()) {
+            checkBinaryOp(binaryOp, leftType, rightType);
+        }
+        return getPrimitiveType(PrimitiveSymbolTypes.BOOLEAN);
+    }
+
+    @Override
+    public SymbolType visit(MathUnaryOp unaryOp, TypeCheckingContext context) {
+        if (typesNeeded() && unaryOp.getOperand() instanceof Literal && unaryOp.getOperator() == UnaryOps.UMINUS) {
+            ((Literal) unaryOp.getOperand()).yourParentIsUMinus();
+        }
+        return checkUnaryOp(unaryOp, context, getPrimitiveType(PrimitiveSymbolTypes.INT));
+    }
+
+    @Override
+    public SymbolType visit(LogicalUnaryOp unaryOp, TypeCheckingContext context) {
+        return checkUnaryOp(unaryOp, context, getPrimitiveType(PrimitiveSymbolTypes.BOOLEAN));
+    }
+
+    private SymbolType checkUnaryOp(UnaryOp unaryOp, TypeCheckingContext context, SymbolType expectedType) {
+        SymbolType operandType = unaryOp.getOperand().accept(this, context);
+        if (typesNeeded()) {
+            checkTypeError(unaryOp, expectedType, operandType);
+        }
+        return expectedType;
+    }
+
+    @Override
+    public SymbolType visit(Literal literal, TypeCheckingContext context) {
+        switch (literal.getType()) {
+            case TRUE:
+            case FALSE:
+                return getPrimitiveType(PrimitiveSymbolTypes.BOOLEAN);
+            case INTEGER:
+                if (typesNeeded()) {
+                    doBoundsChecking(literal);
+                }
+                return getPrimitiveType(PrimitiveSymbolTypes.INT);
+            case NULL:
+                return getPrimitiveType(PrimitiveSymbolTypes.NULL);
+            case STRING:
+                return getPrimitiveType(PrimitiveSymbolTypes.STRING);
+            default:
+                // Should never get here, a literal must have one of the above
+                // values.
+                return getVoidType();
+        }
+    }
+
+    private void doBoundsChecking(Literal literal) {
+        if (literal.isParentUMinus() && literal.getValue().equals("2147483648")) {
+            return; // It's in bounds.
+        }
+        try {
+            Integer.valueOf((String) literal.getValue());
+        } catch (NumberFormatException e) {
+            typeErrors.add(new SemanticError("Integer is out of bounds: " + literal.getValue(), literal.getLine()));
+        }
+    }
+
+    @Override
+    public SymbolType visit(ExpressionBlock expressionBlock, TypeCheckingContext context) {
+        return expressionBlock.getExpression().accept(this, context);
+    }
+
+    private SymbolType getSymbolType(SymbolReference reference) {
+        return getTypeTable().getSymbolById(reference.getSymbol().getTypeId());
+    }
+
+    private boolean verifySymbolIsOfKind(ASTNode node, String name, int nameId, Symbol.Kind... kinds) {
+        return resolve(node, name, nameId, kinds) != null;
+    }
+
+    /**
+     * resolves a name used in the current scope, see ScopeChecker for the checks
+     *
+     * @return the symbol, or null if there is a scope error
+     */
+    private SymbolReference resolve(ASTNode node, String name, int nameId, Symbol.Kind... kinds) {
+        SymbolReference reference = getCurrentScope().resolve(nameId);
+        if (reference == null) {
+            scopeErrors.add(new SemanticError(SymbolTable.getNotFoundMessage(name), node.getLine()));
+            return null;
+        }
+        if (currentScopeIsStaticAndSymbolIsVirtualMethodOrField(reference.getSymbol())) {
+            scopeErrors.add(new SemanticError("Trying to reference a non-static class member.", node.getLine()));
+            return null;
+        }
+        return verifySymbolIsOfKind(node, reference.getSymbol(), kinds) ? reference : null;
+    }
+
+    private boolean verifySymbolIsOfKind(ASTNode node, Symbol symbol, Symbol.Kind... kinds) {
+        if (!Arrays.asList(kinds).contains(symbol.getKind())) {
+            String kindsStr = StringUtils.joinStrings(Arrays.asList(kinds));
+            scopeErrors.add(new SemanticError("Symbol is not of kind '" + kindsStr + "'", node.getLine(), symbol.getName()));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * see ScopeChecker
+     */
+    private boolean currentScopeIsStaticAndSymbolIsVirtualMethodOrField(Symbol symbol) {
+        SymbolTable scope = getCurrentScope();
+        while (scope != null && !(scope instanceof MethodSymbolTable)) {
+            scope = scope.getParent();
+        }
+        if (scope == null) {
+            return false;
+        }
+        Symbol scopeSymbol = getCurrentScope().getParent().find(scope.getNameId());
+        if (scopeSymbol == null) {
+            return false;
+        }
+        boolean currentScopeIsStatic = scopeSymbol.getKind() == Symbol.Kind.STATIC_METHOD;
+        boolean symbolIsNonStaticClassMember = symbol.getKind() == Symbol.Kind.FIELD || symbol.getKind() == Symbol.Kind.VIRTUAL_METHOD;
+        return currentScopeIsStatic && symbolIsNonStaticClassMember;
+    }
+}
@@ -1,13 +1,12 @@
 package IC.Semantic;
 
 import IC.AST.*;
+import IC.SymbolTypes.SymbolType;
 import IC.SymbolTypes.SymbolTypeTable;
 import IC.Symbols.*;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  *Traverses the AST, builds all the symbol table
@@ -23,6 +22,16 @@ public class SymbolTableBuilder implements Visitor {
         this.typeTable = new SymbolTypeTable(programName);
     }
 
+    /**
+     * @param programName
+     * @param typeTableSeed types that are already known to be the first ones in the
+     *                      type table, e.g. those of a library snapshot
+     */
+    public SymbolTableBuilder(String programName, List<SymbolType> typeTableSeed) {
+        this.programName = programName;
+        this.typeTable = new SymbolTypeTable(programName, typeTableSeed);
+    }
+
     public List<SemanticError> getErrors() {
         return errors;
     }
@@ -35,19 +44,20 @@ public class SymbolTableBuilder implements Visitor {
 
         // Step 1: Go through the classes, and create a Symbol and a SymbolTable
         // for each one.
-        Map<String, ClassSymbolTable> symbolTableForClass = new HashMap<>();
+        // keyed by the NameTable id of the class name
+        IntMap<ClassSymbolTable> symbolTableForClass = new IntMap<>();
 
         for (ICClass clazz : program.getClasses()) {
-            Symbol classSymbol = new Symbol(clazz.getName(), Symbol.Kind.CLASS, typeTable.getSymbolTypeId(clazz), clazz.getLine());
+            Symbol classSymbol = new Symbol(clazz.getName(), clazz.getNameId(), Symbol.Kind.CLASS, typeTable.getSymbolTypeId(clazz), clazz.getLine());
 
             insertSymbolToTable(globalTable, clazz, classSymbol);
 
             ClassSymbolTable classTable = (ClassSymbolTable) clazz.accept(this);
-            symbolTableForClass.put(clazz.getName(), classTable);
+            symbolTableForClass.put(clazz.getNameId(), classTable);
             if (clazz.hasSuperClass()) {
                 // If the class has a base class, add the class' symbol table as
                 // a child at the base class' symbol table
-                SymbolTable parentSymbolTable = symbolTableForClass.get(clazz.getSuperClassName());
+                SymbolTable parentSymbolTable = symbolTableForClass.get(clazz.getSuperClassNameId());
                 if (parentSymbolTable == null) {
                     errors.add(new SemanticError("Class '" + clazz.getName() + "' extends from a non-existant class", clazz.getLine(), clazz.getSuperClassName()));
                     globalTable.addChild(classTable);
@@ -74,19 +84,19 @@ public class SymbolTableBuilder implements Visitor {
 
     @Override
     public ClassSymbolTable visit(ICClass icClass) {
-        ClassSymbolTable classTable = new ClassSymbolTable(icClass.getName(), typeTable);
+        ClassSymbolTable classTable = new ClassSymbolTable(icClass.getName(), icClass.getNameId(), typeTable);
         icClass.setClassSymbolTable(classTable);
         for (Field field : icClass.getFields()) {
-            Symbol fieldSymbol = new Symbol(field.getName(), Symbol.Kind.FIELD, typeTable.getSymbolTypeId(field.getType(), field.getType().getDimension()), field.getLine());
+            Symbol fieldSymbol = new Symbol(field.getName(), field.getNameId(), Symbol.Kind.FIELD, typeTable.getSymbolTypeId(field.getType(), field.getType().getDimension()), field.getLine());
             insertSymbolToTable(classTable, field, fieldSymbol);
         }
 
         for (Method method : icClass.getMethods()) {
             Symbol methodSymbol;
             if (method instanceof VirtualMethod) {
-                methodSymbol = new Symbol(method.getName(), Symbol.Kind.VIRTUAL_METHOD, typeTable.getSymbolTypeId(method), method.getLine());
+                methodSymbol = new Symbol(method.getName(), method.getNameId(), Symbol.Kind.VIRTUAL_METHOD, typeTable.getSymbolTypeId(method), method.getLine());
             } else { // method is a StaticMethod or a LibraryMethod)
-                methodSymbol = new Symbol(method.getName(), Symbol.Kind.STATIC_METHOD, typeTable.getSymbolTypeId(method), method.getLine());
+                methodSymbol = new Symbol(method.getName(), method.getNameId(), Symbol.Kind.STATIC_METHOD, typeTable.getSymbolTypeId(method), method.getLine());
             }
             MethodSymbolTable methodTable = (MethodSymbolTable) method.accept(this);
             classTable.addChild(methodTable);
@@ -107,10 +117,11 @@ public class SymbolTableBuilder implements Visitor {
 
     private MethodSymbolTable buildMethodSymbolTable(Method method) {
 
-        MethodSymbolTable table = new MethodSymbolTable(method.getName(), typeTable);
+        MethodSymbolTable table = new MethodSymbolTable(method.getName(), method.getNameId(), typeTable);
         method.setMethodSymbolTable(table);
         for (Formal formal : method.getFormals()) {
-            Symbol symbol = new Symbol(formal.getName(), Symbol.Kind.PARAMETER, typeTable.getSymbolTypeId(formal.getType(), formal.getType().getDimension()), formal.getLine());
+            Symbol symbol = new Symbol(formal.getName(), formal.getNameId(), Symbol.Kind.PARAMETER, typeTable.getSymbolTypeId(formal.getType(), formal.getType().getDimension()), formal.getLine());
+            formal.setSymbol(symbol);
             insertSymbolToTable(table, formal, symbol);
         }
         getSymbolsAndChildTablesFromStatementList(table, method.getStatements());
@@ -221,7 +232,8 @@ public class SymbolTableBuilder implements Visitor {
 
     @Override
     public SymbolOrTables visit(LocalVariable localVariable) {
-        Symbol symbol = new Symbol(localVariable.getName(), Symbol.Kind.LOCAL_VARIABLE, typeTable.getSymbolTypeId(localVariable.getType(), localVariable.getType().getDimension()), localVariable.getLine());
+        Symbol symbol = new Symbol(localVariable.getName(), localVariable.getNameId(), Symbol.Kind.LOCAL_VARIABLE, typeTable.getSymbolTypeId(localVariable.getType(), localVariable.getType().getDimension()), localVariable.getLine());
+        localVariable.setSymbol(symbol);
         return new SymbolOrTables(symbol, localVariable);
     }
 
@@ -1,18 +1,25 @@
 package IC.Semantic;
 
 import IC.AST.*;
+import IC.Events.ClassCheckEvent;
+import IC.Events.MethodCheckEvent;
 import IC.SymbolTypes.*;
 import IC.SymbolTypes.PrimitiveSymbolType.PrimitiveSymbolTypes;
 import IC.Symbols.Symbol;
-
+import IC.Symbols.SymbolReference;
 import IC.Symbols.SymbolTable;
-import IC.Symbols.SymbolTableException;
 import IC.UnaryOps;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Stack;
 
+/**
+ * Checks the types of a program without scope errors. Like SemanticChecker, it
+ * annotates the names it resolves (VariableLocation and Call) with their
+ * SymbolReference, so the passes after the checks find them on the AST after the
+ * separate checks too.
+ */
 public class TypeChecker implements semanticCheckVisitor<TypeCheckingContext, SymbolType> {
 
     private Stack<SymbolTable> symScopeStack = new Stack<>();
@@ -32,7 +39,11 @@ public class TypeChecker implements semanticCheckVisitor<TypeCheckingContext, Sy
         symScopeStack.push(program.getGlobalSymbolTable());
         typeCompareUtil = new TypeCompareUtil(getCurrentScope().getTypeTable());
         for (ICClass clazz : program.getClasses()) {
+            ClassCheckEvent event = new ClassCheckEvent();
+            event.begin();
+            int errorCount = errors.size();
             clazz.accept(this, context);
+            event.finish(clazz, errors.size() - errorCount);
         }
         symScopeStack.pop();
         return null;
@@ -41,16 +52,18 @@ public class TypeChecker implements semanticCheckVisitor<TypeCheckingContext, Sy
     @Override
     public SymbolType visit(ICClass clazz, TypeCheckingContext context) {
         symScopeStack.push(clazz.getClassSymbolTable());
-        Symbol classSymbol;
-        try {
-            classSymbol = getCurrentScope().lookup(clazz.getName());
-        } catch (SymbolTableException e) {
+        Symbol classSymbol = getCurrentScope().find(clazz.getNameId());
+        if (classSymbol == null) {
             return null;
         }
         context.setCurrentClassSymbolType((ClassSymbolType) getTypeTable().getSymbolById(classSymbol.getTypeId()));
         // Visit child nodes.
         for (Method meth : clazz.getMethods()) {
+            MethodCheckEvent event = new MethodCheckEvent();
+            event.begin();
+            int errorCount = errors.size();
             meth.accept(this, context);
+            event.finish(meth, errors.size() - errorCount);
         }
         for (Field fld : clazz.getFields()) {
             fld.accept(this, context);
@@ -69,8 +82,9 @@ public class TypeChecker implements semanticCheckVisitor<TypeCheckingContext, Sy
     public SymbolType visit(VirtualMethod method, TypeCheckingContext context) {
         MethodSymbolType methodSymbolType = visitMethod(method, context);
 
-        try {
-            Symbol methodInBaseClass = getCurrentScope().getParent().lookup(method.getName());
+        Symbol methodInBaseClass = getCurrentScope().getParent().find(method.getNameId());
+        // null is ok: not every method hides something in base class.
+        if (methodInBaseClass != null) {
             SymbolType symbolInBaseClassType = getTypeTable().getSymbolById(methodInBaseClass.getTypeId());
             boolean symbolHidingLegal = false;
             String errorMessage = "";
@@ -106,8 +120,6 @@ public class TypeChecker implements semanticCheckVisitor<TypeCheckingContext, Sy
             if (!symbolHidingLegal) {
                 errors.add(new SemanticError("Method [" + method.getName() + "] hides '" + methodInBaseClass.getKind() + "' in base class. Method signature: " + methodSymbolType + ", base class type: " + symbolInBaseClassType + ". Errors:\n" + errorMessage, method.getLine()));
             }
-        } catch (SymbolTableException e) {
-            // That's ok: not every method hides something in base class.
         }
 
         return methodSymbolType;
@@ -125,13 +137,8 @@ public class TypeChecker implements semanticCheckVisitor<TypeCheckingContext, Sy
 
     private MethodSymbolType visitMethod(Method method, TypeCheckingContext context) {
         symScopeStack.push(method.getMethodSymbolTable());
-        int typeId = -1;
-        try {
-            typeId = method.getMethodSymbolTable().getParent().lookup(method.getName()).getTypeId();
-        } catch (SymbolTableException e) {
-            e.printStackTrace();
-        }
-        MethodSymbolType symbolType = (MethodSymbolType) getTypeTable().getSymbolById(typeId);
+        Symbol methodSymbol = method.getMethodSymbolTable().getParent().find(method.getNameId());
+        MethodSymbolType symbolType = (MethodSymbolType) getTypeTable().getSymbolById(methodSymbol.getTypeId());
         context.setCurrentMethodSymbolType(symbolType);
         for (Statement stmnt : method.getStatements()) {
             stmnt.accept(this, context);
@@ -252,7 +259,7 @@ public class TypeChecker implements semanticCheckVisitor<TypeCheckingContext, Sy
     @Override
     public SymbolType visit(LocalVariable localVariable, TypeCheckingContext context) {
         if (localVariable.hasInitValue()) {
-            SymbolType variableType = getSymbolType(localVariable.getName());
+            SymbolType variableType = getSymbolType(localVariable.getNameId());
             if (variableType != null) {
                 SymbolType initValueType = localVariable.getInitValue().accept(
                     this, context);
@@ -263,18 +270,13 @@ public class TypeChecker implements semanticCheckVisitor<TypeCheckingContext, Sy
         return null;
     }
 
-    private SymbolType getSymbolType(String symbolName) {
-        SymbolType symbolType;
-        try {
-            int symbolTypeId = getCurrentScope().lookup(symbolName).getTypeId();
-            symbolType = getTypeTable().getSymbolById(symbolTypeId);
-
-
-        } catch (SymbolTableException e) {
+    private SymbolType getSymbolType(int nameId) {
+        Symbol symbol = getCurrentScope().find(nameId);
+        if (symbol == null) {
             // Not supposed to get here: a variable was just declared.
-            symbolType = null;
+            return null;
         }
-        return symbolType;
+        return getTypeTable().getSymbolById(symbol.getTypeId());
     }
 
     @Override
@@ -286,25 +288,25 @@ public class TypeChecker implements semanticCheckVisitor<TypeCheckingContext, Sy
                 return getVoidType();
             } else {
                 ClassSymbolType classSymbolType = (ClassSymbolType) locationType;
-                String className = classSymbolType.getName();
-                SymbolTable classSymbolTable;
-                try {
-                    classSymbolTable = getCurrentScope().lookupScope(className);
-                } catch (SymbolTableException e) {
+                SymbolTable classSymbolTable = getCurrentScope().findScope(classSymbolType.getNameId());
+                if (classSymbolTable == null) {
                     System.out.println("Unexpected compiler error.");
-                    e.printStackTrace();
                     return null;
                 }
-                try {
-                    Symbol variableSymbol = classSymbolTable.lookup(location.getName());
-                    return getTypeTable().getSymbolById(variableSymbol.getTypeId());
-                } catch (SymbolTableException e) {
-                    errors.add(new SemanticError(e.getMessage(), location.getLine()));
+                location.setSymbolReference(classSymbolTable.resolve(location.getNameId()));
+                if (location.getSymbolReference() == null) {
+                    errors.add(new SemanticError(SymbolTable.getNotFoundMessage(location.getName()), location.getLine()));
                     return getVoidType();
                 }
+                return getTypeTable().getSymbolById(location.getSymbolReference().getSymbol().getTypeId());
             }
         } else {
-            return getSymbolType(location.getName());
+            location.setSymbolReference(getCurrentScope().resolve(location.getNameId()));
+            if (location.getSymbolReference() == null) {
+                // Not supposed to get here: ScopeChecker found the symbol.
+                return null;
+            }
+            return getTypeTable().getSymbolById(location.getSymbolReference().getSymbol().getTypeId());
         }
     }
 
@@ -324,13 +326,12 @@ public class TypeChecker implements semanticCheckVisitor<TypeCheckingContext, Sy
 
     @Override
     public SymbolType visit(StaticCall call, TypeCheckingContext context) {
-        Symbol methodSymbol;
-        try {
-            SymbolTable otherScope = getCurrentScope().lookupScope(call.getClassName());
-            methodSymbol = otherScope.lookup(call.getName());
-        } catch (SymbolTableException e) {
+        SymbolTable otherScope = getCurrentScope().findScope(call.getClassNameId());
+        call.setSymbolReference(otherScope == null ? null : otherScope.resolve(call.getNameId()));
+        if (call.getSymbolReference() == null) {
             return getVoidType();
         }
+        Symbol methodSymbol = call.getSymbolReference().getSymbol();
 
         MethodSymbolType methodSymbolType = (MethodSymbolType) getTypeTable().getSymbolById(methodSymbol.getTypeId());
         String methodName = call.getClassName() + "." + call.getName();
@@ -363,7 +364,7 @@ public class TypeChecker implements semanticCheckVisitor<TypeCheckingContext, Sy
         for (Expression arg : call.getArguments()) {
             arg.accept(this, context);
         }
-        Symbol methodSymbol;
+        SymbolReference methodReference;
         String methodName;
         if (call.isExternal()) {
             // 1. Get Class type of location (type checking should have this info)
@@ -374,30 +375,27 @@ public class TypeChecker implements semanticCheckVisitor<TypeCheckingContext, Sy
             }
             // 2. Get symbol table for that class
             ClassSymbolType classLocation = (ClassSymbolType) locationType;
-            SymbolTable classScope;
-            try {
-                classScope = getCurrentScope().lookupScope(classLocation.getName());
-            } catch (SymbolTableException e) {
+            SymbolTable classScope = getCurrentScope().findScope(classLocation.getNameId());
+            if (classScope == null) {
                 errors.add(new SemanticError("Can't invoke a method: expression couldn't find class of type " + classLocation.getName() + ".", call.getLine()));
                 return getVoidType();
             }
 
-            try {
-                methodSymbol = classScope.lookup(call.getName());
-            } catch (SymbolTableException e) {
-                errors.add(new SemanticError(e.getMessage(), call.getLine()));
+            methodReference = classScope.resolve(call.getNameId());
+            if (methodReference == null) {
+                errors.add(new SemanticError(SymbolTable.getNotFoundMessage(call.getName()), call.getLine()));
                 return getVoidType();
             }
             methodName = classLocation.getName() + "." + call.getName();
         } else {
-            try {
-                methodSymbol = getCurrentScope().lookup(call.getName());
-            } catch (SymbolTableException e) {
+            methodReference = getCurrentScope().resolve(call.getNameId());
+            if (methodReference == null) {
                 return getVoidType();
             }
             methodName = call.getName();
         }
-        MethodSymbolType methodSymbolType = (MethodSymbolType) getTypeTable().getSymbolById(methodSymbol.getTypeId());
+        call.setSymbolReference(methodReference);
+        MethodSymbolType methodSymbolType = (MethodSymbolType) getTypeTable().getSymbolById(methodReference.getSymbol().getTypeId());
 
         checkMethodCallTypeMatching(call, methodName, methodSymbolType.getFormalsTypes(), context);
 
@@ -411,10 +409,8 @@ public class TypeChecker implements semanticCheckVisitor<TypeCheckingContext, Sy
 
     @Override
     public SymbolType visit(NewClass newClass, TypeCheckingContext context) {
-        Symbol classSymbol;
-        try {
-            classSymbol = getCurrentScope().lookup(newClass.getName());
-        } catch (SymbolTableException e) {
+        Symbol classSymbol = getCurrentScope().find(newClass.getNameId());
+        if (classSymbol == null) {
             // ScopeChecker already checked this...
             return getVoidType();
         }
@@ -0,0 +1,157 @@
+package IC.SymbolTypes;
+
+import IC.Symbols.ClassSymbolTable;
+import IC.Symbols.GlobalSymbolTable;
+import IC.Symbols.IntIntMap;
+import IC.Symbols.Symbol;
+import IC.Symbols.SymbolTable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Where the fields of the instances of a class are, and which method every slot
+ * of its dispatch table holds. An instance is a row of slots: the first holds the
+ * dispatch table, and the fields follow, those of the base classes first, so a
+ * field has the same offset in an instance of any derived class. The dispatch
+ * table starts with the slots of the base class too, and a method overriding one
+ * takes its slot.
+ */
+public class ClassLayout {
+    /**
+     * the slot of an instance that holds its dispatch table
+     */
+    public static final int DISPATCH_TABLE_OFFSET = 0;
+    public static final int NONE = -1;
+
+    // Keyed by the NameTable id of the field name.
+    private final IntIntMap fieldOffsets;
+    // The name of the field of every offset, starting at offset 1.
+    private final List<String> fieldNames;
+    // Keyed by the NameTable id of the method name.
+    private final IntIntMap methodSlots;
+    private final List<String> methodNames;
+    // The class declaring the method of every slot.
+    private final List<String> implementingClasses;
+
+    private ClassLayout(ClassLayout base) {
+        fieldOffsets = base == null ? new IntIntMap() : new IntIntMap(base.fieldOffsets);
+        fieldNames = base == null ? new ArrayList<String>() : new ArrayList<>(base.fieldNames);
+        methodSlots = base == null ? new IntIntMap() : new IntIntMap(base.methodSlots);
+        methodNames = base == null ? new ArrayList<String>() : new ArrayList<>(base.methodNames);
+        implementingClasses = base == null ? new ArrayList<String>() : new ArrayList<>(base.implementingClasses);
+    }
+
+    /**
+     * computes the layout of every class of a checked program, base classes first,
+     * and sets it on the class types
+     */
+    public static void compute(GlobalSymbolTable globalTable) {
+        SymbolTypeTable typeTable = globalTable.getTypeTable();
+        Deque<SymbolTable> scopes = new ArrayDeque<>();
+        scopes.push(globalTable);
+        while (!scopes.isEmpty()) {
+            SymbolTable scope = scopes.pop();
+            ClassLayout base = scope instanceof ClassSymbolTable ? getType(typeTable, globalTable, scope).getLayout() : null;
+            // Children of a class table are its methods and its derived classes.
+            for (SymbolTable child : scope.getChildren()) {
+                if (child instanceof ClassSymbolTable) {
+                    getType(typeTable, globalTable, child).setLayout(new ClassLayout(base).extend(child));
+                    scopes.push(child);
+                }
+            }
+        }
+    }
+
+    private static ClassSymbolType getType(SymbolTypeTable typeTable, GlobalSymbolTable globalTable, SymbolTable classTable) {
+        return (ClassSymbolType) typeTable.getSymbolById(globalTable.find(classTable.getNameId()).getTypeId());
+    }
+
+    private ClassLayout extend(SymbolTable classTable) {
+        for (Symbol symbol : classTable.getSymbols()) {
+            if (symbol.getKind() == Symbol.Kind.FIELD) {
+                fieldOffsets.put(symbol.getNameId(), getInstanceSize());
+                fieldNames.add(symbol.getName());
+            } else if (symbol.getKind() == Symbol.Kind.VIRTUAL_METHOD) {
+                int slot = methodSlots.get(symbol.getNameId(), NONE);
+                if (slot == NONE) {
+                    methodSlots.put(symbol.getNameId(), methodNames.size());
+                    methodNames.add(symbol.getName());
+                    implementingClasses.add(classTable.getName());
+                } else {
+                    implementingClasses.set(slot, classTable.getName());
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return the number of slots of an instance, the dispatch table included
+     */
+    public int getInstanceSize() {
+        return fieldNames.size() + 1;
+    }
+
+    public int getFieldCount() {
+        return fieldNames.size();
+    }
+
+    /**
+     * @param fieldNameId the NameTable id of the field name
+     * @return the slot of a field, declared by the class or inherited, or NONE
+     */
+    public int getFieldOffset(int fieldNameId) {
+        return fieldOffsets.get(fieldNameId, NONE);
+    }
+
+    /**
+     * @param offset a slot after the dispatch table
+     */
+    public String getFieldName(int offset) {
+        return fieldNames.get(offset - 1);
+    }
+
+    /**
+     * @return the number of slots of the dispatch table
+     */
+    public int getMethodCount() {
+        return methodNames.size();
+    }
+
+    /**
+     * @param methodNameId the NameTable id of the method name
+     * @return the slot of a virtual method in the dispatch table, or NONE
+     */
+    public int getMethodSlot(int methodNameId) {
+        return methodSlots.get(methodNameId, NONE);
+    }
+
+    public String getMethodName(int slot) {
+        return methodNames.get(slot);
+    }
+
+    /**
+     * @return the class whose method the instances of this class run for a slot
+     */
+    public String getImplementingClass(int slot) {
+        return implementingClasses.get(slot);
+    }
+
+    /**
+     * @return the dispatch table, e.g. [A.f, B.g]
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int slot = 0; slot < methodNames.size(); slot++) {
+            if (slot > 0) {
+                builder.append(", ");
+            }
+            builder.append(implementingClasses.get(slot)).append('.').append(methodNames.get(slot));
+        }
+        return builder.append(']').toString();
+    }
+}
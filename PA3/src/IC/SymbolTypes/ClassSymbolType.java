@@ -2,13 +2,17 @@ package IC.SymbolTypes;
 
 public class ClassSymbolType extends SymbolType {
 
-	private static int NO_BASE_CLASS = -1;
+	public static final int NO_BASE_CLASS = -1;
 
 	private String name;
+	// see NameTable
+	private int nameId;
 	private int baseClassTypeId = NO_BASE_CLASS;
+    private ClassLayout layout;
 
-	public ClassSymbolType(String name) {
+	public ClassSymbolType(String name, int nameId) {
 		this.name = name;
+		this.nameId = nameId;
 	}
 
 	public boolean hasBaseClass() {
@@ -23,6 +27,21 @@ public class ClassSymbolType extends SymbolType {
 		return name;
 	}
 
+	public int getNameId() {
+		return nameId;
+	}
+
+    /**
+     * @return the layout of the instances, or null until ClassLayout.compute ran
+     */
+    public ClassLayout getLayout() {
+        return layout;
+    }
+
+    public void setLayout(ClassLayout layout) {
+        this.layout = layout;
+    }
+
 	@Override
 	public String toString() {
 		return name;
@@ -45,6 +45,10 @@ public class PrimitiveSymbolType extends SymbolType {
 		}
 	}
 
+	public PrimitiveSymbolTypes getPrimitiveType() {
+		return type;
+	}
+
 	@Override
 	public String toString() {
 		return type.getName();
@@ -2,6 +2,7 @@ package IC.SymbolTypes;
 
 import IC.AST.*;
 import IC.SymbolTypes.PrimitiveSymbolType.PrimitiveSymbolTypes;
+import IC.Symbols.IntIntMap;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -13,12 +14,36 @@ public class SymbolTypeTable {
     private String programName;
     private List<SymbolType> symbolTypes = new ArrayList<>();
     private Map<SymbolType, Integer> symbolTypesIds = new HashMap<>();
+    // ids of the class types, keyed by the NameTable id of the class name; type ids
+    // start at 1
+    private IntIntMap classTypesIds = new IntIntMap();
 
     public SymbolTypeTable(String programName) {
         this.programName = programName;
         addPrimitiveTypes();
     }
 
+    /**
+     * creates a table that already contains the given types, with the ids they
+     * had in the table they were taken from (see getSymbolTypes)
+     *
+     * @param programName
+     * @param preloadedTypes types of a table prefix, ordered by id
+     */
+    public SymbolTypeTable(String programName, List<SymbolType> preloadedTypes) {
+        this(programName);
+        for (SymbolType type : preloadedTypes) {
+            addOrGetSymbolType(type);
+        }
+    }
+
+    /**
+     * @return all the types in the table, ordered by id (the type at index i has id i + 1)
+     */
+    public List<SymbolType> getSymbolTypes() {
+        return Collections.unmodifiableList(symbolTypes);
+    }
+
     private void addPrimitiveTypes() {
         for (PrimitiveSymbolTypes type : PrimitiveSymbolTypes.values()) {
             addOrGetSymbolType(new PrimitiveSymbolType(type));
@@ -42,18 +67,33 @@ public class SymbolTypeTable {
     }
 
     private SymbolType createSymbolType(ICClass clazz) {
-        return new ClassSymbolType(clazz.getName());
+        return new ClassSymbolType(clazz.getName(), clazz.getNameId());
     }
 
     private int addOrGetSymbolTypeId(SymbolType symbolType) {
-        if (symbolTypesIds.containsKey(symbolType)) {
-            return symbolTypesIds.get(symbolType);
+        if (symbolType instanceof ClassSymbolType) {
+            return addOrGetClassSymbolTypeId((ClassSymbolType) symbolType);
+        }
+        Integer id = symbolTypesIds.get(symbolType);
+        if (id != null) {
+            return id;
         }
         symbolTypes.add(symbolType);
         symbolTypesIds.put(symbolType, symbolTypes.size());
         return symbolTypes.size();
     }
 
+    private int addOrGetClassSymbolTypeId(ClassSymbolType symbolType) {
+        int nameId = symbolType.getNameId();
+        int id = classTypesIds.get(nameId, 0);
+        if (id != 0) {
+            return id;
+        }
+        symbolTypes.add(symbolType);
+        classTypesIds.put(nameId, symbolTypes.size());
+        return symbolTypes.size();
+    }
+
     private SymbolType createSymbolType(Method method) {
         // Create types for formals
         List<SymbolType> formalsTypes = method.getFormals().stream().map(formal -> getSymbolById(getSymbolTypeId(formal.getType(), formal.getType().getDimension()))).collect(Collectors.toList());
@@ -82,7 +122,8 @@ public class SymbolTypeTable {
         if (type instanceof PrimitiveType) {
             basicType = new PrimitiveSymbolType((PrimitiveType) type);
         } else {
-            basicType = new ClassSymbolType(type.getName());
+            UserType userType = (UserType) type;
+            basicType = new ClassSymbolType(userType.getName(), userType.getNameId());
         }
         return basicType;
     }
@@ -119,19 +160,11 @@ public class SymbolTypeTable {
 
     public void setSuperForClass(ICClass clazz) {
         if (clazz.hasSuperClass()) {
-            ClassSymbolType classType = getClassSymbolByClassName(clazz.getName());
-            classType.setBaseClassTypeId(getSymbolIdByClassName(clazz.getSuperClassName()));
+            ClassSymbolType classType = (ClassSymbolType) getSymbolById(getSymbolTypeId(clazz));
+            classType.setBaseClassTypeId(addOrGetSymbolTypeId(new ClassSymbolType(clazz.getSuperClassName(), clazz.getSuperClassNameId())));
         }
     }
 
-    private int getSymbolIdByClassName(String className) {
-        return addOrGetSymbolTypeId(new ClassSymbolType(className));
-    }
-
-    private ClassSymbolType getClassSymbolByClassName(String className) {
-        return (ClassSymbolType) getSymbolById(getSymbolIdByClassName(className));
-    }
-
     public String getProgramName() {
         return programName;
     }
@@ -4,8 +4,8 @@ import IC.SymbolTypes.SymbolTypeTable;
 
 public class ClassSymbolTable extends SymbolTable {
 
-	public ClassSymbolTable(String name, SymbolTypeTable typeTable) {
-		super(name, typeTable);
+	public ClassSymbolTable(String name, int nameId, SymbolTypeTable typeTable) {
+		super(name, nameId, typeTable);
 	}
 
 	@Override
@@ -0,0 +1,98 @@
+package IC.Symbols;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from non negative ints (e.g. NameTable ids) to ints, with open
+ * addressing like IntMap, so lookups box neither the key nor the value.
+ * Mappings can't be removed.
+ */
+public class IntIntMap {
+    private static final int EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int[] keys;
+    private int[] values;
+    private int size = 0;
+
+    public IntIntMap() {
+        keys = new int[INITIAL_CAPACITY];
+        Arrays.fill(keys, EMPTY);
+        values = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * @param other a map to copy
+     */
+    public IntIntMap(IntIntMap other) {
+        keys = other.keys.clone();
+        values = other.values.clone();
+        size = other.size;
+    }
+
+    /**
+     * @param key a non negative key
+     * @param missing what to return if the key has no value
+     * @return the value of the key, or missing if there is none
+     */
+    public int get(int key, int missing) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            if (keys[i] == EMPTY) {
+                return missing;
+            }
+        }
+    }
+
+    /**
+     * @param key a non negative key
+     */
+    public void put(int key, int value) {
+        if ((size + 1) * 2 > keys.length) {
+            resize();
+        }
+        if (insert(keys, values, key, value)) {
+            size++;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the key is new
+     */
+    private static boolean insert(int[] keys, int[] values, int key, int value) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        boolean isNew = keys[i] == EMPTY;
+        keys[i] = key;
+        values[i] = value;
+        return isNew;
+    }
+
+    private void resize() {
+        int[] newKeys = new int[keys.length * 2];
+        Arrays.fill(newKeys, EMPTY);
+        int[] newValues = new int[newKeys.length];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                insert(newKeys, newValues, keys[i], values[i]);
+            }
+        }
+        keys = newKeys;
+        values = newValues;
+    }
+
+    private static int hash(int key) {
+        // Ids are dense, so spread them over the table.
+        return key * 0x9E3779B9 >>> 16 ^ key;
+    }
+}
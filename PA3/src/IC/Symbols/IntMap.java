@@ -0,0 +1,96 @@
+package IC.Symbols;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from non negative ints (e.g. NameTable ids) to values, with open
+ * addressing, so lookups don't box the key or follow entry objects.
+ * Mappings can't be removed.
+ *
+ * @param <V> type of the values
+ */
+public class IntMap<V> {
+    private static final int EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int[] keys;
+    private Object[] values;
+    private int size = 0;
+
+    public IntMap() {
+        keys = new int[INITIAL_CAPACITY];
+        Arrays.fill(keys, EMPTY);
+        values = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * @param key a non negative key
+     * @return the value of the key, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+            if (keys[i] == EMPTY) {
+                return null;
+            }
+        }
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @param key a non negative key
+     * @param value a value, not null
+     */
+    public void put(int key, V value) {
+        if ((size + 1) * 2 > keys.length) {
+            resize();
+        }
+        if (insert(keys, values, key, value)) {
+            size++;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the key is new
+     */
+    private static boolean insert(int[] keys, Object[] values, int key, Object value) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        boolean isNew = keys[i] == EMPTY;
+        keys[i] = key;
+        values[i] = value;
+        return isNew;
+    }
+
+    private void resize() {
+        int[] newKeys = new int[keys.length * 2];
+        Arrays.fill(newKeys, EMPTY);
+        Object[] newValues = new Object[newKeys.length];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                insert(newKeys, newValues, keys[i], values[i]);
+            }
+        }
+        keys = newKeys;
+        values = newValues;
+    }
+
+    private static int hash(int key) {
+        // Ids are dense, so spread them over the table.
+        return key * 0x9E3779B9 >>> 16 ^ key;
+    }
+}
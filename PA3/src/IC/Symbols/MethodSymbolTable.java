@@ -4,8 +4,8 @@ import IC.SymbolTypes.SymbolTypeTable;
 
 public class MethodSymbolTable extends SymbolTable {
 
-	public MethodSymbolTable(String name, SymbolTypeTable typeTable) {
-		super(name, typeTable);
+	public MethodSymbolTable(String name, int nameId, SymbolTypeTable typeTable) {
+		super(name, nameId, typeTable);
 	}
 
 	@Override
@@ -0,0 +1,32 @@
+package IC.Symbols;
+
+/**
+ * An identifier interned in a NameTable: its text and its id. The Lexer gives
+ * one as the value of each identifier token, so the AST nodes that carry a name
+ * keep its id, and the symbol tables are looked up by it without hashing the text.
+ */
+public final class Name {
+    private final String text;
+    private final int id;
+
+    Name(String text, int id) {
+        this.text = text;
+        this.id = id;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return the id of the name in the NameTable
+     */
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,41 @@
+package IC.Symbols;
+
+import java.util.HashMap;
+
+/**
+ * Table of the identifiers of a compilation. The Lexer interns every identifier
+ * here, so each name has a single Name instance and a dense int id (0, 1, 2, ...),
+ * which the symbol tables and type tables use as their keys.
+ *
+ * Every compilation has its own table, so the names of a program are dropped with
+ * it; the library's names are interned first (see LibrarySnapshot), so they get
+ * the same ids in every compilation. A table is used by a single thread.
+ */
+public final class NameTable {
+    /**
+     * an id no name has, e.g. of a symbol table of a statement block
+     */
+    public static final int NO_ID = -1;
+
+    private final HashMap<String, Name> names = new HashMap<>();
+
+    /**
+     * @param name an identifier
+     * @return the single instance of the identifier, interning it if needed
+     */
+    public Name intern(String name) {
+        Name interned = names.get(name);
+        if (interned == null) {
+            interned = new Name(name, names.size());
+            names.put(name, interned);
+        }
+        return interned;
+    }
+
+    /**
+     * @return the number of names in the table
+     */
+    public int size() {
+        return names.size();
+    }
+}
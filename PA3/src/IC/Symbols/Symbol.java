@@ -2,14 +2,18 @@ package IC.Symbols;
 
 public class Symbol {
     private String name;
+    // see NameTable
+    private int nameId;
     // Field, Method, Local Variable, Etc
     private Kind kind;
     // int, string, etc
     private int symbolTypeId;
     private int lineNumber;
+    private SymbolTable scope;
 
-    public Symbol(String name, Kind kind, int symbolTypeIndex, int lineNumber) {
+    public Symbol(String name, int nameId, Kind kind, int symbolTypeIndex, int lineNumber) {
         this.name = name;
+        this.nameId = nameId;
         this.kind = kind;
         this.symbolTypeId = symbolTypeIndex;
         this.lineNumber = lineNumber;
@@ -35,6 +39,21 @@ public class Symbol {
         return name;
     }
 
+    public int getNameId() {
+        return nameId;
+    }
+
+    /**
+     * @return the symbol table that declares the symbol, e.g. the class of a field
+     */
+    public SymbolTable getScope() {
+        return scope;
+    }
+
+    void setScope(SymbolTable scope) {
+        this.scope = scope;
+    }
+
 
     public enum Kind {
         CLASS("Class"),
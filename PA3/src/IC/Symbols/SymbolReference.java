@@ -0,0 +1,17 @@
+package IC.Symbols;
+
+/**
+ * A resolved use of a symbol, which the checks set on the VariableLocation and
+ * Call nodes, so the passes after them read the symbol from the AST.
+ */
+public class SymbolReference {
+    private final Symbol symbol;
+
+    public SymbolReference(Symbol symbol) {
+        this.symbol = symbol;
+    }
+
+    public Symbol getSymbol() {
+        return symbol;
+    }
+}
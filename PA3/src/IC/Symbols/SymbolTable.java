@@ -9,10 +9,13 @@ import java.util.*;
  * base for all symbol tables
  */
 public abstract class SymbolTable {
-    private Map<String, Symbol> symbols = new HashMap<>();
+    // keyed by NameTable id
+    private IntMap<Symbol> symbols = new IntMap<>();
     private SymbolTable parent;
     private List<SymbolTable> children = new ArrayList<>();
     private String name;
+    // id of the name in the NameTable, or NameTable.NO_ID for a block
+    private int nameId;
 
     //hack for lecturers printing
     private String nameForStatmentPrint;
@@ -21,8 +24,13 @@ public abstract class SymbolTable {
     private SymbolTypeTable typeTable;
 
     public SymbolTable(String name, SymbolTypeTable typeTable) {
+        this(name, NameTable.NO_ID, typeTable);
+    }
+
+    public SymbolTable(String name, int nameId, SymbolTypeTable typeTable) {
         this.nameForStatmentPrint = name;
         this.name = name;
+        this.nameId = nameId;
         this.typeTable = typeTable;
     }
 
@@ -36,39 +44,60 @@ public abstract class SymbolTable {
      * @throws SymbolTableException
      */
     public void insert(Symbol newSymbol) throws SymbolTableException {
-        if (symbols.containsKey(newSymbol.getName())) {
+        if (symbols.containsKey(newSymbol.getNameId())) {
             throw new SymbolTableException("A symbol with this name already exists in this scope: " + newSymbol.getName());
         }
-        symbols.put(newSymbol.getName(), newSymbol);
+        symbols.put(newSymbol.getNameId(), newSymbol);
+        newSymbol.setScope(this);
         orderedSymbols.add(newSymbol);
     }
 
     /**
-     * find symbol in symbol table
-     * @param name
-     * @return
-     * @throws SymbolTableException
+     * find symbol in symbol table, or in one of its ancestors
+     * @param nameId id of the name in the NameTable, e.g. VariableLocation.getNameId()
+     * @return the symbol, or null if there is no symbol with this name
      */
-    public Symbol lookup(String name) throws SymbolTableException {
-        if (symbols.containsKey(name)) {
-            return symbols.get(name);
-        }
-        if (parent == null) {
-            throw new SymbolTableException("Couldn't find a symbol with name: " + name);
+    public Symbol find(int nameId) {
+        for (SymbolTable scope = this; scope != null; scope = scope.parent) {
+            Symbol symbol = scope.symbols.get(nameId);
+            if (symbol != null) {
+                return symbol;
+            }
         }
-        return parent.lookup(name);
+        return null;
+    }
+
+    /**
+     * same as find, for a use of the name that the AST keeps resolved
+     * @param nameId id of the name in the NameTable
+     * @return the reference to the symbol, or null if there is no symbol with this name
+     */
+    public SymbolReference resolve(int nameId) {
+        Symbol symbol = find(nameId);
+        return symbol == null ? null : new SymbolReference(symbol);
     }
 
-    public SymbolTable lookupScope(String name) throws SymbolTableException {
-        for (SymbolTable child : children) {
-            if (child.name.equals(name)) {
-                return child;
+    /**
+     * find a child table (e.g. of a class) of this table or of one of its ancestors
+     * @param nameId id of the name of the table in the NameTable
+     * @return the table, or null if there is no table with this name
+     */
+    public SymbolTable findScope(int nameId) {
+        for (SymbolTable scope = this; scope != null; scope = scope.parent) {
+            for (SymbolTable child : scope.children) {
+                if (child.nameId == nameId) {
+                    return child;
+                }
             }
         }
-        if (parent == null) {
-            throw new SymbolTableException("Couldn't find a symbol with name: " + name);
-        }
-        return parent.lookupScope(name);
+        return null;
+    }
+
+    /**
+     * @return the error message for a name that can't be found
+     */
+    public static String getNotFoundMessage(String name) {
+        return "Couldn't find a symbol with name: " + name;
     }
 
     public void addChild(SymbolTable child) {
@@ -147,6 +176,14 @@ public abstract class SymbolTable {
     }
 
 
+    /**
+     * @return the id of the name of the table in the NameTable, or NameTable.NO_ID
+     * for a statement block
+     */
+    public int getNameId() {
+        return nameId;
+    }
+
     public String getAstName() {
         //hack for lecturer output
         return name;
@@ -160,6 +197,21 @@ public abstract class SymbolTable {
         return children;
     }
 
+    /**
+     * @return the number of symbols in this scope, not including its children
+     */
+    public int getSymbolCount() {
+        return orderedSymbols.size();
+    }
+
+    /**
+     * @return the symbols of this scope, not including its children, in the order
+     * they were declared
+     */
+    public List<Symbol> getSymbols() {
+        return Collections.unmodifiableList(orderedSymbols);
+    }
+
     public SymbolTypeTable getTypeTable() {
         return typeTable;
     }
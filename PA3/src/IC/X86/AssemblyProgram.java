@@ -0,0 +1,37 @@
+package IC.X86;
+
+/**
+ * a program translated to x86-64 assembly for the GNU assembler, which links
+ * with runtime/libic.c into an executable
+ */
+public class AssemblyProgram {
+    private final String text;
+    private final int lineCount;
+    private final int spillCount;
+
+    AssemblyProgram(String text, int lineCount, int spillCount) {
+        this.text = text;
+        this.lineCount = lineCount;
+        this.spillCount = spillCount;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * @return the number of registers of all methods left in memory by the
+     * register allocator
+     */
+    public int getSpillCount() {
+        return spillCount;
+    }
+
+    /**
+     * @return the assembly
+     */
+    @Override
+    public String toString() {
+        return text;
+    }
+}
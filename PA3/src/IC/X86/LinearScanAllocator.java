@@ -0,0 +1,319 @@
+package IC.X86;
+
+import IC.CFG.ControlFlowGraph;
+import IC.Dataflow.LiveVariables;
+import IC.LIR.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Assigns the registers of a method to machine registers by linear scan
+ * (Poletto and Sarkar), from live intervals over the instructions in order.
+ * Instruction i reads its operands at position 2i and assigns its register at
+ * 2i + 1, and the interval of a register spans every position where it is live,
+ * from the live variables of the control flow graph, with no holes.
+ *
+ * The scratch registers rax, rcx and rdx and the argument registers aren't
+ * allocated. An interval that is live across a call, to a method or to the
+ * runtime, only gets a register the callee saves; the others prefer those the
+ * caller saves, which the method then doesn't have to save. When no register is
+ * free, the interval whose uses and assignments weigh the least is spilled,
+ * each weighing 10 to the power of the depth of the loops it is in, so registers
+ * go to the code in the innermost loops. Spilled intervals share stack slots
+ * when they don't overlap; a parameter past the sixth is spilled to where the
+ * caller pushed it.
+ */
+class LinearScanAllocator {
+    static final int NONE = -1;
+    static final String[] CALLER_SAVED = {"%r10", "%r11"};
+    static final String[] CALLEE_SAVED = {"%rbx", "%r12", "%r13", "%r14", "%r15"};
+
+    private static final int LOOP_WEIGHT = 10;
+    // Deeper loops weigh as much as this one, so weights don't overflow.
+    private static final int MAX_WEIGHTED_DEPTH = 8;
+
+    private final LIRMethod method;
+    private final int[] from;
+    private final int[] to;
+    private final long[] weights;
+    private final boolean[] crossesCall;
+    private final BitSet liveAtEntry;
+    private final String[] registers;
+    private final int[] slots;
+    // The position after which every spill slot is free.
+    private final List<Integer> slotEnds = new ArrayList<>();
+    private final boolean[] calleeSavedUsed = new boolean[CALLEE_SAVED.length];
+    private int intervalCount = 0;
+    private int spillCount = 0;
+
+    private LinearScanAllocator(LIRMethod method) {
+        this.method = method;
+        int count = method.getRegisterCount();
+        from = new int[count];
+        to = new int[count];
+        Arrays.fill(from, Integer.MAX_VALUE);
+        Arrays.fill(to, Integer.MIN_VALUE);
+        weights = new long[count];
+        crossesCall = new boolean[count];
+        liveAtEntry = new BitSet(count);
+        registers = new String[count];
+        slots = new int[count];
+        Arrays.fill(slots, NONE);
+    }
+
+    /**
+     * @param method a method without phi instructions
+     */
+    static LinearScanAllocator allocate(LIRMethod method) {
+        LinearScanAllocator allocator = new LinearScanAllocator(method);
+        allocator.buildIntervals();
+        allocator.scan();
+        return allocator;
+    }
+
+    private void buildIntervals() {
+        ControlFlowGraph graph = ControlFlowGraph.build(method);
+        LiveVariables liveness = LiveVariables.analyze(graph);
+        List<Instruction> instructions = method.getInstructions();
+        List<Integer> calls = new ArrayList<>();
+        // Unreachable blocks never run, but their registers need a place too.
+        for (int block = 0; block < graph.getBlockCount(); block++) {
+            long weight = 1;
+            for (int depth = Math.min(graph.getLoopDepth(block), MAX_WEIGHTED_DEPTH); depth > 0; depth--) {
+                weight *= LOOP_WEIGHT;
+            }
+            int start = graph.getBlockStart(block);
+            int end = graph.getBlockEnd(block);
+            BitSet live = (BitSet) liveness.getOut(block).clone();
+            for (int register = live.nextSetBit(0); register >= 0; register = live.nextSetBit(register + 1)) {
+                extend(register, 2 * end);
+            }
+            for (int i = end - 1; i >= start; i--) {
+                Instruction instruction = instructions.get(i);
+                if (isCall(instruction)) {
+                    calls.add(i);
+                }
+                Register defined = instruction.getDefinedRegister();
+                if (defined != null) {
+                    extend(defined.getIndex(), 2 * i + 1);
+                    weights[defined.getIndex()] += weight;
+                    live.clear(defined.getIndex());
+                }
+                for (int operand = 0; operand < instruction.getOperandCount(); operand++) {
+                    if (instruction.getOperand(operand).isRegister()) {
+                        int register = ((Register) instruction.getOperand(operand)).getIndex();
+                        extend(register, 2 * i);
+                        weights[register] += weight;
+                        live.set(register);
+                    }
+                }
+            }
+            for (int register = live.nextSetBit(0); register >= 0; register = live.nextSetBit(register + 1)) {
+                extend(register, 2 * start);
+            }
+            if (block == 0) {
+                liveAtEntry.or(live);
+            }
+        }
+        // The parameters are set before the first instruction.
+        for (int register = liveAtEntry.nextSetBit(0); register >= 0; register = liveAtEntry.nextSetBit(register + 1)) {
+            from[register] = -1;
+        }
+
+        int[] callPositions = new int[calls.size()];
+        for (int i = 0; i < callPositions.length; i++) {
+            callPositions[i] = 2 * calls.get(i);
+        }
+        Arrays.sort(callPositions);
+        for (int register = 0; register < from.length; register++) {
+            if (from[register] <= to[register]) {
+                // The first call that reads its arguments after the interval starts.
+                int call = Arrays.binarySearch(callPositions, from[register] + 1);
+                if (call < 0) {
+                    call = -call - 1;
+                }
+                crossesCall[register] = call < callPositions.length && callPositions[call] + 1 < to[register];
+            }
+        }
+    }
+
+    private void extend(int register, int position) {
+        from[register] = Math.min(from[register], position);
+        to[register] = Math.max(to[register], position);
+    }
+
+    /**
+     * @return whether the instruction calls a method or the runtime, which may
+     * change the registers the caller saves
+     */
+    private static boolean isCall(Instruction instruction) {
+        return instruction instanceof CallStatic || instruction instanceof CallVirtual
+                || instruction instanceof AllocObject || instruction instanceof AllocArray
+                || (instruction instanceof Binary && ((Binary) instruction).getOperator() == BinaryOperator.CONCAT);
+    }
+
+    private void scan() {
+        List<Integer> intervals = new ArrayList<>();
+        for (int register = 0; register < from.length; register++) {
+            if (from[register] <= to[register]) {
+                intervals.add(register);
+            }
+        }
+        intervals.sort(Comparator.comparingInt(register -> from[register]));
+        intervalCount = intervals.size();
+
+        // The intervals that have a machine register, by their ends.
+        List<Integer> active = new ArrayList<>();
+        for (int current : intervals) {
+            for (int i = active.size() - 1; i >= 0; i--) {
+                if (to[active.get(i)] < from[current]) {
+                    active.remove(i);
+                }
+            }
+            String register = freeRegister(current, active);
+            if (register != null) {
+                assign(current, register, active);
+                continue;
+            }
+            int victim = NONE;
+            for (int other : active) {
+                if (isAllowed(current, registers[other]) && (victim == NONE || weights[other] < weights[victim])) {
+                    victim = other;
+                }
+            }
+            if (victim != NONE && weights[victim] < weights[current]) {
+                register = registers[victim];
+                registers[victim] = null;
+                active.remove((Integer) victim);
+                spill(victim);
+                assign(current, register, active);
+            } else {
+                spill(current);
+            }
+        }
+    }
+
+    private boolean isAllowed(int register, String machineRegister) {
+        return !crossesCall[register] || Arrays.asList(CALLEE_SAVED).contains(machineRegister);
+    }
+
+    private String freeRegister(int register, List<Integer> active) {
+        if (!crossesCall[register]) {
+            for (String machineRegister : CALLER_SAVED) {
+                if (isFree(machineRegister, active)) {
+                    return machineRegister;
+                }
+            }
+        }
+        for (String machineRegister : CALLEE_SAVED) {
+            if (isFree(machineRegister, active)) {
+                return machineRegister;
+            }
+        }
+        return null;
+    }
+
+    private boolean isFree(String machineRegister, List<Integer> active) {
+        for (int other : active) {
+            if (machineRegister.equals(registers[other])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void assign(int register, String machineRegister, List<Integer> active) {
+        registers[register] = machineRegister;
+        int calleeSaved = Arrays.asList(CALLEE_SAVED).indexOf(machineRegister);
+        if (calleeSaved != NONE) {
+            calleeSavedUsed[calleeSaved] = true;
+        }
+        int position = 0;
+        while (position < active.size() && to[active.get(position)] <= to[register]) {
+            position++;
+        }
+        active.add(position, register);
+    }
+
+    /**
+     * puts the register in a stack slot no overlapping interval uses, unless
+     * the caller passed it on the stack
+     */
+    private void spill(int register) {
+        spillCount++;
+        if (isStackParameter(register)) {
+            return;
+        }
+        for (int slot = 0; slot < slotEnds.size(); slot++) {
+            if (slotEnds.get(slot) < from[register]) {
+                slots[register] = slot;
+                slotEnds.set(slot, to[register]);
+                return;
+            }
+        }
+        slots[register] = slotEnds.size();
+        slotEnds.add(to[register]);
+    }
+
+    private boolean isStackParameter(int register) {
+        return register < method.getParameters().size() && register >= X86Translator.ARGUMENT_REGISTERS.length;
+    }
+
+    /**
+     * @return the machine register of a register, or null if it is spilled
+     */
+    String getRegister(Register register) {
+        return registers[register.getIndex()];
+    }
+
+    /**
+     * @return the stack slot of a spilled register, or NONE if it has a machine
+     * register or is a parameter the caller passed on the stack
+     */
+    int getSlot(Register register) {
+        return slots[register.getIndex()];
+    }
+
+    int getSlotCount() {
+        return slotEnds.size();
+    }
+
+    /**
+     * @return whether the register holds a value when the method starts: a
+     * parameter the method reads before it assigns it
+     */
+    boolean isLiveAtEntry(Register register) {
+        return liveAtEntry.get(register.getIndex());
+    }
+
+    /**
+     * @return the registers the method has to save for its caller
+     */
+    List<String> getCalleeSavedRegisters() {
+        List<String> used = new ArrayList<>();
+        for (int i = 0; i < CALLEE_SAVED.length; i++) {
+            if (calleeSavedUsed[i]) {
+                used.add(CALLEE_SAVED[i]);
+            }
+        }
+        return used;
+    }
+
+    /**
+     * @return the number of registers of the method that are assigned or read
+     */
+    int getIntervalCount() {
+        return intervalCount;
+    }
+
+    /**
+     * @return the number of registers of the method left in memory
+     */
+    int getSpillCount() {
+        return spillCount;
+    }
+}
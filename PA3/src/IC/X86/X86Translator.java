@@ -0,0 +1,843 @@
+package IC.X86;
+
+import IC.LIR.*;
+import IC.SymbolTypes.ArraySymbolType;
+import IC.SymbolTypes.ClassLayout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Translates the LIR of a program to x86-64 assembly for the GNU assembler (AT&T
+ * syntax), which links with the runtime, runtime/libic.c, into an executable.
+ * Methods follow the System V calling convention, the first six arguments in
+ * registers and the rest on the stack, this first, so the runtime and the
+ * library are plain C functions.
+ *
+ * An object is a pointer to its dispatch table followed by its fields, 8 bytes
+ * a slot as its class layout says; an array or a string a pointer to its 8 byte
+ * length followed by its elements, 4 bytes for ints and booleans, 8 for
+ * references, and 1 for the chars of a string. Ints and booleans are 32 bit.
+ *
+ * The registers of a method get machine registers by linear scan
+ * (LinearScanAllocator), and those spilled a slot of 8 bytes in its frame,
+ * below the saved rbp and the callee saved registers it uses, except the
+ * parameters after the sixth, which stay where the caller pushed them. An
+ * instruction loads its operands into rax, rcx and rdx unless it can read them
+ * where they are, and stores its result from rax. A comment before each method
+ * says how many of its registers are spilled.
+ */
+public class X86Translator implements InstructionVisitor<Void> {
+    /**
+     * the symbol of the main method, which the runtime calls
+     */
+    static final String MAIN_SYMBOL = "ic_main";
+    static final String[] ARGUMENT_REGISTERS = {"%rdi", "%rsi", "%rdx", "%rcx", "%r8", "%r9"};
+    private static final int WORD = 8;
+    private static final int INT_SIZE = 4;
+    private static final int STACK_ALIGNMENT = 16;
+    private static final Set<String> LIBRARY_METHODS = new HashSet<>(Arrays.asList(
+            "println", "print", "printi", "printb", "readi", "readln", "eof",
+            "stoi", "itos", "stoa", "atos", "random", "time", "exit"));
+    private static final String NULL_ERROR = ".Lic_error_null";
+    private static final String INDEX_ERROR = ".Lic_error_index";
+    private static final String SIZE_ERROR = ".Lic_error_size";
+    private static final String ZERO_ERROR = ".Lic_error_zero";
+
+    private final LIRProgram program;
+    private final StringBuilder text = new StringBuilder();
+    private int lineCount = 0;
+    // The label of every string constant.
+    private final Map<String, String> strings = new LinkedHashMap<>();
+    private int methodCount = 0;
+    private int spillCount = 0;
+
+    // The method being translated.
+    private LIRMethod method;
+    private List<Instruction> instructions;
+    // The index of the instruction being translated.
+    private int position;
+    private Map<Label, String> labels;
+    private int labelCount;
+    private int[] useCounts;
+    private LinearScanAllocator allocation;
+    private List<String> calleeSaved;
+
+    private X86Translator(LIRProgram program) {
+        this.program = program;
+    }
+
+    /**
+     * @param program a program whose class layouts are computed, and without phi
+     *                instructions
+     */
+    public static AssemblyProgram translate(LIRProgram program) {
+        return new X86Translator(program).translate();
+    }
+
+    private AssemblyProgram translate() {
+        directive(".text");
+        directive(".globl " + MAIN_SYMBOL);
+        label(MAIN_SYMBOL);
+        emit("jmp " + methodSymbol(program.getMainMethod().getReference()));
+        for (LIRClass lirClass : program.getClasses()) {
+            for (LIRMethod lirMethod : lirClass.getMethods()) {
+                translateMethod(lirMethod);
+            }
+        }
+        errorStub(NULL_ERROR, "ic_error_null");
+        errorStub(INDEX_ERROR, "ic_error_index");
+        errorStub(SIZE_ERROR, "ic_error_size");
+        errorStub(ZERO_ERROR, "ic_error_zero");
+
+        directive(".data");
+        for (LIRClass lirClass : program.getClasses()) {
+            ClassLayout layout = lirClass.getType().getLayout();
+            directive(".p2align 3");
+            label(dispatchTableSymbol(lirClass.getName()));
+            for (int slot = 0; slot < layout.getMethodCount(); slot++) {
+                directive(".quad " + methodSymbol(layout.getImplementingClass(slot), layout.getMethodName(slot)));
+            }
+        }
+        directive(".section .rodata");
+        for (Map.Entry<String, String> string : strings.entrySet()) {
+            directive(".p2align 3");
+            label(string.getValue());
+            directive(".quad " + string.getKey().length());
+            directive(".ascii " + quote(string.getKey()));
+        }
+        directive(".section .note.GNU-stack,\"\",@progbits");
+        return new AssemblyProgram(text.toString(), lineCount, spillCount);
+    }
+
+    /**
+     * a label the checks jump to, calling the runtime to report the error; the
+     * stack is aligned there, as in the code of the methods
+     */
+    private void errorStub(String label, String function) {
+        label(label);
+        emit("call " + function);
+    }
+
+    private void translateMethod(LIRMethod lirMethod) {
+        method = lirMethod;
+        instructions = lirMethod.getInstructions();
+        labels = new IdentityHashMap<>();
+        labelCount = 0;
+        methodCount++;
+        useCounts = countUses(lirMethod);
+        allocation = LinearScanAllocator.allocate(lirMethod);
+        calleeSaved = allocation.getCalleeSavedRegisters();
+        spillCount += allocation.getSpillCount();
+
+        String symbol = methodSymbol(lirMethod.getReference());
+        emit("# " + symbol + ": " + allocation.getSpillCount() + " of "
+                + allocation.getIntervalCount() + " registers spilled");
+        label(symbol);
+        emit("pushq %rbp");
+        emit("movq %rsp, %rbp");
+        int frameSize = align(WORD * (calleeSaved.size() + allocation.getSlotCount()), STACK_ALIGNMENT);
+        if (frameSize > 0) {
+            emit("subq $" + frameSize + ", %rsp");
+        }
+        for (int i = 0; i < calleeSaved.size(); i++) {
+            emit("movq " + calleeSaved.get(i) + ", " + (-WORD * (i + 1)) + "(%rbp)");
+        }
+        // Only the parameters the method reads before it assigns them hold a
+        // value, and as they are live together, none is where another arrives.
+        List<Register> parameters = lirMethod.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            Register parameter = parameters.get(i);
+            if (!allocation.isLiveAtEntry(parameter)) {
+                continue;
+            }
+            if (i < ARGUMENT_REGISTERS.length) {
+                store(parameter, ARGUMENT_REGISTERS[i]);
+            } else if (allocation.getRegister(parameter) != null) {
+                emit(move(parameter) + " " + stackParameter(i) + ", " + location(parameter));
+            }
+        }
+
+        for (position = 0; position < instructions.size(); position++) {
+            Instruction instruction = instructions.get(position);
+            Instruction next = position + 1 < instructions.size() ? instructions.get(position + 1) : null;
+            if (isBranchedOn(instruction, next)) {
+                Binary comparison = (Binary) instruction;
+                Branch branch = (Branch) next;
+                position++;
+                compare(comparison);
+                if (follows(branch.getIfTrue())) {
+                    emit(jump(negate(comparison.getOperator())) + " " + label(branch.getIfFalse()));
+                } else {
+                    emit(jump(comparison.getOperator()) + " " + label(branch.getIfTrue()));
+                    jumpUnlessFollows(branch.getIfFalse());
+                }
+            } else {
+                instruction.accept(this);
+            }
+        }
+    }
+
+    private static int align(int size, int alignment) {
+        return (size + alignment - 1) / alignment * alignment;
+    }
+
+    private static int[] countUses(LIRMethod lirMethod) {
+        int[] useCounts = new int[lirMethod.getRegisterCount()];
+        for (Instruction instruction : lirMethod.getInstructions()) {
+            for (int i = 0; i < instruction.getOperandCount(); i++) {
+                if (instruction.getOperand(i).isRegister()) {
+                    useCounts[((Register) instruction.getOperand(i)).getIndex()]++;
+                }
+            }
+        }
+        return useCounts;
+    }
+
+    /**
+     * @return whether the instruction is a comparison whose result only the next
+     * instruction, a branch, reads
+     */
+    private boolean isBranchedOn(Instruction instruction, Instruction next) {
+        if (!(instruction instanceof Binary) || !(next instanceof Branch)) {
+            return false;
+        }
+        Binary comparison = (Binary) instruction;
+        Register result = comparison.getDefinedRegister();
+        return comparison.getOperator().isComparison()
+                && ((Branch) next).getCondition() == result && useCounts[result.getIndex()] == 1;
+    }
+
+    /**
+     * @return whether the label is placed right after the instruction being
+     * translated, maybe among other labels
+     */
+    private boolean follows(Label label) {
+        for (int i = position + 1; i < instructions.size() && instructions.get(i) instanceof Label; i++) {
+            if (instructions.get(i) == label) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void jumpUnlessFollows(Label label) {
+        if (!follows(label)) {
+            emit("jmp " + label(label));
+        }
+    }
+
+    private String label(Label label) {
+        String name = labels.get(label);
+        if (name == null) {
+            name = newLabel();
+            labels.put(label, name);
+        }
+        return name;
+    }
+
+    private String newLabel() {
+        return ".L" + methodCount + "_" + labelCount++;
+    }
+
+    private static String methodSymbol(MethodReference reference) {
+        return methodSymbol(reference.getClassName(), reference.getName());
+    }
+
+    private static String methodSymbol(String className, String methodName) {
+        return "IC." + className + "." + methodName;
+    }
+
+    private static String dispatchTableSymbol(String className) {
+        return "ICV." + className;
+    }
+
+    private String stringLabel(String value) {
+        String label = strings.get(value);
+        if (label == null) {
+            label = ".Lstr" + strings.size();
+            strings.put(value, label);
+        }
+        return label;
+    }
+
+    /**
+     * @return the string in quotes, escaped for .ascii
+     */
+    private static String quote(String string) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c >= ' ' && c <= '~') {
+                builder.append(c);
+            } else {
+                builder.append(String.format("\\%03o", c & 0xFF));
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private static boolean isReference(Operand operand) {
+        return operand.getType().isReferenceType();
+    }
+
+    /**
+     * @param element an element of the array, or null
+     * @return whether the array is an array of references; an array known to be
+     * null is never accessed, as its null check fails first
+     */
+    private static boolean hasReferenceElements(Operand array, Operand element) {
+        if (array.getType() instanceof ArraySymbolType) {
+            return ((ArraySymbolType) array.getType()).getBaseType().isReferenceType();
+        }
+        return element == null || isReference(element);
+    }
+
+    /**
+     * @return the 32 bit register of a 64 bit one, e.g. %eax for %rax
+     */
+    private static String low(String register) {
+        if (register.matches("%r\\d+")) {
+            return register + "d";
+        }
+        return "%e" + register.substring(2);
+    }
+
+    private static boolean isMachineRegister(String location) {
+        return location.startsWith("%");
+    }
+
+    /**
+     * @return where a register is: its machine register, 32 bit for an int, or
+     * its slot in the frame
+     */
+    private String location(Register register) {
+        String machineRegister = allocation.getRegister(register);
+        if (machineRegister != null) {
+            return isReference(register) ? machineRegister : low(machineRegister);
+        }
+        int slot = allocation.getSlot(register);
+        if (slot == LinearScanAllocator.NONE) {
+            return stackParameter(register.getIndex());
+        }
+        return (-WORD * (calleeSaved.size() + slot + 1)) + "(%rbp)";
+    }
+
+    /**
+     * @return the slot of a parameter after the sixth, above the saved rbp and
+     * the return address
+     */
+    private static String stackParameter(int index) {
+        return (2 * WORD + WORD * (index - ARGUMENT_REGISTERS.length)) + "(%rbp)";
+    }
+
+    private static String move(Operand operand) {
+        return isReference(operand) ? "movq" : "movl";
+    }
+
+    /**
+     * @return the operand as an instruction can read it, or null if it has to
+     * be loaded: a string constant
+     */
+    private String value(Operand operand) {
+        if (operand.isRegister()) {
+            return location((Register) operand);
+        }
+        Constant constant = (Constant) operand;
+        switch (constant.getKind()) {
+            case STRING:
+                return null;
+            case NULL:
+                return "$0";
+            default:
+                return "$" + constant.getValue();
+        }
+    }
+
+    /**
+     * @return the 64 bit machine register an operand is in, loading it into the
+     * scratch register if it isn't in one; an int in a machine register has its
+     * upper half clear, as 32 bit instructions set it
+     */
+    private String inRegister(Operand operand, String scratch) {
+        if (operand.isRegister() && allocation.getRegister((Register) operand) != null) {
+            return allocation.getRegister((Register) operand);
+        }
+        load(operand, scratch);
+        return scratch;
+    }
+
+    private void load(Operand operand, String register) {
+        if (operand.isRegister()) {
+            if (register.equals(allocation.getRegister((Register) operand))) {
+                return;
+            }
+            if (isReference(operand)) {
+                emit("movq " + location((Register) operand) + ", " + register);
+            } else {
+                emit("movl " + location((Register) operand) + ", " + low(register));
+            }
+            return;
+        }
+        Constant constant = (Constant) operand;
+        switch (constant.getKind()) {
+            case STRING:
+                emit("leaq " + stringLabel(constant.getString()) + "(%rip), " + register);
+                break;
+            case NULL:
+                emit("xorl " + low(register) + ", " + low(register));
+                break;
+            default:
+                emit("movl $" + constant.getValue() + ", " + low(register));
+                break;
+        }
+    }
+
+    /**
+     * @return where an instruction can put the value of a register: its
+     * machine register, or the scratch register rax to store from
+     */
+    private String result(Register target) {
+        String location = location(target);
+        if (isMachineRegister(location)) {
+            return location;
+        }
+        return isReference(target) ? "%rax" : "%eax";
+    }
+
+    /**
+     * stores the value an instruction put where result says
+     */
+    private void storeResult(Register target) {
+        if (!isMachineRegister(location(target))) {
+            store(target, "%rax");
+        }
+    }
+
+    private void store(Register target, String register) {
+        if (isReference(target)) {
+            emit("movq " + register + ", " + location(target));
+        } else {
+            emit("movl " + low(register) + ", " + location(target));
+        }
+    }
+
+    /**
+     * sets the flags to the comparison of its operands
+     */
+    private void compare(Binary comparison) {
+        Operand left = comparison.getLeft();
+        Operand right = comparison.getRight();
+        boolean reference = isReference(left) || isReference(right);
+        String first = inRegister(left, "%rax");
+        String second = value(right);
+        if (second == null) {
+            load(right, "%rcx");
+            second = "%rcx";
+        }
+        emit(reference ? "cmpq " + second + ", " + first : "cmpl " + second + ", " + low(first));
+    }
+
+    /**
+     * @return the condition code of a comparison, e.g. "l" for LT
+     */
+    private static String condition(BinaryOperator operator) {
+        switch (operator) {
+            case LT:
+                return "l";
+            case LE:
+                return "le";
+            case GT:
+                return "g";
+            case GE:
+                return "ge";
+            case EQ:
+                return "e";
+            default:
+                return "ne";
+        }
+    }
+
+    private static String jump(BinaryOperator operator) {
+        return "j" + condition(operator);
+    }
+
+    /**
+     * @return the comparison that is true when the one given isn't
+     */
+    private static BinaryOperator negate(BinaryOperator operator) {
+        switch (operator) {
+            case LT:
+                return BinaryOperator.GE;
+            case LE:
+                return BinaryOperator.GT;
+            case GT:
+                return BinaryOperator.LE;
+            case GE:
+                return BinaryOperator.LT;
+            case EQ:
+                return BinaryOperator.NE;
+            default:
+                return BinaryOperator.EQ;
+        }
+    }
+
+    private int fieldOffset(FieldReference field) {
+        return WORD * program.getClass(field.getClassName()).getType().getLayout().getFieldOffset(field.getNameId());
+    }
+
+    /**
+     * calls a function with the arguments, and stores its result, if it has one
+     *
+     * @param call the instructions of the call, e.g. "call IC.A.f"; %rax is free
+     *             for them
+     */
+    private void call(List<Operand> arguments, Register target, String... call) {
+        int stackArguments = Math.max(0, arguments.size() - ARGUMENT_REGISTERS.length);
+        int padding = stackArguments % 2 == 0 ? 0 : WORD;
+        if (padding > 0) {
+            emit("subq $" + padding + ", %rsp");
+        }
+        for (int i = arguments.size() - 1; i >= ARGUMENT_REGISTERS.length; i--) {
+            load(arguments.get(i), "%rax");
+            emit("pushq %rax");
+        }
+        for (int i = 0; i < arguments.size() && i < ARGUMENT_REGISTERS.length; i++) {
+            load(arguments.get(i), ARGUMENT_REGISTERS[i]);
+        }
+        for (String instruction : call) {
+            emit(instruction);
+        }
+        if (stackArguments > 0) {
+            emit("addq $" + (WORD * stackArguments + padding) + ", %rsp");
+        }
+        if (target != null) {
+            store(target, "%rax");
+        }
+    }
+
+    private void directive(String directive) {
+        emit(directive);
+    }
+
+    private void label(String label) {
+        text.append(label).append(":\n");
+        lineCount++;
+    }
+
+    private void emit(String instruction) {
+        text.append('\t').append(instruction).append('\n');
+        lineCount++;
+    }
+
+    @Override
+    public Void visit(Move move) {
+        Register target = move.getDefinedRegister();
+        String location = location(target);
+        String source = value(move.getSource());
+        if (isMachineRegister(location)) {
+            load(move.getSource(), allocation.getRegister(target));
+        } else if (source != null && (isMachineRegister(source) || source.startsWith("$"))) {
+            emit(move(target) + " " + source + ", " + location);
+        } else {
+            load(move.getSource(), "%rax");
+            store(target, "%rax");
+        }
+        return null;
+    }
+
+    @Override
+    public Void visit(Binary binary) {
+        BinaryOperator operator = binary.getOperator();
+        if (operator == BinaryOperator.ADD || operator == BinaryOperator.SUB || operator == BinaryOperator.MUL) {
+            arithmetic(binary);
+            return null;
+        }
+        if (operator.isComparison()) {
+            compare(binary);
+            emit("set" + condition(operator) + " %al");
+            emit("movzbl %al, %eax");
+        } else if (operator == BinaryOperator.CONCAT) {
+            List<Operand> arguments = new ArrayList<>();
+            arguments.add(binary.getLeft());
+            arguments.add(binary.getRight());
+            call(arguments, null, "call ic_concat");
+        } else if (operator == BinaryOperator.DIV || operator == BinaryOperator.MOD) {
+            divide(binary);
+        }
+        store(binary.getDefinedRegister(), "%rax");
+        return null;
+    }
+
+    /**
+     * adds, subtracts or multiplies in the machine register of the result,
+     * unless the right operand is there
+     */
+    private void arithmetic(Binary binary) {
+        Register target = binary.getDefinedRegister();
+        BinaryOperator operator = binary.getOperator();
+        String right = value(binary.getRight());
+        String result = result(target);
+        if (result.equals(right)) {
+            result = "%eax";
+        }
+        load(binary.getLeft(), toReference(result));
+        String instruction = operator == BinaryOperator.ADD ? "addl" : operator == BinaryOperator.SUB ? "subl" : "imull";
+        emit(instruction + " " + right + ", " + result);
+        if (result.equals("%eax")) {
+            store(target, "%rax");
+        }
+    }
+
+    /**
+     * @return the 64 bit machine register of a 32 bit one
+     */
+    private static String toReference(String register) {
+        if (register.endsWith("d")) {
+            return register.substring(0, register.length() - 1);
+        }
+        return "%r" + register.substring(2);
+    }
+
+    /**
+     * divides as Java does: idiv traps on the smallest int divided by -1, whose
+     * quotient is the smallest int and remainder 0
+     */
+    private void divide(Binary binary) {
+        boolean remainder = binary.getOperator() == BinaryOperator.MOD;
+        Operand divisor = binary.getRight();
+        load(binary.getLeft(), "%rax");
+        load(divisor, "%rcx");
+        String end = null;
+        if (!divisor.isConstant() || ((Constant) divisor).getValue() == -1) {
+            String divide = newLabel();
+            end = newLabel();
+            emit("cmpl $-1, %ecx");
+            emit("jne " + divide);
+            emit(remainder ? "xorl %eax, %eax" : "negl %eax");
+            emit("jmp " + end);
+            label(divide);
+        }
+        emit("cltd");
+        emit("idivl %ecx");
+        if (remainder) {
+            emit("movl %edx, %eax");
+        }
+        if (end != null) {
+            label(end);
+        }
+    }
+
+    @Override
+    public Void visit(Unary unary) {
+        String result = result(unary.getDefinedRegister());
+        load(unary.getSource(), toReference(result));
+        emit(unary.getOperator() == UnaryOperator.NEG ? "negl " + result : "xorl $1, " + result);
+        storeResult(unary.getDefinedRegister());
+        return null;
+    }
+
+    @Override
+    public Void visit(AllocObject alloc) {
+        ClassLayout layout = program.getClass(alloc.getClassName()).getType().getLayout();
+        emit("movl $" + WORD * layout.getInstanceSize() + ", %edi");
+        emit("leaq " + dispatchTableSymbol(alloc.getClassName()) + "(%rip), %rsi");
+        emit("call ic_alloc_object");
+        store(alloc.getDefinedRegister(), "%rax");
+        return null;
+    }
+
+    @Override
+    public Void visit(AllocArray alloc) {
+        load(alloc.getSize(), "%rdi");
+        emit("movl $" + (hasReferenceElements(alloc.getDefinedRegister(), null) ? WORD : INT_SIZE) + ", %esi");
+        emit("call ic_alloc_array");
+        store(alloc.getDefinedRegister(), "%rax");
+        return null;
+    }
+
+    @Override
+    public Void visit(ArrayLength length) {
+        String array = inRegister(length.getArray(), "%rax");
+        String result = result(length.getDefinedRegister());
+        emit("movl (" + array + "), " + result);
+        storeResult(length.getDefinedRegister());
+        return null;
+    }
+
+    @Override
+    public Void visit(LoadField load) {
+        String field = fieldOffset(load.getField()) + "(" + inRegister(load.getObject(), "%rax") + ")";
+        String result = result(load.getDefinedRegister());
+        emit(move(load.getDefinedRegister()) + " " + field + ", " + result);
+        storeResult(load.getDefinedRegister());
+        return null;
+    }
+
+    @Override
+    public Void visit(StoreField store) {
+        String field = fieldOffset(store.getField()) + "(" + inRegister(store.getObject(), "%rax") + ")";
+        boolean reference = store.getField().getType().isReferenceType();
+        emit((reference ? "movq " : "movl ") + storedValue(store.getValue(), reference) + ", " + field);
+        return null;
+    }
+
+    @Override
+    public Void visit(LoadElement load) {
+        Register target = load.getDefinedRegister();
+        String element = element(load.getArray(), load.getIndex(), isReference(target));
+        String result = result(target);
+        emit(move(target) + " " + element + ", " + result);
+        storeResult(target);
+        return null;
+    }
+
+    @Override
+    public Void visit(StoreElement store) {
+        boolean reference = hasReferenceElements(store.getArray(), store.getValue());
+        String element = element(store.getArray(), store.getIndex(), reference);
+        emit((reference ? "movq " : "movl ") + storedValue(store.getValue(), reference) + ", " + element);
+        return null;
+    }
+
+    /**
+     * @return the address of an element of an array, the array in rax and the
+     * index in rcx unless they are in machine registers
+     */
+    private String element(Operand array, Operand index, boolean reference) {
+        return WORD + "(" + inRegister(array, "%rax") + "," + inRegister(index, "%rcx") + ","
+                + (reference ? WORD : INT_SIZE) + ")";
+    }
+
+    /**
+     * @return a value to store to memory, loaded into rdx unless it is in a
+     * machine register or a constant that fits the instruction
+     */
+    private String storedValue(Operand operand, boolean reference) {
+        String value = value(operand);
+        if (value != null && (isMachineRegister(value) || value.startsWith("$"))) {
+            return value;
+        }
+        load(operand, "%rdx");
+        return reference ? "%rdx" : "%edx";
+    }
+
+    @Override
+    public Void visit(CallStatic call) {
+        MethodReference reference = call.getMethod();
+        List<Operand> arguments = new ArrayList<>();
+        for (int i = 0; i < call.getArgumentCount(); i++) {
+            arguments.add(call.getArgument(i));
+        }
+        String function;
+        if (reference.getKind() == MethodReference.Kind.LIBRARY) {
+            if (!LIBRARY_METHODS.contains(reference.getName())) {
+                throw new IllegalArgumentException("No library method " + reference.getName());
+            }
+            function = "ic_" + reference.getName();
+        } else {
+            function = methodSymbol(reference);
+        }
+        call(arguments, call.getDefinedRegister(), "call " + function);
+        return null;
+    }
+
+    @Override
+    public Void visit(CallVirtual call) {
+        MethodReference reference = call.getMethod();
+        List<Operand> arguments = new ArrayList<>();
+        arguments.add(call.getReceiver());
+        for (int i = 0; i < call.getArgumentCount(); i++) {
+            arguments.add(call.getArgument(i));
+        }
+        if (call.isDirect()) {
+            call(arguments, call.getDefinedRegister(), "call " + methodSymbol(reference));
+        } else {
+            ClassLayout layout = program.getClass(reference.getClassName()).getType().getLayout();
+            // The receiver is in %rdi by the time the call runs.
+            call(arguments, call.getDefinedRegister(),
+                    "movq (%rdi), %rax", "call *" + WORD * layout.getMethodSlot(reference.getNameId()) + "(%rax)");
+        }
+        return null;
+    }
+
+    @Override
+    public Void visit(Label label) {
+        label(label(label));
+        return null;
+    }
+
+    @Override
+    public Void visit(Jump jump) {
+        jumpUnlessFollows(jump.getTarget());
+        return null;
+    }
+
+    @Override
+    public Void visit(Branch branch) {
+        String condition = low(inRegister(branch.getCondition(), "%rax"));
+        emit("testl " + condition + ", " + condition);
+        if (follows(branch.getIfTrue())) {
+            emit("je " + label(branch.getIfFalse()));
+        } else {
+            emit("jne " + label(branch.getIfTrue()));
+            jumpUnlessFollows(branch.getIfFalse());
+        }
+        return null;
+    }
+
+    @Override
+    public Void visit(Ret ret) {
+        if (ret.hasValue()) {
+            load(ret.getValue(), "%rax");
+        }
+        for (int i = 0; i < calleeSaved.size(); i++) {
+            emit("movq " + (-WORD * (i + 1)) + "(%rbp), " + calleeSaved.get(i));
+        }
+        emit("leave");
+        emit("ret");
+        return null;
+    }
+
+    @Override
+    public Void visit(RuntimeCheck check) {
+        switch (check.getKind()) {
+            case NULL_REFERENCE:
+                String reference = inRegister(check.getOperand(0), "%rax");
+                emit("testq " + reference + ", " + reference);
+                emit("je " + NULL_ERROR);
+                break;
+            case ARRAY_INDEX:
+                String array = inRegister(check.getOperand(0), "%rax");
+                String index = low(inRegister(check.getOperand(1), "%rcx"));
+                // Unsigned, so a negative index is out of bounds too.
+                emit("cmpl (" + array + "), " + index);
+                emit("jae " + INDEX_ERROR);
+                break;
+            case ARRAY_SIZE:
+                String size = low(inRegister(check.getOperand(0), "%rax"));
+                emit("testl " + size + ", " + size);
+                emit("js " + SIZE_ERROR);
+                break;
+            default:
+                String divisor = low(inRegister(check.getOperand(0), "%rax"));
+                emit("testl " + divisor + ", " + divisor);
+                emit("je " + ZERO_ERROR);
+                break;
+        }
+        return null;
+    }
+
+    @Override
+    public Void visit(Phi phi) {
+        throw new IllegalStateException("Phi instructions must be removed before translating to assembly");
+    }
+}